@@ -0,0 +1,99 @@
+package solver;
+
+import minefield.Difficulty;
+import minefield.Minefield;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Campos resolvidos pelo {@link AutoSolver} e o cálculo das probabilidades de uma posição fixa, com as componentes
+ * da fronteira resolvidas na thread do benchmark ou em paralelo no pool.
+ * <p>
+ * Em {@link #play} a operação é um campo inteiro, da primeira jogada ao fim, e a vazão é dada em campos por
+ * segundo; cada chamada usa a semente seguinte, de modo que a média cobre partidas ganhas e perdidas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"expert", "intermediate", "beginner"})
+    public String difficulty;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Difficulty size;
+    private ForkJoinPool pool;
+    private ProbabilitySolver solver;
+    private AutoSolver player;
+    private Minefield position;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        size = Difficulty.valueOf(difficulty.toUpperCase(Locale.ROOT));
+        pool = parallel ? new ForkJoinPool(Runtime.getRuntime().availableProcessors()) : null;
+        solver = new ProbabilitySolver(pool);
+        player = new AutoSolver(solver);
+        position = middleGame(size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null)
+            pool.shutdown();
+    }
+
+    /**
+     * A primeira posição, a partir da semente 1, em que o jogador automático fica sem casa certamente sem mina
+     * depois de abrir o centro: uma fronteira já longa, onde o jogador teria de arriscar.
+     */
+    private Minefield middleGame(Difficulty size) {
+        for (long s = 1; ; s++) {
+            Minefield minefield = size.newMinefield(s);
+            minefield.reveal(size.getRows() / 2, size.getColumns() / 2);
+            boolean progress = true;
+            while (progress && minefield.getState() == Minefield.State.PLAYING) {
+                Probabilities probabilities = solver.solve(minefield);
+                progress = false;
+                for (int r = 0; r < size.getRows(); r++)
+                    for (int c = 0; c < size.getColumns(); c++)
+                        if (probabilities.get(r, c) == 0 && minefield.getState() == Minefield.State.PLAYING
+                                && minefield.reveal(r, c) > 0)
+                            progress = true;
+            }
+            if (minefield.getState() == Minefield.State.PLAYING && minefield.getRevealedCount() > 1)
+                return minefield;
+        }
+    }
+
+    @Benchmark
+    public AutoSolver.Result play() {
+        return player.play(size.newMinefield(seed++));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Probabilities solve() {
+        return solver.solve(position);
+    }
+}
@@ -0,0 +1,250 @@
+package application;
+
+import exception.MinefieldException;
+import minefield.Difficulty;
+import minefield.HugeMinefield;
+import minefield.Minefield;
+import solver.AutoSolver;
+import solver.Probabilities;
+import solver.ProbabilitySolver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.InputMismatchException;
+import java.util.Locale;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+public class Program {
+    public static void main(String[] args) {
+
+        if (args.length > 0) {
+            switch (args[0]) {
+                case "flood" -> {
+                    flood(args);
+                    return;
+                }
+                case "huge" -> {
+                    huge(args);
+                    return;
+                }
+                case "endurance" -> {
+                    endurance(args);
+                    return;
+                }
+                case "solve" -> {
+                    solve(args);
+                    return;
+                }
+            }
+        }
+
+        // java application.Program [beginner|intermediate|expert|linhas,colunas,minas] [semente]
+        Minefield minefield;
+        try {
+            long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+            minefield = newMinefield(args.length > 0 ? args[0] : "beginner", seed);
+        } catch (RuntimeException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return;
+        }
+
+        Scanner sc = new Scanner(System.in);
+        ProbabilitySolver solver = new ProbabilitySolver();
+        String hint = null;
+        while (minefield.getState() == Minefield.State.PLAYING) {
+            try {
+                UI.clearScreen();
+                UI.printMinefield(minefield);
+                System.out.println();
+                if (hint != null)
+                    System.out.println(hint);
+                hint = null;
+                System.out.print("Move ([r|f|c|h] row column): ");
+                if (!sc.hasNextLine()) // Fim da entrada: a partida fica como está
+                    break;
+                UI.Move move = UI.readMove(sc, "rfch");
+
+                switch (move.action()) {
+                    case 'f' -> minefield.toggleFlag(move.row(), move.column());
+                    case 'c' -> minefield.chord(move.row(), move.column());
+                    case 'h' -> hint = hint(minefield, solver.solve(minefield), move.row(), move.column());
+                    default -> minefield.reveal(move.row(), move.column());
+                }
+            } catch (MinefieldException | InputMismatchException e) {
+                System.out.println(e.getMessage());
+                if (sc.hasNextLine())
+                    sc.nextLine();
+            }
+        }
+
+        UI.clearScreen();
+        UI.printMinefield(minefield);
+        System.out.println("Seed  : " + minefield.getSeed());
+    }
+
+    private static Minefield newMinefield(String size, long seed) {
+        String[] parts = size.split(",");
+        if (parts.length == 3)
+            return new Minefield(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                    Integer.parseInt(parts[2].trim()), seed);
+        return Difficulty.valueOf(size.toUpperCase(Locale.ROOT)).newMinefield(seed);
+    }
+
+    /**
+     * Descreve a probabilidade de mina de uma casa e a casa fechada mais segura do campo.
+     */
+    private static String hint(Minefield minefield, Probabilities probabilities, int row, int column) {
+        int safest = probabilities.getSafest();
+        int safestRow = safest / minefield.getColumns(), safestColumn = safest % minefield.getColumns();
+        String cell = minefield.isRevealed(row, column)
+                ? String.format("Cell (%d, %d) is already open.", row, column)
+                : String.format(Locale.ROOT, "Mine chance at (%d, %d): %.1f%%.", row, column,
+                probabilities.get(row, column) * 100);
+        return String.format(Locale.ROOT, "%s Safest cell: (%d, %d), %.1f%%.", cell, safestRow, safestColumn,
+                probabilities.get(safestRow, safestColumn) * 100);
+    }
+
+    /**
+     * Mede a abertura de um campo quadrado sem minas, em que a primeira jogada abre todas as casas de uma vez
+     * pelo preenchimento por faixas: {@code java application.Program flood [lado] [repetições]}.
+     */
+    private static void flood(String[] args) {
+        int side = args.length > 1 ? Integer.parseInt(args[1]) : 4000;
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        for (int i = 0; i < repetitions; i++) {
+            Minefield minefield = new Minefield(side, side, 0, i);
+            long start = System.nanoTime();
+            int opened = minefield.reveal(side / 2, side / 2);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%d x %d: %d cells opened in %.2f ms (%s)%n", side, side, opened, elapsed / 1e6,
+                    minefield.getState());
+        }
+    }
+
+    /**
+     * Partida em um campo de {@link Integer#MAX_VALUE} x {@link Integer#MAX_VALUE} casas, vista por uma janela que
+     * acompanha a última jogada ou é movida com "v linha coluna":
+     * {@code java application.Program huge [densidade] [semente] [blocos-na-memória]}.
+     */
+    private static void huge(String[] args) {
+        double density = args.length > 1 ? Double.parseDouble(args[1]) : 0.16;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int cachedChunks = args.length > 3 ? Integer.parseInt(args[3]) : 4096;
+        int height = 20, width = 30;
+
+        try (HugeMinefield minefield = new HugeMinefield(Integer.MAX_VALUE, Integer.MAX_VALUE, density, seed,
+                cachedChunks, Path.of(System.getProperty("java.io.tmpdir")))) {
+            Scanner sc = new Scanner(System.in);
+            int row = Integer.MAX_VALUE / 2, column = Integer.MAX_VALUE / 2;
+            while (minefield.getState() == Minefield.State.PLAYING) {
+                try {
+                    UI.clearScreen();
+                    UI.printWindow(minefield, Math.max(row - height / 2, 0), Math.max(column - width / 2, 0),
+                            height, width);
+                    System.out.println();
+                    System.out.print("Move ([r|f|c|v] row column): ");
+                    if (!sc.hasNextLine())
+                        break;
+                    UI.Move move = UI.readMove(sc, "rfcv");
+
+                    switch (move.action()) {
+                        case 'f' -> minefield.toggleFlag(move.row(), move.column());
+                        case 'c' -> minefield.chord(move.row(), move.column());
+                        case 'v' -> {
+                        }
+                        default -> minefield.reveal(move.row(), move.column());
+                    }
+                    row = move.row();
+                    column = move.column();
+                } catch (MinefieldException | InputMismatchException e) {
+                    System.out.println(e.getMessage());
+                    if (sc.hasNextLine())
+                        sc.nextLine();
+                }
+            }
+
+            UI.clearScreen();
+            UI.printWindow(minefield, Math.max(row - height / 2, 0), Math.max(column - width / 2, 0), height, width);
+            System.out.println("Seed  : " + seed);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Huge minefield failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Teste de resistência do campo grande: um jogador que conhece as minas passeia pelo campo abrindo casas
+     * seguras, e a memória e o arquivo dos blocos são mostrados ao longo do caminho:
+     * {@code java application.Program endurance [jogadas] [blocos-na-memória] [densidade] [semente]}.
+     */
+    private static void endurance(String[] args) {
+        long moves = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+        int cachedChunks = args.length > 2 ? Integer.parseInt(args[2]) : 4096;
+        double density = args.length > 3 ? Double.parseDouble(args[3]) : 0.16;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        SplittableRandom random = new SplittableRandom(seed);
+        Runtime runtime = Runtime.getRuntime();
+
+        try (HugeMinefield minefield = new HugeMinefield(Integer.MAX_VALUE, Integer.MAX_VALUE, density, seed,
+                cachedChunks, Path.of(System.getProperty("java.io.tmpdir")))) {
+            int row = Integer.MAX_VALUE / 2, column = Integer.MAX_VALUE / 2;
+            long start = System.nanoTime();
+            for (long move = 1; move <= moves; move++) {
+                // Um passo curto na maior parte das vezes e, de vez em quando, um salto para longe
+                int step = random.nextInt(100) == 0 ? 100_000 : 200;
+                row = (int) Math.max(0, Math.min(Integer.MAX_VALUE - 1L, row + random.nextLong(-step, step + 1)));
+                column = (int) Math.max(0, Math.min(Integer.MAX_VALUE - 1L, column + random.nextLong(-step, step + 1)));
+                if (!minefield.isMine(row, column))
+                    minefield.reveal(row, column);
+
+                if (move % Math.max(1, moves / 10) == 0) {
+                    System.out.printf(Locale.ROOT, "%,d moves in %.1f s: %,d cells opened, %,d chunks in memory, "
+                                    + "%,d on disk (%,d KB), %,d generated, heap %,d MB%n",
+                            move, (System.nanoTime() - start) / 1e9, minefield.getRevealedCount(),
+                            minefield.getCachedChunks(), minefield.getStoredChunks(), minefield.getStoreSize() / 1024,
+                            minefield.getGeneratedChunks(), (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Endurance test failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mede o jogador automático em campos sorteados, mostrando as vitórias, os palpites e os campos resolvidos por
+     * segundo: {@code java application.Program solve [partidas] [beginner|intermediate|expert|linhas,colunas,minas]
+     * [threads] [semente]}. Com uma thread, as componentes da fronteira são resolvidas na própria thread do jogo.
+     */
+    private static void solve(String[] args) {
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        String size = args.length > 2 ? args[2] : "expert";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try {
+            AutoSolver player = new AutoSolver(new ProbabilitySolver(pool));
+            int won = 0;
+            long guesses = 0;
+            long start = System.nanoTime();
+            for (int game = 0; game < games; game++) {
+                AutoSolver.Result result = player.play(newMinefield(size, seed + game));
+                if (result.state() == Minefield.State.WON)
+                    won++;
+                guesses += result.guesses();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf(Locale.ROOT, "%,d games (%s, %d threads): %.1f%% won, %.2f guesses per game, "
+                            + "%.1f s, %.1f boards/s%n",
+                    games, size, Math.max(threads, 1), 100.0 * won / games, (double) guesses / games, seconds,
+                    games / seconds);
+        } catch (RuntimeException e) {
+            System.err.println("Solver failed: " + e.getMessage());
+        } finally {
+            if (pool != null)
+                pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package application;
+
+import minefield.HugeMinefield;
+import minefield.Minefield;
+
+import java.util.InputMismatchException;
+import java.util.Scanner;
+
+public class UI {
+
+    public static final String ANSI_RESET = "\u001B[0m"; // Reseta a cor
+    public static final String ANSI_RED = "\u001B[31m"; // Cor vermelha
+    public static final String ANSI_GREEN = "\u001B[32m"; // Cor verde
+    public static final String ANSI_YELLOW = "\u001B[33m"; // Cor amarela
+    public static final String ANSI_BLUE = "\u001B[34m"; // Cor azul
+    public static final String ANSI_PURPLE = "\u001B[35m"; // Cor roxa
+    public static final String ANSI_CYAN = "\u001B[36m"; // Cor ciano
+
+    // Cor de cada quantidade de minas vizinhas, de 1 a 8
+    private static final String[] COUNT_COLORS = {
+            ANSI_BLUE, ANSI_GREEN, ANSI_RED, ANSI_PURPLE, ANSI_YELLOW, ANSI_CYAN, ANSI_RED, ANSI_PURPLE
+    };
+
+    /**
+     * Limpa a tela.
+     */
+    public static void clearScreen() {
+        System.out.print("\033[H\033[2J");
+        System.out.flush();
+    }
+
+    /**
+     * Lê uma jogada: a ação (r para abrir, f para pôr ou tirar a bandeira, c para abrir as vizinhas de um número),
+     * que pode ser omitida para abrir, seguida da linha e da coluna.
+     *
+     * @param sc O Scanner a partir do qual ler a jogada.
+     * @return A ação, a linha e a coluna.
+     * @throws InputMismatchException Se a entrada não representa uma jogada válida (por exemplo, "f 3 4").
+     */
+    public static Move readMove(Scanner sc) {
+        return readMove(sc, "rfc");
+    }
+
+    /**
+     * Lê uma jogada com uma das ações dadas, a primeira delas quando a ação for omitida, seguida da linha e da
+     * coluna.
+     *
+     * @param sc      O Scanner a partir do qual ler a jogada.
+     * @param actions As ações aceitas.
+     * @return A ação, a linha e a coluna.
+     * @throws InputMismatchException Se a entrada não representa uma jogada válida.
+     */
+    public static Move readMove(Scanner sc, String actions) {
+        try {
+            String[] parts = sc.nextLine().trim().split("\\s+");
+            char action = parts.length == 3 ? Character.toLowerCase(parts[0].charAt(0)) : actions.charAt(0);
+            if (parts.length < 2 || parts.length > 3 || actions.indexOf(action) < 0)
+                throw new InputMismatchException();
+            return new Move(action, Integer.parseInt(parts[parts.length - 2]), Integer.parseInt(parts[parts.length - 1]));
+        } catch (RuntimeException e) {
+            throw new InputMismatchException("Erro ao ler a jogada. Use [" + String.join("|", actions.split(""))
+                    + "] linha coluna.");
+        }
+    }
+
+    /**
+     * Jogada lida do console.
+     *
+     * @param action A ação: r, f ou c.
+     * @param row    A linha.
+     * @param column A coluna.
+     */
+    public record Move(char action, int row, int column) {
+    }
+
+    /**
+     * Imprime a situação da partida: o campo, as minas que faltam marcar e, no fim, o resultado.
+     *
+     * @param minefield O campo.
+     */
+    public static void printMinefield(Minefield minefield) {
+        printBoard(minefield);
+        System.out.println();
+        System.out.println("Mines : " + (minefield.getMineCount() - minefield.getFlagCount()));
+        switch (minefield.getState()) {
+            case WON -> System.out.println("YOU WIN!");
+            case LOST -> System.out.println("BOOM! Game over.");
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Imprime o campo com os números das linhas e das colunas; no fim da partida, as minas aparecem.
+     *
+     * @param minefield O campo.
+     */
+    public static void printBoard(Minefield minefield) {
+        StringBuilder sb = new StringBuilder();
+        boolean over = minefield.getState() != Minefield.State.PLAYING;
+
+        // Adiciona os números das colunas, com a dezena em cima da unidade quando houver mais de 10 colunas
+        if (minefield.getColumns() > 10) {
+            sb.append("    ");
+            for (int c = 0; c < minefield.getColumns(); c++)
+                sb.append(c >= 10 ? (char) ('0' + c / 10 % 10) : ' ').append(' ');
+            sb.append('\n');
+        }
+        sb.append("    ");
+        for (int c = 0; c < minefield.getColumns(); c++)
+            sb.append(c % 10).append(' ');
+        sb.append('\n');
+
+        for (int r = 0; r < minefield.getRows(); r++) {
+            sb.append(String.format("%3d ", r));
+            for (int c = 0; c < minefield.getColumns(); c++)
+                printCell(sb, minefield, r, c, over);
+            sb.append(r).append('\n');
+        }
+        System.out.print(sb);
+    }
+
+    /**
+     * Imprime uma janela de um campo grande, com a primeira linha e a primeira coluna dadas; no fim da partida, as
+     * minas da janela aparecem.
+     *
+     * @param minefield O campo.
+     * @param top       A primeira linha da janela.
+     * @param left      A primeira coluna da janela.
+     * @param height    A quantidade de linhas da janela.
+     * @param width     A quantidade de colunas da janela.
+     */
+    public static void printWindow(HugeMinefield minefield, int top, int left, int height, int width) {
+        StringBuilder sb = new StringBuilder();
+        boolean over = minefield.getState() != Minefield.State.PLAYING;
+        int bottom = (int) Math.min((long) top + height, minefield.getRows());
+        int right = (int) Math.min((long) left + width, minefield.getColumns());
+
+        // As colunas podem ter até 10 algarismos: mostra-se o intervalo e, sobre cada coluna, a unidade
+        sb.append("Columns ").append(left).append(" to ").append(right - 1).append('\n');
+        sb.append("           ");
+        for (int c = left; c < right; c++)
+            sb.append(c % 10).append(' ');
+        sb.append('\n');
+
+        for (int r = top; r < bottom; r++) {
+            sb.append(String.format("%10d ", r));
+            for (int c = left; c < right; c++) {
+                boolean revealed = minefield.isRevealed(r, c);
+                appendCell(sb, minefield.isFlagged(r, c), over && minefield.isMine(r, c), revealed,
+                        revealed ? minefield.getAdjacentMines(r, c) : 0, over);
+            }
+            sb.append('\n');
+        }
+        System.out.print(sb);
+        System.out.printf("Opened: %d, flags: %d, chunks in memory: %d, chunks on disk: %d (%d KB)%n",
+                minefield.getRevealedCount(), minefield.getFlagCount(), minefield.getCachedChunks(),
+                minefield.getStoredChunks(), minefield.getStoreSize() / 1024);
+        if (minefield.getState() == Minefield.State.LOST)
+            System.out.println("BOOM! Game over.");
+    }
+
+    private static void printCell(StringBuilder sb, Minefield minefield, int row, int column, boolean over) {
+        appendCell(sb, minefield.isFlagged(row, column), minefield.isMine(row, column),
+                minefield.isRevealed(row, column), minefield.getAdjacentMines(row, column), over);
+    }
+
+    private static void appendCell(StringBuilder sb, boolean flagged, boolean mine, boolean revealed, int count,
+                                   boolean over) {
+        if (flagged) {
+            boolean wrong = over && !mine;
+            sb.append(wrong ? ANSI_RED + "x" : ANSI_YELLOW + "F").append(ANSI_RESET).append(' ');
+        } else if (mine && (over || revealed)) {
+            sb.append(ANSI_RED).append('*').append(ANSI_RESET).append(' ');
+        } else if (!revealed) {
+            sb.append("- ");
+        } else if (count == 0) {
+            sb.append(". ");
+        } else {
+            sb.append(COUNT_COLORS[count - 1]).append(count).append(ANSI_RESET).append(' ');
+        }
+    }
+}
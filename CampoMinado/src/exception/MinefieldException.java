@@ -0,0 +1,17 @@
+package exception;
+
+import java.io.Serial;
+
+public class MinefieldException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public MinefieldException(String msg) {
+        super(msg);
+    }
+
+    public MinefieldException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
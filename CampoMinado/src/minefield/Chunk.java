@@ -0,0 +1,39 @@
+package minefield;
+
+/**
+ * Bloco de 64 x 64 casas de um {@link HugeMinefield}: cada linha do bloco é uma palavra de cada conjunto de bits.
+ * <p>
+ * Só as casas abertas, as bandeiras e as casas expandidas pelo preenchimento são estado do jogo e vão para o
+ * disco; as minas e as casas vazias saem da semente e são geradas de novo sempre que o bloco volta à memória.
+ */
+final class Chunk {
+
+    static final int SIZE = 64;
+
+    final long key;
+    final long[] revealed = new long[SIZE];
+    final long[] flagged = new long[SIZE];
+    final long[] expanded = new long[SIZE];
+
+    // Geradas na primeira vez em que o bloco precisa delas
+    long[] mines;
+    long[] empty;
+
+    boolean dirty;
+    boolean referenced;
+
+    Chunk(long key) {
+        this.key = key;
+    }
+
+    /**
+     * Informa se nenhuma casa do bloco foi aberta ou marcada, caso em que não há o que guardar.
+     */
+    boolean isPristine() {
+        for (int i = 0; i < SIZE; i++) {
+            if ((revealed[i] | flagged[i] | expanded[i]) != 0)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,167 @@
+package minefield;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Blocos de um {@link HugeMinefield} mantidos na memória, no máximo {@code capacity} de cada vez.
+ * <p>
+ * Os blocos ficam em uma tabela de endereçamento aberto indexada pela chave, sem objetos para as chaves, e em um
+ * vetor percorrido pelo algoritmo do relógio: cada acesso marca o bloco, e o ponteiro do relógio desmarca os blocos
+ * marcados e tira da memória o primeiro não marcado, gravando-o no {@link ChunkStore} se ele tiver mudado. Um bloco
+ * que volta à memória é lido do arquivo.
+ * <p>
+ * Um bloco obtido pode sair da memória no próximo acesso a outro bloco, de modo que quem o usa não deve guardá-lo
+ * depois disso.
+ */
+final class ChunkCache implements Closeable {
+
+    private final int capacity;
+    private final ChunkStore store;
+
+    // Tabela de endereçamento aberto com sondagem linear; um bloco null marca uma posição livre
+    private final long[] keys;
+    private final Chunk[] table;
+
+    private final Chunk[] resident;
+    private int residentCount;
+    private int hand;
+    private Chunk last;
+
+    private long loads;
+    private long evictions;
+
+    ChunkCache(int capacity, Path directory) throws IOException {
+        this.capacity = capacity;
+        this.store = new ChunkStore(directory);
+        int size = Integer.highestOneBit(capacity) * 4;
+        keys = new long[size];
+        table = new Chunk[size];
+        resident = new Chunk[capacity];
+    }
+
+    int getResidentCount() {
+        return residentCount;
+    }
+
+    int getStoredCount() {
+        return store.getCount();
+    }
+
+    long getStoreSize() {
+        return store.getSize();
+    }
+
+    long getLoads() {
+        return loads;
+    }
+
+    long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Obtém um bloco, lendo-o do arquivo ou criando-o se ele não estiver na memória.
+     */
+    Chunk get(long key) throws IOException {
+        return get(key, true);
+    }
+
+    /**
+     * Obtém um bloco que já tenha sido usado, sem criar blocos que nunca foram abertos nem marcados.
+     *
+     * @return O bloco, ou null se ele não estiver na memória nem no arquivo.
+     */
+    Chunk find(long key) throws IOException {
+        return get(key, false);
+    }
+
+    private Chunk get(long key, boolean create) throws IOException {
+        Chunk chunk = last;
+        if (chunk == null || chunk.key != key) {
+            chunk = table[slot(key)];
+            if (chunk == null) {
+                if (!create && !store.contains(key))
+                    return null;
+                chunk = load(key);
+            }
+            last = chunk;
+        }
+        chunk.referenced = true;
+        return chunk;
+    }
+
+    private Chunk load(long key) throws IOException {
+        int index = residentCount < capacity ? residentCount++ : evict();
+        Chunk chunk = new Chunk(key);
+        if (store.read(chunk))
+            loads++;
+        resident[index] = chunk;
+        int slot = slot(key);
+        keys[slot] = key;
+        table[slot] = chunk;
+        return chunk;
+    }
+
+    /**
+     * Tira da memória o próximo bloco não marcado do relógio.
+     *
+     * @return A posição liberada no vetor dos blocos.
+     */
+    private int evict() throws IOException {
+        while (true) {
+            int index = hand;
+            Chunk chunk = resident[index];
+            hand = (hand + 1) % capacity;
+            if (chunk.referenced) {
+                chunk.referenced = false;
+                continue;
+            }
+
+            if (chunk.dirty && (store.contains(chunk.key) || !chunk.isPristine()))
+                store.write(chunk);
+            remove(slot(chunk.key));
+            if (last == chunk)
+                last = null;
+            evictions++;
+            return index;
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+
+    private int slot(long key) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (table[slot] != null && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * Remove um bloco da tabela, trazendo para trás os blocos seguintes da mesma sequência de sondagem, para que a
+     * tabela não precise de marcadores de remoção.
+     */
+    private void remove(int slot) {
+        int mask = table.length - 1;
+        table[slot] = null;
+        for (int next = (slot + 1) & mask; table[next] != null; next = (next + 1) & mask) {
+            int ideal = hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                table[slot] = table[next];
+                table[next] = null;
+                slot = next;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+}
@@ -0,0 +1,231 @@
+package minefield;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Arquivo temporário com os blocos que saíram da memória de um {@link HugeMinefield}.
+ * <p>
+ * Cada registro é a chave do bloco, o tamanho do registro e, para as casas abertas, as bandeiras e as casas
+ * expandidas, duas máscaras de 64 bits (as linhas cheias e as linhas parciais do bloco) seguidas só das palavras
+ * das linhas parciais, de modo que um conjunto vazio ou todo preenchido ocupa só as duas máscaras. Os registros são
+ * sempre acrescentados no fim do arquivo; um índice de endereçamento aberto na memória guarda a posição do registro
+ * mais recente de cada bloco, e o arquivo é compactado quando os registros antigos passam a ocupar mais que os
+ * atuais.
+ * <p>
+ * O arquivo é apagado ao fechar.
+ */
+final class ChunkStore implements Closeable {
+
+    private static final long MAGIC = 0x4E494D4F504D4143L; // "CAMPOMIN" em little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 12;
+    private static final int MAX_RECORD_SIZE = RECORD_HEADER_SIZE + 3 * (16 + 8 * Chunk.SIZE);
+    private static final long MIN_GARBAGE_TO_COMPACT = 4 << 20;
+
+    private final Path directory;
+    private Path file;
+    private FileChannel channel;
+    private long end;
+    private long live;
+    private final ByteBuffer buffer = ByteBuffer.allocate(MAX_RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    // Índice: chave do bloco -> posição do registro nos bits altos e tamanho nos 12 baixos; 0 marca uma entrada livre
+    private long[] keys = new long[64];
+    private long[] records = new long[64];
+    private int count;
+
+    ChunkStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        open();
+    }
+
+    private void open() throws IOException {
+        file = Files.createTempFile(directory, "campo-minado-", ".chunks");
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        buffer.clear();
+        buffer.putLong(MAGIC).putInt(VERSION).putInt(Chunk.SIZE).flip();
+        writeFully(0);
+        end = HEADER_SIZE;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    long getSize() {
+        return end;
+    }
+
+    boolean contains(long key) {
+        return records[slot(key)] != 0;
+    }
+
+    /**
+     * Lê o estado guardado de um bloco.
+     *
+     * @return Se o bloco estava guardado.
+     */
+    boolean read(Chunk chunk) throws IOException {
+        long record = records[slot(chunk.key)];
+        if (record == 0)
+            return false;
+
+        buffer.clear().limit(length(record));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset(record) + buffer.position()) < 0)
+                throw new EOFException("Truncated chunk store: " + file);
+        }
+        buffer.flip();
+        if (buffer.getLong() != chunk.key)
+            throw new IOException("Corrupted chunk store: " + file);
+        buffer.getInt();
+        decode(chunk.revealed);
+        decode(chunk.flagged);
+        decode(chunk.expanded);
+        return true;
+    }
+
+    /**
+     * Acrescenta o estado atual de um bloco, que passa a substituir o registro anterior dele.
+     */
+    void write(Chunk chunk) throws IOException {
+        buffer.clear();
+        buffer.putLong(chunk.key).putInt(0);
+        encode(chunk.revealed);
+        encode(chunk.flagged);
+        encode(chunk.expanded);
+        int length = buffer.position();
+        buffer.putInt(8, length).flip();
+        writeFully(end);
+
+        int slot = slot(chunk.key);
+        if (records[slot] == 0)
+            count++;
+        else
+            live -= length(records[slot]);
+        keys[slot] = chunk.key;
+        records[slot] = end << 12 | length;
+        end += length;
+        live += length;
+        if (count * 2 > keys.length)
+            grow();
+
+        long garbage = end - HEADER_SIZE - live;
+        if (garbage > live && garbage > MIN_GARBAGE_TO_COMPACT)
+            compact();
+    }
+
+    private void encode(long[] words) {
+        long full = 0, partial = 0;
+        for (int i = 0; i < Chunk.SIZE; i++) {
+            if (words[i] == -1L)
+                full |= 1L << i;
+            else if (words[i] != 0)
+                partial |= 1L << i;
+        }
+        buffer.putLong(full).putLong(partial);
+        for (long bits = partial; bits != 0; bits &= bits - 1)
+            buffer.putLong(words[Long.numberOfTrailingZeros(bits)]);
+    }
+
+    private void decode(long[] words) {
+        long full = buffer.getLong(), partial = buffer.getLong();
+        for (int i = 0; i < Chunk.SIZE; i++)
+            words[i] = (full & 1L << i) != 0 ? -1L : (partial & 1L << i) != 0 ? buffer.getLong() : 0;
+    }
+
+    private static long offset(long record) {
+        return record >>> 12;
+    }
+
+    private static int length(long record) {
+        return (int) record & 0xFFF;
+    }
+
+    private void writeFully(long position) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer, position + buffer.position());
+    }
+
+    /**
+     * Copia os registros atuais para um arquivo novo e apaga o antigo. Se a cópia falhar, o arquivo novo é apagado
+     * e o índice continua apontando para o antigo.
+     */
+    private void compact() throws IOException {
+        FileChannel old = channel;
+        Path oldFile = file;
+        long oldEnd = end;
+        long[] moved = new long[records.length];
+        open();
+        try {
+            for (int slot = 0; slot < keys.length; slot++) {
+                long record = records[slot];
+                if (record == 0)
+                    continue;
+                buffer.clear().limit(length(record));
+                while (buffer.hasRemaining()) {
+                    if (old.read(buffer, offset(record) + buffer.position()) < 0)
+                        throw new EOFException("Truncated chunk store: " + oldFile);
+                }
+                buffer.flip();
+                writeFully(end);
+                moved[slot] = end << 12 | length(record);
+                end += length(record);
+            }
+        } catch (IOException e) {
+            try {
+                channel.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            channel = old;
+            file = oldFile;
+            end = oldEnd;
+            throw e;
+        }
+        records = moved;
+        old.close();
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (records[slot] != 0 && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldRecords = records;
+        keys = new long[oldKeys.length * 2];
+        records = new long[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldRecords[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                records[slot] = oldRecords[i];
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
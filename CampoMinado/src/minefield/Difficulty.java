@@ -0,0 +1,40 @@
+package minefield;
+
+/**
+ * Tamanhos clássicos de campo, com as suas quantidades de minas.
+ */
+public enum Difficulty {
+    BEGINNER(9, 9, 10),
+    INTERMEDIATE(16, 16, 40),
+    EXPERT(16, 30, 99);
+
+    private final int rows;
+    private final int columns;
+    private final int mines;
+
+    Difficulty(int rows, int columns, int mines) {
+        this.rows = rows;
+        this.columns = columns;
+        this.mines = mines;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+    public int getColumns() {
+        return columns;
+    }
+    public int getMines() {
+        return mines;
+    }
+
+    /**
+     * Cria um campo deste tamanho.
+     *
+     * @param seed Semente do sorteio das minas.
+     * @return O campo, com as minas ainda por sortear.
+     */
+    public Minefield newMinefield(long seed) {
+        return new Minefield(rows, columns, mines, seed);
+    }
+}
@@ -0,0 +1,504 @@
+package minefield;
+
+import exception.MinefieldException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Campo minado praticamente ilimitado, de até {@link Integer#MAX_VALUE} linhas e colunas, para partidas longas e
+ * testes de resistência.
+ * <p>
+ * O campo é dividido em blocos de 64 x 64 casas, criados só quando alguma casa deles é aberta ou marcada. Se uma
+ * casa tem mina é decidido por uma função de dispersão da semente, da linha e da coluna, comparada com a densidade
+ * de minas: as minas de um bloco são geradas na primeira vez em que ele é usado, sem depender dos outros blocos, e
+ * a quantidade de minas vizinhas de qualquer casa sai da mesma função. A primeira casa aberta e as suas oito
+ * vizinhas nunca têm mina, de modo que a primeira jogada sempre abre uma casa vazia.
+ * <p>
+ * Só {@code cachedChunks} blocos ficam na memória; os outros vão para um arquivo temporário no diretório dado, que
+ * guarda só as casas abertas, as bandeiras e as casas expandidas de cada bloco. A memória usada cresce com a área
+ * explorada, e não com o tamanho do campo: os blocos na memória são limitados, e cada bloco guardado ocupa de 16
+ * a 64 bytes no índice do arquivo, conforme a ocupação da tabela.
+ * <p>
+ * Abrir uma casa vazia abre a região vazia ligada a ela pelo mesmo preenchimento por faixas de {@link Minefield},
+ * até {@code floodLimit} casas por jogada: como com poucas minas uma região vazia pode não ter fim, o preenchimento
+ * para ao atingir o limite e as casas vazias da borda dele ficam abertas, mas não expandidas; abrir uma delas de
+ * novo continua o preenchimento a partir dela.
+ * <p>
+ * Não há vitória: a partida só termina quando uma mina é aberta. Um campo deve ser usado por uma só thread de cada
+ * vez e deve ser fechado no fim, para apagar o arquivo.
+ */
+public class HugeMinefield implements Closeable {
+
+    public static final int CHUNK_SIZE = Chunk.SIZE;
+    public static final long DEFAULT_FLOOD_LIMIT = 1L << 22;
+
+    private static final int CHUNK_BITS = 6;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int rows;
+    private final int columns;
+    private final int words;
+    private final double density;
+    private final long threshold;
+    private final long seed;
+    private final ChunkCache cache;
+    private long floodLimit = DEFAULT_FLOOD_LIMIT;
+
+    private boolean started;
+    private int safeRow;
+    private int safeColumn;
+    private long revealedCount;
+    private long flagCount;
+    private long generatedChunks;
+    private Minefield.State state = Minefield.State.PLAYING;
+
+    // Fila circular de sementes do preenchimento, com a linha nos 32 bits altos e a coluna nos baixos
+    private long[] queue = new long[64];
+    private int queueHead;
+    private int queueSize;
+
+    /**
+     * Cria um campo cujas minas serão geradas a partir da primeira jogada.
+     *
+     * @param rows         Número de linhas.
+     * @param columns      Número de colunas.
+     * @param density      Probabilidade de uma casa ter mina, de 0,01 a 0,9.
+     * @param seed         Semente das minas: a mesma semente e a mesma primeira jogada dão as mesmas minas.
+     * @param cachedChunks Quantidade máxima de blocos na memória, ao menos 16.
+     * @param directory    Diretório do arquivo temporário dos blocos que saem da memória.
+     * @throws MinefieldException Se os parâmetros forem inválidos.
+     * @throws IOException        Se o arquivo temporário não puder ser criado.
+     */
+    public HugeMinefield(int rows, int columns, double density, long seed, int cachedChunks, Path directory)
+            throws IOException {
+
+        if (rows < 1 || columns < 1)
+            throw new MinefieldException("Error creating minefield: there must be at least 1 row and 1 column");
+        if (!(density >= 0.01 && density <= 0.9))
+            throw new MinefieldException("Error creating minefield: mine density must be between 0.01 and 0.9");
+        if (cachedChunks < 16)
+            throw new MinefieldException("Error creating minefield: at least 16 chunks must fit in memory");
+
+        this.rows = rows;
+        this.columns = columns;
+        this.density = density;
+        this.seed = seed;
+        words = (int) (((long) columns + CHUNK_MASK) >>> CHUNK_BITS);
+        threshold = (long) (density * 0x1p63);
+        cache = new ChunkCache(cachedChunks, directory);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+    public int getColumns() {
+        return columns;
+    }
+    public double getDensity() {
+        return density;
+    }
+    public long getSeed() {
+        return seed;
+    }
+    public Minefield.State getState() {
+        return state;
+    }
+    public long getRevealedCount() {
+        return revealedCount;
+    }
+    public long getFlagCount() {
+        return flagCount;
+    }
+
+    public long getFloodLimit() {
+        return floodLimit;
+    }
+
+    /**
+     * Define a quantidade máxima de casas abertas por um preenchimento.
+     *
+     * @param floodLimit O limite, ao menos 1.
+     */
+    public void setFloodLimit(long floodLimit) {
+        if (floodLimit < 1)
+            throw new MinefieldException("Flood limit must be positive");
+        this.floodLimit = floodLimit;
+    }
+
+    /**
+     * Obtém a quantidade de blocos na memória.
+     */
+    public int getCachedChunks() {
+        return cache.getResidentCount();
+    }
+
+    /**
+     * Obtém a quantidade de blocos guardados no arquivo.
+     */
+    public int getStoredChunks() {
+        return cache.getStoredCount();
+    }
+
+    /**
+     * Obtém o tamanho do arquivo dos blocos, em bytes.
+     */
+    public long getStoreSize() {
+        return cache.getStoreSize();
+    }
+
+    /**
+     * Obtém a quantidade de vezes em que as minas de um bloco foram geradas, contando as gerações de novo dos
+     * blocos que voltaram do arquivo.
+     */
+    public long getGeneratedChunks() {
+        return generatedChunks;
+    }
+
+    public boolean isRevealed(int row, int column) {
+        checkPosition(row, column);
+        Chunk chunk = find(row, column >>> CHUNK_BITS);
+        return chunk != null && (chunk.revealed[row & CHUNK_MASK] & 1L << column) != 0;
+    }
+
+    public boolean isFlagged(int row, int column) {
+        checkPosition(row, column);
+        Chunk chunk = find(row, column >>> CHUNK_BITS);
+        return chunk != null && (chunk.flagged[row & CHUNK_MASK] & 1L << column) != 0;
+    }
+
+    /**
+     * Informa se a casa tem mina; antes da primeira jogada nenhuma casa tem.
+     */
+    public boolean isMine(int row, int column) {
+        checkPosition(row, column);
+        return started && mineAt(row, column);
+    }
+
+    /**
+     * Obtém a quantidade de minas nas casas vizinhas; antes da primeira jogada é sempre zero.
+     */
+    public int getAdjacentMines(int row, int column) {
+        checkPosition(row, column);
+        if (!started)
+            return 0;
+        int count = 0;
+        for (long r = row - 1L; r <= row + 1L; r++)
+            for (long c = column - 1L; c <= column + 1L; c++)
+                if ((r != row || c != column) && mineAt(r, c))
+                    count++;
+        return count;
+    }
+
+    /**
+     * Abre uma casa. Se ela for vazia, abre também a região vazia ligada a ela, até o limite do preenchimento; se
+     * tiver mina, a partida está perdida. Casas com bandeira ou já abertas são ignoradas, menos as casas vazias
+     * abertas em que um preenchimento parou, que o continuam.
+     *
+     * @return A quantidade de casas abertas pela jogada.
+     * @throws MinefieldException Se a posição não estiver no campo ou a partida já tiver terminado.
+     */
+    public long reveal(int row, int column) {
+        checkPosition(row, column);
+        checkPlaying();
+
+        if (!started) {
+            safeRow = row;
+            safeColumn = column;
+            started = true;
+        }
+
+        Chunk chunk = generated(row, column >>> CHUNK_BITS);
+        int index = row & CHUNK_MASK;
+        long bit = 1L << column;
+        if ((chunk.flagged[index] & bit) != 0)
+            return 0;
+        boolean unfinished = (chunk.empty[index] & ~chunk.expanded[index] & bit) != 0;
+        if ((chunk.revealed[index] & bit) != 0 && !unfinished)
+            return 0;
+
+        if ((chunk.mines[index] & bit) != 0) {
+            chunk.revealed[index] |= bit;
+            chunk.dirty = true;
+            state = Minefield.State.LOST;
+            return 0;
+        }
+
+        long opened;
+        if ((chunk.empty[index] & bit) != 0) {
+            opened = flood(row, column);
+        } else {
+            chunk.revealed[index] |= bit;
+            chunk.dirty = true;
+            opened = 1;
+        }
+        revealedCount += opened;
+        return opened;
+    }
+
+    /**
+     * Abre as vizinhas fechadas e sem bandeira de uma casa aberta cujas minas vizinhas já estão todas marcadas.
+     *
+     * @return A quantidade de casas abertas, zero se as bandeiras vizinhas não baterem com o número.
+     * @throws MinefieldException Se a posição não estiver no campo ou a partida já tiver terminado.
+     */
+    public long chord(int row, int column) {
+        checkPosition(row, column);
+        checkPlaying();
+
+        int count = getAdjacentMines(row, column);
+        if (!isRevealed(row, column) || count == 0)
+            return 0;
+
+        int top = Math.max(row - 1, 0), bottom = (int) Math.min(row + 1L, rows - 1);
+        int left = Math.max(column - 1, 0), right = (int) Math.min(column + 1L, columns - 1);
+        int flags = 0;
+        for (int r = top; r <= bottom; r++)
+            for (int c = left; c <= right; c++)
+                if (isFlagged(r, c))
+                    flags++;
+        if (flags != count)
+            return 0;
+
+        long opened = 0;
+        for (int r = top; r <= bottom; r++) {
+            for (int c = left; c <= right; c++) {
+                if (!isRevealed(r, c))
+                    opened += reveal(r, c);
+                if (state != Minefield.State.PLAYING)
+                    return opened;
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Põe ou tira a bandeira de uma casa fechada.
+     *
+     * @return Se a casa ficou com bandeira.
+     * @throws MinefieldException Se a posição não estiver no campo, a casa estiver aberta ou a partida tiver
+     *                            terminado.
+     */
+    public boolean toggleFlag(int row, int column) {
+        checkPosition(row, column);
+        checkPlaying();
+
+        Chunk chunk = chunk(row, column >>> CHUNK_BITS);
+        int index = row & CHUNK_MASK;
+        long bit = 1L << column;
+        if ((chunk.revealed[index] & bit) != 0)
+            throw new MinefieldException("A revealed cell cannot be flagged");
+
+        chunk.flagged[index] ^= bit;
+        chunk.dirty = true;
+        boolean flag = (chunk.flagged[index] & bit) != 0;
+        flagCount += flag ? 1 : -1;
+        return flag;
+    }
+
+    private void checkPosition(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            throw new MinefieldException("Position not on the minefield");
+    }
+
+    private void checkPlaying() {
+        if (state != Minefield.State.PLAYING)
+            throw new MinefieldException("The game is over");
+    }
+
+    /**
+     * Informa se há mina na casa, que pode estar fora do campo: as casas em volta da primeira jogada nunca têm, e
+     * nas outras a dispersão da posição e da semente é comparada com a densidade.
+     */
+    private boolean mineAt(long row, long column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            return false;
+        if (Math.abs(row - safeRow) <= 1 && Math.abs(column - safeColumn) <= 1)
+            return false;
+
+        long z = seed + (row << 32 | column) * 0x9E3779B97F4A7C15L;
+        z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return z >>> 1 < threshold;
+    }
+
+    private static long key(int row, int word) {
+        return (long) (row >>> CHUNK_BITS) << 32 | word;
+    }
+
+    private Chunk chunk(int row, int word) {
+        try {
+            return cache.get(key(row, word));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Chunk find(int row, int word) {
+        try {
+            return cache.find(key(row, word));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Obtém o bloco da palavra com as minas e as casas vazias já geradas.
+     */
+    private Chunk generated(int row, int word) {
+        Chunk chunk = chunk(row, word);
+        if (chunk.mines == null)
+            generate(chunk, row & ~CHUNK_MASK, word);
+        return chunk;
+    }
+
+    /**
+     * Gera as minas de um bloco e, dilatando-as 64 casas por vez como em {@link Minefield}, as casas vazias; as
+     * linhas e colunas vizinhas do bloco vêm da mesma função, sem usar os blocos vizinhos.
+     */
+    private void generate(Chunk chunk, int top, int word) {
+        long left = (long) word << CHUNK_BITS;
+        long[] near = new long[CHUNK_SIZE + 2];
+        long[] mines = new long[CHUNK_SIZE];
+        for (int i = 0; i < near.length; i++) {
+            long row = top - 1L + i;
+            long bits = 0;
+            for (int k = 0; k < CHUNK_SIZE; k++)
+                if (mineAt(row, left + k))
+                    bits |= 1L << k;
+            near[i] = bits | bits << 1 | bits >>> 1
+                    | (mineAt(row, left - 1) ? 1L : 0) | (mineAt(row, left + CHUNK_SIZE) ? 1L << 63 : 0);
+            if (i >= 1 && i <= CHUNK_SIZE)
+                mines[i - 1] = bits;
+        }
+
+        long columnMask = columns - left >= CHUNK_SIZE ? -1L : -1L >>> (CHUNK_SIZE - (columns - left));
+        long[] empty = new long[CHUNK_SIZE];
+        for (int i = 0; i < CHUNK_SIZE && top + (long) i < rows; i++)
+            empty[i] = columnMask & ~(near[i] | near[i + 1] | near[i + 2]);
+
+        chunk.mines = mines;
+        chunk.empty = empty;
+        generatedChunks++;
+    }
+
+    /**
+     * Casas vazias ainda não expandidas e sem bandeira de uma palavra, por onde o preenchimento pode passar.
+     */
+    private long passable(int row, int word) {
+        Chunk chunk = generated(row, word);
+        int index = row & CHUNK_MASK;
+        return chunk.empty[index] & ~chunk.expanded[index] & ~chunk.flagged[index];
+    }
+
+    private static long rangeMask(int word, int from, int to) {
+        long mask = -1L;
+        if (word == from >>> 6)
+            mask &= -1L << from;
+        if (word == to >>> 6)
+            mask &= -1L >>> (63 - (to & 63));
+        return mask;
+    }
+
+    /**
+     * Abre a região vazia que contém a casa, faixa por faixa, até o limite do preenchimento.
+     */
+    private long flood(int row, int column) {
+        long opened = 0;
+        queueHead = queueSize = 0;
+        offer(row, column);
+        while (queueSize > 0 && opened < floodLimit) {
+            long next = poll();
+            int r = (int) (next >>> 32), c = (int) next;
+            if ((passable(r, c >>> 6) & 1L << c) == 0)
+                continue;
+
+            int first = runStart(r, c), last = runEnd(r, c);
+            for (int w = first >>> 6; w <= last >>> 6; w++) {
+                Chunk chunk = chunk(r, w);
+                chunk.expanded[r & CHUNK_MASK] |= rangeMask(w, first, last);
+                chunk.dirty = true;
+            }
+
+            int from = Math.max(first - 1, 0), to = (int) Math.min(last + 1L, columns - 1);
+            for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1L, rows - 1); nr++) {
+                opened += revealRange(nr, from, to);
+                if (nr != r)
+                    offerRuns(nr, from, to);
+            }
+        }
+        queueSize = 0;
+        return opened;
+    }
+
+    private int runStart(int row, int column) {
+        int w = column >>> 6;
+        long stop = ~passable(row, w) & -1L >>> (63 - (column & 63));
+        while (stop == 0 && --w >= 0)
+            stop = ~passable(row, w);
+        return w < 0 ? 0 : (w << 6) + 64 - Long.numberOfLeadingZeros(stop);
+    }
+
+    private int runEnd(int row, int column) {
+        int w = column >>> 6;
+        long stop = ~passable(row, w) & -1L << column;
+        while (stop == 0 && ++w < words)
+            stop = ~passable(row, w);
+        return w == words ? columns - 1 : (int) Math.min(((long) w << 6) + Long.numberOfTrailingZeros(stop) - 1,
+                columns - 1);
+    }
+
+    private int revealRange(int row, int from, int to) {
+        int opened = 0;
+        for (int w = from >>> 6; w <= to >>> 6; w++) {
+            Chunk chunk = chunk(row, w);
+            int index = row & CHUNK_MASK;
+            long fresh = rangeMask(w, from, to) & ~chunk.revealed[index] & ~chunk.flagged[index];
+            if (fresh != 0) {
+                chunk.revealed[index] |= fresh;
+                chunk.dirty = true;
+                opened += Long.bitCount(fresh);
+            }
+        }
+        return opened;
+    }
+
+    private void offerRuns(int row, int from, int to) {
+        long previous = 0;
+        for (int w = from >>> 6; w <= to >>> 6; w++) {
+            long runs = passable(row, w) & rangeMask(w, from, to);
+            for (long starts = runs & ~(runs << 1 | previous >>> 63); starts != 0; starts &= starts - 1)
+                offer(row, (w << 6) + Long.numberOfTrailingZeros(starts));
+            previous = runs;
+        }
+    }
+
+    private void offer(int row, int column) {
+        if (queueSize == queue.length) {
+            long[] larger = new long[queue.length * 2];
+            for (int i = 0; i < queueSize; i++)
+                larger[i] = queue[(queueHead + i) & (queue.length - 1)];
+            queue = larger;
+            queueHead = 0;
+        }
+        queue[(queueHead + queueSize++) & (queue.length - 1)] = (long) row << 32 | column;
+    }
+
+    private long poll() {
+        long next = queue[queueHead];
+        queueHead = (queueHead + 1) & (queue.length - 1);
+        queueSize--;
+        return next;
+    }
+
+    /**
+     * Fecha o arquivo dos blocos, apagando-o.
+     */
+    @Override
+    public void close() throws IOException {
+        cache.close();
+    }
+}
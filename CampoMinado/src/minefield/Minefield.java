@@ -0,0 +1,457 @@
+package minefield;
+
+import exception.MinefieldException;
+
+import java.util.SplittableRandom;
+
+/**
+ * Campo minado com as minas, as casas abertas e as bandeiras guardadas em conjuntos de bits.
+ * <p>
+ * Cada linha ocupa {@code stride} palavras de 64 bits em cada conjunto, de modo que as operações em uma faixa de
+ * casas de uma linha tratam 64 casas por vez. A quantidade de minas vizinhas de cada casa e o conjunto das casas
+ * vazias (sem mina e sem minas vizinhas) são calculados uma só vez, quando as minas são sorteadas.
+ * <p>
+ * As minas são sorteadas na primeira jogada, fora da casa escolhida e das suas vizinhas, para que a primeira casa
+ * aberta seja vazia sempre que houver espaço para isso. Abrir uma casa vazia abre a região de casas vazias ligadas
+ * a ela e a borda numerada dessa região por um preenchimento por faixas: cada semente retirada da fila abre de uma
+ * vez a faixa de casas vazias da sua linha e põe na fila uma semente para cada faixa vazia ainda fechada nas linhas
+ * de cima e de baixo. Não há recursão, a fila guarda faixas e não casas, e abrir uma região vazia de 4000 x 4000
+ * casas leva poucos milissegundos.
+ * <p>
+ * Um campo deve ser usado por uma só thread de cada vez.
+ */
+public class Minefield {
+
+    /**
+     * Situação da partida.
+     */
+    public enum State {PLAYING, WON, LOST}
+
+    private final int rows;
+    private final int columns;
+    private final int stride;
+    private final long lastWordMask;
+    private final int mineCount;
+    private final long seed;
+
+    private final long[] mines;
+    private final long[] revealed;
+    private final long[] flagged;
+    private final long[] empty;
+    private final long[] expanded; // Casas vazias cuja vizinhança já foi aberta
+    private final byte[] counts;
+
+    private boolean minesPlaced;
+    private int revealedCount;
+    private int flagCount;
+    private State state = State.PLAYING;
+
+    // Fila circular de sementes do preenchimento, com a linha nos 32 bits altos e a coluna nos baixos
+    private long[] queue = new long[64];
+    private int queueHead;
+    private int queueSize;
+
+    /**
+     * Cria um campo cujas minas serão sorteadas na primeira jogada.
+     *
+     * @param rows      Número de linhas.
+     * @param columns   Número de colunas.
+     * @param mineCount Quantidade de minas, menor que a quantidade de casas.
+     * @param seed      Semente do sorteio: o mesmo campo e a mesma primeira jogada dão as mesmas minas.
+     * @throws MinefieldException Se o campo não tiver ao menos uma casa, for grande demais ou não couber as minas.
+     */
+    public Minefield(int rows, int columns, int mineCount, long seed) {
+
+        if (rows < 1 || columns < 1)
+            throw new MinefieldException("Error creating minefield: there must be at least 1 row and 1 column");
+        if ((long) rows * columns > Integer.MAX_VALUE - 8)
+            throw new MinefieldException("Error creating minefield: too many cells");
+        if (mineCount < 0 || mineCount >= rows * columns)
+            throw new MinefieldException("Error creating minefield: there must be fewer mines than cells");
+
+        this.rows = rows;
+        this.columns = columns;
+        this.mineCount = mineCount;
+        this.seed = seed;
+        stride = (columns + 63) >>> 6;
+        lastWordMask = -1L >>> (-columns & 63);
+
+        int words = rows * stride;
+        mines = new long[words];
+        revealed = new long[words];
+        flagged = new long[words];
+        empty = new long[words];
+        expanded = new long[words];
+        counts = new byte[rows * columns];
+    }
+
+    public int getRows() {
+        return rows;
+    }
+    public int getColumns() {
+        return columns;
+    }
+    public int getMineCount() {
+        return mineCount;
+    }
+    public long getSeed() {
+        return seed;
+    }
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Obtém a quantidade de casas sem mina já abertas.
+     */
+    public int getRevealedCount() {
+        return revealedCount;
+    }
+
+    public int getFlagCount() {
+        return flagCount;
+    }
+
+    public boolean isRevealed(int row, int column) {
+        checkPosition(row, column);
+        return isSet(revealed, row, column);
+    }
+
+    public boolean isFlagged(int row, int column) {
+        checkPosition(row, column);
+        return isSet(flagged, row, column);
+    }
+
+    /**
+     * Informa se a casa tem mina; antes da primeira jogada nenhuma casa tem.
+     */
+    public boolean isMine(int row, int column) {
+        checkPosition(row, column);
+        return isSet(mines, row, column);
+    }
+
+    /**
+     * Obtém a quantidade de minas nas casas vizinhas; antes da primeira jogada é sempre zero.
+     */
+    public int getAdjacentMines(int row, int column) {
+        checkPosition(row, column);
+        return counts[row * columns + column];
+    }
+
+    /**
+     * Abre uma casa. Se ela for vazia, abre também a região vazia ligada a ela e a borda dessa região; se tiver
+     * mina, a partida está perdida. Casas com bandeira ou já abertas são ignoradas.
+     *
+     * @return A quantidade de casas sem mina abertas pela jogada.
+     * @throws MinefieldException Se a posição não estiver no campo ou a partida já tiver terminado.
+     */
+    public int reveal(int row, int column) {
+        checkPosition(row, column);
+        checkPlaying();
+
+        if (isSet(flagged, row, column) || isSet(revealed, row, column))
+            return 0;
+        if (!minesPlaced)
+            placeMines(row, column);
+
+        if (isSet(mines, row, column)) {
+            set(revealed, row, column);
+            state = State.LOST;
+            return 0;
+        }
+
+        int opened;
+        if (isSet(empty, row, column)) {
+            opened = flood(row, column);
+        } else {
+            set(revealed, row, column);
+            opened = 1;
+        }
+
+        revealedCount += opened;
+        if (revealedCount == rows * columns - mineCount)
+            state = State.WON;
+        return opened;
+    }
+
+    /**
+     * Abre as vizinhas fechadas e sem bandeira de uma casa aberta cujas minas vizinhas já estão todas marcadas.
+     *
+     * @return A quantidade de casas sem mina abertas, zero se as bandeiras vizinhas não baterem com o número.
+     * @throws MinefieldException Se a posição não estiver no campo ou a partida já tiver terminado.
+     */
+    public int chord(int row, int column) {
+        checkPosition(row, column);
+        checkPlaying();
+
+        int count = counts[row * columns + column];
+        if (!isSet(revealed, row, column) || count == 0)
+            return 0;
+
+        int flags = 0;
+        for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++)
+            for (int c = Math.max(column - 1, 0); c <= Math.min(column + 1, columns - 1); c++)
+                if (isSet(flagged, r, c))
+                    flags++;
+        if (flags != count)
+            return 0;
+
+        int opened = 0;
+        for (int r = Math.max(row - 1, 0); r <= Math.min(row + 1, rows - 1); r++) {
+            for (int c = Math.max(column - 1, 0); c <= Math.min(column + 1, columns - 1); c++) {
+                opened += reveal(r, c);
+                if (state != State.PLAYING)
+                    return opened;
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Põe ou tira a bandeira de uma casa fechada.
+     *
+     * @return Se a casa ficou com bandeira.
+     * @throws MinefieldException Se a posição não estiver no campo, a casa estiver aberta ou a partida tiver
+     *                            terminado.
+     */
+    public boolean toggleFlag(int row, int column) {
+        checkPosition(row, column);
+        checkPlaying();
+        if (isSet(revealed, row, column))
+            throw new MinefieldException("A revealed cell cannot be flagged");
+
+        flagged[row * stride + (column >>> 6)] ^= 1L << column;
+        boolean flag = isSet(flagged, row, column);
+        flagCount += flag ? 1 : -1;
+        return flag;
+    }
+
+    private void checkPosition(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            throw new MinefieldException("Position not on the minefield");
+    }
+
+    private void checkPlaying() {
+        if (state != State.PLAYING)
+            throw new MinefieldException("The game is over");
+    }
+
+    private boolean isSet(long[] bits, int row, int column) {
+        return (bits[row * stride + (column >>> 6)] & 1L << column) != 0;
+    }
+
+    private void set(long[] bits, int row, int column) {
+        bits[row * stride + (column >>> 6)] |= 1L << column;
+    }
+
+    private long columnMask(int word) {
+        return word == stride - 1 ? lastWordMask : -1L;
+    }
+
+    /**
+     * Sorteia as minas fora da primeira casa aberta e das suas vizinhas, ou só fora da primeira casa se as minas
+     * não couberem no restante, e calcula as quantidades de minas vizinhas e as casas vazias.
+     * <p>
+     * O sorteio é por rejeição direto no conjunto de bits; quando as minas passam da metade das casas livres,
+     * sorteiam-se as casas sem mina, para que o sorteio nunca precise de mais que duas tentativas por casa em média.
+     */
+    private void placeMines(int row, int column) {
+        int top = Math.max(row - 1, 0), bottom = Math.min(row + 1, rows - 1);
+        int left = Math.max(column - 1, 0), right = Math.min(column + 1, columns - 1);
+        if (mineCount > rows * columns - (bottom - top + 1) * (right - left + 1)) {
+            top = bottom = row;
+            left = right = column;
+        }
+        int free = rows * columns - (bottom - top + 1) * (right - left + 1);
+
+        boolean inverse = mineCount > free / 2;
+        long[] chosen = inverse ? new long[mines.length] : mines;
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int placed = 0, target = inverse ? free - mineCount : mineCount; placed < target; ) {
+            int r = random.nextInt(rows), c = random.nextInt(columns);
+            boolean reserved = r >= top && r <= bottom && c >= left && c <= right;
+            if (!reserved && !isSet(chosen, r, c)) {
+                set(chosen, r, c);
+                placed++;
+            }
+        }
+
+        if (inverse) {
+            for (int i = 0; i < mines.length; i++)
+                mines[i] = columnMask(i % stride) & ~chosen[i];
+            for (int r = top; r <= bottom; r++)
+                for (int c = left; c <= right; c++)
+                    mines[r * stride + (c >>> 6)] &= ~(1L << c);
+        }
+
+        minesPlaced = true;
+        countNeighbors();
+    }
+
+    /**
+     * Soma cada mina às suas vizinhas e obtém as casas vazias dilatando o conjunto das minas, 64 casas por vez:
+     * uma casa é vazia se nem ela nem as vizinhas estão na dilatação horizontal das linhas de cima, dela e de baixo.
+     */
+    private void countNeighbors() {
+        for (int r = 0; r < rows; r++) {
+            for (int w = 0; w < stride; w++) {
+                for (long bits = mines[r * stride + w]; bits != 0; bits &= bits - 1) {
+                    int c = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++)
+                        for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, columns - 1); nc++)
+                            counts[nr * columns + nc]++;
+                    counts[r * columns + c]--;
+                }
+            }
+        }
+
+        long[] near = new long[mines.length];
+        for (int i = 0; i < mines.length; i++) {
+            int w = i % stride;
+            long bits = mines[i];
+            long before = w > 0 ? mines[i - 1] : 0;
+            long after = w < stride - 1 ? mines[i + 1] : 0;
+            near[i] = bits | bits << 1 | before >>> 63 | bits >>> 1 | after << 63;
+        }
+        for (int i = 0; i < mines.length; i++) {
+            long around = near[i];
+            if (i >= stride)
+                around |= near[i - stride];
+            if (i + stride < near.length)
+                around |= near[i + stride];
+            empty[i] = columnMask(i % stride) & ~around;
+        }
+    }
+
+    /**
+     * Casas vazias ainda não expandidas e sem bandeira de uma palavra, por onde o preenchimento pode passar.
+     */
+    private long passable(int word) {
+        return empty[word] & ~expanded[word] & ~flagged[word];
+    }
+
+    private long rangeMask(int word, int from, int to) {
+        long mask = -1L;
+        if (word == from >>> 6)
+            mask &= -1L << from;
+        if (word == to >>> 6)
+            mask &= -1L >>> (63 - (to & 63));
+        return mask;
+    }
+
+    /**
+     * Abre a região vazia que contém a casa e a sua borda, faixa por faixa.
+     *
+     * @return A quantidade de casas abertas.
+     */
+    private int flood(int row, int column) {
+        int opened = 0;
+        offer(row, column);
+        while (queueSize > 0) {
+            long next = poll();
+            int r = (int) (next >>> 32), c = (int) next;
+            int base = r * stride;
+            if ((passable(base + (c >>> 6)) & 1L << c) == 0)
+                continue;
+
+            int first = runStart(base, c), last = runEnd(base, c);
+            for (int w = first >>> 6; w <= last >>> 6; w++)
+                expanded[base + w] |= rangeMask(w, first, last);
+
+            int from = Math.max(first - 1, 0), to = Math.min(last + 1, columns - 1);
+            for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++) {
+                opened += revealRange(nr * stride, from, to);
+                if (nr != r)
+                    offerRuns(nr, from, to);
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Obtém a primeira coluna da faixa de casas por onde o preenchimento pode passar que contém a coluna dada.
+     */
+    private int runStart(int base, int column) {
+        int w = column >>> 6;
+        long stop = ~passable(base + w) & -1L >>> (63 - (column & 63));
+        while (stop == 0 && --w >= 0)
+            stop = ~passable(base + w);
+        return w < 0 ? 0 : (w << 6) + 64 - Long.numberOfLeadingZeros(stop);
+    }
+
+    /**
+     * Obtém a última coluna da faixa de casas por onde o preenchimento pode passar que contém a coluna dada.
+     */
+    private int runEnd(int base, int column) {
+        int w = column >>> 6;
+        long stop = ~passable(base + w) & -1L << column;
+        while (stop == 0 && ++w < stride)
+            stop = ~passable(base + w);
+        return w == stride ? columns - 1 : Math.min((w << 6) + Long.numberOfTrailingZeros(stop) - 1, columns - 1);
+    }
+
+    /**
+     * Abre as casas fechadas e sem bandeira de um trecho de linha, que nunca tem minas por ser vizinho de casas
+     * vazias.
+     */
+    private int revealRange(int base, int from, int to) {
+        int opened = 0;
+        for (int w = from >>> 6; w <= to >>> 6; w++) {
+            long fresh = rangeMask(w, from, to) & ~revealed[base + w] & ~flagged[base + w];
+            revealed[base + w] |= fresh;
+            opened += Long.bitCount(fresh);
+        }
+        return opened;
+    }
+
+    /**
+     * Põe na fila o início de cada faixa de casas por onde o preenchimento pode passar em um trecho de linha.
+     */
+    private void offerRuns(int row, int from, int to) {
+        int base = row * stride;
+        long previous = 0;
+        for (int w = from >>> 6; w <= to >>> 6; w++) {
+            long runs = passable(base + w) & rangeMask(w, from, to);
+            for (long starts = runs & ~(runs << 1 | previous >>> 63); starts != 0; starts &= starts - 1)
+                offer(row, (w << 6) + Long.numberOfTrailingZeros(starts));
+            previous = runs;
+        }
+    }
+
+    private void offer(int row, int column) {
+        if (queueSize == queue.length) {
+            long[] larger = new long[queue.length * 2];
+            for (int i = 0; i < queueSize; i++)
+                larger[i] = queue[(queueHead + i) & (queue.length - 1)];
+            queue = larger;
+            queueHead = 0;
+        }
+        queue[(queueHead + queueSize++) & (queue.length - 1)] = (long) row << 32 | column;
+    }
+
+    private long poll() {
+        long next = queue[queueHead];
+        queueHead = (queueHead + 1) & (queue.length - 1);
+        queueSize--;
+        return next;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder((columns + 1) * rows);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (isSet(flagged, r, c))
+                    sb.append('F');
+                else if (!isSet(revealed, r, c))
+                    sb.append('-');
+                else if (isSet(mines, r, c))
+                    sb.append('*');
+                else
+                    sb.append(counts[r * columns + c] == 0 ? '.' : (char) ('0' + counts[r * columns + c]));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
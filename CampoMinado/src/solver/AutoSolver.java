@@ -0,0 +1,64 @@
+package solver;
+
+import minefield.Minefield;
+
+/**
+ * Jogador automático: abre o centro do campo e, a cada rodada, abre todas as casas que certamente não têm mina ou,
+ * se não houver nenhuma, arrisca a casa com a menor probabilidade de mina.
+ * <p>
+ * O jogador não guarda estado entre as partidas, de modo que pode ser usado por várias threads ao mesmo tempo.
+ */
+public class AutoSolver {
+
+    private final ProbabilitySolver solver;
+
+    public AutoSolver(ProbabilitySolver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Joga uma partida até o fim.
+     *
+     * @param minefield O campo, novo ou com a partida em andamento e sem bandeiras.
+     * @return O resultado da partida.
+     */
+    public Result play(Minefield minefield) {
+        int rows = minefield.getRows(), columns = minefield.getColumns();
+        int moves = 0, guesses = 0;
+        if (minefield.getRevealedCount() == 0) {
+            minefield.reveal(rows / 2, columns / 2);
+            moves++;
+        }
+
+        while (minefield.getState() == Minefield.State.PLAYING) {
+            Probabilities probabilities = solver.solve(minefield);
+            boolean progress = false;
+            for (int r = 0; r < rows && minefield.getState() == Minefield.State.PLAYING; r++) {
+                for (int c = 0; c < columns && minefield.getState() == Minefield.State.PLAYING; c++) {
+                    if (probabilities.get(r, c) == 0 && minefield.reveal(r, c) > 0) {
+                        moves++;
+                        progress = true;
+                    }
+                }
+            }
+
+            if (!progress && minefield.getState() == Minefield.State.PLAYING) {
+                int safest = probabilities.getSafest();
+                minefield.reveal(safest / columns, safest % columns);
+                moves++;
+                guesses++;
+            }
+        }
+        return new Result(minefield.getState(), moves, guesses);
+    }
+
+    /**
+     * Resultado de uma partida do jogador automático.
+     *
+     * @param state   Como a partida terminou.
+     * @param moves   As casas abertas pelo jogador, sem contar as abertas junto com elas.
+     * @param guesses As jogadas feitas sem uma casa certamente sem mina.
+     */
+    public record Result(Minefield.State state, int moves, int guesses) {
+    }
+}
@@ -0,0 +1,254 @@
+package solver;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Componente independente da fronteira: casas fechadas ligadas entre si por números abertos, cujas soluções não
+ * dependem das outras componentes a não ser pela quantidade total de minas.
+ * <p>
+ * As casas que estão exatamente nas mesmas restrições são intercambiáveis e formam um grupo: a busca decide só
+ * quantas minas o grupo tem, e cada quantidade k de um grupo de n casas vale C(n, k) soluções. Cada restrição é uma
+ * máscara de bits sobre os grupos e a quantidade de minas que ela exige. A busca atribui os grupos na ordem em que a
+ * componente foi percorrida, para que as restrições se fechem cedo, e a cada atribuição propaga as restrições
+ * afetadas: uma restrição já satisfeita esvazia os grupos livres dela, e uma que precisa de todas as casas livres
+ * enche esses grupos de minas. Para cada quantidade de minas, a busca conta as soluções e, para cada grupo, as minas
+ * dele somadas em todas as soluções.
+ * <p>
+ * Se a busca passar de {@link #NODE_LIMIT} nós, ela desiste e a componente é tratada como casas sem restrição.
+ */
+final class ConstraintComponent extends RecursiveAction {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    static final long NODE_LIMIT = 1L << 22;
+
+    final int[] cells;
+    final int size;
+    final double[] solutions;
+    int minMines = Integer.MAX_VALUE;
+    int maxMines = -1;
+    boolean exhausted;
+
+    private final int groups;
+    private final int[] groupOf;
+    private final int[] groupSizes;
+    private final double[][] binomials;
+    private final double[] groupCounts;
+
+    private final int words;
+    private final long lastWordMask;
+    private final long[][] masks;
+    private final int[] targets;
+    private final int[][] groupConstraints;
+
+    private final int[] values;
+    private final long[][] assignedStack;
+    private final int[] work;
+    private final boolean[] queued;
+    private long nodes;
+
+    /**
+     * Cria a componente.
+     *
+     * @param cells       As casas do campo, na ordem da busca.
+     * @param constraints As restrições, cada uma com a quantidade de minas seguida das posições das casas em
+     *                    {@code cells}.
+     */
+    ConstraintComponent(int[] cells, int[][] constraints) {
+        this.cells = cells;
+        size = cells.length;
+        solutions = new double[size + 1];
+
+        // Restrições de cada casa, em ordem crescente, que identificam o grupo dela
+        int[][] cellConstraints = new int[size][];
+        int[] degree = new int[size];
+        for (int[] constraint : constraints)
+            for (int i = 1; i < constraint.length; i++)
+                degree[constraint[i]]++;
+        for (int cell = 0; cell < size; cell++)
+            cellConstraints[cell] = new int[degree[cell]];
+        for (int c = constraints.length - 1; c >= 0; c--)
+            for (int i = 1; i < constraints[c].length; i++)
+                cellConstraints[constraints[c][i]][--degree[constraints[c][i]]] = c;
+
+        groupOf = new int[size];
+        int[] sizes = new int[size];
+        int[][] signatures = new int[size][];
+        Map<String, Integer> index = new HashMap<>();
+        int count = 0;
+        for (int cell = 0; cell < size; cell++) {
+            Integer group = index.putIfAbsent(Arrays.toString(cellConstraints[cell]), count);
+            if (group == null) {
+                signatures[count] = cellConstraints[cell];
+                group = count++;
+            }
+            groupOf[cell] = group;
+            sizes[group]++;
+        }
+        groups = count;
+        groupSizes = Arrays.copyOf(sizes, groups);
+        groupCounts = new double[(size + 1) * groups];
+        binomials = new double[groups][];
+        for (int g = 0; g < groups; g++) {
+            int n = groupSizes[g];
+            binomials[g] = new double[n + 1];
+            binomials[g][0] = 1;
+            for (int k = 1; k <= n; k++)
+                binomials[g][k] = binomials[g][k - 1] * (n - k + 1) / k;
+        }
+
+        words = (groups + 63) >>> 6;
+        lastWordMask = -1L >>> (-groups & 63);
+        masks = new long[constraints.length][words];
+        targets = new int[constraints.length];
+        groupConstraints = new int[groups][];
+        for (int c = 0; c < constraints.length; c++)
+            targets[c] = constraints[c][0];
+        for (int g = 0; g < groups; g++) {
+            groupConstraints[g] = signatures[g];
+            for (int c : signatures[g])
+                masks[c][g >>> 6] |= 1L << g;
+        }
+
+        values = new int[groups];
+        assignedStack = new long[groups + 1][words];
+        work = new int[constraints.length];
+        queued = new boolean[constraints.length];
+    }
+
+    @Override
+    protected void compute() {
+        search(0, new long[words]);
+    }
+
+    /**
+     * Preenche a probabilidade de mina de cada casa da componente.
+     *
+     * @param weights Quanto vale uma solução da componente com cada quantidade de minas, pelos modos de completar o
+     *                resto do campo.
+     * @param values  As probabilidades das casas do campo.
+     */
+    void fill(double[] weights, double[] values) {
+        double total = 0;
+        for (int k = minMines; k <= maxMines; k++)
+            total += solutions[k] * weights[k];
+
+        double[] probabilities = new double[groups];
+        for (int g = 0; g < groups; g++) {
+            double sum = 0;
+            for (int k = minMines; k <= maxMines; k++)
+                sum += groupCounts[g * (size + 1) + k] * weights[k];
+            probabilities[g] = total > 0 ? sum / (total * groupSizes[g]) : Double.NaN;
+        }
+        for (int cell = 0; cell < size; cell++)
+            values[cells[cell]] = probabilities[groupOf[cell]];
+    }
+
+    private void search(int depth, long[] assigned) {
+        if (exhausted || ++nodes > NODE_LIMIT) {
+            exhausted = true;
+            return;
+        }
+
+        int group = nextUnassigned(assigned);
+        if (group < 0) {
+            record();
+            return;
+        }
+
+        long[] a = assignedStack[depth];
+        for (int value = 0; value <= groupSizes[group]; value++) {
+            System.arraycopy(assigned, 0, a, 0, words);
+            a[group >>> 6] |= 1L << group;
+            values[group] = value;
+            if (propagate(group, a))
+                search(depth + 1, a);
+        }
+    }
+
+    private int nextUnassigned(long[] assigned) {
+        for (int w = 0; w < words; w++) {
+            long free = ~assigned[w] & (w == words - 1 ? lastWordMask : -1L);
+            if (free != 0)
+                return (w << 6) + Long.numberOfTrailingZeros(free);
+        }
+        return -1;
+    }
+
+    /**
+     * Propaga as restrições a partir do grupo recém-atribuído até que nenhuma force mais grupos. Os valores dos
+     * grupos fora de {@code a} são restos de outros ramos e não são lidos.
+     *
+     * @return Se nenhuma restrição ficou impossível.
+     */
+    private boolean propagate(int group, long[] a) {
+        int pending = enqueue(group, 0);
+        boolean consistent = true;
+        while (pending > 0) {
+            int c = work[--pending];
+            queued[c] = false;
+            if (!consistent)
+                continue;
+
+            long[] mask = masks[c];
+            int mineCount = 0, free = 0;
+            for (int w = 0; w < words; w++) {
+                for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+                    int g = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    if ((a[w] & bits & -bits) != 0)
+                        mineCount += values[g];
+                    else
+                        free += groupSizes[g];
+                }
+            }
+            int target = targets[c];
+            if (mineCount > target || mineCount + free < target) {
+                consistent = false;
+                continue;
+            }
+            if (free == 0 || (mineCount != target && mineCount + free != target))
+                continue;
+
+            boolean allMines = mineCount != target;
+            for (int w = 0; w < words; w++) {
+                long forced = mask[w] & ~a[w];
+                a[w] |= forced;
+                for (; forced != 0; forced &= forced - 1) {
+                    int g = (w << 6) + Long.numberOfTrailingZeros(forced);
+                    values[g] = allMines ? groupSizes[g] : 0;
+                    pending = enqueue(g, pending);
+                }
+            }
+        }
+        return consistent;
+    }
+
+    private int enqueue(int group, int pending) {
+        for (int c : groupConstraints[group]) {
+            if (!queued[c]) {
+                queued[c] = true;
+                work[pending++] = c;
+            }
+        }
+        return pending;
+    }
+
+    private void record() {
+        double weight = 1;
+        int count = 0;
+        for (int g = 0; g < groups; g++) {
+            weight *= binomials[g][values[g]];
+            count += values[g];
+        }
+        solutions[count] += weight;
+        minMines = Math.min(minMines, count);
+        maxMines = Math.max(maxMines, count);
+        for (int g = 0; g < groups; g++)
+            groupCounts[g * (size + 1) + count] += weight * values[g];
+    }
+}
@@ -0,0 +1,74 @@
+package solver;
+
+/**
+ * Probabilidade de mina de cada casa fechada de um campo, calculada por {@link ProbabilitySolver}.
+ */
+public class Probabilities {
+
+    private final int rows;
+    private final int columns;
+    private final double[] values;
+    private final int frontierSize;
+    private final int components;
+    private final boolean exact;
+
+    Probabilities(int rows, int columns, double[] values, int frontierSize, int components, boolean exact) {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = values;
+        this.frontierSize = frontierSize;
+        this.components = components;
+        this.exact = exact;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Obtém a probabilidade de a casa ter mina.
+     *
+     * @return A probabilidade, de 0 a 1, ou {@link Double#NaN} se a casa estiver aberta.
+     */
+    public double get(int row, int column) {
+        return values[row * columns + column];
+    }
+
+    /**
+     * Obtém a quantidade de casas fechadas vizinhas de números abertos.
+     */
+    public int getFrontierSize() {
+        return frontierSize;
+    }
+
+    /**
+     * Obtém a quantidade de componentes independentes da fronteira.
+     */
+    public int getComponents() {
+        return components;
+    }
+
+    /**
+     * Informa se todas as componentes foram resolvidas; se alguma passou do limite da busca, as casas dela
+     * receberam a probabilidade das casas sem restrição.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Obtém a casa fechada com a menor probabilidade de mina, a primeira em ordem de linha e coluna no empate.
+     *
+     * @return A posição da casa como {@code linha * colunas + coluna}, ou -1 se não houver casa fechada.
+     */
+    public int getSafest() {
+        int safest = -1;
+        for (int i = 0; i < values.length; i++)
+            if (values[i] >= 0 && (safest < 0 || values[i] < values[safest]))
+                safest = i;
+        return safest;
+    }
+}
@@ -0,0 +1,273 @@
+package solver;
+
+import minefield.Minefield;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Calcula a probabilidade exata de mina de cada casa fechada, a partir só dos números abertos e da quantidade total
+ * de minas; as bandeiras do jogador são ignoradas.
+ * <p>
+ * Cada número aberto com vizinhas fechadas é uma restrição sobre elas, e as casas fechadas dessas restrições (a
+ * fronteira) são separadas em componentes que não compartilham restrições. Cada componente é resolvida por
+ * {@link ConstraintComponent}, que conta as suas soluções por quantidade de minas; as componentes grandes são
+ * resolvidas em paralelo no pool. As outras casas fechadas, sem restrição, recebem as minas que sobram.
+ * <p>
+ * Como a quantidade total de minas é conhecida, as componentes não são independentes de fato: uma solução da
+ * componente com k minas vale a quantidade de modos de completar o campo com as soluções das outras componentes e
+ * com as minas restantes nas casas sem restrição, C(casas sem restrição, minas restantes). As distribuições das
+ * outras componentes são combinadas por convolução, com prefixos e sufixos para não repetir o trabalho para cada
+ * componente, e as combinações são calculadas em escala logarítmica, para que campos grandes não estourem o double.
+ * <p>
+ * Um solucionador pode ser usado por várias threads ao mesmo tempo.
+ */
+public class ProbabilitySolver {
+
+    // Tamanho da fronteira a partir do qual vale a pena dividir as componentes entre as threads
+    private static final int PARALLEL_THRESHOLD = 48;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Cria um solucionador que usa o pool comum para as componentes grandes.
+     */
+    public ProbabilitySolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Cria um solucionador.
+     *
+     * @param pool O pool em que as componentes são resolvidas em paralelo, ou null para resolvê-las na thread que
+     *             chama {@link #solve}.
+     */
+    public ProbabilitySolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Calcula as probabilidades de mina das casas fechadas de um campo.
+     *
+     * @param minefield O campo, que não deve ser alterado durante o cálculo.
+     * @return As probabilidades.
+     */
+    public Probabilities solve(Minefield minefield) {
+        int rows = minefield.getRows(), columns = minefield.getColumns();
+        double[] values = new double[rows * columns];
+        int[] frontierIndex = new int[rows * columns];
+        Arrays.fill(frontierIndex, -1);
+
+        // Restrições, com a quantidade de minas seguida dos índices das casas na fronteira
+        List<int[]> constraints = new ArrayList<>();
+        int[] frontier = new int[rows * columns];
+        int frontierSize = 0, covered = 0;
+        int[] neighbors = new int[9];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (!minefield.isRevealed(r, c)) {
+                    values[r * columns + c] = -1; // Ainda sem probabilidade
+                    covered++;
+                    continue;
+                }
+                values[r * columns + c] = Double.NaN;
+                int count = minefield.getAdjacentMines(r, c);
+                if (count == 0 || minefield.isMine(r, c))
+                    continue;
+
+                int size = 0;
+                neighbors[size++] = count;
+                for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++) {
+                    for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, columns - 1); nc++) {
+                        if (minefield.isRevealed(nr, nc))
+                            continue;
+                        int cell = nr * columns + nc;
+                        if (frontierIndex[cell] < 0) {
+                            frontierIndex[cell] = frontierSize;
+                            frontier[frontierSize++] = cell;
+                        }
+                        neighbors[size++] = frontierIndex[cell];
+                    }
+                }
+                if (size > 1)
+                    constraints.add(Arrays.copyOf(neighbors, size));
+            }
+        }
+
+        List<ConstraintComponent> components = split(frontier, frontierSize, constraints);
+        if (pool != null && components.size() > 1 && frontierSize >= PARALLEL_THRESHOLD)
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(components)));
+        else
+            components.forEach(ConstraintComponent::invoke);
+
+        List<ConstraintComponent> solved = new ArrayList<>();
+        int unconstrained = covered;
+        for (ConstraintComponent component : components) {
+            if (!component.exhausted) {
+                solved.add(component);
+                unconstrained -= component.size;
+            }
+        }
+        combine(solved, unconstrained, minefield.getMineCount(), values);
+        return new Probabilities(rows, columns, values, frontierSize, components.size(),
+                solved.size() == components.size());
+    }
+
+    /**
+     * Separa a fronteira em componentes, percorrendo as casas pelas restrições em comum, e numera as casas de cada
+     * componente na ordem do percurso.
+     *
+     * @return As componentes, da maior para a menor, para que as maiores comecem primeiro no pool.
+     */
+    private static List<ConstraintComponent> split(int[] frontier, int frontierSize, List<int[]> constraints) {
+        int[] degree = new int[frontierSize];
+        for (int[] constraint : constraints)
+            for (int i = 1; i < constraint.length; i++)
+                degree[constraint[i]]++;
+
+        int[][] cellConstraints = new int[frontierSize][];
+        for (int i = 0; i < frontierSize; i++)
+            cellConstraints[i] = new int[degree[i]];
+        for (int c = 0; c < constraints.size(); c++)
+            for (int i = 1; i < constraints.get(c).length; i++)
+                cellConstraints[constraints.get(c)[i]][--degree[constraints.get(c)[i]]] = c;
+
+        List<ConstraintComponent> components = new ArrayList<>();
+        int[] local = new int[frontierSize];
+        Arrays.fill(local, -1);
+        boolean[] taken = new boolean[constraints.size()];
+        int[] order = new int[frontierSize];
+        for (int start = 0; start < frontierSize; start++) {
+            if (local[start] >= 0)
+                continue;
+
+            // Percurso em largura: as casas de uma restrição ficam próximas na ordem da busca
+            int size = 0;
+            local[start] = size;
+            order[size++] = start;
+            List<int[]> componentConstraints = new ArrayList<>();
+            for (int next = 0; next < size; next++) {
+                for (int c : cellConstraints[order[next]]) {
+                    if (taken[c])
+                        continue;
+                    taken[c] = true;
+                    int[] constraint = constraints.get(c);
+                    for (int i = 1; i < constraint.length; i++) {
+                        if (local[constraint[i]] < 0) {
+                            local[constraint[i]] = size;
+                            order[size++] = constraint[i];
+                        }
+                    }
+                    componentConstraints.add(constraint);
+                }
+            }
+
+            int[] cells = new int[size];
+            for (int i = 0; i < size; i++)
+                cells[i] = frontier[order[i]];
+            int[][] localConstraints = new int[componentConstraints.size()][];
+            for (int c = 0; c < localConstraints.length; c++) {
+                int[] constraint = componentConstraints.get(c);
+                localConstraints[c] = new int[constraint.length];
+                localConstraints[c][0] = constraint[0];
+                for (int i = 1; i < constraint.length; i++)
+                    localConstraints[c][i] = local[constraint[i]];
+            }
+            components.add(new ConstraintComponent(cells, localConstraints));
+        }
+
+        components.sort((a, b) -> Integer.compare(b.size, a.size));
+        return components;
+    }
+
+    /**
+     * Combina as contagens das componentes com as casas sem restrição, preenchendo as probabilidades.
+     */
+    private static void combine(List<ConstraintComponent> components, int unconstrained, int mines, double[] values) {
+        int count = components.size();
+        // prefixes[i] combina as componentes antes de i, e suffixes[i] as componentes de i em diante
+        double[][] prefixes = new double[count + 1][];
+        double[][] suffixes = new double[count + 1][];
+        prefixes[0] = suffixes[count] = new double[]{1};
+        for (int i = 0; i < count; i++)
+            prefixes[i + 1] = convolve(prefixes[i], components.get(i).solutions);
+        for (int i = count - 1; i >= 0; i--)
+            suffixes[i] = convolve(components.get(i).solutions, suffixes[i + 1]);
+
+        double[] ways = unconstrainedWays(unconstrained, mines, Math.max(0, mines - (prefixes[count].length - 1)));
+        for (int i = 0; i < count; i++) {
+            ConstraintComponent component = components.get(i);
+            double[] others = convolve(prefixes[i], suffixes[i + 1]);
+
+            // weights[k]: modos de completar o campo quando a componente tem k minas
+            double[] weights = new double[component.size + 1];
+            for (int k = component.minMines; k <= component.maxMines; k++)
+                for (int rest = 0; rest < others.length && k + rest <= mines; rest++)
+                    weights[k] += others[rest] * way(ways, mines - k - rest);
+            component.fill(weights, values);
+        }
+
+        // Casas sem restrição: a média das minas restantes por casa, ponderada pelas combinações
+        double[] all = prefixes[count];
+        double sum = 0, total = 0;
+        for (int k = 0; k < all.length && k <= mines; k++) {
+            double weight = all[k] * way(ways, mines - k);
+            total += weight;
+            if (unconstrained > 0)
+                sum += weight * (mines - k) / unconstrained;
+        }
+        double probability = total > 0 ? sum / total : Double.NaN;
+        for (int i = 0; i < values.length; i++)
+            if (values[i] < 0)
+                values[i] = probability;
+    }
+
+    /**
+     * Convolui duas distribuições e divide o resultado pelo maior valor, já que só as proporções importam.
+     */
+    private static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0)
+                continue;
+            for (int j = 0; j < b.length; j++)
+                result[i + j] += a[i] * b[j];
+        }
+        double max = 0;
+        for (double value : result)
+            max = Math.max(max, value);
+        if (max > 0)
+            for (int i = 0; i < result.length; i++)
+                result[i] /= max;
+        return result;
+    }
+
+    /**
+     * Calcula C(casas, r) para r de 0 até as minas, divididos pelo maior deles a partir de {@code from}, a menor
+     * quantidade de minas que pode sobrar para as casas, para caber no double.
+     */
+    private static double[] unconstrainedWays(int cells, int mines, int from) {
+        int limit = Math.min(cells, mines);
+        double[] logs = new double[limit + 1];
+        double max = Double.NEGATIVE_INFINITY;
+        for (int r = 0; r <= limit; r++) {
+            if (r > 0)
+                logs[r] = logs[r - 1] + Math.log(cells - r + 1) - Math.log(r);
+            if (r >= from)
+                max = Math.max(max, logs[r]);
+        }
+        if (max == Double.NEGATIVE_INFINITY)
+            max = 0;
+        double[] ways = new double[limit + 1];
+        for (int r = 0; r <= limit; r++)
+            ways[r] = Math.exp(logs[r] - max);
+        return ways;
+    }
+
+    private static double way(double[] ways, int remaining) {
+        return remaining >= 0 && remaining < ways.length ? ways[remaining] : 0;
+    }
+}
@@ -0,0 +1,95 @@
+import forca.Carga;
+
+//Operações medidas pelos benchmarks do pacote forca, que não podem usar as classes do pacote padrão diretamente
+public class CargaDaForca implements Carga {
+
+    //Texto de onde saem as palavras: o começo dele com o tamanho pedido, para que palavras de tamanhos diferentes
+    //tenham letras repetidas como as palavras reais
+    private static final String TEXTO = "INCONSTITUCIONALISSIMAMENTEPARALELEPIPEDOOTORRINOLARINGOLOGISTA";
+
+    private final Palavra palavra;
+    private final Tracinhos metadeRevelada;
+    private final ControladorDeLetrasJaDigitadas metadeDigitada = new ControladorDeLetrasJaDigitadas();
+    private final Jogador jogador = new JogadorPorFrequencia();
+
+    public CargaDaForca(int tamanho) throws Exception {
+        this.palavra = new Palavra(TEXTO.substring(0, tamanho));
+        this.metadeRevelada = new Tracinhos(tamanho);
+        for (char letra = 'A'; letra <= 'Z'; letra += 2) {
+            this.metadeRevelada.revele(this.palavra.getPosicoes(letra), this.palavra);
+            this.metadeDigitada.registre(letra);
+        }
+    }
+
+    @Override
+    public int quantidades() {
+        int total = 0;
+        for (char letra = 'A'; letra <= 'Z'; letra++)
+            total += this.palavra.getQuantidade(letra);
+        return total;
+    }
+
+    @Override
+    public int posicoes() throws Exception {
+        int total = 0;
+        for (char letra = 'A'; letra <= 'Z'; letra++) {
+            int qtd = this.palavra.getQuantidade(letra);
+            for (int i = 0; i < qtd; i++)
+                total += this.palavra.getPosicaoDaIezimaOcorrencia(i, letra);
+        }
+        return total;
+    }
+
+    @Override
+    public Object reveleCadaPosicao() throws Exception {
+        Tracinhos tracinhos = new Tracinhos(this.palavra.getTamanho());
+        for (char letra = 'A'; letra <= 'Z'; letra++) {
+            int qtd = this.palavra.getQuantidade(letra);
+            for (int i = 0; i < qtd; i++)
+                tracinhos.revele(this.palavra.getPosicaoDaIezimaOcorrencia(i, letra), letra);
+        }
+        return tracinhos;
+    }
+
+    @Override
+    public Object reveleCadaLetra() throws Exception {
+        Tracinhos tracinhos = new Tracinhos(this.palavra.getTamanho());
+        for (char letra = 'A'; letra <= 'Z'; letra++)
+            tracinhos.revele(this.palavra.getPosicoes(letra), this.palavra);
+        return tracinhos;
+    }
+
+    @Override
+    public String tracinhos() {
+        return this.metadeRevelada.toString();
+    }
+
+    @Override
+    public Object registre() throws Exception {
+        ControladorDeLetrasJaDigitadas controlador = new ControladorDeLetrasJaDigitadas();
+        for (char letra = 'A'; letra <= 'Z'; letra++)
+            controlador.registre(letra);
+        return controlador;
+    }
+
+    @Override
+    public int jaDigitadas() {
+        int total = 0;
+        for (char letra = 'A'; letra <= 'Z'; letra++) {
+            if (this.metadeDigitada.isJaDigitada(letra))
+                total++;
+        }
+        return total;
+    }
+
+    @Override
+    public int partida() throws Exception {
+        Partida partida = new Partida(this.palavra);
+        int letras = 0;
+        while (!partida.isTerminada()) {
+            partida.jogue(this.jogador.getLetra(partida));
+            letras++;
+        }
+        return letras;
+    }
+}
@@ -0,0 +1,31 @@
+package forca;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks do módulo com o profiler de GC, que acrescenta a cada resultado a taxa de alocação
+ * ({@code gc.alloc.rate.norm}, em bytes por operação); nos benchmarks por letra, a operação é uma letra.
+ * <p>
+ * Aceita as mesmas opções da linha de comando do JMH; por exemplo, {@code JogadaBenchmark.tracinhos -p tamanho=40}
+ * executa apenas um benchmark com palavras de 40 letras.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        if (commandLine.getIncludes().isEmpty())
+            builder.include("forca\\..*Benchmark");
+
+        Options options = builder
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
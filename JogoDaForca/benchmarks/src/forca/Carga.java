@@ -0,0 +1,75 @@
+package forca;
+
+/**
+ * Operações do jogo medidas pelos benchmarks.
+ * <p>
+ * As classes do jogo estão no pacote padrão, que não pode ser importado de um pacote com nome, e o JMH não aceita
+ * benchmarks no pacote padrão. Por isso as operações são implementadas por {@code CargaDaForca}, no pacote padrão,
+ * e os benchmarks as chamam por esta interface; como só há uma implementação, o JIT torna as chamadas diretas.
+ * <p>
+ * As operações por letra percorrem as 26 letras, A a Z, uma vez por chamada.
+ */
+public interface Carga {
+
+    /**
+     * Quantidade de letras por chamada das operações por letra.
+     */
+    int LETRAS = 26;
+
+    /**
+     * Cria a carga com uma palavra fixa do tamanho fornecido.
+     *
+     * @param tamanho O tamanho da palavra, de 1 a 64.
+     * @return A carga.
+     */
+    static Carga crie(int tamanho) {
+        try {
+            return (Carga) Class.forName("CargaDaForca").getConstructor(int.class).newInstance(tamanho);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("CargaDaForca not found on the class path", e);
+        }
+    }
+
+    /**
+     * {@code Palavra.getQuantidade} de cada letra.
+     */
+    int quantidades();
+
+    /**
+     * {@code Palavra.getPosicaoDaIezimaOcorrencia} de todas as ocorrências de cada letra.
+     */
+    int posicoes() throws Exception;
+
+    /**
+     * Tracinhos novos, revelados uma posição de cada vez com {@code revele(int, char)}, como Forca fazia antes de
+     * revelar todas as ocorrências de uma vez.
+     */
+    Object reveleCadaPosicao() throws Exception;
+
+    /**
+     * Tracinhos novos, revelados uma letra de cada vez com {@code revele(long, Palavra)}.
+     */
+    Object reveleCadaLetra() throws Exception;
+
+    /**
+     * {@code Tracinhos.toString} com metade das letras reveladas.
+     */
+    String tracinhos();
+
+    /**
+     * Controlador novo, com {@code registre} de cada letra.
+     */
+    Object registre() throws Exception;
+
+    /**
+     * {@code isJaDigitada} de cada letra, em um controlador com metade das letras digitadas.
+     */
+    int jaDigitadas();
+
+    /**
+     * Uma partida inteira com a palavra da carga, jogada pela estratégia de frequência das letras.
+     *
+     * @return A quantidade de letras digitadas na partida.
+     */
+    int partida() throws Exception;
+}
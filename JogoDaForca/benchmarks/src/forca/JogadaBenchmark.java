@@ -0,0 +1,82 @@
+package forca;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações feitas a cada letra digitada, em palavras de 3 a 40 letras.
+ * <p>
+ * Cada chamada percorre as 26 letras e conta como 26 operações, de modo que a vazão é em letras por microssegundo
+ * e {@code gc.alloc.rate.norm} é a alocação por letra, exceto em {@code tracinhos}, que monta o texto uma vez.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JogadaBenchmark {
+
+    @Param({"3", "5", "8", "12", "20", "40"})
+    public int tamanho;
+
+    private Carga carga;
+
+    @Setup
+    public void setup() {
+        carga = Carga.crie(tamanho);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Carga.LETRAS)
+    public int getQuantidade() {
+        return carga.quantidades();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Carga.LETRAS)
+    public int getPosicaoDaIezimaOcorrencia() throws Exception {
+        return carga.posicoes();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Carga.LETRAS)
+    public Object reveleCadaPosicao() throws Exception {
+        return carga.reveleCadaPosicao();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Carga.LETRAS)
+    public Object reveleCadaLetra() throws Exception {
+        return carga.reveleCadaLetra();
+    }
+
+    @Benchmark
+    public String tracinhos() {
+        return carga.tracinhos();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Carga.LETRAS)
+    public Object registre() throws Exception {
+        return carga.registre();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Carga.LETRAS)
+    public int isJaDigitada() {
+        return carga.jaDigitadas();
+    }
+}
@@ -0,0 +1,64 @@
+package forca;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partidas inteiras, da palavra sorteada ao fim, jogadas pela estratégia de frequência das letras em palavras de
+ * 3 a 40 letras.
+ * <p>
+ * A operação é uma partida; o contador {@code letras} dá a vazão em letras, e a alocação por letra é
+ * {@code gc.alloc.rate.norm} dividida pelas letras por partida, que são sempre as mesmas para cada tamanho.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartidaBenchmark {
+
+    @Param({"3", "5", "8", "12", "20", "40"})
+    public int tamanho;
+
+    private Carga carga;
+
+    /**
+     * Letras digitadas, somadas pelo JMH como operações por unidade de tempo.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Letras {
+        public long letras;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            letras = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        carga = Carga.crie(tamanho);
+    }
+
+    @Benchmark
+    public int partida(Letras contador) throws Exception {
+        int letras = carga.partida();
+        contador.letras += letras;
+        return letras;
+    }
+}
@@ -0,0 +1,242 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+//Banco de palavras lido de um arquivo texto em UTF-8, com uma palavra por linha
+//
+//O arquivo é mapeado em memória e as palavras não viram String ao carregar: para cada palavra guardamos só
+//a posição do seu primeiro byte no arquivo e uma máscara de 26 bits com as letras que ela contém (bit 0 = A,
+//bit 25 = Z, com acentos e cedilha contando como a letra sem acento), ou seja, 8 bytes por palavra.
+//As posições ficam ordenadas por tamanho da palavra, de modo que as palavras de um tamanho, ou de uma faixa de
+//tamanhos, ocupam um trecho contínuo dos vetores e o sorteio dentro dele é O(1).
+//Só a palavra sorteada é lida do arquivo e convertida em String.
+//Não há um índice por letra aqui: a máscara permite filtrar as palavras de um tamanho pelas letras sem ler o
+//arquivo, e os índices por letra e por posição, usados para sugerir palpites, são montados por Resolvedor.
+//
+//Depois de carregado, o banco só é lido, e pode ser usado por várias threads ao mesmo tempo.
+public class ArquivoDePalavras {
+
+    public static final int TAMANHO_MAXIMO = 64;
+
+    //Bit da letra de cada byte, indexado pelo byte (0 a 255) somado a 256 se o byte anterior foi 0xC3, ou a 512
+    //se foi 0xC5: no primeiro trecho, as letras ASCII maiúsculas e minúsculas; no segundo, o segundo byte das
+    //letras acentuadas de U+00C0 a U+00FF em UTF-8; no terceiro, o de 'Ÿ' (U+0178, a maiúscula de 'ÿ').
+    //Bytes que não formam uma letra valem 0
+    private static final int[] BIT_DA_LETRA = new int[768];
+
+    //Deslocamento em BIT_DA_LETRA do byte seguinte a cada byte: 256 depois de 0xC3, 512 depois de 0xC5, ou 0
+    private static final int[] PREFIXO = new int[256];
+
+    //1 para os bytes que iniciam um caractere em UTF-8, ou seja, que não são de continuação (10xxxxxx) nem '\r'
+    private static final int[] INICIA_CARACTERE = new int[256];
+
+    private static final Locale PORTUGUES = Locale.forLanguageTag("pt-BR");
+
+    static {
+        for (int i = 0; i < 26; i++) {
+            BIT_DA_LETRA['A' + i] = 1 << i;
+            BIT_DA_LETRA['a' + i] = 1 << i;
+        }
+        //Em UTF-8, os caracteres de U+00C0 a U+00FF são 0xC3 seguido de 0x80 a 0xBF
+        for (int i = 0; i < 64; i++)
+            BIT_DA_LETRA[256 + 0x80 + i] = Letras.getBit((char) (0xC0 + i));
+        //Em UTF-8, 'Ÿ' é 0xC5 0xB8
+        BIT_DA_LETRA[512 + 0xB8] = Letras.getBit('Ÿ');
+        PREFIXO[0xC3] = 256;
+        PREFIXO[0xC5] = 512;
+        for (int b = 0; b < 256; b++)
+            INICIA_CARACTERE[b] = (b & 0xC0) != 0x80 && b != '\r' ? 1 : 0;
+    }
+
+    private final MappedByteBuffer arquivo;
+
+    //Posição no arquivo e máscara de letras de cada palavra, ordenadas por tamanho
+    private final int[] inicios;
+    private final int[] mascaras;
+
+    //As palavras de tamanho t estão nas posições de inicioDoTamanho[t] a inicioDoTamanho[t + 1] - 1
+    private final int[] inicioDoTamanho = new int[TAMANHO_MAXIMO + 2];
+
+    //Mapeia e indexa o arquivo. Linhas vazias, iniciadas por '#' ou com mais de TAMANHO_MAXIMO caracteres
+    //são ignoradas; a quebra de linha pode ser "\n" ou "\r\n"
+    public ArquivoDePalavras(Path caminho) throws Exception {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            //Os índices guardam a posição em um int, o que limita o arquivo a 2 GB
+            if (canal.size() > Integer.MAX_VALUE)
+                throw new Exception("Arquivo de palavras maior que 2 GB !!");
+            this.arquivo = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        } catch (IOException erro) {
+            throw new Exception("Não foi possível ler o arquivo de palavras: " + erro.getMessage(), erro);
+        }
+
+        //1ª passada: percorre os bytes uma vez, anotando início, tamanho e máscara de cada palavra.
+        //Os bytes são copiados do mapeamento em blocos para um vetor, que é percorrido bem mais rápido do que
+        //lendo byte a byte do MappedByteBuffer
+        int fim = this.arquivo.limit();
+        Indexador indexador = new Indexador(this.arquivo, Math.max(16, fim / 8));
+        byte[] bloco = new byte[1 << 20];
+        for (int base = 0; base < fim; base += bloco.length) {
+            int lidos = Math.min(bloco.length, fim - base);
+            this.arquivo.get(base, bloco, 0, lidos);
+            indexador.leia(bloco, lidos, base);
+        }
+        indexador.termine(fim);
+
+        int quantidade = indexador.quantidade;
+        int[] inicio = indexador.inicio;
+        int[] mascara = indexador.mascara;
+        byte[] tamanho = indexador.tamanho;
+        int[] quantidadeDoTamanho = indexador.quantidadeDoTamanho;
+
+        if (quantidade == 0)
+            throw new Exception("Arquivo de palavras vazio !!");
+
+        //2ª passada: ordenação por contagem, agrupando as palavras por tamanho sem comparar palavras
+        for (int t = 1; t <= TAMANHO_MAXIMO; t++)
+            this.inicioDoTamanho[t + 1] = this.inicioDoTamanho[t] + quantidadeDoTamanho[t];
+
+        int[] proxima = Arrays.copyOf(this.inicioDoTamanho, TAMANHO_MAXIMO + 1);
+        this.inicios = new int[quantidade];
+        this.mascaras = new int[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            int destino = proxima[tamanho[i]]++;
+            this.inicios[destino] = inicio[i];
+            this.mascaras[destino] = mascara[i];
+        }
+    }
+
+    //Estado da 1ª passada, que continua de um bloco para o seguinte, já que uma palavra pode começar em um bloco
+    //e terminar no outro. O laço fica em um método pequeno chamado a cada bloco, que o compilador JIT otimiza
+    //logo nas primeiras chamadas, em vez de um laço longo dentro do construtor
+    private static final class Indexador {
+        final MappedByteBuffer arquivo;
+        int[] inicio;
+        int[] mascara;
+        byte[] tamanho;
+        final int[] quantidadeDoTamanho = new int[TAMANHO_MAXIMO + 1];
+        int quantidade;
+
+        int inicioDaLinha, caracteres, letras;
+        boolean comentario; //a linha atual começa com '#'
+        int acento; //PREFIXO do byte anterior: 256 ou 512 se ele iniciou uma letra acentuada, ou 0
+
+        Indexador(MappedByteBuffer arquivo, int capacidade) {
+            this.arquivo = arquivo;
+            this.comentario = arquivo.limit() > 0 && arquivo.get(0) == '#';
+            this.inicio = new int[capacidade];
+            this.mascara = new int[capacidade];
+            this.tamanho = new byte[capacidade];
+        }
+
+        //Só a quebra de linha desvia o fluxo; o resto é feito com consultas às tabelas, sem desvios por byte
+        void leia(byte[] bloco, int lidos, int base) {
+            int caracteres = this.caracteres, letras = this.letras, acento = this.acento;
+            for (int i = 0; i < lidos; i++) {
+                int b = bloco[i] & 0xFF;
+                if (b == '\n') {
+                    registre(caracteres, letras);
+                    this.inicioDaLinha = base + i + 1;
+                    //O primeiro byte da linha seguinte pode estar só no próximo bloco
+                    int seguinte = base + i + 1;
+                    this.comentario = i + 1 < lidos ? bloco[i + 1] == '#'
+                            : seguinte < this.arquivo.limit() && this.arquivo.get(seguinte) == '#';
+                    caracteres = 0;
+                    letras = 0;
+                    acento = 0;
+                    continue;
+                }
+                letras |= BIT_DA_LETRA[acento | b];
+                caracteres += INICIA_CARACTERE[b];
+                acento = PREFIXO[b];
+            }
+            this.caracteres = caracteres;
+            this.letras = letras;
+            this.acento = acento;
+        }
+
+        //Registra a última palavra, se o arquivo não terminar com uma quebra de linha
+        void termine(int fim) {
+            if (this.inicioDaLinha < fim)
+                registre(this.caracteres, this.letras);
+        }
+
+        private void registre(int caracteres, int letras) {
+            if (caracteres == 0 || caracteres > TAMANHO_MAXIMO || this.comentario)
+                return;
+            if (this.quantidade == this.inicio.length) {
+                int nova = this.inicio.length * 2;
+                this.inicio = Arrays.copyOf(this.inicio, nova);
+                this.mascara = Arrays.copyOf(this.mascara, nova);
+                this.tamanho = Arrays.copyOf(this.tamanho, nova);
+            }
+            this.inicio[this.quantidade] = this.inicioDaLinha;
+            this.mascara[this.quantidade] = letras;
+            this.tamanho[this.quantidade] = (byte) caracteres;
+            this.quantidadeDoTamanho[caracteres]++;
+            this.quantidade++;
+        }
+    }
+
+    //Quantidade total de palavras do banco
+    public int getQuantidade() {
+        return this.inicios.length;
+    }
+
+    //Quantidade de palavras com o tamanho fornecido
+    public int getQuantidade(int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO)
+            return 0;
+        return this.inicioDoTamanho[tamanho + 1] - this.inicioDoTamanho[tamanho];
+    }
+
+    //Primeiro índice das palavras com o tamanho fornecido; os índices de um tamanho são consecutivos
+    public int getPrimeiroIndice(int tamanho) {
+        return this.inicioDoTamanho[Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO + 1))];
+    }
+
+    //Máscara das letras (sem acento) presentes na palavra do índice fornecido
+    public int getMascara(int indice) {
+        return this.mascaras[indice];
+    }
+
+    //Lê do arquivo a palavra do índice fornecido, em letras maiúsculas
+    public String getTexto(int indice) {
+        int inicio = this.inicios[indice];
+        int fim = inicio;
+        int limite = this.arquivo.limit();
+        while (fim < limite && this.arquivo.get(fim) != '\n' && this.arquivo.get(fim) != '\r')
+            fim++;
+
+        byte[] bytes = new byte[fim - inicio];
+        this.arquivo.get(inicio, bytes);
+        return new String(bytes, StandardCharsets.UTF_8).toUpperCase(PORTUGUES);
+    }
+
+    //Sorteia o índice de uma palavra com tamanho entre os limites fornecidos, inclusive, ou -1 se não houver
+    public int sorteieIndice(int tamanhoMinimo, int tamanhoMaximo, RandomGenerator aleatorio) {
+        int primeiro = getPrimeiroIndice(tamanhoMinimo);
+        int ultimo = getPrimeiroIndice(tamanhoMaximo + 1);
+        if (primeiro >= ultimo)
+            return -1;
+        return primeiro + aleatorio.nextInt(ultimo - primeiro);
+    }
+
+    //Sorteia uma palavra da dificuldade fornecida, em tempo constante
+    public Palavra sorteie(Dificuldade dificuldade) throws Exception {
+        return sorteie(dificuldade, ThreadLocalRandom.current());
+    }
+
+    public Palavra sorteie(Dificuldade dificuldade, RandomGenerator aleatorio) throws Exception {
+        int indice = sorteieIndice(dificuldade.getTamanhoMinimo(), dificuldade.getTamanhoMaximo(), aleatorio);
+        if (indice < 0)
+            throw new Exception("Não há palavras com a dificuldade " + dificuldade + " !!");
+        return new Palavra(getTexto(indice));
+    }
+}
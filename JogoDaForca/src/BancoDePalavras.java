@@ -1,3 +1,6 @@
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
  public class BancoDePalavras {
         //Declaar um atributo privativo , statico, vetor de String que se chama palavras 
         //contendo todas as palavras do banco de Palabras 
@@ -17,6 +20,44 @@
                         "PRAZER"
                 };
 
+        //Banco lido de um arquivo de palavras; enquanto for null, as palavras sorteadas vêm do vetor acima
+        //(volatile, porque os sorteios o leem sem o bloqueio de carregue e getResolvedor)
+        private static volatile ArquivoDePalavras arquivo;
+
+        //Resolvedor das palavras do banco, criado na primeira vez que for pedido
+        private static Resolvedor resolvedor;
+
+        //Carrega um arquivo com uma palavra por linha, que passa a ser usado nos sorteios
+        //(o arquivo é lido fora do bloqueio; só a troca do arquivo e do resolvedor usa o mesmo bloqueio de getResolvedor)
+        public static void carregue (String caminho) throws Exception
+        {
+            ArquivoDePalavras arquivo = new ArquivoDePalavras (Path.of(caminho));
+            synchronized (BancoDePalavras.class)
+            {
+                BancoDePalavras.arquivo = arquivo;
+                BancoDePalavras.resolvedor = null;
+            }
+        }
+
+        //Retorna o resolvedor que conhece as palavras que podem ser sorteadas (as do arquivo, se houver)
+        public static synchronized Resolvedor getResolvedor ()
+        {
+            if (BancoDePalavras.resolvedor == null)
+                BancoDePalavras.resolvedor = BancoDePalavras.arquivo != null
+                        ? new Resolvedor (BancoDePalavras.arquivo)
+                        : new Resolvedor (BancoDePalavras.palavras);
+            return BancoDePalavras.resolvedor;
+        }
+
+        //Sorteia uma palavra da dificuldade fornecida; sem arquivo carregado, a dificuldade é ignorada
+        public static Palavra getPalavraSorteada (Dificuldade dificuldade) throws Exception
+        {
+            ArquivoDePalavras arquivo = BancoDePalavras.arquivo;
+            if (arquivo == null)
+                return getPalavraSorteada ();
+            return arquivo.sorteie (dificuldade);
+        }
+
         //o Método static getPlavraSorteda vai retornar uma palavra
         public static Palavra getPalavraSorteada ()
         {
@@ -27,8 +68,9 @@
             try
             {   //Instanciamos o objeto com uma nova palavra retirada do banco de palavras
                 //O numero aleatório entre 0 e o tamanho do vetor de palavras menos 1 que será sorteado
+                //(ThreadLocalRandom, para que várias threads sorteiem sem disputar o mesmo gerador)
                 //Uma vez encontrada a palavra aleatória, instaciamos o objeto paravra com a mesma
-                palavra = new Palavra (BancoDePalavras.palavras[(int)(Math.random() * BancoDePalavras.palavras.length)]);
+                palavra = new Palavra (BancoDePalavras.palavras[ThreadLocalRandom.current().nextInt(BancoDePalavras.palavras.length)]);
             }
             catch (Exception e)
             {}
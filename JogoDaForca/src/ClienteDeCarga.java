@@ -0,0 +1,136 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Teste de carga do ServidorDaForca: abre várias sessões ao mesmo tempo, cada uma em uma virtual thread, que jogam
+//partidas seguidas digitando as letras na ordem de frequência do português até o tempo acabar
+//
+//Mede o tempo de cada letra (do envio do comando à resposta) e, no fim, informa as letras por segundo e os
+//percentis dos tempos. Todas as sessões conectam antes de a medição começar.
+//
+//java ClienteDeCarga [porta] [sessoes] [segundos]
+public class ClienteDeCarga {
+
+    private static final String LETRAS_POR_FREQUENCIA = "AEOSRINDMUTCLPVGHQBFZJXKWY";
+
+    //Tempos de uma sessão, em nanossegundos
+    private static final class Medidas {
+        long[] tempos = new long[1024];
+        int quantidade;
+        int partidas;
+
+        void adicione(long tempo) {
+            if (this.quantidade == this.tempos.length)
+                this.tempos = Arrays.copyOf(this.tempos, 2 * this.tempos.length);
+            this.tempos[this.quantidade++] = tempo;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : ServidorDaForca.PORTA_PADRAO;
+        int sessoes = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        CountDownLatch conectadas = new CountDownLatch(sessoes);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger falhas = new AtomicInteger();
+        String[] primeiraFalha = new String[1];
+        List<Medidas> medidas = new ArrayList<>();
+        long[] fim = new long[1];
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessoes; i++) {
+                Medidas medida = new Medidas();
+                medidas.add(medida);
+                executor.execute(() -> {
+                    try (Socket conexao = new Socket(InetAddress.getLoopbackAddress(), porta)) {
+                        conexao.setTcpNoDelay(true);
+                        BufferedReader entrada = new BufferedReader(
+                                new InputStreamReader(conexao.getInputStream(), StandardCharsets.UTF_8));
+                        Writer saida = new BufferedWriter(
+                                new OutputStreamWriter(conexao.getOutputStream(), StandardCharsets.UTF_8));
+                        conectadas.countDown();
+                        largada.await();
+                        jogue(entrada, saida, medida, fim[0]);
+                        envie(entrada, saida, "SAIR");
+                    } catch (Exception erro) {
+                        if (falhas.incrementAndGet() == 1)
+                            primeiraFalha[0] = erro.getMessage();
+                        conectadas.countDown();
+                    }
+                });
+            }
+
+            conectadas.await();
+            System.out.println(sessoes + " sessoes conectadas; jogando por " + segundos + " s...");
+            fim[0] = System.nanoTime() + segundos * 1_000_000_000L;
+            largada.countDown();
+        }
+
+        //O executor só fecha quando todas as sessões terminam
+        long[] tempos = new long[medidas.stream().mapToInt(m -> m.quantidade).sum()];
+        int letras = 0, partidas = 0;
+        for (Medidas medida : medidas) {
+            System.arraycopy(medida.tempos, 0, tempos, letras, medida.quantidade);
+            letras += medida.quantidade;
+            partidas += medida.partidas;
+        }
+        Arrays.sort(tempos);
+
+        System.out.printf("Partidas...: %d%n", partidas);
+        System.out.printf("Letras.....: %d (%.0f por segundo)%n", letras, letras / (double) segundos);
+        if (letras > 0)
+            System.out.printf("Tempos.....: p50 %.3f ms, p99 %.3f ms, p99,9 %.3f ms, maximo %.3f ms%n",
+                    percentil(tempos, 50), percentil(tempos, 99), percentil(tempos, 99.9), tempos[letras - 1] / 1e6);
+        System.out.printf("Falhas.....: %d sessoes%n", falhas.get());
+        if (falhas.get() > 0)
+            System.out.println("Primeira...: " + primeiraFalha[0]);
+    }
+
+    //Joga partidas até o fim do tempo, medindo o tempo de cada letra
+    private static void jogue(BufferedReader entrada, Writer saida, Medidas medida, long fim) throws Exception {
+        while (System.nanoTime() < fim) {
+            envie(entrada, saida, "NOVA");
+            for (int i = 0; i < LETRAS_POR_FREQUENCIA.length() && System.nanoTime() < fim; i++) {
+                long inicio = System.nanoTime();
+                String resposta = envie(entrada, saida, "LETRA " + LETRAS_POR_FREQUENCIA.charAt(i));
+                medida.adicione(System.nanoTime() - inicio);
+                if (resposta.startsWith("GANHOU") || resposta.startsWith("PERDEU")) {
+                    medida.partidas++;
+                    break;
+                }
+            }
+        }
+    }
+
+    private static String envie(BufferedReader entrada, Writer saida, String comando) throws Exception {
+        saida.write(comando);
+        saida.write('\n');
+        saida.flush();
+        String resposta = entrada.readLine();
+        //Compara a primeira palavra da resposta, já que ERROU também começa com ERRO
+        String situacao = resposta == null ? "" : resposta.split(" ", 2)[0];
+        if (situacao.isEmpty() || situacao.equals("ERRO") || resposta.startsWith("TCHAU tempo"))
+            throw new Exception("Resposta inesperada a " + comando + ": " + resposta);
+        return resposta;
+    }
+
+    //Percentil de tempos já ordenados, em milissegundos
+    private static double percentil(long[] tempos, double percentil) {
+        int indice = (int) Math.ceil(percentil / 100 * tempos.length) - 1;
+        return tempos[Math.max(0, Math.min(indice, tempos.length - 1))] / 1e6;
+    }
+}
@@ -27,6 +27,16 @@ public class ControladorDeErros implements Cloneable
         this.qtdErr++;
     }
 
+    // retorna a quantidade de erros cometidos
+    public int getQtdErr() {
+        return this.qtdErr;
+    }
+
+    // retorna a quantidade máxima de erros permitidos
+    public int getQtdMax() {
+        return this.qtdMax;
+    }
+
     public boolean isAtingidoMaximoDeErros() {
         // retorne true se this.qtdErr for igual a this.qtdMax,
         // ou então false, caso contrário.
@@ -1,26 +1,27 @@
 public class ControladorDeLetrasJaDigitadas implements Cloneable {
 
-    // Atributo string chamado letras já digitadas
-    private String letrasJaDigitadas;
+    // Letras já digitadas, um bit por letra de A a Z (bit 0 para A), sem
+    // diferenciar letras com e sem acento
+    private int letrasJaDigitadas;
 
     // Construtor da classe
     public ControladorDeLetrasJaDigitadas()
 
-    { // Torna this,letrasJaDigitadas igual ao String vazio
-        this.letrasJaDigitadas = "";
+    { // Torna this,letrasJaDigitadas igual ao conjunto vazio
+        this.letrasJaDigitadas = 0;
     }
 
     // Método que retornar um Boolean e tem parâmetro char.letra
     public boolean isJaDigitada(char letra) {
-        // percorre o String this,letrasJaDigitadas e verificar se ele possui a letra
-        // fornecida
-        // retornar true em caso afirmativo ou false em caso negativo
-        for (int i = 0; i < this.letrasJaDigitadas.length(); i++) {
-            if (this.letrasJaDigitadas.charAt(i) == letra) {
-                return true;
-            }
-        }
-        return false;
+        // verificar se o bit da letra fornecida está em this,letrasJaDigitadas
+        // retornar true em caso afirmativo ou false em caso negativo (ou se não for
+        // uma letra)
+        return (this.letrasJaDigitadas & Letras.getBit(letra)) != 0;
+    }
+
+    // Retorna as letras já digitadas, um bit por letra de A a Z (bit 0 para A)
+    public int getLetras() {
+        return this.letrasJaDigitadas;
     }
 
     // Métooo registre que vai receber um parâmetro char 'letra'
@@ -28,19 +29,26 @@ public class ControladorDeLetrasJaDigitadas implements Cloneable {
         // verifica se a letra fornecida já foi digitada (por usar o método
         // this.IsJaDigita, para isso), lançando uma exceção
         // em caso afirmativo. concatena a letra fornecida a this.letrasJaDigitadas
+        int bit = Letras.getBit(letra);
+        if (bit == 0)
+            throw new Exception("Letra inválida !!");
         if (isJaDigitada(letra) == true)
             throw new Exception("Letra já digitada !!");
 
         //
-        this.letrasJaDigitadas += letra + ",";
+        this.letrasJaDigitadas |= bit;
     }
 
     //
     public String toString() {
         // retorna um String com TODAS as letras presentes
-        // em this.letrasJaDigitadas separadas por virgula (,)
-
-        return this.letrasJaDigitadas;
+        // em this.letrasJaDigitadas separadas por virgula (,), em ordem alfabética
+        StringBuilder ret = new StringBuilder();
+        for (int i = 0; i < 26; i++) {
+            if ((this.letrasJaDigitadas & (1 << i)) != 0)
+                ret.append((char) ('A' + i)).append(',');
+        }
+        return ret.toString();
     }
 
     public boolean equals(Object obj) {
@@ -71,7 +79,7 @@ public class ControladorDeLetrasJaDigitadas implements Cloneable {
         // um extends outraClasse)
         // Qualquer numero natural > 0
         int ret = 11;
-        ret = 11 * ret + String.valueOf(this.letrasJaDigitadas).hashCode();
+        ret = 11 * ret + Integer.hashCode(this.letrasJaDigitadas);
 
         return ret;
     }
@@ -0,0 +1,75 @@
+//Totais das partidas de um jogador ou de uma palavra, usados nas classificações das Estatisticas
+public class Desempenho implements Cloneable {
+
+    private final String nome; //o jogador ou a palavra
+    private long partidas, vitorias, letras, erros, maximoDeErros, milissegundos;
+    private long vitoriaMaisRapida = -1; //duração da vitória mais rápida, em milissegundos, ou -1 se não houver
+
+    public Desempenho(String nome) {
+        this.nome = nome;
+    }
+
+    //Soma uma partida aos totais
+    public void adicione(RegistroDePartida partida) {
+        this.partidas++;
+        this.letras += partida.letras();
+        this.erros += partida.erros();
+        this.maximoDeErros += partida.maximoDeErros();
+        this.milissegundos += partida.duracao();
+        if (partida.ganhou()) {
+            this.vitorias++;
+            if (this.vitoriaMaisRapida < 0 || partida.duracao() < this.vitoriaMaisRapida)
+                this.vitoriaMaisRapida = partida.duracao();
+        }
+    }
+
+    public String getNome() {
+        return this.nome;
+    }
+
+    public long getPartidas() {
+        return this.partidas;
+    }
+
+    public long getVitorias() {
+        return this.vitorias;
+    }
+
+    //Porcentagem de partidas ganhas
+    public double getTaxaDeVitorias() {
+        return this.partidas == 0 ? 0 : 100.0 * this.vitorias / this.partidas;
+    }
+
+    public double getLetrasPorPartida() {
+        return this.partidas == 0 ? 0 : (double) this.letras / this.partidas;
+    }
+
+    //Porcentagem dos erros permitidos que foram usados, em média; mede a dificuldade de uma palavra mesmo nas
+    //partidas ganhas
+    public double getErrosUsados() {
+        return this.maximoDeErros == 0 ? 100 : 100.0 * this.erros / this.maximoDeErros;
+    }
+
+    public double getSegundosPorPartida() {
+        return this.partidas == 0 ? 0 : this.milissegundos / 1000.0 / this.partidas;
+    }
+
+    public long getVitoriaMaisRapida() {
+        return this.vitoriaMaisRapida;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d vitorias em %d partidas (%.1f%%), %.1f letras por partida, %.0f%% dos erros usados",
+                this.nome, this.vitorias, this.partidas, getTaxaDeVitorias(), getLetrasPorPartida(), getErrosUsados());
+    }
+
+    @Override
+    public Desempenho clone() {
+        try {
+            return (Desempenho) super.clone();
+        } catch (CloneNotSupportedException erro) {
+            throw new AssertionError(erro);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+//Dificuldade da palavra sorteada, definida pelo tamanho da palavra
+//Palavras longas são mais fáceis: revelam mais letras a cada acerto e permitem mais erros (60% do tamanho)
+public enum Dificuldade {
+    FACIL(9, ArquivoDePalavras.TAMANHO_MAXIMO),
+    MEDIO(6, 8),
+    DIFICIL(1, 5);
+
+    //Faixa de tamanhos, inclusive nas duas pontas
+    private final int tamanhoMinimo, tamanhoMaximo;
+
+    Dificuldade(int tamanhoMinimo, int tamanhoMaximo) {
+        this.tamanhoMinimo = tamanhoMinimo;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+
+    public int getTamanhoMinimo() {
+        return this.tamanhoMinimo;
+    }
+
+    public int getTamanhoMaximo() {
+        return this.tamanhoMaximo;
+    }
+}
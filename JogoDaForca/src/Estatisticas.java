@@ -0,0 +1,340 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+//Histórico das partidas terminadas, gravado em um arquivo, com as classificações dos jogadores e a dificuldade
+//de cada palavra
+//
+//O arquivo tem um cabeçalho e registros de tamanho fixo, só acrescentados no fim. Ao abrir, o arquivo é lido uma
+//vez do início ao fim, em blocos, refazendo em memória os totais por jogador e por palavra; um registro incompleto
+//no fim (de uma gravação interrompida) é descartado.
+//
+//registre só atualiza os totais e põe a partida em uma fila: quem grava é uma thread própria, que junta as
+//partidas da fila em lotes e grava cada lote de uma vez. Assim o jogo nunca espera pelo disco; no pior caso,
+//uma queda da máquina perde as partidas do último lote. close grava o que restar na fila; depois que o fechamento
+//começa, registre rejeita novas partidas.
+//
+//Registro (little-endian), com TAMANHO_DO_REGISTRO bytes:
+//  0  long  início da partida, em milissegundos desde 1970
+//  8  int   duração, em milissegundos
+//  12 byte  letras digitadas
+//  13 byte  erros
+//  14 byte  máximo de erros
+//  15 byte  1 se ganhou, 0 se perdeu
+//  16 byte  bytes do jogador, em UTF-8
+//  17 byte  bytes da palavra, em UTF-8
+//  32       jogador, com até 32 bytes
+//  64       palavra, com até 128 bytes (64 caracteres de até 2 bytes)
+public class Estatisticas implements AutoCloseable {
+
+    public static final int TAMANHO_DO_REGISTRO = 192;
+
+    private static final long ASSINATURA = 0x5453454143524F46L; //"FORCAEST" em little-endian
+    private static final int VERSAO = 1;
+    private static final int TAMANHO_DO_CABECALHO = 16;
+
+    private static final int BYTES_DO_JOGADOR = 32;
+    private static final int BYTES_DA_PALAVRA = 128;
+
+    //Maior quantidade de partidas gravadas de uma vez, e maior espera por mais partidas antes de gravar um lote
+    private static final int PARTIDAS_POR_LOTE = 4096;
+    private static final long ESPERA_MAXIMA = 200;
+
+    private final FileChannel arquivo;
+
+    //Totais protegidos pelo próprio objeto Estatisticas
+    private final Map<String, Desempenho> jogadores = new HashMap<>();
+    private final Map<String, Desempenho> palavras = new HashMap<>();
+    private long partidas;
+
+    private final LinkedBlockingQueue<RegistroDePartida> fila = new LinkedBlockingQueue<>();
+    private final Thread gravador;
+    private volatile boolean fechando; //só muda com o bloqueio do objeto, junto com o que registre põe na fila
+    private volatile IOException falha;
+
+    //Abre (ou cria) o arquivo de estatísticas e refaz os totais a partir dele
+    public Estatisticas(Path caminho) throws Exception {
+        try {
+            this.arquivo = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        } catch (IOException erro) {
+            throw new Exception("Não foi possível abrir o arquivo de estatísticas: " + erro.getMessage(), erro);
+        }
+
+        try {
+            long registros = leia();
+            //Descarta um registro incompleto no fim e passa a acrescentar registros a partir daí
+            long fim = TAMANHO_DO_CABECALHO + registros * TAMANHO_DO_REGISTRO;
+            this.arquivo.truncate(fim);
+            this.arquivo.position(fim);
+        } catch (Exception erro) {
+            this.arquivo.close();
+            throw erro;
+        }
+
+        this.gravador = new Thread(this::grave, "gravador-de-estatisticas");
+        this.gravador.setDaemon(true);
+        this.gravador.start();
+    }
+
+    //Lê o cabeçalho (gravando-o, se o arquivo estiver vazio) e todos os registros completos; retorna quantos são
+    private long leia() throws Exception {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_DO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+        if (this.arquivo.size() == 0) {
+            cabecalho.putLong(ASSINATURA).putInt(VERSAO).putInt(TAMANHO_DO_REGISTRO).flip();
+            this.arquivo.write(cabecalho, 0);
+            return 0;
+        }
+        //Um arquivo que não é de estatísticas nunca é alterado, nem mesmo um menor que o cabeçalho
+        while (cabecalho.hasRemaining()) {
+            if (this.arquivo.read(cabecalho, cabecalho.position()) < 0)
+                throw new Exception("Arquivo de estatísticas inválido !!");
+        }
+        cabecalho.flip();
+        if (cabecalho.getLong() != ASSINATURA || cabecalho.getInt() != VERSAO
+                || cabecalho.getInt() != TAMANHO_DO_REGISTRO)
+            throw new Exception("Arquivo de estatísticas inválido !!");
+
+        long registros = (this.arquivo.size() - TAMANHO_DO_CABECALHO) / TAMANHO_DO_REGISTRO;
+        ByteBuffer bloco = ByteBuffer.allocate(TAMANHO_DO_REGISTRO * 4096).order(ByteOrder.LITTLE_ENDIAN);
+        long posicao = TAMANHO_DO_CABECALHO;
+        long fim = TAMANHO_DO_CABECALHO + registros * TAMANHO_DO_REGISTRO;
+        while (posicao < fim) {
+            bloco.clear();
+            bloco.limit((int) Math.min(bloco.capacity(), fim - posicao));
+            while (bloco.hasRemaining()) {
+                if (this.arquivo.read(bloco, posicao + bloco.position()) < 0)
+                    throw new Exception("Arquivo de estatísticas truncado durante a leitura !!");
+            }
+            bloco.flip();
+            while (bloco.hasRemaining())
+                some(leiaRegistro(bloco));
+            posicao += bloco.limit();
+        }
+        return registros;
+    }
+
+    //Registra uma partida terminada: os totais são atualizados na hora e a gravação fica para a thread gravadora
+    //(com o bloqueio do objeto, para que uma partida aceita esteja na fila antes de close começar a esvaziá-la)
+    public void registre(Partida partida, String jogador) throws Exception {
+        if (this.falha != null)
+            throw new Exception("Não foi possível gravar as estatísticas: " + this.falha.getMessage(), this.falha);
+        RegistroDePartida registro = comoNoArquivo(RegistroDePartida.de(partida, jogador));
+        synchronized (this) {
+            if (this.fechando)
+                throw new Exception("Estatísticas já fechadas !!");
+            some(registro);
+            this.fila.add(registro);
+        }
+    }
+
+    //O registro com o jogador e a palavra cortados como ficam no arquivo, para que os totais em memória usem as
+    //mesmas chaves que os refeitos a partir do arquivo
+    private static RegistroDePartida comoNoArquivo(RegistroDePartida registro) {
+        String jogador = getTexto(registro.jogador(), BYTES_DO_JOGADOR);
+        String palavra = getTexto(registro.palavra(), BYTES_DA_PALAVRA);
+        if (jogador.equals(registro.jogador()) && palavra.equals(registro.palavra()))
+            return registro;
+        return new RegistroDePartida(jogador, palavra, registro.letras(), registro.erros(), registro.maximoDeErros(),
+                registro.ganhou(), registro.inicio(), registro.duracao());
+    }
+
+    private synchronized void some(RegistroDePartida registro) {
+        this.partidas++;
+        this.jogadores.computeIfAbsent(registro.jogador(), Desempenho::new).adicione(registro);
+        this.palavras.computeIfAbsent(registro.palavra(), Desempenho::new).adicione(registro);
+    }
+
+    //Laço da thread gravadora: espera a primeira partida de um lote, junta as que já estiverem na fila e grava
+    private void grave() {
+        List<RegistroDePartida> lote = new ArrayList<>(PARTIDAS_POR_LOTE);
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_DO_REGISTRO * PARTIDAS_POR_LOTE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        while (!this.fechando || !this.fila.isEmpty()) {
+            try {
+                RegistroDePartida primeiro = this.fila.poll(ESPERA_MAXIMA, TimeUnit.MILLISECONDS);
+                if (primeiro == null)
+                    continue;
+                lote.clear();
+                lote.add(primeiro);
+                this.fila.drainTo(lote, PARTIDAS_POR_LOTE - 1);
+
+                buffer.clear();
+                for (RegistroDePartida registro : lote)
+                    escreva(buffer, registro);
+                buffer.flip();
+                while (buffer.hasRemaining())
+                    this.arquivo.write(buffer);
+            } catch (InterruptedException erro) {
+                //não é interrompida: interromper uma gravação fecharia o arquivo
+            } catch (IOException erro) {
+                this.falha = erro;
+                return;
+            }
+        }
+    }
+
+    //Grava as partidas que ainda estiverem na fila e fecha o arquivo. Uma interrupção não abandona a gravação: a
+    //espera continua e a interrupção é restaurada no fim
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (this.fechando)
+                return;
+            //A thread gravadora percebe o fechamento em até ESPERA_MAXIMA e grava o que restar na fila
+            this.fechando = true;
+        }
+        boolean interrompida = false;
+        while (true) {
+            try {
+                this.gravador.join();
+                break;
+            } catch (InterruptedException erro) {
+                interrompida = true;
+            }
+        }
+        try {
+            if (this.falha == null)
+                this.arquivo.force(false);
+        } finally {
+            this.arquivo.close();
+            if (interrompida)
+                Thread.currentThread().interrupt();
+        }
+        if (this.falha != null)
+            throw new IOException("Não foi possível gravar as estatísticas: " + this.falha.getMessage(), this.falha);
+    }
+
+    //Quantidade de partidas registradas, incluindo as lidas do arquivo
+    public synchronized long getPartidas() {
+        return this.partidas;
+    }
+
+    //Totais de um jogador, ou null se ele não tiver partidas
+    public synchronized Desempenho getJogador(String nome) {
+        Desempenho desempenho = this.jogadores.get(nome);
+        return desempenho == null ? null : desempenho.clone();
+    }
+
+    //Totais de uma palavra, ou null se ela não tiver sido jogada
+    public synchronized Desempenho getPalavra(String palavra) {
+        Desempenho desempenho = this.palavras.get(palavra);
+        return desempenho == null ? null : desempenho.clone();
+    }
+
+    //Os jogadores com mais vitórias e, no empate, com maior taxa de vitórias
+    public synchronized List<Desempenho> getClassificacao(int quantidade) {
+        return getMelhores(this.jogadores, quantidade, 0, Comparator.comparingLong(Desempenho::getVitorias)
+                .thenComparingDouble(Desempenho::getTaxaDeVitorias));
+    }
+
+    //Os jogadores com as vitórias mais rápidas
+    public synchronized List<Desempenho> getVitoriasMaisRapidas(int quantidade) {
+        List<Desempenho> vencedores = new ArrayList<>();
+        for (Desempenho desempenho : this.jogadores.values()) {
+            if (desempenho.getVitoriaMaisRapida() >= 0)
+                vencedores.add(desempenho);
+        }
+        vencedores.sort(Comparator.comparingLong(Desempenho::getVitoriaMaisRapida));
+        List<Desempenho> ret = new ArrayList<>();
+        for (int i = 0; i < Math.min(quantidade, vencedores.size()); i++)
+            ret.add(vencedores.get(i).clone());
+        return ret;
+    }
+
+    //As palavras com menor taxa de vitórias e, no empate, com mais erros, entre as jogadas ao menos
+    //minimoDePartidas vezes
+    public synchronized List<Desempenho> getPalavrasMaisDificeis(int quantidade, int minimoDePartidas) {
+        return getMelhores(this.palavras, quantidade, minimoDePartidas,
+                Comparator.comparingDouble((Desempenho d) -> -d.getTaxaDeVitorias())
+                        .thenComparingDouble(Desempenho::getErrosUsados));
+    }
+
+    //Os maiores pela ordem fornecida, sem ordenar todos: um heap guarda só os melhores encontrados até então
+    private static List<Desempenho> getMelhores(Map<String, Desempenho> todos, int quantidade,
+                                                int minimoDePartidas, Comparator<Desempenho> ordem) {
+        if (quantidade <= 0)
+            return new ArrayList<>();
+        PriorityQueue<Desempenho> melhores = new PriorityQueue<>(quantidade + 1, ordem);
+        for (Desempenho desempenho : todos.values()) {
+            if (desempenho.getPartidas() < minimoDePartidas)
+                continue;
+            melhores.add(desempenho);
+            if (melhores.size() > quantidade)
+                melhores.poll();
+        }
+        List<Desempenho> ret = new ArrayList<>(melhores.size());
+        while (!melhores.isEmpty())
+            ret.add(0, melhores.poll().clone());
+        return ret;
+    }
+
+    private static void escreva(ByteBuffer buffer, RegistroDePartida registro) {
+        int inicio = buffer.position();
+        buffer.putLong(registro.inicio());
+        buffer.putInt((int) Math.min(Integer.MAX_VALUE, registro.duracao()));
+        buffer.put((byte) registro.letras());
+        buffer.put((byte) registro.erros());
+        buffer.put((byte) registro.maximoDeErros());
+        buffer.put((byte) (registro.ganhou() ? 1 : 0));
+        byte[] jogador = getBytes(registro.jogador(), BYTES_DO_JOGADOR);
+        byte[] palavra = getBytes(registro.palavra(), BYTES_DA_PALAVRA);
+        buffer.put((byte) jogador.length);
+        buffer.put((byte) palavra.length);
+        buffer.put(inicio + 32, jogador);
+        buffer.put(inicio + 64, palavra);
+        //Os bytes não usados ficam zerados, para que o arquivo não dependa do conteúdo anterior do buffer
+        buffer.put(inicio + 18, new byte[32 - 18]);
+        buffer.put(inicio + 32 + jogador.length, new byte[BYTES_DO_JOGADOR - jogador.length]);
+        buffer.put(inicio + 64 + palavra.length, new byte[BYTES_DA_PALAVRA - palavra.length]);
+        buffer.position(inicio + TAMANHO_DO_REGISTRO);
+    }
+
+    private static RegistroDePartida leiaRegistro(ByteBuffer buffer) {
+        int inicio = buffer.position();
+        long data = buffer.getLong(inicio);
+        int duracao = buffer.getInt(inicio + 8);
+        int letras = buffer.get(inicio + 12) & 0xFF;
+        int erros = buffer.get(inicio + 13) & 0xFF;
+        int maximoDeErros = buffer.get(inicio + 14) & 0xFF;
+        boolean ganhou = buffer.get(inicio + 15) != 0;
+        int bytesDoJogador = Math.min(buffer.get(inicio + 16) & 0xFF, BYTES_DO_JOGADOR);
+        int bytesDaPalavra = Math.min(buffer.get(inicio + 17) & 0xFF, BYTES_DA_PALAVRA);
+        String jogador = new String(buffer.array(), buffer.arrayOffset() + inicio + 32, bytesDoJogador,
+                StandardCharsets.UTF_8);
+        String palavra = new String(buffer.array(), buffer.arrayOffset() + inicio + 64, bytesDaPalavra,
+                StandardCharsets.UTF_8);
+        buffer.position(inicio + TAMANHO_DO_REGISTRO);
+        return new RegistroDePartida(jogador, palavra, letras, erros, maximoDeErros, ganhou, data, duracao);
+    }
+
+    //O texto cortado no último caractere inteiro que couber no limite de bytes em UTF-8
+    private static String getTexto(String texto, int limite) {
+        byte[] bytes = getBytes(texto, limite);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    //Bytes do texto em UTF-8, cortado no último caractere inteiro que couber no limite
+    private static byte[] getBytes(String texto, int limite) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= limite)
+            return bytes;
+        int fim = limite;
+        while (fim > 0 && (bytes[fim] & 0xC0) == 0x80)
+            fim--;
+        return Arrays.copyOf(bytes, fim);
+    }
+}
@@ -0,0 +1,42 @@
+import java.util.function.Supplier;
+
+//Quem digita as letras de uma partida: uma pessoa no console, um arquivo com as letras de partidas já jogadas,
+//ou uma estratégia automática, que escolhe a letra a partir do estado da partida
+//
+//Assim Forca e SimuladorDaForca não dependem do Teclado; um jogador automático joga tão rápido quanto a máquina.
+public interface Jogador {
+
+    //Retorna a próxima letra a digitar na partida
+    char getLetra(Partida partida) throws Exception;
+
+    //Retorna se deve ser jogada mais uma partida depois da que terminou; os jogadores automáticos jogam uma só
+    default boolean isJogarDeNovo() throws Exception {
+        return false;
+    }
+
+    //Nome com que as partidas do jogador aparecem nas estatísticas; o do console é o usuário do sistema
+    default String getNome() {
+        return System.getProperty("user.name", "anonimo");
+    }
+
+    //Indica se as letras vêm de uma pessoa, que já as vê ao digitar; as dos outros jogadores são mostradas
+    default boolean isInterativo() {
+        return false;
+    }
+
+    //Cria, pelo nome, a fábrica de uma estratégia automática: frequencia, aleatorio ou resolvedor. Cada jogador
+    //criado deve ser usado por uma só thread
+    static Supplier<Jogador> getEstrategia(String nome) throws Exception {
+        switch (nome.toLowerCase()) {
+            case "frequencia":
+                return JogadorPorFrequencia::new;
+            case "aleatorio":
+                return JogadorAleatorio::new;
+            case "resolvedor":
+                Resolvedor resolvedor = BancoDePalavras.getResolvedor();
+                return () -> new JogadorResolvedor(resolvedor);
+            default:
+                throw new Exception("Estratégia desconhecida: " + nome + " !!");
+        }
+    }
+}
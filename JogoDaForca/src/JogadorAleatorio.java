@@ -0,0 +1,32 @@
+import java.util.SplittableRandom;
+
+//Estratégia que digita uma letra ainda não digitada sorteada, usada como referência para as demais
+public class JogadorAleatorio implements Jogador {
+
+    private final SplittableRandom aleatorio;
+
+    public JogadorAleatorio() {
+        this(new SplittableRandom());
+    }
+
+    public JogadorAleatorio(SplittableRandom aleatorio) {
+        this.aleatorio = aleatorio;
+    }
+
+    @Override
+    public char getLetra(Partida partida) throws Exception {
+        int naoDigitadas = ~partida.getLetrasJaDigitadas().getLetras() & ((1 << 26) - 1);
+        if (naoDigitadas == 0)
+            throw new Exception("Não há letras a digitar !!");
+
+        //Descarta as i primeiras letras não digitadas; a menor restante é a sorteada
+        for (int i = this.aleatorio.nextInt(Integer.bitCount(naoDigitadas)); i > 0; i--)
+            naoDigitadas &= naoDigitadas - 1;
+        return (char) ('A' + Integer.numberOfTrailingZeros(naoDigitadas));
+    }
+
+    @Override
+    public String getNome() {
+        return "aleatorio";
+    }
+}
@@ -0,0 +1,62 @@
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+//Jogador que lê de um arquivo o que seria digitado no teclado, uma resposta por linha: as letras de cada partida
+//e, depois de cada partida, S ou N para jogar de novo. Serve para repetir partidas sem ninguém no console
+//
+//Linhas vazias e iniciadas por '#' são ignoradas. Quando o arquivo acaba, getLetra lança EOFException e
+//isJogarDeNovo retorna false.
+public class JogadorDeArquivo implements Jogador, AutoCloseable {
+
+    private final BufferedReader arquivo;
+    private final String nome;
+
+    public JogadorDeArquivo(Path caminho) throws Exception {
+        try {
+            this.arquivo = Files.newBufferedReader(caminho, StandardCharsets.UTF_8);
+            this.nome = caminho.getFileName().toString();
+        } catch (IOException erro) {
+            throw new Exception("Não foi possível ler o arquivo de letras: " + erro.getMessage(), erro);
+        }
+    }
+
+    @Override
+    public char getLetra(Partida partida) throws Exception {
+        String linha = getLinha();
+        if (linha == null)
+            throw new EOFException("Fim do arquivo de letras !!");
+        if (linha.length() != 1)
+            throw new Exception("Char invalido!");
+        return linha.charAt(0);
+    }
+
+    @Override
+    public boolean isJogarDeNovo() throws Exception {
+        String linha = getLinha();
+        return linha != null && linha.equalsIgnoreCase("S");
+    }
+
+    //As partidas lidas de um arquivo aparecem nas estatísticas com o nome do arquivo
+    @Override
+    public String getNome() {
+        return this.nome;
+    }
+
+    private String getLinha() throws IOException {
+        for (String linha = this.arquivo.readLine(); linha != null; linha = this.arquivo.readLine()) {
+            linha = linha.trim();
+            if (!linha.isEmpty() && !linha.startsWith("#"))
+                return linha;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.arquivo.close();
+    }
+}
@@ -0,0 +1,29 @@
+//Jogador que digita as letras no teclado, como no jogo original
+public class JogadorDoConsole implements Jogador {
+
+    @Override
+    public char getLetra(Partida partida) throws Exception {
+        return Teclado.getUmChar();
+    }
+
+    //Pergunta se o usuário quer jogar de novo até que ele responda S ou N
+    @Override
+    public boolean isJogarDeNovo() {
+        for (;;) {
+            try {
+                System.out.print("Deseja jogar de novo (S/N)? ");
+                char continuar = Character.toUpperCase(Teclado.getUmChar());
+                if (continuar == 'S' || continuar == 'N')
+                    return continuar == 'S';
+                System.err.println("Opcao invalida! Tente novamente...");
+            } catch (Exception erro) {
+                System.err.println("Opcao invalida! Tente novamente...");
+            }
+        }
+    }
+
+    @Override
+    public boolean isInterativo() {
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+//Estratégia que digita as letras ainda não digitadas na ordem de frequência delas no português,
+//sem olhar para as letras já reveladas
+public class JogadorPorFrequencia implements Jogador {
+
+    private static final String LETRAS_POR_FREQUENCIA = "AEOSRINDMUTCLPVGHQBFZJXKWY";
+
+    @Override
+    public char getLetra(Partida partida) throws Exception {
+        int digitadas = partida.getLetrasJaDigitadas().getLetras();
+        for (int i = 0; i < LETRAS_POR_FREQUENCIA.length(); i++) {
+            char letra = LETRAS_POR_FREQUENCIA.charAt(i);
+            if ((digitadas & Letras.getBit(letra)) == 0)
+                return letra;
+        }
+        throw new Exception("Não há letras a digitar !!");
+    }
+
+    @Override
+    public String getNome() {
+        return "frequencia";
+    }
+}
@@ -0,0 +1,19 @@
+//Estratégia que digita a letra sugerida pelo Resolvedor, a que mais reduz as palavras possíveis
+public class JogadorResolvedor implements Jogador {
+
+    private final Resolvedor resolvedor;
+
+    public JogadorResolvedor(Resolvedor resolvedor) {
+        this.resolvedor = resolvedor;
+    }
+
+    @Override
+    public char getLetra(Partida partida) throws Exception {
+        return this.resolvedor.getPalpite(partida.getTracinhos(), partida.getLetrasJaDigitadas());
+    }
+
+    @Override
+    public String getNome() {
+        return "resolvedor";
+    }
+}
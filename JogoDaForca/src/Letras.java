@@ -0,0 +1,28 @@
+//Conversão de caracteres em letras de A a Z, ignorando acentos, usada na comparação de letras do jogo:
+//digitar 'A' revela 'Á' e 'Ã', e digitar 'C' revela 'Ç'
+public class Letras {
+
+    //Letra sem acento de cada caractere de U+00C0 a U+00FF (À a ÿ), ou '-' se o caractere não for uma letra
+    private static final String SEM_ACENTO = "AAAAAA-CEEEEIIII-NOOOOO-OUUUUY--AAAAAA-CEEEEIIII-NOOOOO-OUUUUY-Y";
+
+    //Retorna o índice da letra (0 para A, 25 para Z), maiúscula ou minúscula, com ou sem acento,
+    //ou -1 se o caractere não for uma letra
+    public static int getIndice(char c) {
+        if (c >= 'A' && c <= 'Z')
+            return c - 'A';
+        if (c >= 'a' && c <= 'z')
+            return c - 'a';
+        if (c >= 'À' && c <= 'ÿ' && SEM_ACENTO.charAt(c - 'À') != '-')
+            return SEM_ACENTO.charAt(c - 'À') - 'A';
+        //A maiúscula de 'ÿ' fica fora da tabela, em U+0178, e aparece nas palavras convertidas para maiúsculas
+        if (c == 'Ÿ')
+            return 'Y' - 'A';
+        return -1;
+    }
+
+    //Retorna o bit da letra em um conjunto de letras de 26 bits, ou 0 se o caractere não for uma letra
+    public static int getBit(char c) {
+        int indice = getIndice(c);
+        return indice < 0 ? 0 : 1 << indice;
+    }
+}
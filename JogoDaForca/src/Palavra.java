@@ -3,44 +3,75 @@ public class Palavra {
     //Atributo privado string denominado 'texto'
     private String texto;
 
+    //Tamanho máximo de uma palavra: as posições de cada letra cabem nos 64 bits de um long
+    public static final int TAMANHO_MAXIMO = 64;
+
+    //Posições de cada letra de A a Z na palavra, um bit por posição (bit 0 para a primeira letra),
+    //sem diferenciar letras com e sem acento: as posições de 'A' incluem as de 'Á' e 'Ã'
+    private long[] posicoes = new long[26];
+
+    //Posições dos caracteres que não são letras (hífen, espaço...), que não precisam ser adivinhados
+    private long posicoesSemLetra;
+
     //construtor da classe palavra que vai receber uma string tbm chamada 'texto'
     public Palavra (String texto) throws Exception 
     {
-        if(texto == "" || texto == null) //verifica se o texto recebido é nulo ou então vazio
+        if(texto == null || texto.isEmpty()) //verifica se o texto recebido é nulo ou então vazio
             throw new Exception("Texto inválido !!"); //caso ocorra, lança uma excessão!
+        if(texto.length() > TAMANHO_MAXIMO)
+            throw new Exception("Texto com mais de "+TAMANHO_MAXIMO+" caracteres !!");
 
         this.texto = texto; //caso contrário armaza o texto recebido em this.texto
+
+        //Calcula uma única vez as posições de cada letra; assim um palpite não precisa percorrer o texto
+        for(int i = 0; i < texto.length(); i++){
+            int letra = Letras.getIndice(texto.charAt(i));
+            if(letra < 0)
+                this.posicoesSemLetra |= 1L << i;
+            else
+                this.posicoes[letra] |= 1L << i;
+        }
+    }
+
+    //Retorna as posições em que a letra fornecida aparece, um bit por posição,
+    //ou 0 se ela não aparecer ou não for uma letra
+    public long getPosicoes (char letra)
+    {
+        int indice = Letras.getIndice(letra);
+        return indice < 0 ? 0 : this.posicoes[indice];
+    }
+
+    //Retorna as posições dos caracteres que não são letras
+    public long getPosicoesSemLetra ()
+    {
+        return this.posicoesSemLetra;
+    }
+
+    //Retorna o caractere da posição fornecida, como está no texto (com acento, se houver)
+    public char getCaractere (int posicao)
+    {
+        return this.texto.charAt(posicao);
     }
 
     //Método getQuantidade que vai receber como parâmetro um caracter chamado 'letra'
     public int getQuantidade (char letra)
     {   
-        //percorre o String this.texto, 
-        //conta e retorna quantas letras existem nele iguais a letra fornecida
-        int cont = 0;
-        String txt = this.texto;
-        for(int i = 0; i < txt.length(); i++){
-            if(txt.charAt(i) == letra)
-                cont++;
-            //Método charAt() retorna o caractere no especificado no índice  em uma sequência.
-            //O índice do primeiro caractere é 0, o segundo caractere é 1 e assim por diante. 
-        }
-        return cont;
+        //conta e retorna quantas letras existem no texto iguais a letra fornecida,
+        //contando os bits das posições da letra em vez de percorrer o texto
+        return Long.bitCount(getPosicoes(letra));
     }
     //Método retornar um int e receber int i e char letra
     public int getPosicaoDaIezimaOcorrencia (int i, char letra) throws Exception
     {   //descobrir a posição 'int' da Iezinha ocorrência 'int i' do 'char letra' na string 'texto'
-        //Método descobre qual a posição da iezima letra no texto fornecido 
-        int aparicao = -1;
-        for(int j = 0; j < this.texto.length(); j++){
-            if(this.texto.charAt(j) == letra){
-                aparicao++;
-            }
-            if(aparicao == i)
-                return j;
-        }
+        //descarta os i primeiros bits das posições da letra; o menor bit restante é a posição procurada
+        long restantes = getPosicoes(letra);
+        for(int j = 0; j < i && restantes != 0; j++)
+            restantes &= restantes - 1;
+
         //lançar uma excessão caso não encontre a Iézima aparição da letra fornecida
-        throw new Exception("Posição não encontrada!!");
+        if(i < 0 || restantes == 0)
+            throw new Exception("Posição não encontrada!!");
+        return Long.numberOfTrailingZeros(restantes);
     }
 
     //retornar o comprimento do 'texto' 
@@ -0,0 +1,88 @@
+//Estado de UMA partida: a palavra sorteada, os tracinhos, as letras já digitadas e os erros
+//
+//Reúne o que Forca.main faz a cada letra digitada, para que cada sessão do servidor (ou cada jogo simulado) tenha
+//sua própria partida, sem depender do Teclado nem de atributos static. Uma partida deve ser usada por uma só
+//thread de cada vez.
+public class Partida {
+
+    //Resultado de uma letra digitada
+    public enum Resultado {ACERTOU, ERROU, GANHOU, PERDEU}
+
+    private final Palavra palavra;
+    private final Tracinhos tracinhos;
+    private final ControladorDeLetrasJaDigitadas letrasJaDigitadas = new ControladorDeLetrasJaDigitadas();
+    private final ControladorDeErros erros;
+
+    //Início da partida, em milissegundos desde 1970 e em System.nanoTime, e duração, conhecida quando ela termina
+    private final long inicio = System.currentTimeMillis();
+    private final long inicioNanos = System.nanoTime();
+    private long duracaoNanos = -1;
+
+    //Começa a partida com os hífens e espaços da palavra já revelados e, como em Forca.main, até 60% do tamanho
+    //da palavra de erros, mas pelo menos um, para que palavras de uma ou duas letras não comecem perdidas
+    public Partida(Palavra palavra) throws Exception {
+        if (palavra == null)
+            throw new Exception("Palavra ausente !!");
+        this.palavra = palavra;
+        this.tracinhos = new Tracinhos(palavra.getTamanho());
+        this.tracinhos.revele(palavra.getPosicoesSemLetra(), palavra);
+        this.erros = new ControladorDeErros(Math.max(1, (int) (palavra.getTamanho() * 0.6)));
+        if (!this.tracinhos.isAindaComTracinhos()) //palavra sem letras: a partida já começa terminada
+            this.duracaoNanos = 0;
+    }
+
+    //Registra a letra e a revela, ou conta um erro se a palavra não a tiver. Lança uma exceção, sem contar erro,
+    //se a letra já tiver sido digitada, não for uma letra ou a partida já tiver terminado
+    public Resultado jogue(char letra) throws Exception {
+        if (isTerminada())
+            throw new Exception("Partida já terminada !!");
+        this.letrasJaDigitadas.registre(letra);
+
+        long posicoes = this.palavra.getPosicoes(letra);
+        if (posicoes == 0)
+            this.erros.registreUmErro();
+        else
+            this.tracinhos.revele(posicoes, this.palavra);
+
+        if (isTerminada())
+            this.duracaoNanos = System.nanoTime() - this.inicioNanos;
+        if (posicoes == 0)
+            return this.erros.isAtingidoMaximoDeErros() ? Resultado.PERDEU : Resultado.ERROU;
+        return this.tracinhos.isAindaComTracinhos() ? Resultado.ACERTOU : Resultado.GANHOU;
+    }
+
+    public boolean isTerminada() {
+        return !this.tracinhos.isAindaComTracinhos() || this.erros.isAtingidoMaximoDeErros();
+    }
+
+    public boolean isGanha() {
+        return !this.tracinhos.isAindaComTracinhos();
+    }
+
+    //Início da partida, em milissegundos desde 1970
+    public long getInicio() {
+        return this.inicio;
+    }
+
+    //Duração da partida em milissegundos: até a última letra, se terminada, ou até agora
+    public long getDuracao() {
+        long nanos = this.duracaoNanos >= 0 ? this.duracaoNanos : System.nanoTime() - this.inicioNanos;
+        return nanos / 1_000_000;
+    }
+
+    public Palavra getPalavra() {
+        return this.palavra;
+    }
+
+    public Tracinhos getTracinhos() {
+        return this.tracinhos;
+    }
+
+    public ControladorDeLetrasJaDigitadas getLetrasJaDigitadas() {
+        return this.letrasJaDigitadas;
+    }
+
+    public ControladorDeErros getErros() {
+        return this.erros;
+    }
+}
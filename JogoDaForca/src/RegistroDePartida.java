@@ -0,0 +1,16 @@
+//Uma partida terminada, como é gravada no arquivo de estatísticas
+//
+//letras é a quantidade de letras digitadas (acertos e erros), e erros e maximoDeErros vêm do ControladorDeErros
+//da partida. inicio é em milissegundos desde 1970 e duracao, em milissegundos.
+public record RegistroDePartida(String jogador, String palavra, int letras, int erros, int maximoDeErros,
+                                boolean ganhou, long inicio, long duracao) {
+
+    //Registro de uma partida terminada
+    public static RegistroDePartida de(Partida partida, String jogador) throws Exception {
+        if (!partida.isTerminada())
+            throw new Exception("Partida não terminada !!");
+        return new RegistroDePartida(jogador, partida.getPalavra().toString(),
+                Integer.bitCount(partida.getLetrasJaDigitadas().getLetras()), partida.getErros().getQtdErr(),
+                partida.getErros().getQtdMax(), partida.isGanha(), partida.getInicio(), partida.getDuracao());
+    }
+}
@@ -0,0 +1,360 @@
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveTask;
+
+//Jogador automático: dado o que já foi revelado (Tracinhos) e as letras já digitadas, sugere a letra que traz
+//mais informação sobre a palavra
+//
+//As palavras do dicionário são agrupadas por tamanho e, em cada grupo, indexadas por conjuntos de bits com um bit
+//por palavra: um conjunto por posição e letra (as palavras com aquela letra naquela posição) e um por letra (as
+//palavras que têm a letra em alguma posição). As palavras compatíveis com a partida são obtidas só com interseções
+//e diferenças desses conjuntos, 64 palavras por operação, sem olhar palavra por palavra.
+//
+//Cada letra ainda não digitada divide as candidatas em classes, conforme as posições em que a letra aparece (ou
+//não aparece) em cada uma, e a letra sugerida é a de maior entropia dessa divisão, ou seja, a que em média mais
+//reduz as candidatas. Com muitas candidatas a contagem das classes é dividida em tarefas de um ForkJoinPool, que
+//usam todos os núcleos.
+//
+//Depois de criado, o resolvedor só é lido, e pode ser usado por várias threads ao mesmo tempo.
+public class Resolvedor {
+
+    //Índice usado para os caracteres que não são letras (hífen, espaço...), depois das 26 letras
+    private static final int SEM_LETRA = 26;
+
+    //Quantidade de longs dos conjuntos de candidatas a partir da qual a contagem é dividida em tarefas
+    private static final int LIMIAR_PARALELO = 256;
+
+    private static final double LOG_2 = Math.log(2);
+
+    private final Grupo[] grupos = new Grupo[Palavra.TAMANHO_MAXIMO + 1];
+
+    //Palpites das partidas sem nenhuma letra digitada, que só dependem do tamanho e dos hífens da palavra
+    private final Map<String, Character> aberturas = new ConcurrentHashMap<>();
+
+    //Palavras de um tamanho, com os conjuntos de bits que as indexam; a palavra j é o bit j de cada conjunto
+    private static final class Grupo {
+        final int tamanho;
+        final int quantidade;
+        final long[] validas; //palavras indexadas, sem as que mudaram de tamanho ao passar para maiúsculas
+        final long[][] naPosicao; //[posicao * 27 + letra]: palavras com a letra na posição
+        final long[][] comLetra; //[letra]: palavras com a letra em alguma posição
+        final byte[] letras; //letras de cada palavra (0 a 26), tamanho por palavra, em sequência
+
+        Grupo(int tamanho, int quantidade) {
+            this.tamanho = tamanho;
+            this.quantidade = quantidade;
+            int longs = (quantidade + 63) >>> 6;
+            this.validas = new long[longs];
+            this.naPosicao = new long[tamanho * 27][longs];
+            this.comLetra = new long[27][longs];
+            this.letras = new byte[quantidade * tamanho];
+        }
+
+        void adicione(int j, String texto) {
+            if (texto.length() != this.tamanho)
+                return;
+            long bit = 1L << j;
+            int palavra = j >>> 6;
+            this.validas[palavra] |= bit;
+            for (int p = 0; p < this.tamanho; p++) {
+                int letra = Letras.getIndice(texto.charAt(p));
+                if (letra < 0)
+                    letra = SEM_LETRA;
+                this.naPosicao[p * 27 + letra][palavra] |= bit;
+                this.comLetra[letra][palavra] |= bit;
+                this.letras[j * this.tamanho + p] = (byte) letra;
+            }
+        }
+    }
+
+    //Indexa todas as palavras de um arquivo de palavras
+    public Resolvedor(ArquivoDePalavras arquivo) {
+        for (int t = 1; t <= Palavra.TAMANHO_MAXIMO; t++) {
+            int quantidade = arquivo.getQuantidade(t);
+            if (quantidade == 0)
+                continue;
+            Grupo grupo = new Grupo(t, quantidade);
+            int primeiro = arquivo.getPrimeiroIndice(t);
+            for (int j = 0; j < quantidade; j++)
+                grupo.adicione(j, arquivo.getTexto(primeiro + j));
+            this.grupos[t] = grupo;
+        }
+    }
+
+    //Indexa as palavras fornecidas, que devem estar em letras maiúsculas como as sorteadas no jogo
+    public Resolvedor(String[] palavras) {
+        List<List<String>> porTamanho = new ArrayList<>();
+        for (int t = 0; t <= Palavra.TAMANHO_MAXIMO; t++)
+            porTamanho.add(new ArrayList<>());
+        for (String palavra : palavras) {
+            if (!palavra.isEmpty() && palavra.length() <= Palavra.TAMANHO_MAXIMO)
+                porTamanho.get(palavra.length()).add(palavra);
+        }
+        for (int t = 1; t <= Palavra.TAMANHO_MAXIMO; t++) {
+            List<String> lista = porTamanho.get(t);
+            if (lista.isEmpty())
+                continue;
+            Grupo grupo = new Grupo(t, lista.size());
+            for (int j = 0; j < lista.size(); j++)
+                grupo.adicione(j, lista.get(j));
+            this.grupos[t] = grupo;
+        }
+    }
+
+    //Quantidade de palavras do dicionário compatíveis com a partida
+    public int getQuantidadeDeCandidatas(Tracinhos tracinhos, ControladorDeLetrasJaDigitadas digitadas) {
+        Grupo grupo = getGrupo(tracinhos.getTamanho());
+        if (grupo == null)
+            return 0;
+        int quantidade = 0;
+        for (long bits : filtre(grupo, tracinhos, digitadas.getLetras()))
+            quantidade += Long.bitCount(bits);
+        return quantidade;
+    }
+
+    //Sugere a próxima letra a digitar. Se nenhuma palavra do dicionário for compatível com a partida, sugere a
+    //letra ainda não digitada mais comum entre as palavras do mesmo tamanho
+    public char getPalpite(Tracinhos tracinhos, ControladorDeLetrasJaDigitadas digitadas) throws Exception {
+        int digitadasOuReveladas = digitadas.getLetras() | getReveladas(tracinhos);
+        if (digitadasOuReveladas == (1 << 26) - 1)
+            throw new Exception("Não há letras a sugerir !!");
+
+        Grupo grupo = getGrupo(tracinhos.getTamanho());
+        if (grupo == null)
+            return getMaisComum(null, digitadasOuReveladas);
+
+        //Sem letras digitadas, o palpite é sempre o mesmo para o mesmo padrão: é calculado uma única vez
+        if (digitadasOuReveladas == 0) {
+            String padrao = tracinhos.toString();
+            Character abertura = this.aberturas.get(padrao);
+            if (abertura == null) {
+                abertura = escolha(grupo, tracinhos, 0);
+                this.aberturas.put(padrao, abertura);
+            }
+            return abertura;
+        }
+        return escolha(grupo, tracinhos, digitadasOuReveladas);
+    }
+
+    private Grupo getGrupo(int tamanho) {
+        return tamanho >= 1 && tamanho <= Palavra.TAMANHO_MAXIMO ? this.grupos[tamanho] : null;
+    }
+
+    private char escolha(Grupo grupo, Tracinhos tracinhos, int digitadas) {
+        long[] candidatas = filtre(grupo, tracinhos, digitadas);
+        Contagem contagem = new Contar(grupo, candidatas, digitadas, 0, candidatas.length).invoke();
+
+        int quantidade = 0;
+        for (long bits : candidatas)
+            quantidade += Long.bitCount(bits);
+        if (quantidade == 0)
+            return getMaisComum(grupo, digitadas);
+
+        //Maior entropia; no empate (por exemplo, com uma só candidata), a letra presente em mais candidatas
+        int melhor = -1;
+        double melhorEntropia = -1;
+        for (int letra = 0; letra < 26; letra++) {
+            if ((digitadas & (1 << letra)) != 0)
+                continue;
+            double entropia = contagem.getEntropia(letra, quantidade);
+            if (entropia > melhorEntropia + 1e-9
+                    || (entropia > melhorEntropia - 1e-9 && contagem.presentes[letra] > contagem.presentes[melhor])) {
+                melhor = letra;
+                melhorEntropia = entropia;
+            }
+        }
+        return (char) ('A' + melhor);
+    }
+
+    //Letras já reveladas nos tracinhos, que contam como digitadas mesmo que não tenham sido registradas
+    private static int getReveladas(Tracinhos tracinhos) {
+        int reveladas = 0;
+        for (int p = 0; p < tracinhos.getTamanho(); p++) {
+            if (tracinhos.getCaractere(p) != '_')
+                reveladas |= Letras.getBit(tracinhos.getCaractere(p));
+        }
+        return reveladas;
+    }
+
+    //Palavras do grupo compatíveis com a partida: cada posição revelada tem a letra revelada; nenhuma posição
+    //oculta tem uma letra já digitada, nem um caractere que não é letra (esses começam revelados); e nenhuma
+    //palavra tem uma letra digitada que não foi revelada
+    private static long[] filtre(Grupo grupo, Tracinhos tracinhos, int digitadas) {
+        long[] candidatas = grupo.validas.clone();
+        int reveladas = getReveladas(tracinhos);
+        int erradas = digitadas & ~reveladas;
+        int acertadas = (digitadas | reveladas) & ~erradas;
+
+        for (int p = 0; p < grupo.tamanho; p++) {
+            char c = tracinhos.getCaractere(p);
+            if (c != '_') {
+                int letra = Letras.getIndice(c);
+                e(candidatas, grupo.naPosicao[p * 27 + (letra < 0 ? SEM_LETRA : letra)]);
+                continue;
+            }
+            excetoSe(candidatas, grupo.naPosicao[p * 27 + SEM_LETRA]);
+            for (int letras = acertadas; letras != 0; letras &= letras - 1)
+                excetoSe(candidatas, grupo.naPosicao[p * 27 + Integer.numberOfTrailingZeros(letras)]);
+        }
+        for (int letras = erradas; letras != 0; letras &= letras - 1)
+            excetoSe(candidatas, grupo.comLetra[Integer.numberOfTrailingZeros(letras)]);
+        return candidatas;
+    }
+
+    private static void e(long[] candidatas, long[] conjunto) {
+        for (int i = 0; i < candidatas.length; i++)
+            candidatas[i] &= conjunto[i];
+    }
+
+    private static void excetoSe(long[] candidatas, long[] conjunto) {
+        for (int i = 0; i < candidatas.length; i++)
+            candidatas[i] &= ~conjunto[i];
+    }
+
+    //Letra não digitada presente em mais palavras do grupo, ou a primeira não digitada se não houver grupo
+    private static char getMaisComum(Grupo grupo, int digitadas) {
+        int melhor = Integer.numberOfTrailingZeros(~digitadas);
+        int melhorQuantidade = -1;
+        for (int letra = 0; grupo != null && letra < 26; letra++) {
+            if ((digitadas & (1 << letra)) != 0)
+                continue;
+            int quantidade = 0;
+            for (long bits : grupo.comLetra[letra])
+                quantidade += Long.bitCount(bits);
+            if (quantidade > melhorQuantidade) {
+                melhor = letra;
+                melhorQuantidade = quantidade;
+            }
+        }
+        return (char) ('A' + melhor);
+    }
+
+    //Conta as classes de cada letra nas candidatas de um trecho dos conjuntos de bits, dividindo o trecho ao meio
+    //enquanto ele for grande
+    //(a tarefa nunca é serializada; o grupo é transient só porque RecursiveTask é Serializable)
+    private static final class Contar extends RecursiveTask<Contagem> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient Grupo grupo;
+        private final long[] candidatas;
+        private final int digitadas, de, ate;
+
+        Contar(Grupo grupo, long[] candidatas, int digitadas, int de, int ate) {
+            this.grupo = grupo;
+            this.candidatas = candidatas;
+            this.digitadas = digitadas;
+            this.de = de;
+            this.ate = ate;
+        }
+
+        @Override
+        protected Contagem compute() {
+            if (this.ate - this.de > LIMIAR_PARALELO) {
+                int meio = (this.de + this.ate) >>> 1;
+                Contar esquerda = new Contar(this.grupo, this.candidatas, this.digitadas, this.de, meio);
+                esquerda.fork();
+                Contagem contagem = new Contar(this.grupo, this.candidatas, this.digitadas, meio, this.ate).compute();
+                contagem.junte(esquerda.join());
+                return contagem;
+            }
+
+            Contagem contagem = new Contagem();
+            int tamanho = this.grupo.tamanho;
+            byte[] letras = this.grupo.letras;
+            long[] posicoes = new long[27];
+            int naoDigitadas = ~this.digitadas & ((1 << 26) - 1);
+            for (int i = this.de; i < this.ate; i++) {
+                for (long bits = this.candidatas[i]; bits != 0; bits &= bits - 1) {
+                    int inicio = ((i << 6) + Long.numberOfTrailingZeros(bits)) * tamanho;
+
+                    //Posições de cada letra na palavra, e as letras presentes
+                    int presentes = 0;
+                    for (int p = 0; p < tamanho; p++) {
+                        int letra = letras[inicio + p];
+                        posicoes[letra] |= 1L << p;
+                        presentes |= 1 << letra;
+                    }
+                    for (int l = presentes & naoDigitadas; l != 0; l &= l - 1) {
+                        int letra = Integer.numberOfTrailingZeros(l);
+                        contagem.adicione(letra, posicoes[letra]);
+                    }
+                    for (int l = presentes; l != 0; l &= l - 1)
+                        posicoes[Integer.numberOfTrailingZeros(l)] = 0;
+                }
+            }
+            return contagem;
+        }
+    }
+
+    //Para cada letra, quantas candidatas têm a letra em cada conjunto de posições, em uma tabela de dispersão
+    //com endereçamento aberto; o conjunto vazio nunca é guardado e marca as entradas livres
+    private static final class Contagem {
+        final long[][] chaves = new long[26][];
+        final int[][] quantidades = new int[26][];
+        final int[] ocupadas = new int[26];
+        final int[] presentes = new int[26];
+
+        void adicione(int letra, long posicoes) {
+            adicione(letra, posicoes, 1);
+        }
+
+        void adicione(int letra, long posicoes, int quantidade) {
+            long[] chaves = this.chaves[letra];
+            if (chaves == null || 2 * (this.ocupadas[letra] + 1) > chaves.length) {
+                aumente(letra);
+                chaves = this.chaves[letra];
+            }
+            int mascara = chaves.length - 1;
+            int i = (int) ((posicoes * 0x9E3779B97F4A7C15L) >>> 32) & mascara;
+            while (chaves[i] != 0 && chaves[i] != posicoes)
+                i = (i + 1) & mascara;
+            if (chaves[i] == 0) {
+                chaves[i] = posicoes;
+                this.ocupadas[letra]++;
+            }
+            this.quantidades[letra][i] += quantidade;
+            this.presentes[letra] += quantidade;
+        }
+
+        private void aumente(int letra) {
+            long[] chaves = this.chaves[letra];
+            int[] quantidades = this.quantidades[letra];
+            this.chaves[letra] = new long[chaves == null ? 16 : 2 * chaves.length];
+            this.quantidades[letra] = new int[this.chaves[letra].length];
+            this.ocupadas[letra] = 0;
+            this.presentes[letra] = 0;
+            for (int i = 0; chaves != null && i < chaves.length; i++) {
+                if (chaves[i] != 0)
+                    adicione(letra, chaves[i], quantidades[i]);
+            }
+        }
+
+        void junte(Contagem outra) {
+            for (int letra = 0; letra < 26; letra++) {
+                long[] chaves = outra.chaves[letra];
+                for (int i = 0; chaves != null && i < chaves.length; i++) {
+                    if (chaves[i] != 0)
+                        adicione(letra, chaves[i], outra.quantidades[letra][i]);
+                }
+            }
+        }
+
+        //Entropia, em bits, da divisão das candidatas pelas posições da letra, contando como uma classe as
+        //candidatas sem a letra: log2(n) - (soma de c * log2(c)) / n
+        double getEntropia(int letra, int candidatas) {
+            double soma = xLog2x(candidatas - this.presentes[letra]);
+            int[] quantidades = this.quantidades[letra];
+            for (int i = 0; quantidades != null && i < quantidades.length; i++)
+                soma += xLog2x(quantidades[i]);
+            return xLog2x(candidatas) / candidatas - soma / candidatas;
+        }
+
+        private static double xLog2x(int x) {
+            return x <= 1 ? 0 : x * Math.log(x) / LOG_2;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Servidor de partidas de forca por TCP, só no endereço local, com um protocolo de uma linha por comando
+//
+//Cada conexão é uma sessão, atendida por uma virtual thread própria; como a virtual thread bloqueada na leitura não
+//prende uma thread do sistema, o servidor atende milhares de sessões ao mesmo tempo. O estado de cada sessão (a
+//partida e a dificuldade) fica em um objeto Sessao, e não em atributos static como o Teclado do jogo no console.
+//
+//Comandos, em UTF-8 e sem diferenciar maiúsculas de minúsculas:
+//  NOVA [FACIL|MEDIO|DIFICIL]  começa uma partida (sem dificuldade, a da sessão, inicialmente MEDIO)
+//  LETRA x  (ou só x)          digita a letra x
+//  ESTADO                      repete o estado da partida
+//  SAIR                        encerra a sessão
+//
+//Cada comando tem uma linha de resposta, "SITUACAO erros/maximo texto", em que texto são os tracinhos (por
+//exemplo "PA_A-__") ou, quando a partida termina, a palavra; a SITUACAO é JOGANDO, ACERTOU, ERROU, GANHOU ou
+//PERDEU. Erros são respondidos com "ERRO mensagem", e SAIR com "TCHAU". Uma sessão sem comandos por mais do que
+//o tempo limite recebe "TCHAU tempo esgotado" e é encerrada.
+//
+//java ServidorDaForca [porta] [arquivo-de-palavras|-] [segundos-sem-comandos]
+public class ServidorDaForca {
+
+    public static final int PORTA_PADRAO = 7000;
+
+    private final ServerSocket servidor;
+    private final int tempoLimite; //em milissegundos
+    private final AtomicInteger sessoesAbertas = new AtomicInteger();
+
+    public ServidorDaForca(int porta, int segundosSemComandos) throws Exception {
+        if (segundosSemComandos <= 0)
+            throw new Exception("Tempo limite inválido !!");
+        //Fila de conexões grande, para que milhares de clientes possam conectar de uma vez
+        this.servidor = new ServerSocket(porta, 4096, InetAddress.getLoopbackAddress());
+        this.tempoLimite = segundosSemComandos * 1000;
+    }
+
+    public int getPorta() {
+        return this.servidor.getLocalPort();
+    }
+
+    public int getSessoesAbertas() {
+        return this.sessoesAbertas.get();
+    }
+
+    //Aceita conexões até o servidor ser fechado, com uma virtual thread por sessão
+    public void atenda() throws IOException {
+        try (ExecutorService sessoes = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (!this.servidor.isClosed()) {
+                Socket conexao;
+                try {
+                    conexao = this.servidor.accept();
+                } catch (IOException erro) {
+                    if (this.servidor.isClosed())
+                        break;
+                    throw erro;
+                }
+                sessoes.execute(new Sessao(conexao));
+            }
+        }
+    }
+
+    public void feche() throws IOException {
+        this.servidor.close();
+    }
+
+    //Estado de uma conexão
+    private final class Sessao implements Runnable {
+        private final Socket conexao;
+        private Dificuldade dificuldade = Dificuldade.MEDIO;
+        private Partida partida;
+
+        Sessao(Socket conexao) {
+            this.conexao = conexao;
+        }
+
+        @Override
+        public void run() {
+            sessoesAbertas.incrementAndGet();
+            try (Socket conexao = this.conexao;
+                 BufferedReader entrada = new BufferedReader(
+                         new InputStreamReader(conexao.getInputStream(), StandardCharsets.UTF_8));
+                 Writer saida = new BufferedWriter(
+                         new OutputStreamWriter(conexao.getOutputStream(), StandardCharsets.UTF_8))) {
+                conexao.setSoTimeout(tempoLimite);
+                conexao.setTcpNoDelay(true);
+                for (; ; ) {
+                    String linha;
+                    try {
+                        linha = entrada.readLine();
+                    } catch (SocketTimeoutException erro) {
+                        responda(saida, "TCHAU tempo esgotado");
+                        break;
+                    }
+                    if (linha == null)
+                        break;
+
+                    String resposta = execute(linha.trim());
+                    responda(saida, resposta);
+                    if (resposta.equals("TCHAU"))
+                        break;
+                }
+            } catch (IOException erro) {
+                //conexão encerrada pelo cliente
+            } finally {
+                sessoesAbertas.decrementAndGet();
+            }
+        }
+
+        private String execute(String linha) {
+            String[] partes = linha.split("\\s+", 2);
+            String comando = partes[0].toUpperCase(Locale.ROOT);
+            String argumento = partes.length > 1 ? partes[1] : "";
+            try {
+                switch (comando) {
+                    case "NOVA":
+                        if (!argumento.isEmpty())
+                            this.dificuldade = Dificuldade.valueOf(argumento.toUpperCase(Locale.ROOT));
+                        this.partida = new Partida(BancoDePalavras.getPalavraSorteada(this.dificuldade));
+                        return estado("JOGANDO");
+                    case "LETRA":
+                        return jogue(argumento);
+                    case "ESTADO":
+                        if (this.partida == null)
+                            throw new Exception("Nenhuma partida começada !!");
+                        return estado(this.partida.isTerminada() ? (this.partida.isGanha() ? "GANHOU" : "PERDEU") : "JOGANDO");
+                    case "SAIR":
+                        return "TCHAU";
+                    default:
+                        //Uma letra sozinha na linha é o mesmo que LETRA
+                        if (linha.length() == 1)
+                            return jogue(linha);
+                        throw new Exception("Comando desconhecido !!");
+                }
+            } catch (IllegalArgumentException erro) {
+                return "ERRO Dificuldade inválida !!";
+            } catch (Exception erro) {
+                return "ERRO " + erro.getMessage();
+            }
+        }
+
+        private String jogue(String letra) throws Exception {
+            if (this.partida == null)
+                throw new Exception("Nenhuma partida começada !!");
+            if (letra.length() != 1)
+                throw new Exception("Digite uma letra !!");
+            return estado(this.partida.jogue(Character.toUpperCase(letra.charAt(0))).name());
+        }
+
+        private String estado(String situacao) {
+            String texto;
+            if (this.partida.isTerminada()) {
+                texto = this.partida.getPalavra().toString();
+            } else {
+                Tracinhos tracinhos = this.partida.getTracinhos();
+                StringBuilder padrao = new StringBuilder(tracinhos.getTamanho());
+                for (int i = 0; i < tracinhos.getTamanho(); i++)
+                    padrao.append(tracinhos.getCaractere(i));
+                texto = padrao.toString();
+            }
+            return situacao + " " + this.partida.getErros() + " " + texto;
+        }
+
+        private void responda(Writer saida, String resposta) throws IOException {
+            saida.write(resposta);
+            saida.write('\n');
+            saida.flush();
+        }
+    }
+
+    public static void main(String[] args) {
+        int porta = PORTA_PADRAO;
+        int segundos = 60;
+        ServidorDaForca servidor;
+        try {
+            if (args.length > 0)
+                porta = Integer.parseInt(args[0]);
+            if (args.length > 1 && !args[1].equals("-"))
+                BancoDePalavras.carregue(args[1]);
+            if (args.length > 2)
+                segundos = Integer.parseInt(args[2]);
+            servidor = new ServidorDaForca(porta, segundos);
+        } catch (Exception erro) {
+            System.err.println("Nao foi possivel iniciar o servidor: " + erro.getMessage());
+            return;
+        }
+
+        System.out.println("Servidor da forca em " + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                + servidor.getPorta() + " (sessoes sem comandos por " + segundos + " s sao encerradas)");
+        try {
+            servidor.atenda();
+        } catch (IOException erro) {
+            System.err.println(erro.getMessage());
+        }
+    }
+}
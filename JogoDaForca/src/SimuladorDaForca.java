@@ -0,0 +1,112 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+//Simulador de partidas: uma estratégia automática joga muitas partidas seguidas, sem console, dividindo-as entre
+//várias threads, e no fim são informados a taxa de vitórias e as partidas por segundo
+//
+//Cada thread tem o seu jogador (as estratégias podem guardar estado) e joga a sua parte das partidas; as palavras
+//são sorteadas do BancoDePalavras, que pode ser usado por várias threads ao mesmo tempo.
+//
+//java SimuladorDaForca [arquivo-de-palavras|-] [partidas] [frequencia|aleatorio|resolvedor] [threads] [dificuldade]
+public class SimuladorDaForca {
+
+    //Resultado de uma simulação
+    public record Resultado(long partidas, long vitorias, long letras, long erros, long nanos, int threads) {
+
+        public double getTaxaDeVitorias() {
+            return this.partidas == 0 ? 0 : 100.0 * this.vitorias / this.partidas;
+        }
+
+        public double getPartidasPorSegundo() {
+            return this.partidas * 1e9 / Math.max(1, this.nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d partidas em %.2f s com %d threads: %.2f%% de vitorias, %.0f partidas/s,"
+                            + " %.2f letras e %.2f erros por partida",
+                    this.partidas, this.nanos / 1e9, this.threads, getTaxaDeVitorias(), getPartidasPorSegundo(),
+                    (double) this.letras / Math.max(1, this.partidas), (double) this.erros / Math.max(1, this.partidas));
+        }
+    }
+
+    private final Supplier<Jogador> estrategia;
+    private final Dificuldade dificuldade;
+    private final int threads;
+
+    public SimuladorDaForca(Supplier<Jogador> estrategia, Dificuldade dificuldade, int threads) throws Exception {
+        if (threads < 1)
+            throw new Exception("Quantidade de threads inválida !!");
+        this.estrategia = estrategia;
+        this.dificuldade = dificuldade;
+        this.threads = threads;
+    }
+
+    //Joga as partidas e retorna o resultado; lança uma exceção se o jogador digitar uma letra inválida ou repetida
+    public Resultado simule(long partidas) throws Exception {
+        long inicio = System.nanoTime();
+        List<Future<long[]>> partes = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(this.threads)) {
+            for (int i = 0; i < this.threads; i++) {
+                long quantidade = partidas / this.threads + (i < partidas % this.threads ? 1 : 0);
+                partes.add(executor.submit(() -> jogue(quantidade)));
+            }
+
+            long vitorias = 0, letras = 0, erros = 0;
+            for (Future<long[]> parte : partes) {
+                long[] resultado;
+                try {
+                    resultado = parte.get();
+                } catch (ExecutionException erro) {
+                    executor.shutdownNow();
+                    throw erro.getCause() instanceof Exception ? (Exception) erro.getCause() : erro;
+                }
+                vitorias += resultado[0];
+                letras += resultado[1];
+                erros += resultado[2];
+            }
+            return new Resultado(partidas, vitorias, letras, erros, System.nanoTime() - inicio, this.threads);
+        }
+    }
+
+    //Parte das partidas jogada por uma thread: retorna as vitórias, as letras e os erros
+    private long[] jogue(long partidas) throws Exception {
+        Jogador jogador = this.estrategia.get();
+        long vitorias = 0, letras = 0, erros = 0;
+        for (long i = 0; i < partidas && !Thread.currentThread().isInterrupted(); i++) {
+            Partida partida = new Partida(BancoDePalavras.getPalavraSorteada(this.dificuldade));
+            while (!partida.isTerminada()) {
+                Partida.Resultado resultado = partida.jogue(jogador.getLetra(partida));
+                letras++;
+                if (resultado == Partida.Resultado.ERROU || resultado == Partida.Resultado.PERDEU)
+                    erros++;
+            }
+            if (partida.isGanha())
+                vitorias++;
+        }
+        return new long[]{vitorias, letras, erros};
+    }
+
+    public static void main(String[] args) {
+        try {
+            if (args.length > 0 && !args[0].equals("-"))
+                BancoDePalavras.carregue(args[0]);
+            long partidas = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+            Supplier<Jogador> estrategia = Jogador.getEstrategia(args.length > 2 ? args[2] : "frequencia");
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            Dificuldade dificuldade = args.length > 4 ? Dificuldade.valueOf(args[4].toUpperCase()) : Dificuldade.MEDIO;
+
+            //Uma rodada curta antes, para que o tempo medido não inclua a compilação pelo JIT
+            SimuladorDaForca simulador = new SimuladorDaForca(estrategia, dificuldade, threads);
+            simulador.simule(Math.min(partidas, 10_000));
+            System.out.println(simulador.simule(partidas));
+        } catch (Exception erro) {
+            System.err.println("Nao foi possivel simular: " + erro.getMessage());
+        }
+    }
+}
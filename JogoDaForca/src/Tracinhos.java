@@ -7,6 +7,9 @@ public class Tracinhos implements Cloneable{
     //vetor de caracteres que se chama texto
     //private char [] texto; --> maneira alternativa de declarar o vetor
 
+    //quantidade de '_' que ainda restam em this.texto
+    private int qtdDeTracinhos;
+
     //Construtor da classe tracinho que recebe um inteiro 'qtd'
     public Tracinhos (int qtd) throws Exception
     {
@@ -22,6 +25,7 @@ public class Tracinhos implements Cloneable{
             for (int i = 0; i < qtd; i++) {
                 this.texto[i] = '_';
             }
+            this.qtdDeTracinhos = qtd;
         }
     }
     //Meétodo 'revele' recebe como parâmetro uma posição int e uma letra char
@@ -34,31 +38,54 @@ public class Tracinhos implements Cloneable{
 
         } //caso contrário, armazena a letra fornecida na posição também fornecida do vetor this.texto
           //no lugar do '_' que estva nessa posição
-        for(int i = 0; i < this.texto.length; i++){
-            if(posicao == i)
-                this.texto[i] = letra;
+        if(this.texto[posicao] == '_')
+            this.qtdDeTracinhos--;
+        this.texto[posicao] = letra;
+    }
+
+    //Revela de uma vez todas as posições fornecidas (um bit por posição, como em Palavra.getPosicoes),
+    //com os caracteres que a palavra tem nessas posições; visita só os bits ligados
+    public void revele (long posicoes, Palavra palavra) throws Exception
+    {
+        if(palavra.getTamanho() != this.texto.length)
+            throw new Exception("Palavra de tamanho diferente !!");
+
+        for(long restantes = posicoes; restantes != 0; restantes &= restantes - 1){
+            int posicao = Long.numberOfTrailingZeros(restantes);
+            if(posicao >= this.texto.length)
+                throw new Exception("Posição inválida !!");
+            if(this.texto[posicao] == '_')
+                this.qtdDeTracinhos--;
+            this.texto[posicao] = palavra.getCaractere(posicao);
         }
     }
+    //Retorna a quantidade de posições, reveladas ou não
+    public int getTamanho ()
+    {
+        return this.texto.length;
+    }
+
+    //Retorna o caractere da posição fornecida: a letra revelada ou '_'
+    public char getCaractere (int posicao)
+    {
+        return this.texto[posicao];
+    }
+
     //Método do tipo Boolean
     public boolean isAindaComTracinhos ()
-    {   //Percorrer o vetor de char this.texto e verifica se o mesmo ainda contem algum underline,
-        //returnar true caso ainda reste algum underline, ou false caso contrário (só tenham letras)
-        for(int i = 0; i < this.texto.length; i++){
-            if(this.texto[i] == '_'){
-                return true;
-            }
-        }
-        return false;
+    {   //returnar true caso ainda reste algum underline, ou false caso contrário (só tenham letras);
+        //os underlines restantes são contados por revele, sem precisar percorrer o vetor this.texto
+        return this.qtdDeTracinhos > 0;
     }
 
     public String toString ()
     {
         //Returna um String com todos os caracteres que há no vetor this.texto, intercalados com espaços em branco
-        String ret = "";
+        StringBuilder ret = new StringBuilder(3 * this.texto.length);
         for(int i = 0; i < this.texto.length; i++){
-            ret += " " + this.texto[i] + " ";
+            ret.append(' ').append(this.texto[i]).append(' ');
         }
-        return ret;
+        return ret.toString();
     }
 
     public boolean equals (Object obj)
@@ -96,7 +123,8 @@ public class Tracinhos implements Cloneable{
     {
         //Instanciar this.texto um vetor com o mesmo tamanho de t.texto
         //e compilar o conteúdo de t.texto para this.texto
-        this.texto = t.texto;
+        this.texto = t.texto.clone();
+        this.qtdDeTracinhos = t.qtdDeTracinhos;
     }
 
     //Método Clone
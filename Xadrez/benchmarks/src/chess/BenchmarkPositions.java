@@ -0,0 +1,42 @@
+package chess;
+
+import codec.Fen;
+
+import java.util.Map;
+
+/**
+ * Posições fixas usadas pelos benchmarks, para que os resultados de execuções diferentes sejam comparáveis.
+ */
+final class BenchmarkPositions {
+
+    static final Map<String, String> FEN = Map.of(
+            "start", Fen.START_POSITION,
+            "middlegame", "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w - - 0 9",
+            "endgame", "8/5pk1/6p1/8/3R4/6P1/5PKP/2r5 w - - 0 40",
+            // Xeque do Bispo em b5, com defesas possíveis
+            "check", "rnbqkbnr/ppp2ppp/3p4/1B2p3/4P3/8/PPPP1PPP/RNBQK1NR b - - 1 3",
+            // Mate do louco
+            "mate", "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w - - 1 3"
+    );
+
+    private BenchmarkPositions() {
+    }
+
+    static ChessMatch match(String position) {
+        return Fen.parse(fen(position));
+    }
+
+    static String fen(String position) {
+        String fen = FEN.get(position);
+        if (fen == null)
+            throw new IllegalArgumentException("Unknown benchmark position: " + position);
+        return fen;
+    }
+
+    /**
+     * Obtém o jogador da vez na FEN, que em uma posição de mate é o jogador que levou o mate.
+     */
+    static Color sideToMove(String position) {
+        return fen(position).split(" ")[1].equals("w") ? Color.WHITE : Color.BLACK;
+    }
+}
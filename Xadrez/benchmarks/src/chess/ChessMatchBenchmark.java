@@ -0,0 +1,105 @@
+package chess;
+
+import codec.Fen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validação de lances, detecção de xeque e xeque-mate e cópia do tabuleiro em {@link ChessMatch},
+ * em cada posição fixa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessMatchBenchmark {
+
+    @Param({"start", "middlegame", "endgame", "check", "mate"})
+    public String position;
+
+    private ChessMatch match;
+    private Color side;
+    private final int[] moves = new int[Move.MAX_MOVES];
+
+    @Setup
+    public void setup() {
+        match = BenchmarkPositions.match(position);
+        side = BenchmarkPositions.sideToMove(position);
+    }
+
+    /**
+     * Gera e valida todos os lances do jogador da vez, cada um com o teste de xeque completo.
+     */
+    @Benchmark
+    public int legalMoves() {
+        return match.legalMoves(moves);
+    }
+
+    @Benchmark
+    public boolean testCheck() {
+        return match.testCheck(side);
+    }
+
+    @Benchmark
+    public boolean testCheckMate() {
+        return match.testCheckMate(side);
+    }
+
+    @Benchmark
+    public ChessPiece[][] getPieces() {
+        return match.getPieces();
+    }
+
+    /**
+     * Um lance pelo caminho completo de {@link ChessMatch#performChessMove}: validação da origem e do destino,
+     * execução, teste de xeque e de xeque-mate e troca de turno.
+     * <p>
+     * O lance altera a partida, então cada chamada recebe uma partida nova; o custo de criá-la fica fora da medição.
+     * Na posição de mate não há lance válido e nada é medido.
+     */
+    @Benchmark
+    public ChessPiece performChessMove(MoveState state) {
+        if (state.source == null)
+            return null;
+        return state.match.performChessMove(state.source, state.target);
+    }
+
+    @State(Scope.Thread)
+    public static class MoveState {
+
+        private String fen;
+        private ChessPosition source;
+        private ChessPosition target;
+        ChessMatch match;
+
+        @Setup(Level.Trial)
+        public void chooseMove(ChessMatchBenchmark benchmark) {
+            fen = BenchmarkPositions.fen(benchmark.position);
+            int[] legal = new int[Move.MAX_MOVES];
+            ChessMatch start = BenchmarkPositions.match(benchmark.position);
+            if (start.legalMoves(legal) > 0) {
+                source = ChessPosition.fromSquare(Move.source(legal[0]));
+                target = ChessPosition.fromSquare(Move.target(legal[0]));
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void newMatch() {
+            match = Fen.parse(fen);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package chess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração de movimentos por tipo de peça: {@code possibleMoves()} de todas as peças do tipo, das duas cores,
+ * em cada posição fixa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param({"start", "middlegame", "endgame"})
+    public String position;
+
+    @Param({"P", "N", "B", "R", "Q", "K"})
+    public String piece;
+
+    private ChessPiece[] pieces;
+
+    @Setup
+    public void setup() {
+        ChessMatch match = BenchmarkPositions.match(position);
+        List<ChessPiece> list = new ArrayList<>();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece p = match.pieceAt(square);
+            if (p != null && p.toString().equals(piece))
+                list.add(p);
+        }
+        pieces = list.toArray(new ChessPiece[0]);
+    }
+
+    @Benchmark
+    public void possibleMoves(Blackhole bh) {
+        for (ChessPiece p : pieces) {
+            bh.consume(p.possibleMoves());
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package analysis;
+
+import chess.ChessMatch;
+import chess.Move;
+import codec.Fen;
+import engine.MaterialEvaluator;
+import engine.Search;
+import engine.SearchInfo;
+import engine.SearchLimits;
+import engine.TranspositionTable;
+import exception.ChessException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Análise em lote das posições de um arquivo EPD ou FEN, com os resultados gravados em CSV na ordem do arquivo.
+ * <p>
+ * O arquivo é lido linha a linha pela thread que chama {@link #run}, e cada posição vira uma tarefa de um
+ * {@link ForkJoinPool}, cujas threads roubam trabalho umas das outras quando ficam sem tarefas. Cada thread do
+ * pool tem uma busca, uma tabela de transposição e uma {@link ChessMatch} próprias, reaproveitadas em todas as
+ * posições que analisa; a tabela é limpa entre posições para que o resultado não dependa da ordem de execução.
+ * <p>
+ * Como as posições terminam fora de ordem, os resultados passam por um buffer circular de reordenação com
+ * {@code window} posições: a tarefa que completa a próxima posição a gravar grava também as seguintes que já
+ * estiverem prontas. A leitura só avança com uma vaga livre no buffer, de modo que nunca há mais de
+ * {@code window} posições lidas e não gravadas, e a memória usada não depende do tamanho do arquivo.
+ */
+public class EpdAnalysis {
+
+    public static final String CSV_HEADER = "line,id,fen,depth,score_cp,mate_in,nodes,bestmove,pv,micros,error";
+
+    /**
+     * Resumo de uma execução.
+     *
+     * @param positions    A quantidade de posições analisadas.
+     * @param errors       A quantidade de linhas que não puderam ser analisadas.
+     * @param nodes        O total de nós das buscas.
+     * @param elapsedNanos O tempo total da execução.
+     * @param threads      A quantidade de threads do pool.
+     */
+    public record Summary(long positions, long errors, long nodes, long elapsedNanos, int threads) {
+
+        public double positionsPerSecond() {
+            return positions * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d positions (%d errors) in %.2f s: %.1f positions/s, %d nodes, %d threads",
+                    positions, errors, elapsedNanos / 1e9, positionsPerSecond(), nodes, threads);
+        }
+    }
+
+    /**
+     * Estado reaproveitado por uma thread do pool.
+     */
+    private final class Worker {
+        final Search search = new Search(new MaterialEvaluator(), new TranspositionTable(hashMb));
+        ChessMatch match;
+    }
+
+    private final SearchLimits limits;
+    private final int threads;
+    private final int window;
+    private final int hashMb;
+
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    // Buffer de reordenação, protegido pelo lock do próprio vetor
+    private String[] pending;
+    private long nextToWrite;
+    private BufferedWriter writer;
+    private Throwable failure;
+
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+
+    /**
+     * @param limits  Os limites de cada busca, em geral uma profundidade ou uma quantidade de nós.
+     * @param threads A quantidade de threads do pool.
+     * @param window  O tamanho do buffer de reordenação, que limita as posições em andamento.
+     * @param hashMb  O tamanho da tabela de transposição de cada thread, em megabytes.
+     */
+    public EpdAnalysis(SearchLimits limits, int threads, int window, int hashMb) {
+        if (limits.infinite() || limits.ponder())
+            throw new IllegalArgumentException("Batch analysis needs a finite search");
+        if (threads < 1 || window < threads)
+            throw new IllegalArgumentException("window must be at least the number of threads");
+        this.limits = limits;
+        this.threads = threads;
+        this.window = window;
+        this.hashMb = hashMb;
+    }
+
+    /**
+     * Analisa todas as posições do arquivo.
+     *
+     * @param input  O arquivo EPD ou FEN, com uma posição por linha; linhas vazias e iniciadas por {@code #}
+     *               são ignoradas.
+     * @param output O arquivo CSV de resultados.
+     * @return O resumo da execução.
+     * @throws IOException Se um dos arquivos não puder ser lido ou gravado.
+     */
+    public Summary run(Path input, Path output) throws IOException {
+        long start = System.nanoTime();
+        pending = new String[window];
+        nextToWrite = 0;
+        failure = null;
+        errors.reset();
+        nodes.reset();
+
+        Semaphore slots = new Semaphore(window);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long positions = 0;
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer = out;
+            try {
+                out.write(CSV_HEADER);
+                out.newLine();
+
+                long lineNumber = 0;
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    lineNumber++;
+                    if (line.isBlank() || line.startsWith("#"))
+                        continue;
+
+                    slots.acquireUninterruptibly();
+                    synchronized (pending) {
+                        if (failure != null) {
+                            slots.release();
+                            break;
+                        }
+                    }
+                    long sequence = positions++;
+                    long number = lineNumber;
+                    String text = line;
+                    pool.execute(() -> {
+                        String result = null;
+                        Error error = null;
+                        try {
+                            result = analyse(number, text);
+                        } catch (Error e) {
+                            error = e;
+                        } finally {
+                            // A vaga é sempre devolvida: sem isso o fim do lote esperaria para sempre
+                            complete(sequence, result, error, slots);
+                        }
+                    });
+                }
+            } finally {
+                // Todas as vagas livres de novo: nenhuma tarefa está em andamento, mesmo se a leitura falhou,
+                // e o arquivo de resultados pode ser fechado
+                slots.acquireUninterruptibly(window);
+            }
+        } finally {
+            pool.shutdown();
+            writer = null;
+            pending = null;
+        }
+
+        if (failure instanceof IOException e)
+            throw e;
+        if (failure instanceof Error e)
+            throw e;
+        return new Summary(positions, errors.sum(), nodes.sum(), System.nanoTime() - start, threads);
+    }
+
+    /**
+     * Analisa uma linha e monta a linha correspondente do CSV.
+     */
+    private String analyse(long lineNumber, String line) {
+        String[] fields = line.trim().split("\\s+", 7);
+        String id = id(line);
+        long start = System.nanoTime();
+        try {
+            if (fields.length < 2)
+                throw new ChessException("Invalid EPD line");
+
+            // Os quatro primeiros campos são a posição; os dois seguintes, se numéricos, são os contadores da FEN
+            StringBuilder fen = new StringBuilder();
+            for (int i = 0; i < Math.min(fields.length, 6); i++) {
+                if (i >= 4 && !isNumber(fields[i]))
+                    break;
+                if (i > 0)
+                    fen.append(' ');
+                fen.append(fields[i]);
+            }
+
+            Worker worker = workers.get();
+            worker.match = Fen.parse(fen.toString(), worker.match);
+            worker.search.getTable().clear();
+            SearchInfo info = worker.search.search(worker.match, limits, null);
+            nodes.add(info.nodes());
+
+            StringBuilder pv = new StringBuilder();
+            for (int move : info.pv()) {
+                if (!pv.isEmpty())
+                    pv.append(' ');
+                pv.append(Move.toString(move));
+            }
+            String bestMove = info.pv().length > 0 ? Move.toString(info.pv()[0]) : "";
+            return lineNumber + "," + csv(id) + "," + csv(fen.toString()) + "," + info.depth() + ","
+                    + (info.isMate() ? "" : info.score()) + "," + (info.isMate() ? info.mateIn() : "") + ","
+                    + info.nodes() + "," + bestMove + "," + pv + "," + (System.nanoTime() - start) / 1000 + ",";
+        } catch (RuntimeException e) {
+            // Uma posição inválida vira uma linha com erro e não interrompe o lote
+            errors.increment();
+            return lineNumber + "," + csv(id) + "," + csv(line.trim()) + ",,,,,,,"
+                    + (System.nanoTime() - start) / 1000 + "," + csv(String.valueOf(e.getMessage()));
+        }
+    }
+
+    /**
+     * Guarda o resultado no buffer de reordenação e grava os resultados prontos a partir do próximo da ordem.
+     * Um erro da análise interrompe o lote como uma falha de escrita, mas ocupa a sua vez na ordem, para que os
+     * resultados seguintes continuem liberando as vagas.
+     */
+    private void complete(long sequence, String result, Error error, Semaphore slots) {
+        synchronized (pending) {
+            if (error != null && failure == null)
+                failure = error;
+            pending[(int) (sequence % window)] = result != null ? result : "";
+            int written = 0;
+            for (int slot = (int) (nextToWrite % window); pending[slot] != null; slot = (int) (nextToWrite % window)) {
+                // Depois de uma falha de escrita os resultados são descartados, mas as vagas continuam sendo liberadas
+                if (failure == null) {
+                    try {
+                        writer.write(pending[slot]);
+                        writer.newLine();
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                pending[slot] = null;
+                nextToWrite++;
+                written++;
+            }
+            slots.release(written);
+        }
+    }
+
+    /**
+     * Obtém o valor da operação {@code id} da linha EPD, ou uma cadeia vazia.
+     */
+    private static String id(String line) {
+        int start = line.indexOf("id \"");
+        if (start < 0)
+            return "";
+        int end = line.indexOf('"', start + 4);
+        return end < 0 ? "" : line.substring(start + 4, end);
+    }
+
+    private static boolean isNumber(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            if (!Character.isDigit(field.charAt(i)))
+                return false;
+        }
+        return !field.isEmpty();
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,343 @@
+package analysis;
+
+import chess.ChessMatch;
+import chess.Move;
+import codec.Fen;
+import engine.Search;
+import engine.SearchInfo;
+import engine.SearchLimits;
+import exception.ChessException;
+import pgn.San;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Suíte de testes táticos em EPD, buscada com uma quantidade fixa de nós para detectar regressões do motor.
+ * <p>
+ * Cada posição tem os lances esperados ({@code bm}) ou a evitar ({@code am}). A busca é feita com uma tabela de
+ * transposição nova por posição, de modo que, com a mesma quantidade de nós, os lances e as contagens de nós são
+ * reproduzíveis; só os tempos variam entre execuções. O tempo até a solução é medido a partir da iteração desde a
+ * qual o lance escolhido passou a resolver a posição e não mudou mais.
+ * <p>
+ * Os resultados podem ser gravados como base de comparação e comparados com uma execução posterior por
+ * {@link #compare}, que aponta posições que deixaram de ser resolvidas e aumentos de nós acima da tolerância e,
+ * opcionalmente, quedas de velocidade em relação a uma base gravada na mesma máquina.
+ */
+public final class TestSuite {
+
+    public static final String CSV_HEADER = "id,solved,move,nodes,micros,nodes_to_solution,micros_to_solution";
+
+    /**
+     * Posição da suíte.
+     *
+     * @param id         O identificador da posição (operação {@code id}).
+     * @param fen        A posição.
+     * @param bestMoves  Os lances que resolvem a posição, no formato de {@link Move}; vazio se houver apenas
+     *                   lances a evitar.
+     * @param avoidMoves Os lances que não resolvem a posição.
+     */
+    public record Position(String id, String fen, int[] bestMoves, int[] avoidMoves) {
+
+        public boolean isSolution(int move) {
+            for (int avoid : avoidMoves) {
+                if (avoid == move)
+                    return false;
+            }
+            if (bestMoves.length == 0)
+                return true;
+            for (int best : bestMoves) {
+                if (best == move)
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Resultado de uma posição.
+     *
+     * @param id               O identificador da posição.
+     * @param solved           Indica se o lance escolhido resolve a posição.
+     * @param move             O lance escolhido, em notação de coordenadas.
+     * @param nodes            Os nós da busca.
+     * @param micros           O tempo da busca, em microssegundos.
+     * @param nodesToSolution  Os nós até a solução, ou -1 se não resolvida.
+     * @param microsToSolution O tempo até a solução, em microssegundos, ou -1 se não resolvida.
+     */
+    public record Result(String id, boolean solved, String move, long nodes, long micros, long nodesToSolution,
+                         long microsToSolution) {
+
+        String toCsv() {
+            return id + "," + solved + "," + move + "," + nodes + "," + micros + "," + nodesToSolution + "," + microsToSolution;
+        }
+    }
+
+    /**
+     * Resultado da suíte.
+     *
+     * @param results Os resultados, na ordem da suíte.
+     */
+    public record Report(List<Result> results) {
+
+        public int solved() {
+            int solved = 0;
+            for (Result result : results) {
+                if (result.solved())
+                    solved++;
+            }
+            return solved;
+        }
+
+        public long nodes() {
+            long nodes = 0;
+            for (Result result : results) {
+                nodes += result.nodes();
+            }
+            return nodes;
+        }
+
+        public long micros() {
+            long micros = 0;
+            for (Result result : results) {
+                micros += result.micros();
+            }
+            return micros;
+        }
+
+        public double nodesPerSecond() {
+            return nodes() * 1e6 / Math.max(1, micros());
+        }
+
+        /**
+         * Grava os resultados em CSV, no formato lido por {@link #read(Path)}.
+         *
+         * @param file O arquivo de destino.
+         * @throws IOException Se o arquivo não puder ser gravado.
+         */
+        public void write(Path file) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write(CSV_HEADER);
+                writer.newLine();
+                for (Result result : results) {
+                    writer.write(result.toCsv());
+                    writer.newLine();
+                }
+            }
+        }
+
+        /**
+         * Lê resultados gravados por {@link #write(Path)}.
+         *
+         * @param file O arquivo.
+         * @return Os resultados.
+         * @throws IOException Se o arquivo não puder ser lido ou não estiver no formato esperado.
+         */
+        public static Report read(Path file) throws IOException {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !lines.get(0).equals(CSV_HEADER))
+                throw new IOException("Not a test suite result file: " + file);
+
+            List<Result> results = new ArrayList<>();
+            for (String line : lines.subList(1, lines.size())) {
+                String[] f = line.split(",");
+                if (f.length != 7)
+                    throw new IOException("Invalid result line in " + file + ": " + line);
+                results.add(new Result(f[0], Boolean.parseBoolean(f[1]), f[2], Long.parseLong(f[3]), Long.parseLong(f[4]),
+                        Long.parseLong(f[5]), Long.parseLong(f[6])));
+            }
+            return new Report(results);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Solved %d/%d, %d nodes in %.3f s, %.0f nodes/s",
+                    solved(), results.size(), nodes(), micros() / 1e6, nodesPerSecond());
+        }
+    }
+
+    private TestSuite() {
+    }
+
+    /**
+     * Lê uma suíte em EPD. Linhas vazias e iniciadas por {@code #} são ignoradas.
+     *
+     * @param file O arquivo da suíte.
+     * @return As posições.
+     * @throws IOException    Se o arquivo não puder ser lido.
+     * @throws ChessException Se uma posição ou um lance for inválido, com o número da linha.
+     */
+    public static List<Position> load(Path file) throws IOException {
+        List<Position> positions = new ArrayList<>();
+        int[] legal = new int[Move.MAX_MOVES];
+        int number = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            number++;
+            if (line.isBlank() || line.startsWith("#"))
+                continue;
+
+            try {
+                String[] fields = line.trim().split("\\s+", 5);
+                if (fields.length < 5)
+                    throw new ChessException("Invalid EPD line");
+                String fen = fields[0] + " " + fields[1];
+                ChessMatch match = Fen.parse(fen);
+
+                Map<String, String> operations = operations(fields[4]);
+                int[] best = moves(match, operations.getOrDefault("bm", ""), legal);
+                int[] avoid = moves(match, operations.getOrDefault("am", ""), legal);
+                if (best.length == 0 && avoid.length == 0)
+                    throw new ChessException("Position has neither bm nor am");
+                positions.add(new Position(operations.getOrDefault("id", "line " + number), fen, best, avoid));
+            } catch (ChessException e) {
+                throw new ChessException(file.getFileName() + ":" + number + ": " + e.getMessage());
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Busca todas as posições da suíte.
+     *
+     * @param positions As posições.
+     * @param nodes     A quantidade de nós de cada busca.
+     * @param search    A busca, com o avaliador a testar; a tabela de transposição é limpa a cada posição.
+     * @param listener  Recebe o resultado de cada posição, ou null.
+     * @return O resultado da suíte.
+     */
+    public static Report run(List<Position> positions, long nodes, Search search, Consumer<Result> listener) {
+        SearchLimits limits = new SearchLimits(0, nodes, 0, 0, 0, 0, 0, 0, false, false);
+        List<Result> results = new ArrayList<>(positions.size());
+
+        for (Position position : positions) {
+            ChessMatch match = Fen.parse(position.fen());
+            search.getTable().clear();
+
+            // Nós e tempo da iteração desde a qual o lance escolhido resolve a posição
+            long[] solution = {-1, -1};
+            long start = System.nanoTime();
+            SearchInfo info = search.search(match, limits, iteration -> {
+                if (iteration.pv().length > 0 && position.isSolution(iteration.pv()[0])) {
+                    if (solution[0] < 0) {
+                        solution[0] = iteration.nodes();
+                        solution[1] = iteration.elapsedNanos() / 1000;
+                    }
+                } else {
+                    solution[0] = solution[1] = -1;
+                }
+            });
+            long micros = (System.nanoTime() - start) / 1000;
+
+            int move = info.pv().length > 0 ? info.pv()[0] : -1;
+            boolean solved = move >= 0 && position.isSolution(move);
+            Result result = new Result(position.id(), solved, move >= 0 ? Move.toString(move) : "-", info.nodes(),
+                    micros, solved ? solution[0] : -1, solved ? solution[1] : -1);
+            results.add(result);
+            if (listener != null)
+                listener.accept(result);
+        }
+        return new Report(results);
+    }
+
+    /**
+     * Compara uma execução com a base.
+     * <p>
+     * Por padrão só são comparados os campos reproduzíveis, que não dependem da máquina: posições que deixaram de
+     * ser resolvidas e aumentos, acima da tolerância, nos nós buscados e nos nós até a solução. Os tempos só são
+     * comparados se {@code timing} for verdadeiro, e só fazem sentido com uma base gravada na mesma máquina.
+     *
+     * @param baseline  Os resultados da base.
+     * @param current   Os resultados atuais.
+     * @param tolerance O aumento de nós (e, com {@code timing}, a queda de velocidade) aceito, em porcentagem.
+     * @param timing    Indica se a velocidade e o tempo até a solução também são comparados.
+     * @return As regressões encontradas; vazia se não houver.
+     */
+    public static List<String> compare(Report baseline, Report current, double tolerance, boolean timing) {
+        List<String> regressions = new ArrayList<>();
+        Map<String, Result> previous = new HashMap<>();
+        for (Result result : baseline.results()) {
+            previous.put(result.id(), result);
+        }
+
+        long baselineNodes = 0;
+        long currentNodes = 0;
+        long baselineNodesToSolution = 0;
+        long currentNodesToSolution = 0;
+        long baselineTime = 0;
+        long currentTime = 0;
+        for (Result result : current.results()) {
+            Result before = previous.get(result.id());
+            if (before == null)
+                continue;
+            if (before.solved() && !result.solved())
+                regressions.add(result.id() + ": no longer solved (played " + result.move() + ", baseline " + before.move() + ")");
+            baselineNodes += before.nodes();
+            currentNodes += result.nodes();
+            if (before.solved() && result.solved()) {
+                baselineNodesToSolution += before.nodesToSolution();
+                currentNodesToSolution += result.nodesToSolution();
+                baselineTime += before.microsToSolution();
+                currentTime += result.microsToSolution();
+            }
+        }
+
+        if (baselineNodes > 0) {
+            double more = 100 * ((double) currentNodes / baselineNodes - 1);
+            if (more > tolerance)
+                regressions.add(String.format("nodes grew %.1f%% (%d -> %d)", more, baselineNodes, currentNodes));
+        }
+        if (baselineNodesToSolution > 0) {
+            double more = 100 * ((double) currentNodesToSolution / baselineNodesToSolution - 1);
+            if (more > tolerance)
+                regressions.add(String.format("nodes to solution grew %.1f%% (%d -> %d)", more,
+                        baselineNodesToSolution, currentNodesToSolution));
+        }
+        if (!timing)
+            return regressions;
+
+        double speed = 100 * (current.nodesPerSecond() / baseline.nodesPerSecond() - 1);
+        if (speed < -tolerance)
+            regressions.add(String.format("nodes/s dropped %.1f%% (%.0f -> %.0f)", -speed,
+                    baseline.nodesPerSecond(), current.nodesPerSecond()));
+        if (baselineTime > 0) {
+            double slower = 100 * ((double) currentTime / baselineTime - 1);
+            if (slower > tolerance)
+                regressions.add(String.format("time to solution grew %.1f%% (%.3f s -> %.3f s)", slower,
+                        baselineTime / 1e6, currentTime / 1e6));
+        }
+        return regressions;
+    }
+
+    /**
+     * Separa as operações EPD ({@code opcode operandos;}), removendo as aspas dos operandos.
+     */
+    private static Map<String, String> operations(String text) {
+        Map<String, String> operations = new HashMap<>();
+        for (String operation : text.split(";")) {
+            String trimmed = operation.trim();
+            int space = trimmed.indexOf(' ');
+            if (space > 0)
+                operations.put(trimmed.substring(0, space), trimmed.substring(space + 1).replace("\"", "").trim());
+        }
+        return operations;
+    }
+
+    private static int[] moves(ChessMatch match, String list, int[] legal) {
+        if (list.isBlank())
+            return new int[0];
+        String[] sans = list.trim().split("\\s+");
+        int[] moves = new int[sans.length];
+        for (int i = 0; i < sans.length; i++) {
+            moves[i] = San.parse(match, sans[i], legal);
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,93 @@
+package application;
+
+import java.util.Arrays;
+
+/**
+ * Quadro de texto em memória, desenhado por {@link UI} e enviado ao terminal por {@link TerminalRenderer}.
+ * <p>
+ * Cada célula guarda um caractere e um estilo. Os estilos são combinações de uma cor de texto
+ * ({@link #WHITE_PIECE} ou {@link #BLACK_PIECE}) com o destaque de fundo ({@link #HIGHLIGHT}).
+ */
+public final class Frame {
+
+    public static final byte DEFAULT = 0;
+    public static final byte WHITE_PIECE = 1;
+    public static final byte BLACK_PIECE = 2;
+    public static final byte HIGHLIGHT = 4;
+
+    private final int width;
+    private final int height;
+    final char[] chars;
+    final byte[] styles;
+
+    public Frame(int width, int height) {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException("Frame must have at least 1 row and 1 column");
+
+        this.width = width;
+        this.height = height;
+        this.chars = new char[width * height];
+        this.styles = new byte[width * height];
+        clear();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Preenche todo o quadro com espaços no estilo padrão.
+     */
+    public void clear() {
+        Arrays.fill(chars, ' ');
+        Arrays.fill(styles, DEFAULT);
+    }
+
+    /**
+     * Escreve um caractere na célula especificada; células fora do quadro são ignoradas.
+     *
+     * @param row    A linha da célula.
+     * @param column A coluna da célula.
+     * @param c      O caractere.
+     * @param style  O estilo da célula.
+     */
+    public void put(int row, int column, char c, byte style) {
+        if (row < 0 || row >= height || column < 0 || column >= width)
+            return;
+
+        chars[row * width + column] = c;
+        styles[row * width + column] = style;
+    }
+
+    /**
+     * Escreve um texto a partir da célula especificada, cortando o que passar da largura do quadro.
+     *
+     * @param row    A linha do texto.
+     * @param column A coluna do primeiro caractere.
+     * @param text   O texto.
+     * @param style  O estilo do texto.
+     * @return A coluna seguinte ao último caractere escrito.
+     */
+    public int print(int row, int column, CharSequence text, byte style) {
+        for (int i = 0; i < text.length(); i++) {
+            put(row, column++, text.charAt(i), style);
+        }
+        return column;
+    }
+
+    /**
+     * Preenche a linha com espaços a partir da coluna especificada.
+     *
+     * @param row    A linha.
+     * @param column A primeira coluna a ser limpa.
+     */
+    public void clearLine(int row, int column) {
+        for (int c = column; c < width; c++) {
+            put(row, c, ' ', DEFAULT);
+        }
+    }
+}
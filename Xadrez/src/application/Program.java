@@ -1,35 +1,81 @@
 package application;
 
+import analysis.EpdAnalysis;
+import analysis.TestSuite;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.Color;
+import chess.Move;
+import codec.Fen;
+import engine.MaterialEvaluator;
+import engine.NnueEvaluator;
+import engine.NnueNetwork;
+import engine.Ponderer;
+import engine.Search;
+import engine.SearchLimits;
+import engine.TranspositionTable;
 import exception.ChessException;
+import gamedb.GameIndexer;
+import gamedb.PositionIndex;
+import pgn.PgnReplay;
+import tournament.EngineConfig;
+import tournament.Sprt;
+import tournament.Tournament;
+import uci.UciProtocol;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.SplittableRandom;
 
 public class Program {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        if (args.length > 0) {
+            switch (args[0]) {
+                case "replay" -> replay(args);
+                case "index" -> index(args);
+                case "query" -> query(args);
+                case "render" -> render(args);
+                case "uci" -> new UciProtocol(System.in, System.out).run();
+                case "play" -> play(args);
+                case "tournament" -> tournament(args);
+                case "nnue" -> nnue(args);
+                case "analyze" -> analyze(args);
+                case "suite" -> suite(args);
+                default -> System.err.println("Unknown mode: " + args[0]);
+            }
+            return;
+        }
 
         Scanner sc = new Scanner(System.in);
         ChessMatch chessMatch = new ChessMatch();
         List<ChessPiece> captured = new ArrayList<>();
 
-        while (!chessMatch.getCheckMate()) {
-            try {
-                UI.clearScreen();
-                UI.printMatch(chessMatch, captured);
-                System.out.println();
+        // O quadro é redesenhado só onde mudou, em uma única escrita por tela
+        TerminalRenderer renderer = new TerminalRenderer(System.out, System.out.charset());
+        Frame frame = new Frame(UI.FRAME_WIDTH, UI.FRAME_HEIGHT);
 
-                System.out.print("Source: ");
+        while (!chessMatch.getCheckMate() && !chessMatch.getDraw()) {
+            try {
+                UI.drawMatch(frame, chessMatch, captured, null);
+                renderer.present(frame, UI.PROMPT_ROW, UI.drawPrompt(frame, null, "Source: "));
                 ChessPosition source = UI.readChessPosition(sc);
 
                 boolean[][] possibleMoves = chessMatch.possibleMoves(source);
-                UI.clearScreen();
-                UI.printBoard(chessMatch.getPieces(), possibleMoves);
-
-                System.out.print("Target: ");
+                UI.drawMatch(frame, chessMatch, captured, possibleMoves);
+                renderer.present(frame, UI.PROMPT_ROW, UI.drawPrompt(frame, null, "Target: "));
                 ChessPosition target = UI.readChessPosition(sc);
 
                 ChessPiece capturedPiece = chessMatch.performChessMove(source, target);
@@ -38,15 +84,488 @@ public class Program {
                     captured.add(capturedPiece);
                 }
             } catch (ChessException e) {
-                System.out.println(e.getMessage());
+                renderer.present(frame, UI.PROMPT_ROW, UI.drawPrompt(frame, e.getMessage(), ""));
                 sc.nextLine();
             } catch (Exception e) {
-                System.out.println(e.getMessage());
+                renderer.present(frame, UI.PROMPT_ROW, UI.drawPrompt(frame, e.getMessage(), ""));
                 sc.nextLine();
             }
         }
-        
-        UI.clearScreen();
-        UI.printMatch(chessMatch, captured);
+
+        UI.drawMatch(frame, chessMatch, captured, null);
+        renderer.present(frame, UI.PROMPT_ROW, UI.drawPrompt(frame, null, ""));
+    }
+
+    /**
+     * Partida interativa contra o motor. Enquanto o jogador pensa, o motor busca no tempo dele a resposta esperada
+     * com um {@link Ponderer}; se o palpite acertar, a resposta em geral sai na hora.
+     * <p>
+     * Uso: {@code play [white|black] [milissegundos-por-lance]}, em que a cor é a do jogador.
+     *
+     * @param args Os argumentos da linha de comando.
+     */
+    private static void play(String[] args) {
+        Color human = args.length > 1 && args[1].equalsIgnoreCase("black") ? Color.BLACK : Color.WHITE;
+        SearchLimits limits = SearchLimits.ofMoveTime(args.length > 2 ? Long.parseLong(args[2]) : 1000);
+
+        Scanner sc = new Scanner(System.in);
+        ChessMatch chessMatch = new ChessMatch();
+        List<ChessPiece> captured = new ArrayList<>();
+        TerminalRenderer renderer = new TerminalRenderer(System.out, System.out.charset());
+        Frame frame = new Frame(UI.FRAME_WIDTH, UI.FRAME_HEIGHT);
+        String message = null;
+        int lastMove = -1;
+
+        try (Ponderer ponderer = new Ponderer(new MaterialEvaluator(), new TranspositionTable(64))) {
+            while (!chessMatch.getCheckMate() && !chessMatch.getDraw()) {
+                if (chessMatch.getCurrentPlayer() != human) {
+                    long start = System.nanoTime();
+                    int hits = ponderer.getHits();
+                    int move = ponderer.respond(chessMatch, lastMove, limits);
+                    if (move < 0) {
+                        message = "Sem lances legais: empate por afogamento.";
+                        break;
+                    }
+                    ChessPiece capturedPiece = chessMatch.performChessMove(ChessPosition.fromSquare(Move.source(move)),
+                            ChessPosition.fromSquare(Move.target(move)));
+                    if (capturedPiece != null) {
+                        captured.add(capturedPiece);
+                    }
+                    message = String.format("Motor: %s em %d ms%s", Move.toString(move), (System.nanoTime() - start) / 1_000_000,
+                            ponderer.getHits() > hits ? " (ponder acertou)" : "");
+                    continue;
+                }
+
+                // O motor pensa no tempo do jogador, enquanto a leitura abaixo bloqueia
+                ponderer.startPondering(chessMatch, limits);
+                try {
+                    UI.drawMatch(frame, chessMatch, captured, null);
+                    renderer.present(frame, UI.PROMPT_ROW, UI.drawPrompt(frame, message, "Source: "));
+                    ChessPosition source = UI.readChessPosition(sc);
+
+                    boolean[][] possibleMoves = chessMatch.possibleMoves(source);
+                    UI.drawMatch(frame, chessMatch, captured, possibleMoves);
+                    renderer.present(frame, UI.PROMPT_ROW, UI.drawPrompt(frame, message, "Target: "));
+                    ChessPosition target = UI.readChessPosition(sc);
+
+                    ChessPiece capturedPiece = chessMatch.performChessMove(source, target);
+                    if (capturedPiece != null) {
+                        captured.add(capturedPiece);
+                    }
+                    lastMove = Move.of(source.toSquare(), target.toSquare());
+                    message = null;
+                } catch (RuntimeException e) {
+                    renderer.present(frame, UI.PROMPT_ROW, UI.drawPrompt(frame, e.getMessage(), ""));
+                    sc.nextLine();
+                }
+            }
+
+            UI.drawMatch(frame, chessMatch, captured, null);
+            renderer.present(frame, UI.PROMPT_ROW, UI.drawPrompt(frame, message,
+                    String.format("Ponder: %d acertos, %d erros", ponderer.getHits(), ponderer.getMisses())));
+            System.out.println();
+        }
+    }
+
+    /**
+     * Joga um torneio entre duas configurações do motor e grava os resultados em CSV, com o placar, a diferença
+     * de Elo e o SPRT impressos ao longo do torneio.
+     * <p>
+     * Uso: {@code tournament <resultados.csv> <motor-a> <motor-b> [chave=valor...]}, em que cada motor é
+     * {@code nome:depth=N,nodes=N,movetime=MS,hash=MB,pst=PESO} e as chaves são {@code games}, {@code threads},
+     * {@code openings} (arquivo com uma FEN por linha), {@code plies}, {@code seed}, {@code maxplies},
+     * {@code resign}, {@code resignmoves}, {@code sprt} ({@code elo0,elo1}), {@code alpha} e {@code beta}.
+     *
+     * @param args Os argumentos da linha de comando.
+     * @throws IOException Se o arquivo de aberturas não puder ser lido ou o de resultados não puder ser gravado.
+     */
+    private static void tournament(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: tournament <results.csv> <engine-a> <engine-b> [key=value...]");
+            return;
+        }
+
+        Map<String, String> options = options(args, 4);
+        Sprt sprt = null;
+        if (options.containsKey("sprt")) {
+            String[] bounds = options.get("sprt").split(",");
+            sprt = new Sprt(Double.parseDouble(bounds[0]), Double.parseDouble(bounds[1]),
+                    Double.parseDouble(options.getOrDefault("alpha", "0.05")),
+                    Double.parseDouble(options.getOrDefault("beta", "0.05")));
+        }
+        List<String> openings = options.containsKey("openings")
+                ? Files.readAllLines(Path.of(options.get("openings"))).stream().filter(line -> !line.isBlank()).toList()
+                : List.of();
+
+        Tournament.Settings settings = new Tournament.Settings(
+                Integer.parseInt(options.getOrDefault("games", "1000")),
+                Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                openings,
+                Integer.parseInt(options.getOrDefault("plies", "8")),
+                Long.parseLong(options.getOrDefault("seed", "1")),
+                Integer.parseInt(options.getOrDefault("maxplies", "200")),
+                Integer.parseInt(options.getOrDefault("resign", "600")),
+                Integer.parseInt(options.getOrDefault("resignmoves", "3")),
+                sprt);
+
+        Tournament tournament = new Tournament(EngineConfig.parse(args[2]), EngineConfig.parse(args[3]), settings);
+        Tournament.Summary summary = tournament.run(Path.of(args[1]), progress -> {
+            if (progress.stats().games() % 20 == 0)
+                System.out.println(progress);
+        });
+        System.out.println("Final: " + summary);
+    }
+
+    /**
+     * Analisa as posições de um arquivo EPD ou FEN e grava os resultados em CSV, na ordem do arquivo.
+     * <p>
+     * Uso: {@code analyze <posições.epd> <resultados.csv> [chave=valor...]}, com as chaves {@code depth} (padrão 4),
+     * {@code nodes}, {@code threads}, {@code window} (posições em andamento) e {@code hash} (megabytes por thread).
+     *
+     * @param args Os argumentos da linha de comando.
+     * @throws IOException Se um dos arquivos não puder ser lido ou gravado.
+     */
+    private static void analyze(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: analyze <positions.epd> <results.csv> [key=value...]");
+            return;
+        }
+
+        Map<String, String> options = options(args, 3);
+        long nodes = Long.parseLong(options.getOrDefault("nodes", "0"));
+        int depth = Integer.parseInt(options.getOrDefault("depth", nodes > 0 ? "0" : "4"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        SearchLimits limits = new SearchLimits(depth, nodes, 0, 0, 0, 0, 0, 0, false, false);
+
+        EpdAnalysis analysis = new EpdAnalysis(limits, threads,
+                Integer.parseInt(options.getOrDefault("window", String.valueOf(threads * 64))),
+                Integer.parseInt(options.getOrDefault("hash", "2")));
+        System.out.println(analysis.run(Path.of(args[1]), Path.of(args[2])));
+    }
+
+    /**
+     * Busca uma suíte tática em EPD com uma quantidade fixa de nós e compara o resultado com uma base gravada.
+     * <p>
+     * Uso: {@code suite <suíte.epd> [chave=valor...]}, com as chaves {@code nodes} (padrão 200000), {@code engine}
+     * (no formato de {@link EngineConfig#parse}), {@code warmup} (execuções descartadas antes da medida, para o
+     * JIT), {@code save} (arquivo onde gravar o resultado), {@code baseline} (resultado com que comparar),
+     * {@code tolerance} (aumento de nós aceito, em porcentagem, padrão 10) e {@code timing} ({@code true} para
+     * comparar também a velocidade, com a mesma tolerância; só com uma base gravada na mesma máquina). Termina com
+     * código 1 se houver regressão em relação à base.
+     *
+     * @param args Os argumentos da linha de comando.
+     * @throws IOException Se a suíte ou a base não puder ser lida ou o resultado não puder ser gravado.
+     */
+    private static void suite(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: suite <suite.epd> [key=value...]");
+            return;
+        }
+
+        Map<String, String> options = options(args, 2);
+        List<TestSuite.Position> positions = TestSuite.load(Path.of(args[1]));
+        long nodes = Long.parseLong(options.getOrDefault("nodes", "200000"));
+        EngineConfig engine = EngineConfig.parse(options.getOrDefault("engine", "engine"));
+        Search search = engine.createSearch();
+
+        for (int i = Integer.parseInt(options.getOrDefault("warmup", "1")); i > 0; i--) {
+            TestSuite.run(positions, nodes, search, null);
+        }
+
+        System.out.printf("%-10s %-6s %-6s %10s %10s %12s %12s%n",
+                "id", "solved", "move", "nodes", "ms", "nodes-to-sol", "ms-to-sol");
+        TestSuite.Report report = TestSuite.run(positions, nodes, search, result ->
+                System.out.printf("%-10s %-6s %-6s %10d %10.1f %12s %12s%n", result.id(),
+                        result.solved() ? "yes" : "no", result.move(), result.nodes(), result.micros() / 1e3,
+                        result.solved() ? String.valueOf(result.nodesToSolution()) : "-",
+                        result.solved() ? String.format("%.1f", result.microsToSolution() / 1e3) : "-"));
+        System.out.println(report);
+
+        if (options.containsKey("save"))
+            report.write(Path.of(options.get("save")));
+        if (options.containsKey("baseline")) {
+            TestSuite.Report baseline = TestSuite.Report.read(Path.of(options.get("baseline")));
+            List<String> regressions = TestSuite.compare(baseline, report,
+                    Double.parseDouble(options.getOrDefault("tolerance", "10")),
+                    Boolean.parseBoolean(options.getOrDefault("timing", "false")));
+            System.out.println("Baseline: " + baseline);
+            if (!regressions.isEmpty()) {
+                regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+                System.exit(1);
+            }
+            System.out.println("No regressions");
+        }
+    }
+
+    /**
+     * Lê os argumentos no formato {@code chave=valor} a partir da posição informada.
+     */
+    private static Map<String, String> options(String[] args, int from) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = from; i < args.length; i++) {
+            String[] pair = args[i].split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        return options;
+    }
+
+    /**
+     * Mede as avaliações por segundo da rede NNUE nos caminhos escalar e da Vector API, ou grava a rede inicial.
+     * <p>
+     * Uso: {@code nnue [arquivo-de-pesos]} para medir, com a rede que reproduz {@link MaterialEvaluator} se o arquivo
+     * não for informado, ou {@code nnue export <arquivo> [neurônios]} para gravar essa rede. O caminho da Vector API
+     * exige {@code --add-modules jdk.incubator.vector}.
+     *
+     * @param args Os argumentos da linha de comando.
+     * @throws IOException Se o arquivo de pesos não puder ser lido ou gravado.
+     */
+    private static void nnue(String[] args) throws IOException {
+        if (args.length > 2 && args[1].equals("export")) {
+            int hidden = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+            NnueNetwork.fromMaterial(hidden).save(Path.of(args[2]));
+            System.out.println("Network with " + hidden + " neurons written to " + args[2]);
+            return;
+        }
+
+        NnueNetwork network = args.length > 1 ? NnueNetwork.load(Path.of(args[1])) : NnueNetwork.fromMaterial(256);
+
+        // Posições de partidas com lances sorteados, com os lances legais de cada uma
+        SplittableRandom random = new SplittableRandom(7);
+        List<ChessMatch> positions = new ArrayList<>();
+        List<int[]> positionMoves = new ArrayList<>();
+        int[] moves = new int[Move.MAX_MOVES];
+        while (positions.size() < 500) {
+            ChessMatch game = new ChessMatch();
+            for (int ply = 0; ply < 80; ply++) {
+                int count = game.legalMoves(moves);
+                if (count == 0)
+                    break;
+                if (ply % 8 == 7) {
+                    positions.add(Fen.parse(Fen.format(game)));
+                    positionMoves.add(Arrays.copyOf(moves, count));
+                }
+                game.makeMove(moves[random.nextInt(count)]);
+            }
+        }
+
+        NnueEvaluator scalar = NnueEvaluator.scalar(network);
+        NnueEvaluator best = new NnueEvaluator(network);
+        MaterialEvaluator material = new MaterialEvaluator();
+        int mismatches = 0;
+        int maxDifference = 0;
+        for (ChessMatch position : positions) {
+            int value = scalar.evaluate(position);
+            if (value != best.evaluate(position))
+                mismatches++;
+            maxDifference = Math.max(maxDifference, Math.abs(value - material.evaluate(position)));
+        }
+        System.out.printf("%d positions, %d neurons; scalar and %s paths differ in %d positions%n",
+                positions.size(), network.getHidden(), best.getImplementation(), mismatches);
+        if (args.length <= 1)
+            System.out.println("Largest difference from MaterialEvaluator: " + maxDifference + " cp");
+
+        List<NnueEvaluator> evaluators = best.getImplementation().equals("scalar")
+                ? List.of(scalar) : List.of(scalar, best);
+        for (NnueEvaluator evaluator : evaluators) {
+            double evals = 0;
+            double updates = 0;
+            // As primeiras rodadas aquecem o compilador JIT; vale a última
+            for (int round = 0; round < 5; round++) {
+                long evalNanos = 0;
+                long updateNanos = 0;
+                long evalCount = 0;
+                long updateCount = 0;
+                int sink = 0;
+                for (int i = 0; i < positions.size(); i++) {
+                    ChessMatch position = positions.get(i);
+                    evaluator.reset(position);
+                    long start = System.nanoTime();
+                    for (int k = 0; k < 200; k++) {
+                        sink += evaluator.evaluate(position);
+                    }
+                    evalNanos += System.nanoTime() - start;
+                    evalCount += 200;
+
+                    for (int move : positionMoves.get(i)) {
+                        ChessPiece capturedPiece = position.makeMove(move);
+                        start = System.nanoTime();
+                        for (int k = 0; k < 20; k++) {
+                            evaluator.moveMade(position, move, capturedPiece);
+                            evaluator.moveUndone(position, move, capturedPiece);
+                        }
+                        updateNanos += System.nanoTime() - start;
+                        updateCount += 20;
+                        position.undoMove(move, capturedPiece);
+                    }
+                }
+                if (sink == 42)
+                    System.out.print("");
+                evals = evalCount * 1e9 / evalNanos;
+                updates = updateCount * 1e9 / updateNanos;
+            }
+            System.out.printf("%-20s %,14.0f evals/s %,14.0f make+undo updates/s%n", evaluator.getImplementation(), evals, updates);
+        }
+    }
+
+    /**
+     * Reproduz as partidas de um arquivo PGN pelas regras da partida e imprime os erros e a vazão.
+     * <p>
+     * Uso: {@code replay <arquivo.pgn> [threads]}.
+     *
+     * @param args Os argumentos da linha de comando.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    private static void replay(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: replay <file.pgn> [threads]");
+            return;
+        }
+
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        PgnReplay.Summary summary = new PgnReplay(threads, 1 << 20).run(Path.of(args[1]), result -> {
+            if (!result.isValid())
+                System.err.println("Game " + result.number() + " (offset " + result.offset() + "): " + result.error());
+        });
+        System.out.println(summary);
+    }
+
+    /**
+     * Constrói o índice de posições de um arquivo PGN.
+     * <p>
+     * Uso: {@code index <arquivo.pgn> <arquivo-do-indice> [threads]}.
+     *
+     * @param args Os argumentos da linha de comando.
+     * @throws IOException Se o arquivo não puder ser lido ou o índice não puder ser gravado.
+     */
+    private static void index(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: index <file.pgn> <index-file> [threads]");
+            return;
+        }
+
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        long entries = GameIndexer.build(Path.of(args[1]), Path.of(args[2]), threads, 1 << 22, result -> {
+            if (!result.isValid())
+                System.err.println("Game " + result.number() + " (offset " + result.offset() + "): " + result.error());
+        });
+        System.out.printf("%d positions indexed in %.2f s%n", entries, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Consulta o índice de posições: quantas partidas passaram pela posição e o que foi jogado em seguida.
+     * <p>
+     * Uso: {@code query <arquivo-do-indice> <FEN>}.
+     *
+     * @param args Os argumentos da linha de comando.
+     * @throws IOException Se o índice não puder ser aberto.
+     */
+    private static void query(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: query <index-file> <fen>");
+            return;
+        }
+
+        String fen = String.join(" ", List.of(args).subList(2, args.length));
+        long hash = Fen.parse(fen).getPositionHash();
+        try (PositionIndex index = PositionIndex.open(Path.of(args[1]))) {
+            long start = System.nanoTime();
+            PositionIndex.QueryResult result = index.query(hash, 20);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.println(result.occurrences() + " occurrences");
+            result.moves().forEach(System.out::println);
+            System.out.println("Game offsets: " + Arrays.toString(result.gameOffsets()));
+            System.out.printf("Query time: %.3f ms%n", elapsed / 1e6);
+        }
+    }
+
+    /**
+     * Mede os bytes e as escritas por tela do desenho antigo, que limpa a tela e imprime tudo a cada turno,
+     * e do {@link TerminalRenderer}, reproduzindo uma partida com lances sorteados.
+     * <p>
+     * Uso: {@code render [meio-lances] [semente]}.
+     *
+     * @param args Os argumentos da linha de comando.
+     */
+    private static void render(String[] args) {
+        int maxPlies = args.length > 1 ? Integer.parseInt(args[1]) : 120;
+        SplittableRandom random = new SplittableRandom(args.length > 2 ? Long.parseLong(args[2]) : 42);
+
+        CountingOutputStream legacyOut = new CountingOutputStream();
+        CountingOutputStream rendererOut = new CountingOutputStream();
+        // Mesma configuração do System.out: buffer de 8 KB e descarga a cada quebra de linha
+        PrintStream legacy = new PrintStream(new BufferedOutputStream(legacyOut, 8192), true, StandardCharsets.UTF_8);
+        TerminalRenderer renderer = new TerminalRenderer(rendererOut, StandardCharsets.UTF_8);
+        Frame frame = new Frame(UI.FRAME_WIDTH, UI.FRAME_HEIGHT);
+
+        ChessMatch chessMatch = new ChessMatch();
+        List<ChessPiece> captured = new ArrayList<>();
+        int[] moves = new int[Move.MAX_MOVES];
+        int screens = 0;
+        PrintStream console = System.out;
+        try {
+            System.setOut(legacy);
+            for (int ply = 0; ply < maxPlies && !chessMatch.getCheckMate(); ply++) {
+                int count = chessMatch.legalMoves(moves);
+                if (count == 0)
+                    break;
+                int move = moves[random.nextInt(count)];
+                ChessPosition source = ChessPosition.fromSquare(Move.source(move));
+                boolean[][] possibleMoves = chessMatch.possibleMoves(source);
+
+                UI.clearScreen();
+                UI.printMatch(chessMatch, captured);
+                System.out.println();
+                System.out.print("Source: ");
+                System.out.flush();
+                UI.drawMatch(frame, chessMatch, captured, null);
+                renderer.present(frame, UI.PROMPT_ROW, UI.drawPrompt(frame, null, "Source: "));
+
+                UI.clearScreen();
+                UI.printBoard(chessMatch.getPieces(), possibleMoves);
+                System.out.print("Target: ");
+                System.out.flush();
+                UI.drawMatch(frame, chessMatch, captured, possibleMoves);
+                renderer.present(frame, UI.PROMPT_ROW, UI.drawPrompt(frame, null, "Target: "));
+                screens += 2;
+
+                ChessPiece capturedPiece = chessMatch.performChessMove(source, ChessPosition.fromSquare(Move.target(move)));
+                if (capturedPiece != null) {
+                    captured.add(capturedPiece);
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+
+        System.out.printf("%d screens%n", screens);
+        System.out.printf("Legacy:   %7.1f bytes/frame, %5.1f writes/frame%n",
+                (double) legacyOut.bytes / screens, (double) legacyOut.writes / screens);
+        System.out.printf("Renderer: %7.1f bytes/frame, %5.1f writes/frame (first frame %d bytes)%n",
+                (double) rendererOut.bytes / screens, (double) rendererOut.writes / screens, rendererOut.first);
+    }
+
+    /**
+     * Fluxo que descarta os dados e conta os bytes e as chamadas de escrita, cada uma equivalente a uma chamada
+     * de sistema no terminal.
+     */
+    private static class CountingOutputStream extends OutputStream {
+        long bytes;
+        long writes;
+        long first = -1;
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            writes++;
+            if (first < 0)
+                first = len;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,219 @@
+package application;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Desenha {@link Frame}s no terminal enviando apenas o que mudou desde o quadro anterior.
+ * <p>
+ * O renderizador guarda uma cópia do último quadro desenhado. A cada novo quadro, compara as células e gera
+ * somente os movimentos de cursor, as trocas de cor e os caracteres das células alteradas; linhas que passaram
+ * a ficar vazias são apagadas com um único comando de limpeza de linha. A tela inteira só é limpa no primeiro
+ * quadro ou depois de {@link #invalidate()}. Cada quadro é montado em memória e enviado com uma única escrita,
+ * o que evita o pisca-pisca e reduz o tráfego em conexões remotas.
+ */
+public class TerminalRenderer {
+
+    private static final String ESC = "\033[";
+    // Célula de conteúdo desconhecido, que precisa ser redesenhada no próximo quadro
+    private static final byte UNKNOWN = -1;
+    // Lacunas menores que isto são reescritas em vez de pular o cursor, pois o comando de movimento é mais longo
+    private static final int MAX_GAP = 3;
+
+    private final OutputStream out;
+    private final Charset charset;
+    private final StringBuilder buffer = new StringBuilder(4096);
+
+    private int width;
+    private char[] chars = new char[0];
+    private byte[] styles = new byte[0];
+    private boolean cleared;
+
+    private int cursorRow;
+    private int cursorColumn;
+    private byte style;
+
+    private long frames;
+    private long bytes;
+
+    /**
+     * Cria um renderizador que escreve no fluxo especificado.
+     *
+     * @param out     O fluxo do terminal, normalmente {@code System.out}.
+     * @param charset A codificação do terminal.
+     */
+    public TerminalRenderer(OutputStream out, Charset charset) {
+        this.out = out;
+        this.charset = charset;
+    }
+
+    /**
+     * Descarta o conteúdo conhecido da tela, de modo que o próximo quadro limpe e redesenhe tudo.
+     */
+    public void invalidate() {
+        cleared = false;
+    }
+
+    /**
+     * Desenha o quadro, enviando apenas as diferenças em relação ao anterior, e posiciona o cursor.
+     * <p>
+     * Tudo o que estiver da posição do cursor em diante é considerado desconhecido depois do quadro, assim como a
+     * própria posição do cursor, já que o terminal ecoa ali o que o usuário digitar.
+     *
+     * @param frame        O quadro a ser desenhado.
+     * @param promptRow    A linha onde o cursor deve ficar.
+     * @param promptColumn A coluna onde o cursor deve ficar.
+     * @return A quantidade de bytes enviados ao terminal.
+     */
+    public int present(Frame frame, int promptRow, int promptColumn) {
+        buffer.setLength(0);
+        if (!cleared || frame.getWidth() != width || frame.chars.length != chars.length)
+            clear(frame);
+
+        int w = width;
+        int rows = frame.getHeight();
+        for (int row = 0; row < rows; row++) {
+            int base = row * w;
+
+            // Final da linha que fica em branco: um único "apagar até o fim da linha" no lugar dos espaços
+            int last = w - 1;
+            while (last >= 0 && frame.chars[base + last] == ' ' && frame.styles[base + last] == Frame.DEFAULT) last--;
+            int blankFrom = last + 1;
+            for (int c = blankFrom; c < w; c++) {
+                if (chars[base + c] != ' ' || styles[base + c] != Frame.DEFAULT) {
+                    moveTo(row, c);
+                    setStyle(Frame.DEFAULT);
+                    buffer.append(ESC).append('K');
+                    Arrays.fill(chars, base + c, base + w, ' ');
+                    Arrays.fill(styles, base + c, base + w, Frame.DEFAULT);
+                    break;
+                }
+            }
+
+            for (int c = 0; c < blankFrom; c++) {
+                int i = base + c;
+                if (frame.chars[i] == chars[i] && frame.styles[i] == styles[i])
+                    continue;
+
+                moveTo(row, c);
+                setStyle(frame.styles[i]);
+                buffer.append(frame.chars[i]);
+                cursorColumn++;
+                chars[i] = frame.chars[i];
+                styles[i] = frame.styles[i];
+            }
+        }
+
+        setStyle(Frame.DEFAULT);
+        moveTo(promptRow, promptColumn);
+
+        // O eco da entrada do usuário escreve a partir do cursor
+        int from = Math.min(chars.length, promptRow * w + promptColumn);
+        Arrays.fill(chars, from, chars.length, '\0');
+        Arrays.fill(styles, from, styles.length, UNKNOWN);
+        // Pelo mesmo motivo a posição do cursor fica desconhecida (o Enter o leva à linha seguinte), e o próximo
+        // quadro começa com um posicionamento absoluto
+        cursorRow = -1;
+        cursorColumn = -1;
+
+        return flush();
+    }
+
+    /**
+     * Obtém a quantidade de quadros desenhados.
+     *
+     * @return O número de chamadas a {@link #present(Frame, int, int)}.
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Obtém o total de bytes enviados ao terminal.
+     *
+     * @return A soma dos bytes de todos os quadros.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    private void clear(Frame frame) {
+        width = frame.getWidth();
+        chars = new char[frame.chars.length];
+        styles = new byte[frame.styles.length];
+        Arrays.fill(chars, ' ');
+
+        buffer.append(ESC).append("0m").append(ESC).append('H').append(ESC).append("2J");
+        cursorRow = 0;
+        cursorColumn = 0;
+        style = Frame.DEFAULT;
+        cleared = true;
+    }
+
+    /**
+     * Move o cursor até a célula, pelo comando mais curto: reescrevendo uma lacuna pequena já conhecida,
+     * avançando na mesma linha ou com posicionamento absoluto.
+     */
+    private void moveTo(int row, int column) {
+        if (row == cursorRow && column == cursorColumn)
+            return;
+
+        if (row == cursorRow && column > cursorColumn) {
+            int gap = column - cursorColumn;
+            if (gap <= MAX_GAP && canRewrite(row, cursorColumn, column)) {
+                buffer.append(chars, row * width + cursorColumn, gap);
+            } else {
+                buffer.append(ESC);
+                if (gap > 1)
+                    buffer.append(gap);
+                buffer.append('C');
+            }
+        } else {
+            buffer.append(ESC).append(row + 1).append(';').append(column + 1).append('H');
+        }
+        cursorRow = row;
+        cursorColumn = column;
+    }
+
+    /**
+     * Verifica se as células já estão na tela com o estilo atual, de modo que reescrevê-las não muda nada.
+     */
+    private boolean canRewrite(int row, int from, int to) {
+        for (int i = row * width + from; i < row * width + to; i++) {
+            if (styles[i] != style)
+                return false;
+        }
+        return true;
+    }
+
+    private void setStyle(byte next) {
+        if (next == style)
+            return;
+
+        buffer.append(ESC).append('0');
+        if ((next & Frame.WHITE_PIECE) != 0)
+            buffer.append(";37");
+        if ((next & Frame.BLACK_PIECE) != 0)
+            buffer.append(";33");
+        if ((next & Frame.HIGHLIGHT) != 0)
+            buffer.append(";44");
+        buffer.append('m');
+        style = next;
+    }
+
+    private int flush() {
+        byte[] data = buffer.toString().getBytes(charset);
+        try {
+            out.write(data);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        frames++;
+        bytes += data.length;
+        return data.length;
+    }
+}
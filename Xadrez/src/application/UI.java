@@ -31,6 +31,11 @@ public class UI {
     public static final String ANSI_CYAN_BACKGROUND = "\u001B[46m"; // Fundo ciano
     public static final String ANSI_WHITE_BACKGROUND = "\u001B[47m"; // Fundo branco
 
+    public static final int FRAME_WIDTH = 64; // Largura do quadro usado pelo TerminalRenderer
+    public static final int FRAME_HEIGHT = 21; // Altura do quadro usado pelo TerminalRenderer
+    public static final int MESSAGE_ROW = 19; // Linha das mensagens de erro no quadro
+    public static final int PROMPT_ROW = 20; // Linha onde o usuário digita as posições
+
     /**
      * Limpa a tela.
      */
@@ -72,7 +77,9 @@ public class UI {
         printCapturedPieces(captured);
         System.out.println();
         System.out.println("Turn : " + chessMatch.getTurn());
-        if (!chessMatch.getCheckMate()) {
+        if (chessMatch.getDraw()) {
+            System.out.println("DRAW! (" + chessMatch.getDrawReason() + ")");
+        } else if (!chessMatch.getCheckMate()) {
             System.out.println("Waiting player: " + chessMatch.getCurrentPlayer());
             if (chessMatch.getCheck()) {
                 System.out.println("CHECK!");
@@ -201,4 +208,74 @@ public class UI {
         System.out.println(Arrays.toString(black.toArray()));
         System.out.print(ANSI_RESET);
     }
-}
\ No newline at end of file
+
+    /**
+     * Desenha o estado da partida em um quadro, com o mesmo layout de {@link #printMatch(ChessMatch, List)}:
+     * o tabuleiro, as peças capturadas, o turno e o jogador da vez ou o vencedor.
+     *
+     * @param frame         O quadro onde desenhar, com ao menos {@link #FRAME_WIDTH} colunas e {@link #FRAME_HEIGHT} linhas.
+     * @param chessMatch    A instância da partida de xadrez.
+     * @param captured      A lista de peças capturadas durante a partida.
+     * @param possibleMoves A matriz de movimentos possíveis a destacar, ou null.
+     */
+    public static void drawMatch(Frame frame, ChessMatch chessMatch, List<ChessPiece> captured, boolean[][] possibleMoves) {
+        frame.clear();
+        ChessPiece[][] pieces = chessMatch.getPieces();
+
+        frame.print(0, 0, "  a b c d e f g h", Frame.DEFAULT);
+        for (int i = 0; i < pieces.length; i++) {
+            frame.print(i + 1, 0, String.valueOf(8 - i), Frame.DEFAULT);
+            for (int j = 0; j < pieces[i].length; j++) {
+                byte style = (possibleMoves != null && possibleMoves[i][j]) ? Frame.HIGHLIGHT : Frame.DEFAULT;
+                ChessPiece piece = pieces[i][j];
+                if (piece == null) {
+                    frame.put(i + 1, 2 + 2 * j, '-', style);
+                } else {
+                    style |= (piece.getColor() == Color.WHITE) ? Frame.WHITE_PIECE : Frame.BLACK_PIECE;
+                    frame.print(i + 1, 2 + 2 * j, piece.toString(), style);
+                }
+            }
+            frame.print(i + 1, 2 + 2 * pieces[i].length, String.valueOf(8 - i), Frame.DEFAULT);
+        }
+        frame.print(9, 0, "  a b c d e f g h", Frame.DEFAULT);
+
+        // Peças capturadas, separadas por cor
+        List<ChessPiece> white = captured.stream().filter(x -> x.getColor() == Color.WHITE).toList();
+        List<ChessPiece> black = captured.stream().filter(x -> x.getColor() == Color.BLACK).toList();
+        frame.print(11, 0, "Captured pieces:", Frame.DEFAULT);
+        int column = frame.print(12, 0, "White: ", Frame.DEFAULT);
+        frame.print(12, column, Arrays.toString(white.toArray()), Frame.WHITE_PIECE);
+        column = frame.print(13, 0, "Black: ", Frame.DEFAULT);
+        frame.print(13, column, Arrays.toString(black.toArray()), Frame.BLACK_PIECE);
+
+        frame.print(15, 0, "Turn : " + chessMatch.getTurn(), Frame.DEFAULT);
+        if (chessMatch.getDraw()) {
+            frame.print(16, 0, "DRAW! (" + chessMatch.getDrawReason() + ")", Frame.DEFAULT);
+        } else if (!chessMatch.getCheckMate()) {
+            frame.print(16, 0, "Waiting player: " + chessMatch.getCurrentPlayer(), Frame.DEFAULT);
+            if (chessMatch.getCheck()) {
+                frame.print(17, 0, "CHECK!", Frame.DEFAULT);
+            }
+        } else {
+            frame.print(16, 0, "CHECKMATE!", Frame.DEFAULT);
+            frame.print(17, 0, "Winner: " + chessMatch.getCurrentPlayer(), Frame.DEFAULT);
+        }
+    }
+
+    /**
+     * Desenha a mensagem e o texto de entrada nas últimas linhas do quadro.
+     *
+     * @param frame   O quadro onde desenhar.
+     * @param message A mensagem de erro, ou null.
+     * @param prompt  O texto exibido antes da entrada do usuário.
+     * @return A coluna onde o cursor deve ficar na linha {@link #PROMPT_ROW}.
+     */
+    public static int drawPrompt(Frame frame, String message, String prompt) {
+        frame.clearLine(MESSAGE_ROW, 0);
+        frame.clearLine(PROMPT_ROW, 0);
+        if (message != null) {
+            frame.print(MESSAGE_ROW, 0, message, Frame.DEFAULT);
+        }
+        return frame.print(PROMPT_ROW, 0, prompt, Frame.DEFAULT);
+    }
+}
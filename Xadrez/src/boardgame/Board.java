@@ -4,18 +4,53 @@ import exception.BoardException;
 
 public class Board {
 
+    /**
+     * Recebe as peças visitadas por {@link #forEachPiece(SquareVisitor)}.
+     */
+    @FunctionalInterface
+    public interface SquareVisitor {
+        void visit(int row, int column, Piece piece);
+    }
+
     public int rows;
     public int columns;
-    private Piece[][] pieces;
+    private final BoardStorage storage;
 
+    /**
+     * Cria um tabuleiro com uma matriz de todas as casas, adequado a tabuleiros pequenos.
+     *
+     * @param rows    Número de linhas.
+     * @param columns Número de colunas.
+     * @throws BoardException Se o tabuleiro não tiver ao menos uma linha e uma coluna.
+     */
     public Board(int rows, int columns) {
+        this(rows, columns, false);
+    }
+
+    private Board(int rows, int columns, boolean sparse) {
 
         if (rows < 1 || columns < 1)
             throw new BoardException("Error creating board: there must be at least 1 row and 1 column");
 
         this.rows = rows;
         this.columns = columns;
-        pieces = new Piece[rows][columns];
+        storage = sparse ? new ChunkedStorage(columns) : new DenseStorage(rows, columns);
+    }
+
+    /**
+     * Cria um tabuleiro esparso, que guarda apenas blocos de casas com peças.
+     * <p>
+     * Para tabuleiros grandes com poucas peças: um tabuleiro de 10.000 x 10.000 casas com alguns milhares de peças
+     * ocupa memória proporcional às peças, e {@link #forEachPiece(SquareVisitor)} percorre só as casas ocupadas.
+     * O acesso a uma casa custa uma consulta a uma tabela de dispersão em vez de um acesso direto à matriz.
+     *
+     * @param rows    Número de linhas.
+     * @param columns Número de colunas.
+     * @return O tabuleiro vazio.
+     * @throws BoardException Se o tabuleiro não tiver ao menos uma linha e uma coluna.
+     */
+    public static Board sparse(int rows, int columns) {
+        return new Board(rows, columns, true);
     }
 
     public int getRows() {
@@ -24,7 +59,27 @@ public class Board {
     public int getColumns() {
         return columns;
     }
-    
+
+    /**
+     * Obtém a quantidade de peças no tabuleiro.
+     *
+     * @return A quantidade de casas ocupadas.
+     */
+    public int getPieceCount() {
+        return storage.count();
+    }
+
+    /**
+     * Visita todas as peças do tabuleiro, sem percorrer as casas vazias no tabuleiro esparso.
+     * <p>
+     * A ordem da visita não é especificada. O tabuleiro não deve ser alterado durante a visita.
+     *
+     * @param visitor Recebe a linha, a coluna e a peça de cada casa ocupada.
+     */
+    public void forEachPiece(SquareVisitor visitor) {
+        storage.forEach(visitor);
+    }
+
     /**
      * Obtém a peça na posição especificada do tabuleiro, utilizando coordenadas de linhas e colunas.
      *
@@ -37,7 +92,7 @@ public class Board {
         if (!positionExists(row, column))
             throw new BoardException("Position not on the board");
 
-        return pieces[row][column];
+        return storage.get(row, column);
     }
 
     /**
@@ -51,7 +106,7 @@ public class Board {
         if (!positionExists(position))
             throw new BoardException("Position not on the board");
 
-        return pieces[position.getRow()][position.getColumn()];
+        return storage.get(position.getRow(), position.getColumn());
     }
     
     /**
@@ -65,7 +120,7 @@ public class Board {
         if (thereIsAPiece(position))
             throw new BoardException("There is already a piece on position " + position);
 
-        pieces[position.getRow()][position.getColumn()] = piece;
+        storage.set(position.getRow(), position.getColumn(), piece);
 
         piece.position = position;
     }
@@ -93,7 +148,7 @@ public class Board {
         aux.position = null;
 
         // Remove a peça do tabuleiro
-        pieces[position.getRow()][position.getColumn()] = null;
+        storage.set(position.getRow(), position.getColumn(), null);
 
         // Retorna a peça removida
         return aux;
@@ -144,7 +199,7 @@ public class Board {
         for (int row = rows - 1; row >= 0; row--) {
             sb.append(row + 1).append(" "); // Adiciona o número da linha no lado esquerdo
             for (int col = 0; col < columns; col++) {
-                Piece piece = pieces[row][col];
+                Piece piece = storage.get(row, col);
                 sb.append((piece == null) ? "- " : piece + " ");
             }
             sb.append(row + 1).append("\n"); // Adiciona o número da linha no lado direito
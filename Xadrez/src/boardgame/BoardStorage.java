@@ -0,0 +1,20 @@
+package boardgame;
+
+/**
+ * Armazenamento das peças de um {@link Board}. As posições recebidas já foram validadas pelo tabuleiro.
+ */
+interface BoardStorage {
+
+    Piece get(int row, int column);
+
+    /**
+     * Coloca ou remove a peça de uma casa.
+     *
+     * @param piece A peça, ou null para esvaziar a casa.
+     */
+    void set(int row, int column, Piece piece);
+
+    int count();
+
+    void forEach(Board.SquareVisitor visitor);
+}
@@ -0,0 +1,152 @@
+package boardgame;
+
+/**
+ * Armazenamento esparso para tabuleiros grandes com poucas peças.
+ * <p>
+ * O tabuleiro é dividido em blocos de 8 x 8 casas, e só existem os blocos com alguma peça: cada um guarda as 64
+ * casas e uma máscara de bits das ocupadas, e é descartado quando fica vazio. Os blocos ficam em uma tabela de
+ * endereçamento aberto indexada pelo número do bloco, sem objetos para as chaves, de modo que a memória usada é
+ * proporcional à quantidade de peças e não ao tamanho do tabuleiro. A iteração percorre só os blocos existentes
+ * e, em cada um, só os bits da máscara.
+ */
+final class ChunkedStorage implements BoardStorage {
+
+    private static final int CHUNK_BITS = 3;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+    private static final class Chunk {
+        final Piece[] pieces = new Piece[1 << 2 * CHUNK_BITS];
+        long occupied;
+    }
+
+    private final long chunkColumns;
+
+    // Tabela de endereçamento aberto com sondagem linear; um bloco null marca uma posição livre
+    private long[] keys = new long[16];
+    private Chunk[] chunks = new Chunk[16];
+    private int chunkCount;
+    private int count;
+
+    ChunkedStorage(int columns) {
+        chunkColumns = (columns + CHUNK_MASK) >> CHUNK_BITS;
+    }
+
+    @Override
+    public Piece get(int row, int column) {
+        Chunk chunk = chunks[slot(key(row, column))];
+        return chunk == null ? null : chunk.pieces[index(row, column)];
+    }
+
+    @Override
+    public void set(int row, int column, Piece piece) {
+        long key = key(row, column);
+        int index = index(row, column);
+        int slot = slot(key);
+        Chunk chunk = chunks[slot];
+
+        if (chunk == null) {
+            if (piece == null)
+                return;
+            chunk = new Chunk();
+            keys[slot] = key;
+            chunks[slot] = chunk;
+            if (++chunkCount * 2 > chunks.length)
+                grow();
+        }
+
+        long bit = 1L << index;
+        if ((chunk.occupied & bit) == 0 && piece != null)
+            count++;
+        else if ((chunk.occupied & bit) != 0 && piece == null)
+            count--;
+
+        chunk.pieces[index] = piece;
+        chunk.occupied = piece == null ? chunk.occupied & ~bit : chunk.occupied | bit;
+        if (chunk.occupied == 0)
+            remove(slot(key));
+    }
+
+    @Override
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Visita as peças bloco a bloco, em uma ordem que depende da tabela e não das posições.
+     */
+    @Override
+    public void forEach(Board.SquareVisitor visitor) {
+        Chunk[] chunks = this.chunks;
+        long[] keys = this.keys;
+        for (int slot = 0; slot < chunks.length; slot++) {
+            Chunk chunk = chunks[slot];
+            if (chunk == null)
+                continue;
+
+            int baseRow = (int) (keys[slot] / chunkColumns) << CHUNK_BITS;
+            int baseColumn = (int) (keys[slot] % chunkColumns) << CHUNK_BITS;
+            for (long bits = chunk.occupied; bits != 0; bits &= bits - 1) {
+                int index = Long.numberOfTrailingZeros(bits);
+                visitor.visit(baseRow + (index >> CHUNK_BITS), baseColumn + (index & CHUNK_MASK), chunk.pieces[index]);
+            }
+        }
+    }
+
+    private long key(int row, int column) {
+        return (row >> CHUNK_BITS) * chunkColumns + (column >> CHUNK_BITS);
+    }
+
+    private static int index(int row, int column) {
+        return (row & CHUNK_MASK) << CHUNK_BITS | (column & CHUNK_MASK);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+
+    /**
+     * Obtém a posição da tabela com o bloco da chave, ou a posição livre onde ele deve ser inserido.
+     */
+    private int slot(long key) {
+        int mask = chunks.length - 1;
+        int slot = hash(key) & mask;
+        while (chunks[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Remove um bloco, trazendo para trás os blocos seguintes da mesma sequência de sondagem, para que a tabela
+     * não precise de marcadores de remoção.
+     */
+    private void remove(int slot) {
+        int mask = chunks.length - 1;
+        chunks[slot] = null;
+        chunkCount--;
+        for (int next = (slot + 1) & mask; chunks[next] != null; next = (next + 1) & mask) {
+            int ideal = hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                chunks[slot] = chunks[next];
+                chunks[next] = null;
+                slot = next;
+            }
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Chunk[] oldChunks = chunks;
+        keys = new long[oldKeys.length * 2];
+        chunks = new Chunk[oldChunks.length * 2];
+        for (int i = 0; i < oldChunks.length; i++) {
+            if (oldChunks[i] != null) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                chunks[slot] = oldChunks[i];
+            }
+        }
+    }
+}
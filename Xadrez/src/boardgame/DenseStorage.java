@@ -0,0 +1,45 @@
+package boardgame;
+
+/**
+ * Armazenamento em uma matriz com todas as casas, adequado a tabuleiros pequenos como o de xadrez.
+ */
+final class DenseStorage implements BoardStorage {
+
+    private final Piece[][] pieces;
+    private int count;
+
+    DenseStorage(int rows, int columns) {
+        pieces = new Piece[rows][columns];
+    }
+
+    @Override
+    public Piece get(int row, int column) {
+        return pieces[row][column];
+    }
+
+    @Override
+    public void set(int row, int column, Piece piece) {
+        Piece previous = pieces[row][column];
+        if (previous == null && piece != null)
+            count++;
+        else if (previous != null && piece == null)
+            count--;
+        pieces[row][column] = piece;
+    }
+
+    @Override
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public void forEach(Board.SquareVisitor visitor) {
+        for (int row = 0; row < pieces.length; row++) {
+            Piece[] line = pieces[row];
+            for (int column = 0; column < line.length; column++) {
+                if (line[column] != null)
+                    visitor.visit(row, column, line[column]);
+            }
+        }
+    }
+}
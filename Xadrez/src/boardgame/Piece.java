@@ -14,7 +14,40 @@ public abstract class Piece {
         return board;
     }
 
-    public abstract boolean[][] possibleMoves();
+    /**
+     * Recebe os destinos possíveis de uma peça, um de cada vez.
+     */
+    @FunctionalInterface
+    public interface MoveVisitor {
+        /**
+         * @return false para encerrar a visita.
+         */
+        boolean visit(int row, int column);
+    }
+
+    /**
+     * Visita os destinos possíveis da peça, sem alocar uma matriz do tamanho do tabuleiro: o custo é proporcional
+     * aos destinos, e não às casas, o que importa nos tabuleiros esparsos ({@link Board#sparse}).
+     *
+     * @param visitor Recebe cada destino possível.
+     * @return false se o visitante encerrou a visita.
+     */
+    public abstract boolean forEachPossibleMove(MoveVisitor visitor);
+
+    /**
+     * Gera uma matriz de booleanos indicando os destinos possíveis da peça. A matriz tem o tamanho do tabuleiro;
+     * em tabuleiros grandes, prefira {@link #forEachPossibleMove}.
+     *
+     * @return Matriz de booleanos representando os possíveis movimentos da peça.
+     */
+    public boolean[][] possibleMoves() {
+        boolean[][] mat = new boolean[board.getRows()][board.getColumns()];
+        forEachPossibleMove((row, column) -> {
+            mat[row][column] = true;
+            return true;
+        });
+        return mat;
+    }
 
     /**
      * Verifica se existe algum movimento possível para a peça.
@@ -22,15 +55,7 @@ public abstract class Piece {
      * @return true se houver pelo menos um movimento possível, false caso contrário.
      */
     public boolean isThereAnyPossibleMove() {
-        boolean[][] mat = possibleMoves();
-        for (boolean[] booleans : mat) {
-            for (int j = 0; j < mat.length; j++) {
-                if (booleans[j]) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return !forEachPossibleMove((row, column) -> false);
     }
 
     /**
@@ -40,6 +65,7 @@ public abstract class Piece {
      * @return true se houver um movimento possível na posição, false caso contrário.
      */
     public boolean possibleMove(Position position) {
-        return possibleMoves()[position.getRow()][position.getColumn()];
+        int row = position.getRow(), column = position.getColumn();
+        return !forEachPossibleMove((r, c) -> r != row || c != column);
     }
 }
\ No newline at end of file
@@ -5,21 +5,40 @@ import boardgame.Piece;
 import boardgame.Position;
 import chess.pieces.*;
 import exception.BoardException;
+import exception.ChessException;
+import metrics.MatchMetrics;
+import metrics.Probe;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class ChessMatch {
 
+    // Tamanho do histórico de posições; cobre os 100 meio-lances da regra dos 50 lances e a profundidade da busca
+    public static final int HISTORY_SIZE = 128;
+    private static final int HISTORY_MASK = HISTORY_SIZE - 1;
+
     private int turn;
     private final Board board;
     private Color currentPlayer;
     private boolean check;
     private boolean checkMate;
+    private DrawReason drawReason;
+    private boolean drawEndsMatch = true;
 
     private List<Piece> piecesOnTheBoard = new ArrayList<>();
     private List<Piece> capturedPieces = new ArrayList<>();
 
+    private MoveListener moveListener;
+    private long piecesHash;
+
+    // Buffer circular com o hash de cada posição já jogada e o contador de meio-lances antes do lance seguinte,
+    // indexado pelo meio-lance; só as últimas halfmoveClock posições podem se repetir na posição atual
+    private final long[] history = new long[HISTORY_SIZE];
+    private final int[] clocks = new int[HISTORY_SIZE];
+    private int ply;
+    private int halfmoveClock;
+
     public ChessMatch() {
         board = new Board(8, 8);
         turn = 1;
@@ -27,6 +46,56 @@ public class ChessMatch {
         initialSetup();
     }
 
+    private ChessMatch(int turn, Color currentPlayer, boolean check, boolean checkMate) {
+        board = new Board(8, 8);
+        this.turn = turn;
+        this.currentPlayer = currentPlayer;
+        this.check = check;
+        this.checkMate = checkMate;
+    }
+
+    /**
+     * Cria uma partida com o tabuleiro vazio e o estado informado.
+     * <p>
+     * Usada para restaurar posições salvas: as peças devem ser colocadas em seguida com
+     * {@link #setupPiece(char, int, char, Color)}.
+     *
+     * @param turn          O número do turno atual.
+     * @param currentPlayer O jogador da vez.
+     * @param check         Indica se o jogador da vez está em xeque.
+     * @param checkMate     Indica se a partida terminou em xeque-mate.
+     * @return A partida criada, sem peças no tabuleiro.
+     */
+    public static ChessMatch withEmptyBoard(int turn, Color currentPlayer, boolean check, boolean checkMate) {
+        return new ChessMatch(turn, currentPlayer, check, checkMate);
+    }
+
+    /**
+     * Esvazia o tabuleiro e redefine o estado da partida, para reaproveitar a instância em outra posição.
+     * <p>
+     * Equivale a {@link #withEmptyBoard(int, Color, boolean, boolean)} sem alocar um tabuleiro novo; as peças
+     * devem ser colocadas em seguida com {@link #setupPiece(char, int, char, Color)}. O observador de movimentos
+     * é mantido.
+     *
+     * @param turn          O número do turno atual.
+     * @param currentPlayer O jogador da vez.
+     */
+    public void clear(int turn, Color currentPlayer) {
+        for (Piece piece : piecesOnTheBoard) {
+            board.removePiece(((ChessPiece) piece).getChessPosition().toPosition());
+        }
+        piecesOnTheBoard.clear();
+        capturedPieces.clear();
+        piecesHash = 0;
+        ply = 0;
+        halfmoveClock = 0;
+        this.turn = turn;
+        this.currentPlayer = currentPlayer;
+        check = false;
+        checkMate = false;
+        drawReason = null;
+    }
+
     public int getTurn() {
         return turn;
     }
@@ -43,6 +112,190 @@ public class ChessMatch {
         return checkMate;
     }
 
+    /**
+     * Indica se a partida terminou empatada, verificado a cada movimento aceito por
+     * {@link #performChessMove(ChessPosition, ChessPosition)} ou {@link #replayMove}.
+     * <p>
+     * Depois do empate a partida não aceita novos movimentos, a não ser que isso tenha sido desativado com
+     * {@link #setDrawEndsMatch(boolean)}.
+     *
+     * @return True se a partida terminou empatada.
+     */
+    public boolean getDraw() {
+        return drawReason != null;
+    }
+
+    /**
+     * Obtém o motivo do empate que terminou a partida.
+     *
+     * @return O motivo do empate, ou null se a partida não terminou empatada.
+     */
+    public DrawReason getDrawReason() {
+        return drawReason;
+    }
+
+    /**
+     * Define se o empate encerra a partida. Quem reproduz partidas gravadas (PGN, UCI), em que os jogadores podem
+     * ter continuado sem reclamar o empate, desativa o encerramento; o empate continua sendo indicado por
+     * {@link #getDraw()}.
+     *
+     * @param drawEndsMatch False para continuar aceitando movimentos depois do empate.
+     */
+    public void setDrawEndsMatch(boolean drawEndsMatch) {
+        this.drawEndsMatch = drawEndsMatch;
+    }
+
+    /**
+     * Obtém a quantidade de meio-lances desde a última captura ou movimento de Peão.
+     *
+     * @return O contador de meio-lances da regra dos 50 lances.
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Define o contador de meio-lances, lido de uma posição salva.
+     * <p>
+     * As posições anteriores não são conhecidas, então só as jogadas a partir daqui contam para a repetição.
+     *
+     * @param halfmoveClock A quantidade de meio-lances desde a última captura ou movimento de Peão.
+     * @throws IllegalArgumentException Se o contador for negativo.
+     */
+    public void setHalfmoveClock(int halfmoveClock) {
+        if (halfmoveClock < 0)
+            throw new IllegalArgumentException("Invalid halfmove clock: " + halfmoveClock);
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * Obtém os hashes das posições que ainda podem se repetir na posição atual: as jogadas desde o último
+     * movimento irreversível, até as últimas {@value #HISTORY_SIZE}.
+     *
+     * @return Os hashes, da posição mais antiga para a mais recente, sem a posição atual.
+     */
+    public long[] getRepetitionHistory() {
+        int count = Math.min(halfmoveClock, Math.min(ply, HISTORY_SIZE));
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = history[(ply - count + i) & HISTORY_MASK];
+        }
+        return keys;
+    }
+
+    /**
+     * Restaura o contador de meio-lances e as posições devolvidas por {@link #getRepetitionHistory()}, lidos de
+     * uma posição salva, e recalcula o estado de empate.
+     * <p>
+     * Deve ser chamado depois de colocadas as peças, já que o empate depende delas.
+     *
+     * @param halfmoveClock A quantidade de meio-lances desde a última captura ou movimento de Peão.
+     * @param keys          Os hashes das posições anteriores, da mais antiga para a mais recente.
+     * @throws IllegalArgumentException Se o contador for negativo ou houver mais de {@value #HISTORY_SIZE} posições.
+     */
+    public void restoreHistory(int halfmoveClock, long[] keys) {
+        if (halfmoveClock < 0)
+            throw new IllegalArgumentException("Invalid halfmove clock: " + halfmoveClock);
+        if (keys.length > HISTORY_SIZE)
+            throw new IllegalArgumentException("Too many positions in history: " + keys.length);
+
+        for (int i = 0; i < keys.length; i++) {
+            history[i] = keys[i];
+            clocks[i] = Math.max(0, halfmoveClock - (keys.length - i));
+        }
+        ply = keys.length;
+        this.halfmoveClock = halfmoveClock;
+        drawReason = checkMate ? null : detectDraw();
+    }
+
+    /**
+     * Verifica se a posição atual já ocorreu o número de vezes informado, contando a atual.
+     * <p>
+     * Só são comparadas as posições com o mesmo jogador da vez desde o último movimento irreversível (captura
+     * ou movimento de Peão), pois nenhuma posição anterior a ele pode se repetir; o custo é proporcional ao
+     * contador de meio-lances. A comparação é pelo hash, e posições diferentes podem, raramente, coincidir.
+     *
+     * @param occurrences A quantidade de ocorrências; 3 para a regra da tripla repetição, 2 para a busca.
+     * @return True se a posição ocorreu pelo menos essa quantidade de vezes.
+     */
+    public boolean isRepetition(int occurrences) {
+        long key = getPositionHash();
+        int limit = Math.min(halfmoveClock, Math.min(ply, HISTORY_SIZE));
+        int count = 1;
+        for (int back = 2; back <= limit && count < occurrences; back += 2) {
+            if (history[(ply - back) & HISTORY_MASK] == key)
+                count++;
+        }
+        return count >= occurrences;
+    }
+
+    /**
+     * Verifica se nenhum dos jogadores tem material para dar xeque-mate: só os Reis, um Rei com um Cavalo ou um
+     * Bispo contra o Rei, ou apenas Bispos, todos em casas da mesma cor.
+     *
+     * @return True se o material for insuficiente para o xeque-mate.
+     */
+    public boolean hasInsufficientMaterial() {
+        if (piecesOnTheBoard.size() > 4)
+            return false;
+
+        int minors = 0;
+        int knights = 0;
+        int bishopSquares = 0;
+        for (Piece piece : piecesOnTheBoard) {
+            if (piece instanceof King)
+                continue;
+            if (piece instanceof Knight) {
+                knights++;
+            } else if (piece instanceof Bishop) {
+                ChessPosition position = ((ChessPiece) piece).getChessPosition();
+                bishopSquares |= 1 << ((position.getColumn() + position.getRow()) & 1);
+            } else {
+                return false;
+            }
+            minors++;
+        }
+        return minors <= 1 || (knights == 0 && bishopSquares != 3);
+    }
+
+    /**
+     * Verifica as regras de empate na posição atual, sem alterar o estado da partida.
+     * <p>
+     * Usado por quem joga com {@link #makeMove(int)}, que não atualiza o estado de empate.
+     *
+     * @return O motivo do empate, ou null se nenhuma regra de empate se aplicar.
+     */
+    public DrawReason detectDraw() {
+        if (halfmoveClock >= 100)
+            return DrawReason.FIFTY_MOVES;
+        if (isRepetition(3))
+            return DrawReason.THREEFOLD_REPETITION;
+        if (hasInsufficientMaterial())
+            return DrawReason.INSUFFICIENT_MATERIAL;
+        return null;
+    }
+
+    /**
+     * Obtém o hash de 64 bits da posição atual (peças no tabuleiro e jogador da vez).
+     * <p>
+     * O hash é mantido de forma incremental a cada movimento e não depende da execução, então pode ser
+     * usado como chave em índices gravados em disco. Posições diferentes podem, raramente, ter o mesmo hash.
+     *
+     * @return O hash da posição.
+     */
+    public long getPositionHash() {
+        return currentPlayer == Color.BLACK ? piecesHash ^ Zobrist.BLACK_TO_MOVE : piecesHash;
+    }
+
+    /**
+     * Define o observador notificado a cada movimento aceito pela partida.
+     *
+     * @param moveListener O observador, ou null para remover o observador atual.
+     */
+    public void setMoveListener(MoveListener moveListener) {
+        this.moveListener = moveListener;
+    }
+
     /**
      * Obtém a matriz de peças do tabuleiro de xadrez.
      * <p>
@@ -62,6 +315,54 @@ public class ChessMatch {
         return mat;
     }
 
+    /**
+     * Obtém a peça em uma casa do tabuleiro, sem criar a matriz completa de peças.
+     *
+     * @param square O índice da casa (0 a 63), na ordem definida por {@link ChessPosition#toSquare()}.
+     * @return A peça na casa, ou null se a casa estiver vazia.
+     */
+    public ChessPiece pieceAt(int square) {
+        return (ChessPiece) board.piece(square >> 3, square & 7);
+    }
+
+    /**
+     * Gera os movimentos legais do jogador da vez.
+     * <p>
+     * Os movimentos são gravados no vetor no formato de {@link Move}, em ordem crescente de casa de origem
+     * e, para cada origem, em ordem crescente de casa de destino. A ordem depende apenas da posição, de modo
+     * que o índice de um movimento na lista pode ser usado para representá-lo. Movimentos que deixariam o
+     * próprio Rei em xeque não são incluídos. Se a partida já terminou, em xeque-mate ou em um empate que a
+     * encerra, nenhum movimento é gerado.
+     *
+     * @param moves O vetor que recebe os movimentos; deve ter espaço para todos os movimentos da posição.
+     * @return A quantidade de movimentos gerados.
+     */
+    public int legalMoves(int[] moves) {
+        if (checkMate || isEndedByDraw())
+            return 0;
+
+        int count = 0;
+        for (int from = 0; from < 64; from++) {
+            Piece piece = board.piece(from >> 3, from & 7);
+            if (piece == null || ((ChessPiece) piece).getColor() != currentPlayer)
+                continue;
+
+            boolean[][] mat = piece.possibleMoves();
+            Position source = new Position(from >> 3, from & 7);
+            for (int to = 0; to < 64; to++) {
+                if (mat[to >> 3][to & 7]) {
+                    Position target = new Position(to >> 3, to & 7);
+                    Piece capturedPiece = makeMove(source, target);
+                    boolean leavesKingInCheck = testCheck(currentPlayer);
+                    undoMove(source, target, capturedPiece);
+                    if (!leavesKingInCheck)
+                        moves[count++] = Move.of(from, to);
+                }
+            }
+        }
+        return count;
+    }
+
     /**
      * Obtém uma matriz de movimentos possíveis para a peça na posição de origem no tabuleiro de xadrez.
      * <p>
@@ -73,9 +374,12 @@ public class ChessMatch {
      * @return Uma matriz booleana representando os movimentos possíveis da peça na posição de origem.
      */
     public boolean[][] possibleMoves(ChessPosition sourcePosition) {
+        long start = MatchMetrics.start();
         Position position = sourcePosition.toPosition();
         validateSourcePosition(position);
-        return board.piece(position).possibleMoves();
+        boolean[][] mat = board.piece(position).possibleMoves();
+        MatchMetrics.stop(Probe.POSSIBLE_MOVES, start);
+        return mat;
     }
 
     /**
@@ -91,8 +395,14 @@ public class ChessMatch {
      * @param targetPosition A posição de destino no formato ChessPosition.
      * @return A peça capturada, se houver, após o movimento.
      * @throws BoardException Se o movimento deixar o próprio Rei em xeque.
+     * @throws ChessException Se a partida já terminou empatada.
      */
     public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
+        if (isEndedByDraw())
+            throw new ChessException("A partida terminou empatada (" + drawReason + ")");
+
+        long start = MatchMetrics.start();
+
         // Converte as posições de origem e destino para o formato Position
         Position source = sourcePosition.toPosition();
         Position target = targetPosition.toPosition();
@@ -102,28 +412,126 @@ public class ChessMatch {
         validateTargetPosition(source, target);
 
         // Valida a posição de destino e realiza o movimento no tabuleiro
+        long key = getPositionHash();
         Piece capturedPiece = makeMove(source, target);
 
         // Verifica se o movimento deixou o próprio Rei em xeque
         if (testCheck(currentPlayer)) {
 
             undoMove(source, target, capturedPiece); // Desfaz o movimento e lança uma exceção
+            MatchMetrics.stop(Probe.PERFORM_CHESS_MOVE, start);
             throw new BoardException("Não é permitido colocar o próprio Rei em xeque");
         }
+        pushHistory(key, capturedPiece, target);
 
         // Atualiza a flag 'check' indicando se o oponente está em xeque
         check = testCheck(opponent(currentPlayer));
 
-        if (testCheckMate(opponent(currentPlayer)))
+        if (testCheckMate(opponent(currentPlayer))) {
             checkMate = true;
-        else
-            // Avança para o próximo turno
+        } else {
+            // Avança para o próximo turno e verifica as regras de empate na nova posição
             nextTurn();
+            drawReason = detectDraw();
+        }
+
+        MatchMetrics.stop(Probe.PERFORM_CHESS_MOVE, start);
+
+        // Notifica o observador somente depois que o movimento foi aceito
+        if (moveListener != null)
+            moveListener.onMoveAccepted(this, sourcePosition, targetPosition, (ChessPiece) capturedPiece);
 
         // Retorna a peça capturada, se houver, após o movimento
         return (ChessPiece) capturedPiece;
     }
 
+    /**
+     * Reaplica um movimento já aceito anteriormente, sem validá-lo novamente.
+     * <p>
+     * Usado na recuperação de partidas salvas: o movimento é executado diretamente no tabuleiro
+     * e o estado de xeque e xeque-mate é restaurado a partir dos valores gravados, sem gerar
+     * movimentos possíveis nem testar xeque. O observador de movimentos não é notificado.
+     *
+     * @param sourcePosition A posição de origem no formato ChessPosition.
+     * @param targetPosition A posição de destino no formato ChessPosition.
+     * @param check          Indica se o movimento deixou o oponente em xeque.
+     * @param checkMate      Indica se o movimento terminou a partida em xeque-mate.
+     * @return A peça capturada, se houver, após o movimento.
+     * @throws BoardException Se não houver uma peça na posição de origem.
+     */
+    public ChessPiece replayMove(ChessPosition sourcePosition, ChessPosition targetPosition,
+                                 boolean check, boolean checkMate) {
+        Position source = sourcePosition.toPosition();
+
+        if (!board.thereIsAPiece(source))
+            throw new BoardException("There is no piece on source position");
+
+        long key = getPositionHash();
+        Position target = targetPosition.toPosition();
+        Piece capturedPiece = makeMove(source, target);
+        pushHistory(key, capturedPiece, target);
+
+        this.check = check;
+        if (checkMate) {
+            this.checkMate = true;
+        } else {
+            nextTurn();
+            drawReason = detectDraw();
+        }
+
+        return (ChessPiece) capturedPiece;
+    }
+
+
+    /**
+     * Executa um movimento gerado por {@link #legalMoves(int[])} e passa a vez, sem validá-lo nem testar xeque.
+     * <p>
+     * Usado pela busca do motor, que desfaz cada movimento com {@link #undoMove(int, ChessPiece)} na ordem inversa.
+     * Os indicadores de xeque, xeque-mate e empate não são atualizados e o observador de movimentos não é
+     * notificado; o histórico de repetições e o contador de meio-lances são, e podem ser consultados por
+     * {@link #isRepetition(int)} e {@link #detectDraw()}.
+     *
+     * @param move O movimento, no formato de {@link Move}.
+     * @return A peça capturada, se houver, que deve ser informada ao desfazer o movimento.
+     */
+    public ChessPiece makeMove(int move) {
+        long key = getPositionHash();
+        Position target = squarePosition(Move.target(move));
+        Piece capturedPiece = makeMove(squarePosition(Move.source(move)), target);
+        pushHistory(key, capturedPiece, target);
+        nextTurn();
+        return (ChessPiece) capturedPiece;
+    }
+
+    /**
+     * Desfaz um movimento executado por {@link #makeMove(int)}, devolvendo a vez ao jogador anterior.
+     *
+     * @param move          O movimento, no formato de {@link Move}.
+     * @param capturedPiece A peça devolvida por {@link #makeMove(int)}.
+     */
+    public void undoMove(int move, ChessPiece capturedPiece) {
+        ply--;
+        halfmoveClock = clocks[ply & HISTORY_MASK];
+        turn--;
+        currentPlayer = opponent(currentPlayer);
+        undoMove(squarePosition(Move.source(move)), squarePosition(Move.target(move)), capturedPiece);
+    }
+
+    /**
+     * Verifica se o Rei da cor especificada está em xeque na posição atual do tabuleiro.
+     * <p>
+     * Depois de {@link #makeMove(int)}, verificar a cor que acabou de jogar indica se o movimento era ilegal.
+     *
+     * @param color A cor do Rei a ser verificado.
+     * @return True se o Rei estiver sendo atacado.
+     */
+    public boolean isInCheck(Color color) {
+        return testCheck(color);
+    }
+
+    private static Position squarePosition(int square) {
+        return new Position(square >> 3, square & 7);
+    }
 
     /**
      * Valida a posição de origem para realizar um movimento de xadrez.
@@ -179,6 +587,8 @@ public class ChessMatch {
      * @return A peça capturada, se houver, após o movimento.
      */
     private Piece makeMove(Position source, Position target) {
+        long start = MatchMetrics.start();
+
         // Remove a peça da posição de origem e a coloca na posição de destino
         ChessPiece movedPiece = (ChessPiece) board.removePiece(source);
 
@@ -189,12 +599,18 @@ public class ChessMatch {
         Piece capturedPiece = board.removePiece(target);
         board.placePiece(movedPiece, target);
 
+        // Atualiza o hash da posição com a saída da peça da origem, a chegada no destino e a peça capturada
+        piecesHash ^= Zobrist.key(movedPiece, source) ^ Zobrist.key(movedPiece, target);
+        if (capturedPiece != null)
+            piecesHash ^= Zobrist.key(capturedPiece, target);
+
         // Se houver uma peça adversária na posição de destino, adiciona a peça capturada à lista de peças capturadas
         if (capturedPiece != null) {
             piecesOnTheBoard.remove(capturedPiece);
             capturedPieces.add(capturedPiece);
         }
 
+        MatchMetrics.stop(Probe.MAKE_MOVE, start);
         return capturedPiece;
     }
 
@@ -210,6 +626,7 @@ public class ChessMatch {
      * @param capturedPiece A peça capturada durante o movimento original, se houver.
      */
     private void undoMove(Position source, Position target, Piece capturedPiece) {
+        long start = MatchMetrics.start();
 
         // Remove a peça da posição de destino e a coloca na posição de origem
         ChessPiece movedPiece = (ChessPiece) board.removePiece(target);
@@ -219,13 +636,36 @@ public class ChessMatch {
 
         // Recoloca a peça movida na posição de origem
         board.placePiece(movedPiece, source);
+        piecesHash ^= Zobrist.key(movedPiece, source) ^ Zobrist.key(movedPiece, target);
 
         // Se houver uma peça capturada durante o movimento original, recoloca a peça capturada no tabuleiro
         if (capturedPiece != null) {
             board.placePiece(capturedPiece, target);
+            piecesHash ^= Zobrist.key(capturedPiece, target);
             capturedPieces.remove(capturedPiece);
             piecesOnTheBoard.add(capturedPiece);
         }
+
+        MatchMetrics.stop(Probe.UNDO_MOVE, start);
+    }
+
+    private boolean isEndedByDraw() {
+        return drawEndsMatch && drawReason != null;
+    }
+
+    /**
+     * Guarda no histórico a posição anterior a um movimento já feito no tabuleiro e atualiza o contador de
+     * meio-lances, que volta a zero em capturas e movimentos de Peão.
+     *
+     * @param key           O hash da posição antes do movimento.
+     * @param capturedPiece A peça capturada pelo movimento, se houver.
+     * @param target        A posição de destino, onde está a peça movida.
+     */
+    private void pushHistory(long key, Piece capturedPiece, Position target) {
+        history[ply & HISTORY_MASK] = key;
+        clocks[ply & HISTORY_MASK] = halfmoveClock;
+        ply++;
+        halfmoveClock = capturedPiece != null || board.piece(target) instanceof Pawn ? 0 : halfmoveClock + 1;
     }
 
     /**
@@ -290,19 +730,22 @@ public class ChessMatch {
      * @param color A cor do Rei a ser verificado quanto à condição de xeque (BRANCA ou PRETA).
      * @return True se o Rei estiver em xeque, False caso contrário.
      */
-    private boolean testCheck(Color color) {
+    boolean testCheck(Color color) {
+        long start = MatchMetrics.start();
         Position kingPosition = king(color).getChessPosition().toPosition();
         List<Piece> opponentPieces = piecesOnTheBoard.stream()
                 .filter(x -> ((ChessPiece) x).getColor() == opponent(color))
                 .toList();
 
+        boolean check = false;
         for (Piece p : opponentPieces) {
-            boolean[][] mat = p.possibleMoves();
-            if (mat[kingPosition.getRow()][kingPosition.getColumn()]) {
-                return true;
+            if (p.possibleMove(kingPosition)) {
+                check = true;
+                break;
             }
         }
-        return false;
+        MatchMetrics.stop(Probe.TEST_CHECK, start);
+        return check;
     }
 
     /**
@@ -320,7 +763,16 @@ public class ChessMatch {
      * @return True se o Rei estiver em xeque-mate, False caso contrário.
      */
 
-    private boolean testCheckMate(Color color) {
+    boolean testCheckMate(Color color) {
+        long start = MatchMetrics.start();
+        try {
+            return isCheckMate(color);
+        } finally {
+            MatchMetrics.stop(Probe.TEST_CHECK_MATE, start);
+        }
+    }
+
+    private boolean isCheckMate(Color color) {
         // Se o Rei não estiver em xeque, não está em xeque-mate
         if (!testCheck(color)) {
             return false;
@@ -364,10 +816,63 @@ public class ChessMatch {
      * @see ChessPosition
      */
     private void placeNewPiece(char column, int row, ChessPiece piece) {
-        board.placePiece(piece, new ChessPosition(column, row).toPosition());
+        Position position = new ChessPosition(column, row).toPosition();
+        board.placePiece(piece, position);
+        piecesHash ^= Zobrist.key(piece, position);
         piecesOnTheBoard.add(piece);
     }
 
+    /**
+     * Recalcula o estado de xeque, xeque-mate e empate a partir das peças no tabuleiro.
+     * <p>
+     * Usado depois de montar uma posição com {@link #setupPiece(char, int, char, Color)}. Se o jogador da vez
+     * estiver em xeque-mate, a partida fica no mesmo estado deixado por {@link #performChessMove}: o turno e o
+     * jogador da vez voltam para o lance vencedor.
+     *
+     * @throws IllegalStateException Se faltar o Rei de alguma das cores.
+     */
+    public void updateCheckState() {
+        check = testCheck(currentPlayer);
+        checkMate = check && testCheckMate(currentPlayer);
+
+        if (checkMate) {
+            turn--;
+            currentPlayer = opponent(currentPlayer);
+        }
+        drawReason = checkMate ? null : detectDraw();
+    }
+
+    /**
+     * Coloca uma nova peça no tabuleiro a partir do seu símbolo, usando coordenadas no formato (coluna, linha).
+     * <p>
+     * O símbolo é o mesmo devolvido por {@code toString()} das peças (K, Q, R, B, N ou P), sem
+     * distinção entre maiúsculas e minúsculas. Peões fora da linha inicial são marcados como já movidos,
+     * para que não tenham direito ao movimento inicial duplo.
+     *
+     * @param column Coluna onde a peça será colocada. Deve estar no intervalo de 'a' a 'h'.
+     * @param row    Linha onde a peça será colocada. Deve estar no intervalo de 1 a 8.
+     * @param symbol Símbolo da peça.
+     * @param color  Cor da peça.
+     * @throws ChessException Se o símbolo não corresponder a uma peça ou a posição for inválida.
+     * @throws BoardException Se houver uma peça na posição especificada.
+     */
+    public void setupPiece(char column, int row, char symbol, Color color) {
+        ChessPiece piece = switch (Character.toUpperCase(symbol)) {
+            case 'K' -> new King(board, color);
+            case 'Q' -> new Queen(board, color);
+            case 'R' -> new Rook(board, color);
+            case 'B' -> new Bishop(board, color);
+            case 'N' -> new Knight(board, color);
+            case 'P' -> new Pawn(board, color);
+            default -> throw new ChessException("Invalid piece symbol: " + symbol);
+        };
+
+        if (piece instanceof Pawn && row != (color == Color.WHITE ? 2 : 7))
+            piece.increaseMoveCount();
+
+        placeNewPiece(column, row, piece);
+    }
+
     private void initialSetup() {
         //Peças pretas
         placeNewPiece('a', 8, new Rook(board, Color.BLACK));
@@ -24,6 +24,31 @@ public class ChessPosition {
         return new ChessPosition((char) ('a' + position.getColumn()), 8 - position.getRow());
     }
     
+    /**
+     * Converte a posição para o índice de casa (0 a 63) usado nos formatos binários.
+     * <p>
+     * O índice segue a ordem das linhas da matriz do tabuleiro: a casa a8 é 0, h8 é 7 e h1 é 63.
+     *
+     * @return O índice da casa correspondente a esta posição.
+     */
+    public int toSquare() {
+        return (8 - row) * 8 + (column - 'a');
+    }
+
+    /**
+     * Cria uma posição de xadrez a partir de um índice de casa (0 a 63).
+     *
+     * @param square O índice da casa, na ordem definida por {@link #toSquare()}.
+     * @return A posição de xadrez correspondente.
+     * @throws ChessException Se o índice não corresponder a uma casa do tabuleiro.
+     */
+    public static ChessPosition fromSquare(int square) {
+        if (square < 0 || square > 63)
+            throw new ChessException("Invalid square index: " + square);
+
+        return new ChessPosition((char) ('a' + (square & 7)), 8 - (square >> 3));
+    }
+
     public char getColumn() {
         return column;
     }
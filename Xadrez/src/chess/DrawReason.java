@@ -0,0 +1,10 @@
+package chess;
+
+/**
+ * Motivo pelo qual uma partida terminou empatada.
+ */
+public enum DrawReason {
+    FIFTY_MOVES,
+    THREEFOLD_REPETITION,
+    INSUFFICIENT_MATERIAL;
+}
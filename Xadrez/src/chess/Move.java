@@ -0,0 +1,62 @@
+package chess;
+
+/**
+ * Representação compacta de um movimento em um único {@code int}.
+ * <p>
+ * O movimento guarda a casa de origem nos bits 6 a 11 e a casa de destino nos bits 0 a 5,
+ * usando os índices de casa definidos por {@link ChessPosition#toSquare()}. Assim listas de movimentos
+ * podem ser guardadas em vetores de {@code int}, sem criar objetos.
+ */
+public final class Move {
+
+    /**
+     * Limite superior para a quantidade de movimentos legais em uma posição, usado no tamanho dos vetores de movimentos.
+     */
+    public static final int MAX_MOVES = 256;
+
+    private Move() {
+    }
+
+    public static int of(int source, int target) {
+        return source << 6 | target;
+    }
+
+    public static int source(int move) {
+        return move >>> 6 & 63;
+    }
+
+    public static int target(int move) {
+        return move & 63;
+    }
+
+    /**
+     * Converte o movimento para a notação de coordenadas, por exemplo "e2e4".
+     *
+     * @param move O movimento compactado.
+     * @return O movimento na notação de coordenadas.
+     */
+    public static String toString(int move) {
+        return ChessPosition.fromSquare(source(move)).toString() + ChessPosition.fromSquare(target(move));
+    }
+
+    /**
+     * Lê um movimento na notação de coordenadas, como "e2e4".
+     *
+     * @param text O movimento na notação de coordenadas.
+     * @return O movimento compactado, ou -1 se o texto não for um movimento entre duas casas do tabuleiro.
+     */
+    public static int parse(String text) {
+        if (text.length() != 4)
+            return -1;
+
+        int source = square(text.charAt(0), text.charAt(1));
+        int target = square(text.charAt(2), text.charAt(3));
+        return source < 0 || target < 0 ? -1 : of(source, target);
+    }
+
+    private static int square(char column, char row) {
+        if (column < 'a' || column > 'h' || row < '1' || row > '8')
+            return -1;
+        return ('8' - row) * 8 + (column - 'a');
+    }
+}
@@ -0,0 +1,21 @@
+package chess;
+
+/**
+ * Observador notificado a cada movimento aceito por uma {@link ChessMatch}.
+ * <p>
+ * A notificação acontece depois que o movimento foi validado e o estado da partida
+ * (xeque, xeque-mate e turno) já foi atualizado.
+ */
+@FunctionalInterface
+public interface MoveListener {
+
+    /**
+     * Chamado quando um movimento é aceito pela partida.
+     *
+     * @param match         A partida em que o movimento foi realizado.
+     * @param source        A posição de origem do movimento.
+     * @param target        A posição de destino do movimento.
+     * @param capturedPiece A peça capturada pelo movimento, ou null se não houve captura.
+     */
+    void onMoveAccepted(ChessMatch match, ChessPosition source, ChessPosition target, ChessPiece capturedPiece);
+}
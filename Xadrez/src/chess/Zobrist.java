@@ -0,0 +1,45 @@
+package chess;
+
+import boardgame.Piece;
+import boardgame.Position;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chaves de Zobrist usadas no hash de 64 bits das posições.
+ * <p>
+ * As chaves são geradas a partir de uma semente fixa, de modo que o hash de uma posição é o mesmo em
+ * qualquer execução e pode ser gravado em disco. O hash é o XOR das chaves de cada peça na sua casa,
+ * mais a chave do jogador da vez quando são as pretas que jogam.
+ */
+final class Zobrist {
+
+    private static final String SYMBOLS = "PNBRQK";
+    private static final long[] PIECE_SQUARE = new long[2 * 6 * 64];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5A0B_21_57L);
+        for (int i = 0; i < PIECE_SQUARE.length; i++) {
+            PIECE_SQUARE[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Obtém a chave de uma peça em uma posição do tabuleiro.
+     *
+     * @param piece    A peça.
+     * @param position A posição da peça.
+     * @return A chave da peça nessa posição.
+     */
+    static long key(Piece piece, Position position) {
+        ChessPiece chessPiece = (ChessPiece) piece;
+        int kind = SYMBOLS.indexOf(chessPiece.toString().charAt(0));
+        int color = chessPiece.getColor() == Color.WHITE ? 0 : 1;
+        return PIECE_SQUARE[(color * 6 + kind) * 64 + position.getRow() * 8 + position.getColumn()];
+    }
+}
@@ -17,45 +17,45 @@ public class Bishop extends ChessPiece {
     }
 
     /**
-     * Gera uma matriz de booleanos indicando os possíveis movimentos do bispo no tabuleiro.
+     * Visita os possíveis movimentos do bispo no tabuleiro.
      * O bispo pode mover-se em diagonais, tanto para cima quanto para baixo, desde que não haja
      * peças bloqueando o caminho, e ele pode capturar peças adversárias.
      *
-     * @return Matriz de booleanos representando os possíveis movimentos do bispo.
+     * @param visitor Recebe cada destino possível.
+     * @return false se o visitante encerrou a visita.
      */
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
+    public boolean forEachPossibleMove(MoveVisitor visitor) {
         Position p = new Position(0, 0);
 
         // Movimentos diagonais
-        addDiagonalMoves(mat, p, -1, -1); // diagonal superior esquerda
-        addDiagonalMoves(mat, p, -1, 1);  // diagonal superior direita
-        addDiagonalMoves(mat, p, 1, -1);  // diagonal inferior esquerda
-        addDiagonalMoves(mat, p, 1, 1);   // diagonal inferior direita
-
-        return mat;
+        return addDiagonalMoves(visitor, p, -1, -1) // diagonal superior esquerda
+                && addDiagonalMoves(visitor, p, -1, 1)  // diagonal superior direita
+                && addDiagonalMoves(visitor, p, 1, -1)  // diagonal inferior esquerda
+                && addDiagonalMoves(visitor, p, 1, 1);  // diagonal inferior direita
     }
 
     /**
-     * Adiciona movimentos diagonais à matriz de movimentos possíveis.
+     * Visita os movimentos em uma diagonal.
      *
-     * @param mat       A matriz de booleanos representando os possíveis movimentos.
+     * @param visitor   Recebe cada destino possível.
      * @param p         A posição a ser verificada.
      * @param rowChange A mudança na coordenada da linha (positiva para baixo, negativa para cima).
      * @param colChange A mudança na coordenada da coluna (positiva para a direita, negativa para a esquerda).
+     * @return false se o visitante encerrou a visita.
      */
-    private void addDiagonalMoves(boolean[][] mat, Position p, int rowChange, int colChange) {
+    private boolean addDiagonalMoves(MoveVisitor visitor, Position p, int rowChange, int colChange) {
         p.setValues(position.getRow() + rowChange, position.getColumn() + colChange);
 
         while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
+            if (!visitor.visit(p.getRow(), p.getColumn()))
+                return false;
             p.setValues(p.getRow() + rowChange, p.getColumn() + colChange);
         }
 
         if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
+            return visitor.visit(p.getRow(), p.getColumn());
         }
+        return true;
     }
 }
\ No newline at end of file
@@ -28,16 +28,15 @@ public class King extends ChessPiece {
     }
 
     /**
-     * Gera uma matriz de booleanos indicando os possíveis movimentos do rei no tabuleiro.
+     * Visita os possíveis movimentos do rei no tabuleiro.
      * O rei pode mover-se para qualquer posição adjacente (acima, abaixo, esquerda, direita
      * ou em qualquer diagonal) desde que não haja peças bloqueando o caminho.
      *
-     * @return Matriz de booleanos representando os possíveis movimentos do rei.
+     * @param visitor Recebe cada destino possível.
+     * @return false se o visitante encerrou a visita.
      */
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
+    public boolean forEachPossibleMove(MoveVisitor visitor) {
         Position p = new Position(0, 0);
 
         int[][] directions = {
@@ -56,9 +55,10 @@ public class King extends ChessPiece {
 
             // se a posição existe e pode mover
             if (getBoard().positionExists(p) && canMove(p)) {
-                mat[p.getRow()][p.getColumn()] = true;
+                if (!visitor.visit(p.getRow(), p.getColumn()))
+                    return false;
             }
         }
-        return mat;
+        return true;
     }
 }
\ No newline at end of file
@@ -17,16 +17,15 @@ public class Knight extends ChessPiece {
     }
 
     /**
-     * Gera uma matriz de booleanos indicando os possíveis movimentos do cavalo no tabuleiro de xadrez.
+     * Visita os possíveis movimentos do cavalo no tabuleiro de xadrez.
      * O cavalo pode realizar movimentos em "L", pulando sobre outras peças. Os movimentos são representados
      * por deslocamentos relativos, permitindo movimentos em diversas direções.
      *
-     * @return Matriz de booleanos representando os possíveis movimentos do cavalo.
+     * @param visitor Recebe cada destino possível.
+     * @return false se o visitante encerrou a visita.
      */
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
+    public boolean forEachPossibleMove(MoveVisitor visitor) {
         // Movimentos em L
         int[][] moves = {
                 {-1, -2}, {-2, -1}, // Movimento acima
@@ -42,11 +41,12 @@ public class Knight extends ChessPiece {
 
             // Verifica se a posição é válida e se o cavalo pode mover para lá
             if (getBoard().positionExists(p) && canMove(p)) {
-                mat[p.getRow()][p.getColumn()] = true;
+                if (!visitor.visit(p.getRow(), p.getColumn()))
+                    return false;
             }
         }
 
-        return mat;
+        return true;
     }
 
     /**
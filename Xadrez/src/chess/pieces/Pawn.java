@@ -17,68 +17,61 @@ public class Pawn extends ChessPiece {
     }
 
     /**
-     * Gera uma matriz de booleanos indicando os possíveis movimentos do peão no tabuleiro.
+     * Visita os possíveis movimentos do peão no tabuleiro.
      * O peão pode mover-se para frente, capturar peças na diagonal e realizar um movimento inicial duplo.
-     * A matriz gerada representa os possíveis destinos que o peão pode alcançar.
      *
-     * @return Matriz de booleanos representando os possíveis movimentos do peão.
+     * @param visitor Recebe cada destino possível.
+     * @return false se o visitante encerrou a visita.
      */
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
+    public boolean forEachPossibleMove(MoveVisitor visitor) {
         Position p = new Position(0, 0);
         
         if (getColor() == Color.WHITE) {
             // WHITE
-            addForwardMove(mat, p, -1); // Movimento para frente
-
-            if (getMoveCount() == 0)
-                addForwardMove(mat, p, -2); // Movimento inicial duplo
-
-            addCaptureMove(mat, p, -1, -1); // Captura na diagonal esquerda
-
-            addCaptureMove(mat, p, -1, 1);  // Captura na diagonal direita
+            return addForwardMove(visitor, p, -1) // Movimento para frente
+                    && (getMoveCount() != 0 || addForwardMove(visitor, p, -2)) // Movimento inicial duplo
+                    && addCaptureMove(visitor, p, -1, -1) // Captura na diagonal esquerda
+                    && addCaptureMove(visitor, p, -1, 1);  // Captura na diagonal direita
         } else {
             // BLACK
-            addForwardMove(mat, p, 1); // Movimento para frente
-
-            if (getMoveCount() == 0)
-                addForwardMove(mat, p, 2); // Movimento inicial duplo
-
-            addCaptureMove(mat, p, 1, -1); // Captura na diagonal esquerda
-            addCaptureMove(mat, p, 1, 1);  // Captura na diagonal direita
+            return addForwardMove(visitor, p, 1) // Movimento para frente
+                    && (getMoveCount() != 0 || addForwardMove(visitor, p, 2)) // Movimento inicial duplo
+                    && addCaptureMove(visitor, p, 1, -1) // Captura na diagonal esquerda
+                    && addCaptureMove(visitor, p, 1, 1);  // Captura na diagonal direita
         }
-
-        return mat;
     }
 
     /**
-     * Adiciona um movimento para frente à matriz de movimentos possíveis.
+     * Visita um movimento para frente.
      *
-     * @param mat       A matriz de booleanos representando os possíveis movimentos.
+     * @param visitor   Recebe o destino, se o movimento for possível.
      * @param p         A posição a ser verificada.
      * @param rowChange A mudança na coordenada da linha (positiva para baixo, negativa para cima).
+     * @return false se o visitante encerrou a visita.
      */
-    private void addForwardMove(boolean[][] mat, Position p, int rowChange) {
+    private boolean addForwardMove(MoveVisitor visitor, Position p, int rowChange) {
         p.setValues(position.getRow() + rowChange, position.getColumn());
         if (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
+            return visitor.visit(p.getRow(), p.getColumn());
         }
+        return true;
     }
 
     /**
-     * Adiciona um movimento de captura à matriz de movimentos possíveis.
+     * Visita um movimento de captura.
      *
-     * @param mat       A matriz de booleanos representando os possíveis movimentos.
+     * @param visitor   Recebe o destino, se o movimento for possível.
      * @param p         A posição a ser verificada.
      * @param rowChange A mudança na coordenada da linha (positiva para baixo, negativa para cima).
      * @param colChange A mudança na coordenada da coluna (positiva para a direita, negativa para a esquerda).
+     * @return false se o visitante encerrou a visita.
      */
-    private void addCaptureMove(boolean[][] mat, Position p, int rowChange, int colChange) {
+    private boolean addCaptureMove(MoveVisitor visitor, Position p, int rowChange, int colChange) {
         p.setValues(position.getRow() + rowChange, position.getColumn() + colChange);
         if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
+            return visitor.visit(p.getRow(), p.getColumn());
         }
+        return true;
     }
 }
\ No newline at end of file
@@ -16,42 +16,41 @@ public class Queen extends ChessPiece {
     }
 
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
+    public boolean forEachPossibleMove(MoveVisitor visitor) {
         Position p = new Position(0, 0);
 
-        moveInDirection(mat, p, -1, 0);  // vertical acima
-        moveInDirection(mat, p, 1, 0);   // vertical abaixo
-        moveInDirection(mat, p, 0, -1);  // horizontal à esquerda
-        moveInDirection(mat, p, 0, 1);   // horizontal à direita
-        moveInDirection(mat, p, -1, -1); // diagonal superior esquerda
-        moveInDirection(mat, p, -1, 1);  // diagonal superior direita
-        moveInDirection(mat, p, 1, -1);  // diagonal inferior esquerda
-        moveInDirection(mat, p, 1, 1);   // diagonal inferior direita
-
-        return mat;
+        return moveInDirection(visitor, p, -1, 0)     // vertical acima
+                && moveInDirection(visitor, p, 1, 0)   // vertical abaixo
+                && moveInDirection(visitor, p, 0, -1)  // horizontal à esquerda
+                && moveInDirection(visitor, p, 0, 1)   // horizontal à direita
+                && moveInDirection(visitor, p, -1, -1) // diagonal superior esquerda
+                && moveInDirection(visitor, p, -1, 1)  // diagonal superior direita
+                && moveInDirection(visitor, p, 1, -1)  // diagonal inferior esquerda
+                && moveInDirection(visitor, p, 1, 1);  // diagonal inferior direita
     }
 
     /**
      * Move na direção especificada até encontrar uma peça ou alcançar os limites do tabuleiro.
      *
-     * @param mat       A matriz de booleanos representando os possíveis movimentos.
+     * @param visitor   Recebe cada destino possível.
      * @param p         A posição inicial.
      * @param rowChange A mudança na coordenada da linha.
      * @param colChange A mudança na coordenada da coluna.
+     * @return false se o visitante encerrou a visita.
      */
-    private void moveInDirection(boolean[][] mat, Position p, int rowChange, int colChange) {
+    private boolean moveInDirection(MoveVisitor visitor, Position p, int rowChange, int colChange) {
         p.setValues(position.getRow() + rowChange, position.getColumn() + colChange);
 
         while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
+            if (!visitor.visit(p.getRow(), p.getColumn()))
+                return false;
             p.setValues(p.getRow() + rowChange, p.getColumn() + colChange);
         }
 
         if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-            mat[p.getRow()][p.getColumn()] = true;
+            return visitor.visit(p.getRow(), p.getColumn());
         }
+        return true;
     }
 
 }
@@ -17,16 +17,15 @@ public class Rook extends ChessPiece {
     }
 
     /**
-     * Gera uma matriz de booleanos indicando os possíveis movimentos da torre no tabuleiro.
+     * Visita os possíveis movimentos da torre no tabuleiro.
      * A torre pode mover-se verticalmente (acima e abaixo) e horizontalmente (esquerda e direita)
      * desde que não haja peças bloqueando o caminho, e ela pode capturar peças adversárias.
      *
-     * @return Matriz de booleanos representando os possíveis movimentos da torre.
+     * @param visitor Recebe cada destino possível.
+     * @return false se o visitante encerrou a visita.
      */
     @Override
-    public boolean[][] possibleMoves() {
-        boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
+    public boolean forEachPossibleMove(MoveVisitor visitor) {
         Position p = new Position(0, 0);
 
         int[][] directions = {
@@ -41,15 +40,17 @@ public class Rook extends ChessPiece {
 
             // enquanto a posição existir e não houver peça
             while (getBoard().positionExists(p) && !getBoard().thereIsAPiece(p)) {
-                mat[p.getRow()][p.getColumn()] = true;
+                if (!visitor.visit(p.getRow(), p.getColumn()))
+                    return false;
                 p.setValues(p.getRow() + direction[0], p.getColumn() + direction[1]);
             }
 
             // se a posição existe e há uma peça adversária
             if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-                mat[p.getRow()][p.getColumn()] = true;
+                if (!visitor.visit(p.getRow(), p.getColumn()))
+                    return false;
             }
         }
-        return mat;
+        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+package codec;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.pieces.King;
+import exception.ChessException;
+
+/**
+ * Importação e exportação de posições na notação FEN (Forsyth-Edwards Notation).
+ * <p>
+ * As regras implementadas por {@link ChessMatch} não incluem roque nem captura en passant, então esses campos
+ * são exportados como "-" e ignorados na importação.
+ */
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    private Fen() {
+    }
+
+    /**
+     * Cria uma partida a partir de uma posição em FEN.
+     *
+     * @param fen A posição em FEN; os campos após o jogador da vez são opcionais.
+     * @return Uma nova partida na posição informada.
+     * @throws ChessException Se a FEN for inválida, não tiver exatamente um Rei de cada cor ou deixar em xeque
+     *                        o jogador que não está na vez.
+     */
+    public static ChessMatch parse(String fen) {
+        return parse(fen, null);
+    }
+
+    /**
+     * Carrega uma posição em FEN em uma partida existente, reaproveitando o tabuleiro dela em vez de alocar outro.
+     *
+     * @param fen   A posição em FEN; os campos após o jogador da vez são opcionais.
+     * @param match A partida a ser reaproveitada, ou null para criar uma nova.
+     * @return A partida na posição informada.
+     * @throws ChessException Nos mesmos casos de {@link #parse(String)}; a partida informada fica então em uma
+     *                        posição incompleta e deve ser carregada de novo antes do uso.
+     */
+    public static ChessMatch parse(String fen, ChessMatch match) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2)
+            throw new ChessException("Invalid FEN: " + fen);
+
+        Color toMove = switch (fields[1]) {
+            case "w" -> Color.WHITE;
+            case "b" -> Color.BLACK;
+            default -> throw new ChessException("Invalid FEN side to move: " + fields[1]);
+        };
+
+        int halfmoveClock = 0;
+        if (fields.length >= 5) {
+            try {
+                halfmoveClock = Math.max(0, Integer.parseInt(fields[4]));
+            } catch (NumberFormatException e) {
+                throw new ChessException("Invalid FEN halfmove clock: " + fields[4]);
+            }
+        }
+
+        int fullMove = 1;
+        if (fields.length >= 6) {
+            try {
+                fullMove = Math.max(1, Integer.parseInt(fields[5]));
+            } catch (NumberFormatException e) {
+                throw new ChessException("Invalid FEN move number: " + fields[5]);
+            }
+        }
+
+        int turn = 2 * fullMove - (toMove == Color.WHITE ? 1 : 0);
+        if (match == null)
+            match = ChessMatch.withEmptyBoard(turn, toMove, false, false);
+        else
+            match.clear(turn, toMove);
+
+        String placement = fields[0];
+        int row = 8;
+        char column = 'a';
+        int whiteKings = 0;
+        int blackKings = 0;
+
+        for (int i = 0; i < placement.length(); i++) {
+            char c = placement.charAt(i);
+            if (c == '/') {
+                if (column != 'a' + 8)
+                    throw new ChessException("Invalid FEN rank " + row + ": " + placement);
+                row--;
+                column = 'a';
+            } else if (c >= '1' && c <= '8') {
+                column += (char) (c - '0');
+            } else {
+                if (column > 'h' || row < 1)
+                    throw new ChessException("Invalid FEN placement: " + placement);
+
+                Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+                match.setupPiece(column, row, c, color);
+                if (c == 'K') whiteKings++;
+                if (c == 'k') blackKings++;
+                column++;
+            }
+        }
+
+        if (row != 1 || column != 'a' + 8)
+            throw new ChessException("Invalid FEN placement: " + placement);
+        if (whiteKings != 1 || blackKings != 1)
+            throw new ChessException("Invalid FEN: each side must have exactly one king");
+        if (attacksKing(match, toMove))
+            throw new ChessException("Invalid FEN: the side not to move is in check");
+
+        match.setHalfmoveClock(halfmoveClock);
+        match.updateCheckState();
+        return match;
+    }
+
+    /**
+     * Verifica se alguma peça do jogador ataca o Rei adversário, o que tornaria a posição impossível
+     * com o jogador na vez.
+     */
+    private static boolean attacksKing(ChessMatch match, Color color) {
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = match.pieceAt(square);
+            if (piece == null || piece.getColor() != color)
+                continue;
+
+            boolean[][] mat = piece.possibleMoves();
+            for (int target = 0; target < 64; target++) {
+                ChessPiece victim = mat[target >> 3][target & 7] ? match.pieceAt(target) : null;
+                if (victim instanceof King)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Exporta a posição da partida em FEN.
+     *
+     * @param match A partida a ser exportada.
+     * @return A posição em FEN.
+     */
+    public static String format(ChessMatch match) {
+        StringBuilder sb = new StringBuilder(90);
+
+        for (int square = 0; square < 64; square++) {
+            if (square > 0 && (square & 7) == 0)
+                sb.append('/');
+
+            ChessPiece piece = match.pieceAt(square);
+            if (piece == null) {
+                int empty = 1;
+                while ((square & 7) < 7 && match.pieceAt(square + 1) == null) {
+                    empty++;
+                    square++;
+                }
+                sb.append(empty);
+            } else {
+                char symbol = piece.toString().charAt(0);
+                sb.append(piece.getColor() == Color.WHITE ? symbol : Character.toLowerCase(symbol));
+            }
+        }
+
+        // Em xeque-mate a partida mantém o vencedor como jogador da vez; quem deveria jogar é o perdedor
+        int ply = match.getTurn();
+        Color toMove = match.getCurrentPlayer();
+        if (match.getCheckMate()) {
+            ply++;
+            toMove = (toMove == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        }
+
+        sb.append(toMove == Color.WHITE ? " w" : " b");
+        sb.append(" - - ").append(match.getHalfmoveClock()).append(' ').append((ply + 1) / 2);
+        return sb.toString();
+    }
+}
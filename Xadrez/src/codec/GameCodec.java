@@ -0,0 +1,107 @@
+package codec;
+
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.Move;
+import exception.ChessException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codificação binária compacta de partidas, com um byte por movimento.
+ * <p>
+ * Cada movimento é gravado como o seu índice na lista de movimentos legais da posição em que foi jogado,
+ * gerada por {@link ChessMatch#legalMoves(int[])}. Como a ordem da lista depende apenas da posição, o
+ * decodificador obtém o mesmo movimento gerando a lista de novo. A partida gravada começa com a quantidade
+ * de movimentos em dois bytes.
+ * <p>
+ * O vetor de trabalho da lista de movimentos é fornecido por quem chama, para que codificar ou decodificar muitas
+ * partidas seguidas não aloque nada por partida.
+ */
+public final class GameCodec {
+
+    private GameCodec() {
+    }
+
+    /**
+     * Grava uma partida jogada a partir da posição inicial, na posição atual do buffer.
+     *
+     * @param moves Os movimentos da partida, no formato de {@link Move}.
+     * @param count A quantidade de movimentos.
+     * @param out   O buffer de destino; precisa de {@code count + 2} bytes livres.
+     * @throws ChessException Se algum movimento não for legal na posição em que foi jogado.
+     */
+    public static void encode(int[] moves, int count, ByteBuffer out) {
+        encode(new ChessMatch(), moves, count, out, new int[Move.MAX_MOVES]);
+    }
+
+    /**
+     * Grava uma partida jogada a partir da posição da partida informada, na posição atual do buffer.
+     * <p>
+     * Os movimentos são executados na partida informada durante a codificação, que passa a aceitar movimentos
+     * depois de um empate não reclamado ({@link ChessMatch#setDrawEndsMatch(boolean)}).
+     *
+     * @param match A partida na posição inicial dos movimentos.
+     * @param moves Os movimentos da partida, no formato de {@link Move}.
+     * @param count A quantidade de movimentos.
+     * @param out   O buffer de destino; precisa de {@code count + 2} bytes livres.
+     * @param legal Um vetor de trabalho com pelo menos {@link Move#MAX_MOVES} posições, que pode ser reaproveitado
+     *              entre chamadas.
+     * @throws ChessException Se algum movimento não for legal na posição em que foi jogado.
+     */
+    public static void encode(ChessMatch match, int[] moves, int count, ByteBuffer out, int[] legal) {
+        match.setDrawEndsMatch(false);
+        out.putShort((short) count);
+
+        for (int i = 0; i < count; i++) {
+            int n = match.legalMoves(legal);
+            int index = indexOf(legal, n, moves[i]);
+            if (index < 0)
+                throw new ChessException("Illegal move at ply " + (i + 1) + ": " + Move.toString(moves[i]));
+
+            out.put((byte) index);
+            play(match, moves[i]);
+        }
+    }
+
+    /**
+     * Lê uma partida a partir da posição atual do buffer, executando os movimentos na partida informada, que passa
+     * a aceitar movimentos depois de um empate não reclamado, como na codificação.
+     *
+     * @param in    O buffer de origem.
+     * @param match A partida na posição inicial dos movimentos, normalmente uma nova {@link ChessMatch}.
+     * @param moves O vetor que recebe os movimentos lidos, ou null se não forem necessários.
+     * @param legal Um vetor de trabalho com pelo menos {@link Move#MAX_MOVES} posições, que pode ser reaproveitado
+     *              entre chamadas.
+     * @return A quantidade de movimentos lidos.
+     * @throws ChessException Se algum índice não corresponder a um movimento legal.
+     */
+    public static int decode(ByteBuffer in, ChessMatch match, int[] moves, int[] legal) {
+        match.setDrawEndsMatch(false);
+        int count = Short.toUnsignedInt(in.getShort());
+
+        for (int i = 0; i < count; i++) {
+            int index = Byte.toUnsignedInt(in.get());
+            int n = match.legalMoves(legal);
+            if (index >= n)
+                throw new ChessException("Invalid move index at ply " + (i + 1) + ": " + index);
+
+            if (moves != null)
+                moves[i] = legal[index];
+            play(match, legal[index]);
+        }
+        return count;
+    }
+
+    private static int indexOf(int[] legal, int n, int move) {
+        for (int i = 0; i < n; i++) {
+            if (legal[i] == move)
+                return i;
+        }
+        return -1;
+    }
+
+    private static void play(ChessMatch match, int move) {
+        match.performChessMove(ChessPosition.fromSquare(Move.source(move)), ChessPosition.fromSquare(Move.target(move)));
+    }
+}
@@ -0,0 +1,105 @@
+package codec;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import exception.ChessException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codificação binária compacta de posições, com {@value #SIZE} bytes por posição.
+ * <p>
+ * As 64 casas ocupam 32 bytes, com meio byte (nibble) por casa, na ordem de {@link chess.ChessPosition#toSquare()}:
+ * 0 para casa vazia, 1 a 6 para peão, cavalo, bispo, torre, dama e rei brancos e os mesmos valores somados a 8
+ * para as peças pretas. Em seguida vêm um byte de estado (jogador da vez, xeque e xeque-mate), o turno e o contador
+ * de meio-lances da regra dos 50 lances, com dois bytes cada. As posições anteriores não são gravadas: como em uma
+ * posição lida de FEN, só as jogadas a partir da posição decodificada contam para a repetição.
+ * Os peões não precisam de flag de movimento: um peão fora da linha inicial já se moveu.
+ * <p>
+ * Codificação e decodificação operam diretamente sobre o {@link ByteBuffer}, sem vetores intermediários.
+ */
+public final class PositionCodec {
+
+    public static final int SIZE = 37;
+
+    private static final String SYMBOLS = ".PNBRQK";
+    private static final int BLACK = 8;
+
+    private static final int FLAG_WHITE_TO_MOVE = 1;
+    private static final int FLAG_CHECK = 2;
+    private static final int FLAG_CHECKMATE = 4;
+    private static final long[] NO_HISTORY = new long[0];
+
+    private PositionCodec() {
+    }
+
+    /**
+     * Grava a posição da partida na posição atual do buffer, avançando {@value #SIZE} bytes.
+     *
+     * @param match A partida a ser codificada.
+     * @param out   O buffer de destino.
+     */
+    public static void encode(ChessMatch match, ByteBuffer out) {
+        for (int square = 0; square < 64; square += 2) {
+            out.put((byte) (codeOf(match.pieceAt(square)) << 4 | codeOf(match.pieceAt(square + 1))));
+        }
+
+        int flags = 0;
+        if (match.getCurrentPlayer() == Color.WHITE) flags |= FLAG_WHITE_TO_MOVE;
+        if (match.getCheck()) flags |= FLAG_CHECK;
+        if (match.getCheckMate()) flags |= FLAG_CHECKMATE;
+
+        out.put((byte) flags);
+        out.putShort((short) match.getTurn());
+        out.putShort((short) Math.min(match.getHalfmoveClock(), 0xFFFF));
+    }
+
+    /**
+     * Lê uma posição a partir da posição atual do buffer, avançando {@value #SIZE} bytes.
+     *
+     * @param in O buffer de origem.
+     * @return Uma nova partida com a posição lida.
+     * @throws ChessException Se o buffer contiver um código de peça inválido.
+     */
+    public static ChessMatch decode(ByteBuffer in) {
+        int start = in.position();
+        int flags = in.get(start + 32);
+
+        ChessMatch match = ChessMatch.withEmptyBoard(
+                Short.toUnsignedInt(in.getShort(start + 33)),
+                (flags & FLAG_WHITE_TO_MOVE) != 0 ? Color.WHITE : Color.BLACK,
+                (flags & FLAG_CHECK) != 0,
+                (flags & FLAG_CHECKMATE) != 0);
+
+        for (int i = 0; i < 32; i++) {
+            int packed = in.get(start + i);
+            place(match, 2 * i, packed >> 4 & 15);
+            place(match, 2 * i + 1, packed & 15);
+        }
+        match.restoreHistory(Short.toUnsignedInt(in.getShort(start + 35)), NO_HISTORY);
+
+        in.position(start + SIZE);
+        return match;
+    }
+
+    private static int codeOf(ChessPiece piece) {
+        if (piece == null)
+            return 0;
+
+        int code = SYMBOLS.indexOf(piece.toString().charAt(0));
+        return piece.getColor() == Color.WHITE ? code : code | BLACK;
+    }
+
+    private static void place(ChessMatch match, int square, int code) {
+        if (code == 0)
+            return;
+
+        int index = code & 7;
+        if (index == 0 || index >= SYMBOLS.length())
+            throw new ChessException("Invalid piece code in encoded position: " + code);
+
+        match.setupPiece((char) ('a' + (square & 7)), 8 - (square >> 3), SYMBOLS.charAt(index),
+                (code & BLACK) != 0 ? Color.BLACK : Color.WHITE);
+    }
+}
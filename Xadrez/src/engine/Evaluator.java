@@ -0,0 +1,50 @@
+package engine;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+
+/**
+ * Avaliação estática de uma posição, usada nas folhas da busca.
+ * <p>
+ * Avaliadores incrementais acompanham os lances da busca pelos métodos {@link #reset}, {@link #moveMade} e
+ * {@link #moveUndone}, chamados por {@link Search}; os demais podem ignorá-los.
+ */
+@FunctionalInterface
+public interface Evaluator {
+
+    /**
+     * Avalia a posição do ponto de vista do jogador da vez.
+     *
+     * @param match A partida na posição a ser avaliada.
+     * @return A avaliação em centésimos de Peão; positiva se a posição favorece o jogador da vez.
+     */
+    int evaluate(ChessMatch match);
+
+    /**
+     * Chamado no início de cada busca, com a partida na posição da raiz.
+     *
+     * @param match A partida.
+     */
+    default void reset(ChessMatch match) {
+    }
+
+    /**
+     * Chamado logo depois de {@link ChessMatch#makeMove(int)}.
+     *
+     * @param match    A partida, já com o lance executado.
+     * @param move     O lance, no formato de {@link chess.Move}.
+     * @param captured A peça capturada, ou null.
+     */
+    default void moveMade(ChessMatch match, int move, ChessPiece captured) {
+    }
+
+    /**
+     * Chamado logo depois de {@link ChessMatch#undoMove(int, ChessPiece)}.
+     *
+     * @param match    A partida, já com o lance desfeito.
+     * @param move     O lance, no formato de {@link chess.Move}.
+     * @param captured A peça capturada pelo lance, ou null.
+     */
+    default void moveUndone(ChessMatch match, int move, ChessPiece captured) {
+    }
+}
@@ -0,0 +1,117 @@
+package engine;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+
+/**
+ * Avaliação por material e tabelas de peça por casa.
+ * <p>
+ * As tabelas estão do ponto de vista das brancas, na ordem de casas de {@link chess.ChessPosition#toSquare()}
+ * (a8 = 0); para as pretas a casa é espelhada verticalmente.
+ */
+public class MaterialEvaluator implements Evaluator {
+
+    static final String PIECES = "PNBRQK";
+    static final int[] VALUES = {100, 320, 330, 500, 900, 0};
+
+    static final int[][] TABLES = {
+            { // Peão
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0},
+            { // Cavalo
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50},
+            { // Bispo
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20},
+            { // Torre
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0},
+            { // Dama
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20},
+            { // Rei
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20}
+    };
+
+    private final int tableWeight;
+
+    public MaterialEvaluator() {
+        this(100);
+    }
+
+    /**
+     * Cria o avaliador com um peso para as tabelas de peça por casa, para comparar variações em torneios.
+     *
+     * @param tableWeight O peso das tabelas em porcentagem; 100 as usa como estão e 0 avalia só o material.
+     */
+    public MaterialEvaluator(int tableWeight) {
+        this.tableWeight = tableWeight;
+    }
+
+    @Override
+    public int evaluate(ChessMatch match) {
+        int weight = tableWeight;
+        int score = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = match.pieceAt(square);
+            if (piece == null)
+                continue;
+
+            int type = PIECES.indexOf(piece.toString().charAt(0));
+            if (piece.getColor() == Color.WHITE)
+                score += VALUES[type] + TABLES[type][square] * weight / 100;
+            else
+                score -= VALUES[type] + TABLES[type][square ^ 56] * weight / 100;
+        }
+        return match.getCurrentPlayer() == Color.WHITE ? score : -score;
+    }
+
+    /**
+     * Obtém o valor material de uma peça, usado na ordenação de capturas.
+     *
+     * @param piece A peça.
+     * @return O valor da peça em centésimos de Peão.
+     */
+    static int value(ChessPiece piece) {
+        return VALUES[PIECES.indexOf(piece.toString().charAt(0))];
+    }
+}
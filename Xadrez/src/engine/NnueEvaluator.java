@@ -0,0 +1,125 @@
+package engine;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.Move;
+
+import java.util.Arrays;
+
+/**
+ * Avaliação por uma rede {@link NnueNetwork}, com a primeira camada atualizada de forma incremental.
+ * <p>
+ * Os acumuladores ficam em uma pilha com um nível por lance da busca: {@link #moveMade} preenche o nível seguinte
+ * a partir do atual somando a coluna da peça no destino e subtraindo a da origem e a da peça capturada, sem
+ * percorrer o tabuleiro, e {@link #moveUndone} apenas volta um nível. O tabuleiro inteiro só é percorrido em
+ * {@link #reset}, no início de cada busca.
+ * <p>
+ * As contas são feitas pela Vector API quando disponível, ou pelo caminho escalar; veja {@link NnueKernels}.
+ * Uma instância guarda o estado de uma busca e não deve ser compartilhada entre threads; a rede pode.
+ */
+public class NnueEvaluator implements Evaluator {
+
+    private final NnueNetwork network;
+    private final NnueKernels kernels;
+
+    // Acumuladores das perspectivas das brancas e das pretas em cada nível da pilha
+    private short[][] white;
+    private short[][] black;
+    private int top;
+    private ChessMatch match;
+
+    public NnueEvaluator(NnueNetwork network) {
+        this(network, NnueKernels.create());
+    }
+
+    NnueEvaluator(NnueNetwork network, NnueKernels kernels) {
+        this.network = network;
+        this.kernels = kernels;
+        this.white = new short[SearchLimits.MAX_DEPTH * 2][network.hidden];
+        this.black = new short[SearchLimits.MAX_DEPTH * 2][network.hidden];
+    }
+
+    /**
+     * Cria um avaliador que usa sempre o caminho escalar, para comparação.
+     *
+     * @param network A rede.
+     * @return O avaliador.
+     */
+    public static NnueEvaluator scalar(NnueNetwork network) {
+        return new NnueEvaluator(network, new ScalarKernels());
+    }
+
+    /**
+     * Obtém o nome da implementação em uso: {@code scalar} ou {@code vector}, com o tamanho do vetor.
+     *
+     * @return O nome da implementação.
+     */
+    public String getImplementation() {
+        return kernels.name();
+    }
+
+    @Override
+    public int evaluate(ChessMatch match) {
+        if (match != this.match)
+            reset(match);
+
+        boolean whiteToMove = match.getCurrentPlayer() == Color.WHITE;
+        short[] us = whiteToMove ? white[top] : black[top];
+        short[] them = whiteToMove ? black[top] : white[top];
+        int dot = kernels.forward(us, them, network.outputWeights);
+        return (dot + network.outputBias) * network.outputScale >> NnueNetwork.OUTPUT_SHIFT;
+    }
+
+    @Override
+    public void reset(ChessMatch match) {
+        this.match = match;
+        top = 0;
+        refresh(white[0], Color.WHITE);
+        refresh(black[0], Color.BLACK);
+    }
+
+    @Override
+    public void moveMade(ChessMatch match, int move, ChessPiece captured) {
+        if (top + 1 == white.length) {
+            white = grow(white);
+            black = grow(black);
+        }
+
+        int source = Move.source(move);
+        int target = Move.target(move);
+        ChessPiece piece = match.pieceAt(target);
+        update(white, source, target, piece, captured, Color.WHITE);
+        update(black, source, target, piece, captured, Color.BLACK);
+        top++;
+    }
+
+    @Override
+    public void moveUndone(ChessMatch match, int move, ChessPiece captured) {
+        top--;
+    }
+
+    private void update(short[][] stack, int source, int target, ChessPiece piece, ChessPiece captured, Color perspective) {
+        kernels.update(stack[top], stack[top + 1], network.featureWeights,
+                network.offset(piece, target, perspective),
+                network.offset(piece, source, perspective),
+                captured == null ? -1 : network.offset(captured, target, perspective));
+    }
+
+    private void refresh(short[] accumulator, Color perspective) {
+        System.arraycopy(network.featureBias, 0, accumulator, 0, accumulator.length);
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = match.pieceAt(square);
+            if (piece != null)
+                kernels.add(accumulator, network.featureWeights, network.offset(piece, square, perspective));
+        }
+    }
+
+    private short[][] grow(short[][] stack) {
+        short[][] larger = Arrays.copyOf(stack, stack.length * 2);
+        for (int i = stack.length; i < larger.length; i++) {
+            larger[i] = new short[network.hidden];
+        }
+        return larger;
+    }
+}
@@ -0,0 +1,54 @@
+package engine;
+
+/**
+ * Operações vetoriais da rede NNUE, com uma implementação escalar e outra com a Vector API.
+ * <p>
+ * A implementação com a Vector API só é usada se o módulo {@code jdk.incubator.vector} estiver carregado
+ * ({@code --add-modules jdk.incubator.vector}) e a propriedade {@code -Dxadrez.nnue.scalar=true} não tiver sido
+ * informada. A classe que usa o módulo é carregada por reflexão, de modo que sem ele nada do módulo é referenciado.
+ */
+interface NnueKernels {
+
+    /**
+     * Copia um acumulador somando uma coluna de pesos e subtraindo uma ou duas.
+     *
+     * @param source  O acumulador da posição anterior.
+     * @param target  O acumulador a ser preenchido.
+     * @param weights Os pesos da primeira camada.
+     * @param add     O início da coluna a somar.
+     * @param remove  O início da coluna a subtrair.
+     * @param capture O início da segunda coluna a subtrair, ou -1.
+     */
+    void update(short[] source, short[] target, short[] weights, int add, int remove, int capture);
+
+    /**
+     * Soma uma coluna de pesos ao acumulador.
+     */
+    void add(short[] accumulator, short[] weights, int offset);
+
+    /**
+     * Calcula o produto escalar da ReLU limitada dos dois acumuladores com os pesos da saída.
+     *
+     * @param us      O acumulador do jogador da vez.
+     * @param them    O acumulador do adversário.
+     * @param weights Os pesos da saída: os do jogador da vez seguidos dos do adversário.
+     * @return O produto escalar, em {@code int32}.
+     */
+    int forward(short[] us, short[] them, short[] weights);
+
+    String name();
+
+    /**
+     * Escolhe a implementação: a da Vector API, se disponível, ou a escalar.
+     */
+    static NnueKernels create() {
+        if (!Boolean.getBoolean("xadrez.nnue.scalar") && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (NnueKernels) Class.forName("engine.VectorKernels").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Sem suporte à Vector API a avaliação continua pelo caminho escalar
+            }
+        }
+        return new ScalarKernels();
+    }
+}
@@ -0,0 +1,169 @@
+package engine;
+
+import chess.ChessPiece;
+import chess.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Pesos quantizados de uma rede neural no estilo NNUE, com a arquitetura 768 → 2×N → 1.
+ * <p>
+ * A entrada tem um atributo por peça, cor e casa (6 × 2 × 64), visto de cada um dos dois lados: na perspectiva
+ * das pretas o tabuleiro é espelhado verticalmente e as cores trocadas, de modo que "peças próprias" e "peças
+ * adversárias" têm o mesmo significado para os dois jogadores. A primeira camada soma as colunas de pesos dos
+ * atributos ativos em um acumulador de N valores {@code int16} por perspectiva; a saída aplica a ReLU limitada
+ * a [0, {@value #ACTIVATION_MAX}] aos dois acumuladores, o do jogador da vez primeiro, e faz o produto escalar com
+ * pesos {@code int8}, somado em {@code int32}.
+ * <p>
+ * Formato do arquivo, em big-endian: cabeçalho com a marca {@code "XNNU"}, a versão, N, o viés e a escala da
+ * saída ({@code int32} cada); depois o viés da primeira camada (N × {@code int16}), os pesos da primeira camada
+ * (768 × N × {@code int16}, um atributo após o outro) e os pesos da saída (2N × {@code int8}).
+ */
+public final class NnueNetwork {
+
+    public static final int FEATURES = 768;
+    public static final int ACTIVATION_MAX = 127;
+    // A avaliação é (produto escalar + viés) × escala / 2^OUTPUT_SHIFT
+    public static final int OUTPUT_SHIFT = 6;
+
+    static final int MAGIC = 0x584E4E55; // "XNNU"
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+
+    final int hidden;
+    final short[] featureBias;
+    final short[] featureWeights;
+    // Guardados como int16 para a multiplicação, mas sempre na faixa de um int8
+    final short[] outputWeights;
+    final int outputBias;
+    final int outputScale;
+
+    private NnueNetwork(int hidden, short[] featureBias, short[] featureWeights, short[] outputWeights,
+                        int outputBias, int outputScale) {
+        // VectorKernels.forward multiplica a ativação (até ACTIVATION_MAX) pelo peso em int16: só não estoura com int8
+        for (short weight : outputWeights) {
+            if (weight < Byte.MIN_VALUE || weight > Byte.MAX_VALUE)
+                throw new IllegalArgumentException("Output weight out of int8 range: " + weight);
+        }
+        this.hidden = hidden;
+        this.featureBias = featureBias;
+        this.featureWeights = featureWeights;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+        this.outputScale = outputScale;
+    }
+
+    /**
+     * Carrega uma rede de um arquivo.
+     *
+     * @param file O arquivo de pesos.
+     * @return A rede carregada.
+     * @throws IOException Se o arquivo não puder ser lido ou não for um arquivo de pesos válido, inclusive com
+     *                     pesos da saída fora da faixa de um {@code int8}.
+     */
+    public static NnueNetwork load(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC || data.getInt() != VERSION)
+            throw new IOException("Not a network file: " + file);
+
+        int hidden = data.getInt();
+        int outputBias = data.getInt();
+        int outputScale = data.getInt();
+        if (hidden <= 0 || hidden % 32 != 0 || data.remaining() != (long) (FEATURES + 1) * hidden * 2 + 2L * hidden)
+            throw new IOException("Invalid network size in " + file);
+
+        short[] featureBias = new short[hidden];
+        short[] featureWeights = new short[FEATURES * hidden];
+        short[] outputWeights = new short[2 * hidden];
+        data.asShortBuffer().get(featureBias).get(featureWeights);
+        data.position(data.position() + (FEATURES + 1) * hidden * 2);
+        for (int i = 0; i < outputWeights.length; i++) {
+            outputWeights[i] = data.get();
+        }
+        try {
+            return new NnueNetwork(hidden, featureBias, featureWeights, outputWeights, outputBias, outputScale);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid network weights in " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Grava a rede em um arquivo no formato lido por {@link #load(Path)}.
+     *
+     * @param file O arquivo de destino.
+     * @throws IOException Se o arquivo não puder ser gravado.
+     */
+    public void save(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(HEADER_SIZE + (FEATURES + 1) * hidden * 2 + 2 * hidden);
+        data.putInt(MAGIC).putInt(VERSION).putInt(hidden).putInt(outputBias).putInt(outputScale);
+        data.asShortBuffer().put(featureBias).put(featureWeights);
+        data.position(data.position() + (FEATURES + 1) * hidden * 2);
+        for (short weight : outputWeights) {
+            data.put((byte) weight);
+        }
+        Files.write(file, data.array());
+    }
+
+    /**
+     * Monta uma rede que reproduz {@link MaterialEvaluator}, útil como ponto de partida do treino e para testar
+     * o caminho da rede contra a avaliação conhecida.
+     * <p>
+     * Todos os neurônios de uma perspectiva recebem o material e as tabelas das peças próprias, cada um com um viés
+     * {@value #ACTIVATION_MAX} menor que o anterior. Como a soma de rampas limitadas e deslocadas reconstrói o valor
+     * original, a saída, com peso +1 para o jogador da vez e -1 para o adversário, é a diferença de material e tabelas.
+     *
+     * @param hidden O tamanho de cada acumulador, múltiplo de 32; 64 já cobre o material inicial.
+     * @return A rede.
+     */
+    public static NnueNetwork fromMaterial(int hidden) {
+        if (hidden <= 0 || hidden % 32 != 0)
+            throw new IllegalArgumentException("hidden must be a positive multiple of 32");
+
+        // Margem para que o material próprio mais as tabelas, que podem ser negativas, não fique abaixo de zero
+        int offset = 100;
+        short[] featureBias = new short[hidden];
+        for (int k = 0; k < hidden; k++) {
+            featureBias[k] = (short) Math.max(Short.MIN_VALUE / 2, offset - k * ACTIVATION_MAX);
+        }
+
+        short[] featureWeights = new short[FEATURES * hidden];
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                int value = MaterialEvaluator.VALUES[type] + MaterialEvaluator.TABLES[type][square];
+                int feature = type * 64 + square;
+                for (int k = 0; k < hidden; k++) {
+                    featureWeights[feature * hidden + k] = (short) value;
+                }
+            }
+        }
+
+        short[] outputWeights = new short[2 * hidden];
+        for (int k = 0; k < hidden; k++) {
+            outputWeights[k] = 1;
+            outputWeights[hidden + k] = -1;
+        }
+        return new NnueNetwork(hidden, featureBias, featureWeights, outputWeights, 0, 1 << OUTPUT_SHIFT);
+    }
+
+    public int getHidden() {
+        return hidden;
+    }
+
+    /**
+     * Calcula a posição, em {@link #featureWeights}, da coluna de pesos de uma peça em uma casa.
+     *
+     * @param piece       A peça.
+     * @param square      A casa, no formato de {@link chess.ChessPosition#toSquare()}.
+     * @param perspective O lado de cuja perspectiva o atributo é visto.
+     * @return O índice do primeiro peso do atributo.
+     */
+    int offset(ChessPiece piece, int square, Color perspective) {
+        int type = MaterialEvaluator.PIECES.indexOf(piece.toString().charAt(0));
+        boolean own = piece.getColor() == perspective;
+        int relative = perspective == Color.WHITE ? square : square ^ 56;
+        return ((own ? 0 : 6) + type) * 64 * hidden + relative * hidden;
+    }
+}
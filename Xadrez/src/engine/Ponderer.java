@@ -0,0 +1,174 @@
+package engine;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.Move;
+import codec.Fen;
+
+/**
+ * Busca no tempo do adversário (ponder) para partidas interativas.
+ * <p>
+ * Depois do lance do motor, {@link #startPondering} joga em uma cópia da partida a resposta esperada do adversário,
+ * tirada da variante principal ou da tabela de transposição, e busca a posição resultante em uma thread virtual
+ * enquanto o adversário pensa. Quando o lance do adversário chega, {@link #respond}:
+ * <ul>
+ *     <li>se o palpite acertou, converte a busca em andamento em uma busca normal, descontando o tempo já gasto,
+ *     e em geral responde na hora com uma busca mais profunda que a de uma busca nova;</li>
+ *     <li>se errou, interrompe a busca especulativa e faz uma busca nova, que ainda aproveita as posições gravadas
+ *     na tabela de transposição compartilhada.</li>
+ * </ul>
+ * Sem palpite não há o que buscar: o ponder não começa, e o lance seguinte não conta como acerto nem como erro.
+ * <p>
+ * A busca especulativa trabalha sobre uma cópia, com o histórico de repetições da partida, de modo que a partida
+ * real pode ser alterada durante o ponder e que a busca enxerga os empates por repetição como a busca normal.
+ * Os métodos devem ser chamados de uma única thread, a do jogo.
+ */
+public class Ponderer implements AutoCloseable {
+
+    private final Search search;
+
+    private int expectedReply = -1;
+
+    // Busca especulativa em andamento
+    private Thread ponderThread;
+    private int predictedMove;
+    private long ponderStart;
+    private volatile SearchInfo ponderResult;
+
+    private int hits;
+    private int misses;
+
+    public Ponderer(Evaluator evaluator, TranspositionTable table) {
+        this.search = new Search(evaluator, table);
+    }
+
+    /**
+     * Busca o lance do jogador da vez, aproveitando a busca feita no tempo do adversário se ela estiver em andamento.
+     *
+     * @param match    A partida, já com o último lance do adversário.
+     * @param lastMove O último lance do adversário, no formato de {@link Move}, ou -1 se não houver.
+     * @param limits   Os limites da busca.
+     * @return O melhor lance, ou -1 se não houver lance legal.
+     */
+    public int respond(ChessMatch match, int lastMove, SearchLimits limits) {
+        SearchInfo result = null;
+        if (ponderThread != null) {
+            boolean hit = predictedMove == lastMove;
+            if (hit) {
+                hits++;
+                search.ponderHit(System.nanoTime() - ponderStart);
+            } else {
+                misses++;
+                search.stop();
+            }
+            join();
+            if (hit)
+                result = ponderResult;
+        }
+
+        if (result == null || result.pv().length == 0)
+            result = search.search(match, limits, null);
+
+        int[] pv = result.pv();
+        expectedReply = pv.length > 1 ? pv[1] : -1;
+        return pv.length > 0 ? pv[0] : -1;
+    }
+
+    /**
+     * Começa a buscar no tempo do adversário. Não faz nada se já houver uma busca especulativa em andamento ou se
+     * não houver palpite para a resposta do adversário.
+     *
+     * @param match  A partida, com o adversário da vez; não é alterada.
+     * @param limits Os limites que serão usados no próximo lance do motor; o tempo do lance começa a contar
+     *               no acerto do palpite.
+     */
+    public void startPondering(ChessMatch match, SearchLimits limits) {
+        if (ponderThread != null)
+            return;
+
+        ChessMatch copy = copyOf(match);
+        predictedMove = predictReply(copy);
+        if (predictedMove < 0)
+            return;
+        copy.makeMove(predictedMove);
+
+        Color side = copy.getCurrentPlayer();
+        SearchLimits ponderLimits = limits.asPonder();
+        ponderResult = null;
+        ponderStart = System.nanoTime();
+        // Preparada aqui para que um stop logo em seguida não se perca
+        search.prepare(ponderLimits, side);
+        ponderThread = Thread.ofVirtual().name("ponder").start(() -> ponderResult = search.search(copy, ponderLimits, null));
+    }
+
+    public boolean isPondering() {
+        return ponderThread != null;
+    }
+
+    /**
+     * Interrompe a busca especulativa, se houver, e espera a thread terminar.
+     */
+    public void stop() {
+        if (ponderThread != null) {
+            search.stop();
+            join();
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Copia a partida pela FEN, que não guarda as posições anteriores, e restaura nela o histórico de repetições.
+     */
+    private static ChessMatch copyOf(ChessMatch match) {
+        ChessMatch copy = Fen.parse(Fen.format(match));
+        copy.restoreHistory(match.getHalfmoveClock(), match.getRepetitionHistory());
+        return copy;
+    }
+
+    /**
+     * Escolhe a resposta esperada do adversário: a da variante principal do último lance do motor, se for legal,
+     * ou o lance gravado na tabela de transposição.
+     */
+    private int predictReply(ChessMatch match) {
+        int[] legal = new int[Move.MAX_MOVES];
+        int count = match.legalMoves(legal);
+        long entry = search.getTable().probe(match.getPositionHash());
+        int tableMove = entry != 0 ? TranspositionTable.move(entry) : -1;
+
+        int predicted = -1;
+        for (int i = 0; i < count; i++) {
+            if (legal[i] == expectedReply)
+                return expectedReply;
+            if (legal[i] == tableMove)
+                predicted = tableMove;
+        }
+        return predicted;
+    }
+
+    private void join() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                ponderThread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        ponderThread = null;
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+}
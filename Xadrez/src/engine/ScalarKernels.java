@@ -0,0 +1,47 @@
+package engine;
+
+/**
+ * Implementação escalar de {@link NnueKernels}, usada quando a Vector API não está disponível.
+ */
+final class ScalarKernels implements NnueKernels {
+
+    @Override
+    public void update(short[] source, short[] target, short[] weights, int add, int remove, int capture) {
+        int n = target.length;
+        if (capture < 0) {
+            for (int i = 0; i < n; i++) {
+                target[i] = (short) (source[i] + weights[add + i] - weights[remove + i]);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                target[i] = (short) (source[i] + weights[add + i] - weights[remove + i] - weights[capture + i]);
+            }
+        }
+    }
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset) {
+        for (int i = 0; i < accumulator.length; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public int forward(short[] us, short[] them, short[] weights) {
+        int n = us.length;
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += clamp(us[i]) * weights[i] + clamp(them[i]) * weights[n + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    private static int clamp(short value) {
+        return Math.min(Math.max(value, 0), NnueNetwork.ACTIVATION_MAX);
+    }
+}
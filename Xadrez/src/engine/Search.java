@@ -0,0 +1,360 @@
+package engine;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.Move;
+import chess.pieces.King;
+
+import java.util.function.Consumer;
+
+/**
+ * Busca alfa-beta com aprofundamento iterativo, tabela de transposição e busca de quiescência.
+ * <p>
+ * A busca é feita sobre a própria {@link ChessMatch}, com {@link ChessMatch#makeMove(int)} e
+ * {@link ChessMatch#undoMove(int, ChessPiece)}; ao terminar, a partida volta à posição inicial. Os pedidos de
+ * parada e o prazo são verificados a cada nó, de modo que {@link #stop()}, chamado de outra thread, encerra a
+ * busca no tempo de um nó. Uma instância executa uma busca por vez.
+ */
+public class Search {
+
+    public static final int MATE = 100_000;
+    private static final int INFINITY = MATE + 1;
+    private static final int MAX_PLY = SearchLimits.MAX_DEPTH + 32;
+    private static final int MAX_QUIESCENCE_PLY = 8;
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+
+    private volatile boolean stopRequested;
+    private volatile long deadline;
+    private volatile long budgetNanos;
+    private volatile boolean prepared;
+    private volatile long startNanos;
+
+    private ChessMatch match;
+    private long nodeLimit;
+    private long nodes;
+    private boolean aborted;
+
+    private final int[][] moves = new int[MAX_PLY][Move.MAX_MOVES];
+    private final int[][] orderScores = new int[MAX_PLY][Move.MAX_MOVES];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    public Search(Evaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Pede que a busca em andamento termine o quanto antes. Pode ser chamado de qualquer thread.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Converte uma busca no tempo do adversário em uma busca normal: o tempo do lance passa a contar a partir de agora.
+     * Pode ser chamado de qualquer thread.
+     */
+    public void ponderHit() {
+        ponderHit(0);
+    }
+
+    /**
+     * Como {@link #ponderHit()}, mas descontando do tempo do lance o tempo já gasto no tempo do adversário.
+     * Se o adversário demorou mais que o tempo do lance, a busca termina no próximo nó com a última iteração concluída.
+     *
+     * @param spentNanos O tempo a descontar, em nanossegundos.
+     */
+    public void ponderHit(long spentNanos) {
+        long budget = budgetNanos;
+        deadline = budget > 0 ? System.nanoTime() + Math.max(0, budget - spentNanos) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Prepara a próxima busca: descarta pedidos de parada anteriores e começa a contar o tempo.
+     * <p>
+     * Quem controla a busca a partir de outra thread deve chamar este método antes de iniciar a thread da busca,
+     * para que um {@link #stop()} ou {@link #ponderHit()} recebido logo em seguida não se perca.
+     * Se não for chamado, {@link #search} o chama.
+     *
+     * @param limits Os limites da busca.
+     * @param side   O jogador da vez, cujo relógio define o tempo do lance.
+     */
+    public void prepare(SearchLimits limits, Color side) {
+        stopRequested = false;
+        startNanos = System.nanoTime();
+        long budget = limits.timeBudget(side) * 1_000_000;
+        budgetNanos = budget;
+        deadline = (limits.infinite() || limits.ponder() || budget == 0) ? Long.MAX_VALUE : startNanos + budget;
+        prepared = true;
+    }
+
+    /**
+     * Busca o melhor lance do jogador da vez.
+     *
+     * @param match    A partida; é alterada durante a busca e devolvida à posição original ao final.
+     * @param limits   Os limites da busca.
+     * @param listener Recebe o progresso ao fim de cada iteração, ou null.
+     * @return O resultado da última iteração concluída; a variante principal fica vazia se não houver lance legal.
+     */
+    public SearchInfo search(ChessMatch match, SearchLimits limits, Consumer<SearchInfo> listener) {
+        if (!prepared)
+            prepare(limits, match.getCurrentPlayer());
+        prepared = false;
+
+        this.match = match;
+        this.nodeLimit = limits.nodes();
+        this.nodes = 0;
+        this.aborted = false;
+        long startNanos = this.startNanos;
+
+        evaluator.reset(match);
+        if (match.legalMoves(moves[0]) == 0) {
+            int score = match.isInCheck(match.getCurrentPlayer()) ? -MATE : 0;
+            return new SearchInfo(0, score, 0, System.nanoTime() - startNanos, new int[0]);
+        }
+
+        SearchInfo best = new SearchInfo(0, 0, 0, 0, new int[]{moves[0][0]});
+        for (int depth = 1; depth <= limits.maxDepth() && !aborted; depth++) {
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (aborted && depth > 1)
+                break;
+
+            int[] line = new int[pvLength[0]];
+            System.arraycopy(pv[0], 0, line, 0, line.length);
+            if (line.length == 0)
+                break;
+            best = new SearchInfo(depth, score, nodes, System.nanoTime() - startNanos, line);
+            if (listener != null)
+                listener.accept(best);
+
+            // Um mate encontrado não melhora com mais profundidade
+            if (best.isMate() && !limits.infinite() && !limits.ponder())
+                break;
+            // Sem tempo para concluir outra iteração, que custa várias vezes a anterior
+            long limit = deadline;
+            if (limit != Long.MAX_VALUE && System.nanoTime() - startNanos > (limit - startNanos) / 2)
+                break;
+        }
+        return best;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        if (shouldStop())
+            return 0;
+        nodes++;
+
+        // Dentro da busca uma única repetição já vale empate: se a linha era boa, o adversário pode repeti-la de novo
+        if (ply > 0 && (match.getHalfmoveClock() >= 100 || match.isRepetition(2)))
+            return 0;
+
+        long hash = match.getPositionHash();
+        long entry = table.probe(hash);
+        int ttMove = -1;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha))
+                    return score;
+            }
+        }
+
+        if (depth <= 0 || ply >= MAX_PLY - MAX_QUIESCENCE_PLY - 1)
+            return quiescence(alpha, beta, ply, 0);
+
+        Color side = match.getCurrentPlayer();
+        int[] list = moves[ply];
+        int count = generate(list, ply, false);
+        if (ttMove >= 0) {
+            for (int i = 0; i < count; i++) {
+                if (list[i] == ttMove)
+                    orderScores[ply][i] = 1_000_000;
+            }
+        }
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = -1;
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            // A legalidade é testada lance a lance, com a parada verificada entre eles
+            if (shouldStop())
+                return 0;
+            pickNext(list, count, ply, i);
+            int move = list[i];
+            ChessPiece captured = makeMove(move);
+            if (match.isInCheck(side)) {
+                undoMove(move, captured);
+                continue;
+            }
+            legal++;
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            undoMove(move, captured);
+            if (aborted)
+                return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta)
+                        break;
+                }
+            }
+        }
+
+        if (legal == 0)
+            return match.isInCheck(side) ? -MATE + ply : 0;
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(hash, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Busca apenas capturas até a posição ficar quieta, para não avaliar no meio de uma troca.
+     * <p>
+     * As capturas são pseudolegais: se o lado da vez puder capturar o Rei adversário, o lance anterior era ilegal
+     * e a posição recebe a pontuação de mate, o que faz o lance ser descartado.
+     */
+    private int quiescence(int alpha, int beta, int ply, int qply) {
+        pvLength[ply] = 0;
+        if (shouldStop())
+            return 0;
+        nodes++;
+
+        int standPat = evaluator.evaluate(match);
+        if (standPat >= beta || qply >= MAX_QUIESCENCE_PLY)
+            return standPat;
+        if (standPat > alpha)
+            alpha = standPat;
+
+        int[] list = moves[ply];
+        int count = generate(list, ply, true);
+        if (count < 0)
+            return MATE - ply;
+
+        for (int i = 0; i < count; i++) {
+            pickNext(list, count, ply, i);
+            int move = list[i];
+            ChessPiece captured = makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1, qply + 1);
+            undoMove(move, captured);
+            if (aborted)
+                return 0;
+
+            if (score >= beta)
+                return score;
+            if (score > alpha)
+                alpha = score;
+        }
+        return alpha;
+    }
+
+    private ChessPiece makeMove(int move) {
+        ChessPiece captured = match.makeMove(move);
+        evaluator.moveMade(match, move, captured);
+        return captured;
+    }
+
+    private void undoMove(int move, ChessPiece captured) {
+        match.undoMove(move, captured);
+        evaluator.moveUndone(match, move, captured);
+    }
+
+    private boolean shouldStop() {
+        if (aborted)
+            return true;
+        if (stopRequested || System.nanoTime() > deadline || (nodeLimit > 0 && nodes >= nodeLimit))
+            aborted = true;
+        return aborted;
+    }
+
+    /**
+     * Gera os lances pseudolegais do jogador da vez, pontuados para a ordenação: capturas da peça mais valiosa
+     * pela menos valiosa primeiro.
+     *
+     * @return A quantidade de lances, ou -1 se o Rei adversário puder ser capturado.
+     */
+    private int generate(int[] list, int ply, boolean capturesOnly) {
+        int[] scores = orderScores[ply];
+        Color side = match.getCurrentPlayer();
+        int count = 0;
+        for (int from = 0; from < 64; from++) {
+            ChessPiece piece = match.pieceAt(from);
+            if (piece == null || piece.getColor() != side)
+                continue;
+
+            boolean[][] mat = piece.possibleMoves();
+            for (int to = 0; to < 64; to++) {
+                if (!mat[to >> 3][to & 7])
+                    continue;
+                ChessPiece victim = match.pieceAt(to);
+                if (victim == null && capturesOnly)
+                    continue;
+                if (victim instanceof King)
+                    return -1;
+                scores[count] = victim == null ? 0
+                        : 10_000 + MaterialEvaluator.value(victim) * 10 - MaterialEvaluator.value(piece) / 10;
+                list[count++] = Move.of(from, to);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Traz para a posição i o lance de maior pontuação entre os restantes (ordenação por seleção sob demanda).
+     */
+    private void pickNext(int[] list, int count, int ply, int i) {
+        int[] scores = orderScores[ply];
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best])
+                best = j;
+        }
+        if (best != i) {
+            int move = list[i];
+            list[i] = list[best];
+            list[best] = move;
+            int score = scores[i];
+            scores[i] = scores[best];
+            scores[best] = score;
+        }
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][0] = move;
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    /**
+     * As avaliações de mate são gravadas na tabela relativas à posição, não à raiz da busca.
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score + ply;
+        if (score <= -MATE + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score - ply;
+        if (score <= -MATE + MAX_PLY) return score + ply;
+        return score;
+    }
+}
@@ -0,0 +1,33 @@
+package engine;
+
+import chess.Move;
+
+/**
+ * Progresso da busca ao fim de uma iteração.
+ *
+ * @param depth        A profundidade concluída.
+ * @param score        A avaliação do ponto de vista do jogador da vez, em centésimos de Peão.
+ * @param nodes        A quantidade de nós visitados desde o início da busca.
+ * @param elapsedNanos O tempo desde o início da busca.
+ * @param pv           A variante principal, no formato de {@link Move}.
+ */
+public record SearchInfo(int depth, int score, long nodes, long elapsedNanos, int[] pv) {
+
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - SearchLimits.MAX_DEPTH * 2;
+    }
+
+    /**
+     * Obtém a quantidade de lances até o mate, positiva se o jogador da vez dá o mate.
+     *
+     * @return Os lances (não meio-lances) até o mate.
+     */
+    public int mateIn() {
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    public long nodesPerSecond() {
+        return nodes * 1_000_000_000L / Math.max(1, elapsedNanos);
+    }
+}
@@ -0,0 +1,72 @@
+package engine;
+
+import chess.Color;
+
+/**
+ * Limites de uma busca, no formato do comando {@code go} do protocolo UCI.
+ *
+ * @param depth     A profundidade máxima, ou 0 para não limitar.
+ * @param nodes     A quantidade máxima de nós, ou 0 para não limitar.
+ * @param moveTime  O tempo fixo para o lance em milissegundos, ou 0.
+ * @param whiteTime O tempo restante das brancas em milissegundos, ou 0 se não houver controle de tempo.
+ * @param blackTime O tempo restante das pretas em milissegundos.
+ * @param whiteInc  O incremento por lance das brancas em milissegundos.
+ * @param blackInc  O incremento por lance das pretas em milissegundos.
+ * @param movesToGo A quantidade de lances até o próximo controle de tempo, ou 0.
+ * @param infinite  Indica que a busca só termina com um pedido de parada.
+ * @param ponder    Indica que a busca é feita no tempo do adversário, até um {@code ponderhit} ou uma parada.
+ */
+public record SearchLimits(int depth, long nodes, long moveTime, long whiteTime, long blackTime,
+                           long whiteInc, long blackInc, int movesToGo, boolean infinite, boolean ponder) {
+
+    public static final int MAX_DEPTH = 64;
+
+    // Margem para a comunicação com a interface, descontada do tempo de cada lance
+    private static final long OVERHEAD_MILLIS = 30;
+
+    public static SearchLimits ofDepth(int depth) {
+        return new SearchLimits(depth, 0, 0, 0, 0, 0, 0, 0, false, false);
+    }
+
+    public static SearchLimits ofMoveTime(long millis) {
+        return new SearchLimits(0, 0, millis, 0, 0, 0, 0, 0, false, false);
+    }
+
+    public static SearchLimits unlimited() {
+        return new SearchLimits(0, 0, 0, 0, 0, 0, 0, 0, true, false);
+    }
+
+    /**
+     * Obtém os mesmos limites para uma busca no tempo do adversário.
+     *
+     * @return Uma cópia com {@code ponder} ligado.
+     */
+    public SearchLimits asPonder() {
+        return new SearchLimits(depth, nodes, moveTime, whiteTime, blackTime, whiteInc, blackInc, movesToGo, infinite, true);
+    }
+
+    /**
+     * Calcula o tempo a ser usado no lance pelo jogador da vez.
+     *
+     * @param side O jogador da vez.
+     * @return O tempo em milissegundos, ou 0 se a busca não tiver limite de tempo.
+     */
+    public long timeBudget(Color side) {
+        if (moveTime > 0)
+            return Math.max(1, moveTime - OVERHEAD_MILLIS);
+
+        long remaining = side == Color.WHITE ? whiteTime : blackTime;
+        long increment = side == Color.WHITE ? whiteInc : blackInc;
+        if (remaining <= 0)
+            return 0;
+
+        long moves = movesToGo > 0 ? Math.min(movesToGo, 40) : 30;
+        long budget = remaining / moves + increment * 3 / 4;
+        // Nunca usa mais que metade do relógio, para não perder por tempo em um lance só
+        return Math.max(1, Math.min(budget, remaining / 2) - OVERHEAD_MILLIS);
+    }
+
+    public int maxDepth() {
+        return depth > 0 ? Math.min(depth, MAX_DEPTH) : MAX_DEPTH;
+    }
+}
@@ -0,0 +1,109 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de transposição de tamanho fixo, indexada pelo hash da posição.
+ * <p>
+ * Cada entrada ocupa dois {@code long}: a chave e os dados (lance, avaliação, profundidade e tipo de limite).
+ * A chave é gravada combinada por ou-exclusivo com os dados, de modo que uma leitura concorrente com uma escrita
+ * produz uma chave que não confere e é descartada. Assim a tabela pode ser compartilhada entre buscas em threads
+ * diferentes sem travas.
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    private static final int ENTRY_BYTES = 16;
+
+    private long[] keys;
+    private long[] data;
+    private int mask;
+
+    /**
+     * Cria uma tabela com aproximadamente o tamanho informado.
+     *
+     * @param megabytes O tamanho da tabela em megabytes; é arredondado para baixo até uma potência de dois de entradas.
+     */
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    /**
+     * Troca o tamanho da tabela, descartando o conteúdo. Não pode ser chamado durante uma busca.
+     *
+     * @param megabytes O novo tamanho em megabytes.
+     */
+    public void resize(int megabytes) {
+        if (megabytes < 1)
+            throw new IllegalArgumentException("Hash size must be at least 1 MB");
+
+        int entries = Integer.highestOneBit((int) Math.min(1 << 30, (long) megabytes * 1024 * 1024 / ENTRY_BYTES));
+        keys = new long[entries];
+        data = new long[entries];
+        mask = entries - 1;
+    }
+
+    /**
+     * Descarta o conteúdo da tabela.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * Procura a posição na tabela.
+     *
+     * @param hash O hash da posição.
+     * @return Os dados da entrada, a serem lidos com {@link #move(long)}, {@link #score(long)}, {@link #depth(long)}
+     * e {@link #bound(long)}, ou 0 se a posição não estiver na tabela.
+     */
+    public long probe(long hash) {
+        int i = (int) hash & mask;
+        long entry = data[i];
+        return (keys[i] ^ entry) == hash ? entry : 0;
+    }
+
+    /**
+     * Grava o resultado da busca de uma posição, mantendo uma entrada mais profunda da mesma posição.
+     *
+     * @param hash  O hash da posição.
+     * @param move  O melhor lance encontrado, ou -1.
+     * @param score A avaliação.
+     * @param depth A profundidade da busca.
+     * @param bound O tipo de limite da avaliação: {@link #EXACT}, {@link #LOWER} ou {@link #UPPER}.
+     */
+    public void store(long hash, int move, int score, int depth, int bound) {
+        int i = (int) hash & mask;
+        long old = data[i];
+        if ((keys[i] ^ old) == hash && depth(old) > depth && bound != EXACT)
+            return;
+
+        long entry = (score & 0xFFFFFFFFL)
+                | (long) (move < 0 ? 0xFFF : move & 0xFFF) << 32
+                | (long) (depth & 0xFF) << 44
+                | (long) bound << 52;
+        data[i] = entry;
+        keys[i] = hash ^ entry;
+    }
+
+    public static int move(long entry) {
+        int move = (int) (entry >>> 32) & 0xFFF;
+        return move == 0xFFF ? -1 : move;
+    }
+
+    public static int score(long entry) {
+        return (int) entry;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 44) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 52) & 3;
+    }
+}
@@ -0,0 +1,94 @@
+package engine;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementação de {@link NnueKernels} com a Vector API, no maior tamanho de vetor do processador.
+ * <p>
+ * Os acumuladores são atualizados em {@code int16}, com a mesma aritmética com estouro do caminho escalar.
+ * Na saída, a ReLU limitada e a multiplicação pelos pesos {@code int8} cabem em {@code int16} (127 × 127);
+ * só a soma dos produtos é alargada para {@code int32}.
+ */
+final class VectorKernels implements NnueKernels {
+
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final short MAX = NnueNetwork.ACTIVATION_MAX;
+
+    @Override
+    public void update(short[] source, short[] target, short[] weights, int add, int remove, int capture) {
+        int n = target.length;
+        int upper = SHORTS.loopBound(n);
+        int i = 0;
+        if (capture < 0) {
+            for (; i < upper; i += SHORTS.length()) {
+                ShortVector.fromArray(SHORTS, source, i)
+                        .add(ShortVector.fromArray(SHORTS, weights, add + i))
+                        .sub(ShortVector.fromArray(SHORTS, weights, remove + i))
+                        .intoArray(target, i);
+            }
+            for (; i < n; i++) {
+                target[i] = (short) (source[i] + weights[add + i] - weights[remove + i]);
+            }
+        } else {
+            for (; i < upper; i += SHORTS.length()) {
+                ShortVector.fromArray(SHORTS, source, i)
+                        .add(ShortVector.fromArray(SHORTS, weights, add + i))
+                        .sub(ShortVector.fromArray(SHORTS, weights, remove + i))
+                        .sub(ShortVector.fromArray(SHORTS, weights, capture + i))
+                        .intoArray(target, i);
+            }
+            for (; i < n; i++) {
+                target[i] = (short) (source[i] + weights[add + i] - weights[remove + i] - weights[capture + i]);
+            }
+        }
+    }
+
+    @Override
+    public void add(short[] accumulator, short[] weights, int offset) {
+        int n = accumulator.length;
+        int upper = SHORTS.loopBound(n);
+        int i = 0;
+        for (; i < upper; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, accumulator, i)
+                    .add(ShortVector.fromArray(SHORTS, weights, offset + i))
+                    .intoArray(accumulator, i);
+        }
+        for (; i < n; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    @Override
+    public int forward(short[] us, short[] them, short[] weights) {
+        int n = us.length;
+        int upper = SHORTS.loopBound(n);
+        IntVector sum = IntVector.zero(INTS);
+        int i = 0;
+        for (; i < upper; i += SHORTS.length()) {
+            ShortVector own = ShortVector.fromArray(SHORTS, us, i).max((short) 0).min(MAX)
+                    .mul(ShortVector.fromArray(SHORTS, weights, i));
+            ShortVector other = ShortVector.fromArray(SHORTS, them, i).max((short) 0).min(MAX)
+                    .mul(ShortVector.fromArray(SHORTS, weights, n + i));
+            sum = sum.add(widen(own, 0)).add(widen(own, 1)).add(widen(other, 0)).add(widen(other, 1));
+        }
+
+        int total = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            total += Math.min(Math.max(us[i], 0), MAX) * weights[i] + Math.min(Math.max(them[i], 0), MAX) * weights[n + i];
+        }
+        return total;
+    }
+
+    @Override
+    public String name() {
+        return "vector (" + SHORTS.vectorBitSize() + " bits)";
+    }
+
+    private static IntVector widen(ShortVector vector, int part) {
+        return (IntVector) vector.convertShape(VectorOperators.S2I, INTS, part);
+    }
+}
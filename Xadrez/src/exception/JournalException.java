@@ -0,0 +1,17 @@
+package exception;
+
+import java.io.Serial;
+
+public class JournalException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public JournalException(String msg) {
+        super(msg);
+    }
+
+    public JournalException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
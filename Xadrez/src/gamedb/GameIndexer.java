@@ -0,0 +1,117 @@
+package gamedb;
+
+import pgn.PgnGame;
+import pgn.PgnReplay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Constrói o índice de posições de um arquivo PGN, reproduzindo as partidas com {@link PgnReplay}.
+ * <p>
+ * Cada posição de cada partida vira uma entrada do índice, com o lance jogado, o resultado da partida
+ * (lido da tag Result) e a posição da partida no arquivo PGN, que serve para reabrir a partida depois.
+ * <p>
+ * As posições de uma partida ficam em um buffer da thread de trabalho e só entram no índice quando a partida
+ * termina válida, na última visita (a da posição final, sem lance); uma partida que falha no meio é descartada
+ * por inteiro, sem deixar no índice as posições que chegou a visitar.
+ */
+public final class GameIndexer {
+
+    private GameIndexer() {
+    }
+
+    /**
+     * Indexa as partidas do arquivo PGN.
+     *
+     * @param pgnFile     O arquivo PGN.
+     * @param indexFile   O arquivo do índice a ser gravado.
+     * @param threads     A quantidade de threads de reprodução.
+     * @param runCapacity A quantidade de entradas mantidas em memória antes de gravar uma run temporária.
+     * @param consumer    O destino dos resultados de cada partida; precisa ser thread-safe.
+     * @return A quantidade de entradas gravadas no índice.
+     * @throws IOException Se o arquivo PGN não puder ser lido ou o índice não puder ser gravado.
+     */
+    public static long build(Path pgnFile, Path indexFile, int threads, int runCapacity,
+                             Consumer<PgnReplay.GameResult> consumer) throws IOException {
+        Path directory = indexFile.toAbsolutePath().getParent();
+        try (PositionIndexBuilder builder = new PositionIndexBuilder(directory, runCapacity)) {
+            try {
+                ThreadLocal<GamePositions> buffers = ThreadLocal.withInitial(GamePositions::new);
+                new PgnReplay(threads, 1 << 20).run(pgnFile, (game, hash, ply, nextMove) -> {
+                    GamePositions positions = buffers.get();
+                    positions.add(game, hash, ply, nextMove);
+                    if (nextMove < 0) {
+                        try {
+                            positions.flush(builder);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                }, consumer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return builder.build(indexFile);
+        }
+    }
+
+    /**
+     * As posições visitadas da partida em reprodução por uma thread. A troca de partida descarta o que sobrou
+     * da anterior, que só pode ter sido uma partida inválida.
+     */
+    private static final class GamePositions {
+        private PgnGame game;
+        private long[] hashes = new long[256];
+        private int[] moves = new int[256];
+        private int size;
+
+        void add(PgnGame game, long hash, int ply, int nextMove) {
+            if (this.game != game || ply != size) {
+                this.game = game;
+                size = 0;
+            }
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+                moves = Arrays.copyOf(moves, size * 2);
+            }
+            hashes[size] = hash;
+            moves[size] = nextMove;
+            size++;
+        }
+
+        void flush(PositionIndexBuilder builder) throws IOException {
+            int result = resultOf(game);
+            try {
+                // Um lock só para a partida inteira, em vez de um por posição
+                synchronized (builder) {
+                    for (int ply = 0; ply < size; ply++) {
+                        builder.add(hashes[ply], game.offset(), moves[ply], ply, result);
+                    }
+                }
+            } finally {
+                game = null;
+                size = 0;
+            }
+        }
+    }
+
+    /**
+     * Lê o resultado da partida a partir da tag Result.
+     */
+    private static int resultOf(PgnGame game) {
+        int tag = game.text().indexOf("[Result \"");
+        if (tag < 0)
+            return PositionIndex.UNKNOWN;
+
+        String text = game.text();
+        int start = tag + 9;
+        if (text.startsWith("1-0", start)) return PositionIndex.WHITE_WINS;
+        if (text.startsWith("0-1", start)) return PositionIndex.BLACK_WINS;
+        if (text.startsWith("1/2-1/2", start)) return PositionIndex.DRAW;
+        return PositionIndex.UNKNOWN;
+    }
+}
@@ -0,0 +1,274 @@
+package gamedb;
+
+import chess.Move;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice de posições em disco, consultado por busca binária sobre o arquivo mapeado em memória.
+ * <p>
+ * O arquivo tem um cabeçalho, as entradas ordenadas por hash de posição e dois níveis de índice esparso:
+ * o primeiro guarda o hash da primeira entrada de cada bloco de {@value #BLOCK_ENTRIES} entradas e o segundo
+ * guarda um hash a cada {@value #FANOUT} valores do primeiro. Uma consulta percorre o segundo nível (poucas páginas),
+ * uma página do primeiro nível e um bloco de entradas, de modo que uma consulta a frio toca poucas páginas
+ * do disco mesmo em índices com centenas de milhões de posições. Nada do índice é carregado no heap.
+ * <p>
+ * Cada entrada tem {@value #ENTRY_SIZE} bytes: hash da posição, posição da partida no arquivo de partidas,
+ * lance jogado, resultado da partida e número do meio-lance.
+ */
+public class PositionIndex implements Closeable {
+
+    public static final int UNKNOWN = 0;
+    public static final int WHITE_WINS = 1;
+    public static final int DRAW = 2;
+    public static final int BLACK_WINS = 3;
+
+    static final int MAGIC = 0x58504958; // "XPIX"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int ENTRY_SIZE = 24;
+    static final int BLOCK_ENTRIES = 128;
+    static final int FANOUT = 512;
+
+    private static final int NO_MOVE = 0xFFFF;
+    // Cada segmento mapeado tem um número inteiro de entradas, para que nenhuma entrada fique entre dois segmentos
+    private static final int SEGMENT_SHIFT = 25;
+    private static final long SEGMENT_ENTRIES = 1L << SEGMENT_SHIFT;
+
+    private final FileChannel channel;
+    private final long count;
+    private final MappedByteBuffer[] segments;
+    private final MappedByteBuffer fence;
+    private final int fenceCount;
+    private final MappedByteBuffer topFence;
+    private final int topFenceCount;
+
+    /**
+     * Estatísticas de um lance jogado a partir da posição consultada.
+     *
+     * @param move      O lance, no formato de {@link Move}, ou -1 para partidas que terminaram na posição.
+     * @param games     A quantidade de partidas em que o lance foi jogado.
+     * @param whiteWins As partidas vencidas pelas brancas.
+     * @param draws     As partidas empatadas.
+     * @param blackWins As partidas vencidas pelas pretas.
+     */
+    public record MoveStats(int move, long games, long whiteWins, long draws, long blackWins) {
+        @Override
+        public String toString() {
+            String name = move < 0 ? "(end)" : Move.toString(move);
+            return String.format("%-6s %8d games  +%d =%d -%d", name, games, whiteWins, draws, blackWins);
+        }
+    }
+
+    /**
+     * Resultado de uma consulta.
+     *
+     * @param occurrences A quantidade de vezes em que a posição ocorreu.
+     * @param moves       As estatísticas de cada lance jogado na posição.
+     * @param gameOffsets As posições, no arquivo de partidas, de até o limite pedido de partidas que passaram pela posição.
+     */
+    public record QueryResult(long occurrences, List<MoveStats> moves, long[] gameOffsets) {
+    }
+
+    private PositionIndex(FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION)
+            throw new IOException("Not a position index file");
+
+        count = header.getLong();
+        fenceCount = (int) header.getLong();
+        long fenceOffset = header.getLong();
+        topFenceCount = (int) header.getLong();
+        long topFenceOffset = header.getLong();
+
+        int segmentCount = (int) ((count + SEGMENT_ENTRIES - 1) >> SEGMENT_SHIFT);
+        segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long first = (long) i << SEGMENT_SHIFT;
+            long entries = Math.min(SEGMENT_ENTRIES, count - first);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * ENTRY_SIZE, entries * ENTRY_SIZE);
+        }
+        fence = channel.map(FileChannel.MapMode.READ_ONLY, fenceOffset, (long) fenceCount * Long.BYTES);
+        topFence = channel.map(FileChannel.MapMode.READ_ONLY, topFenceOffset, (long) topFenceCount * Long.BYTES);
+    }
+
+    /**
+     * Abre um índice de posições para consulta.
+     *
+     * @param file O arquivo do índice.
+     * @return O índice aberto.
+     * @throws IOException Se o arquivo não puder ser aberto ou não for um índice de posições.
+     */
+    public static PositionIndex open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new PositionIndex(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtém a quantidade de entradas do índice.
+     *
+     * @return O número de ocorrências de posições indexadas.
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * Consulta as partidas que passaram por uma posição e os lances jogados a partir dela.
+     *
+     * @param positionHash O hash da posição, dado por {@link chess.ChessMatch#getPositionHash()}.
+     * @param maxGames     A quantidade máxima de posições de partidas devolvidas.
+     * @return O resultado da consulta.
+     */
+    public QueryResult query(long positionHash, int maxGames) {
+        long first = lowerBound(positionHash);
+
+        List<MoveStats> moves = new ArrayList<>();
+        long[] offsets = new long[maxGames];
+        int offsetCount = 0;
+        long occurrences = 0;
+
+        int currentMove = Integer.MIN_VALUE;
+        long games = 0, whiteWins = 0, draws = 0, blackWins = 0;
+
+        for (long i = first; i < count && hashAt(i) == positionHash; i++) {
+            long meta = metaAt(i);
+            int move = nextMove(meta);
+            if (move != currentMove && games > 0) {
+                moves.add(new MoveStats(currentMove, games, whiteWins, draws, blackWins));
+                games = whiteWins = draws = blackWins = 0;
+            }
+            currentMove = move;
+            games++;
+            switch (result(meta)) {
+                case WHITE_WINS -> whiteWins++;
+                case DRAW -> draws++;
+                case BLACK_WINS -> blackWins++;
+                default -> { }
+            }
+
+            if (offsetCount < maxGames)
+                offsets[offsetCount++] = offsetAt(i);
+            occurrences++;
+        }
+        if (games > 0)
+            moves.add(new MoveStats(currentMove, games, whiteWins, draws, blackWins));
+
+        moves.sort((a, b) -> Long.compare(b.games(), a.games()));
+        return new QueryResult(occurrences, moves, Arrays.copyOf(offsets, offsetCount));
+    }
+
+    /**
+     * Encontra a primeira entrada com hash maior ou igual ao informado, usando os dois níveis de índice esparso.
+     */
+    private long lowerBound(long hash) {
+        if (count == 0)
+            return 0;
+
+        // Último bloco do segundo nível que começa antes do hash procurado
+        int top = lastLess(topFence, 0, topFenceCount, hash);
+        int from = Math.max(top, 0) * FANOUT;
+        int block = lastLess(fence, from, Math.min(fenceCount, from + FANOUT), hash);
+        if (block < 0)
+            return 0;
+
+        long lo = (long) block * BLOCK_ENTRIES;
+        long hi = Math.min(count, lo + BLOCK_ENTRIES);
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (hashAt(mid) < hash)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Devolve o último índice em [from, to) cujo valor é menor que o hash, ou from - 1 se não houver.
+     */
+    private static int lastLess(ByteBuffer level, int from, int to, long hash) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (level.getLong(mid * Long.BYTES) < hash)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo - 1;
+    }
+
+    private long hashAt(long i) {
+        return segments[(int) (i >> SEGMENT_SHIFT)].getLong((int) (i & (SEGMENT_ENTRIES - 1)) * ENTRY_SIZE);
+    }
+
+    private long offsetAt(long i) {
+        return segments[(int) (i >> SEGMENT_SHIFT)].getLong((int) (i & (SEGMENT_ENTRIES - 1)) * ENTRY_SIZE + 8);
+    }
+
+    private long metaAt(long i) {
+        ByteBuffer segment = segments[(int) (i >> SEGMENT_SHIFT)];
+        int base = (int) (i & (SEGMENT_ENTRIES - 1)) * ENTRY_SIZE + 16;
+        return (long) Short.toUnsignedInt(segment.getShort(base)) << 40
+                | (long) (segment.get(base + 2) & 0xFF) << 32
+                | (segment.getInt(base + 4) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Compacta lance, resultado e meio-lance em um long cuja ordem é a ordem de lance das entradas.
+     */
+    static long meta(int nextMove, int result, int ply) {
+        long move = nextMove < 0 ? NO_MOVE : nextMove;
+        return move << 40 | (long) (result & 0xFF) << 32 | (ply & 0xFFFFFFFFL);
+    }
+
+    private static int nextMove(long meta) {
+        int move = (int) (meta >>> 40);
+        return move == NO_MOVE ? -1 : move;
+    }
+
+    private static int result(long meta) {
+        return (int) (meta >>> 32) & 0xFF;
+    }
+
+    static void writeEntry(ByteBuffer buffer, long hash, long meta, long offset) {
+        buffer.putLong(hash);
+        buffer.putLong(offset);
+        buffer.putShort((short) (meta >>> 40));
+        buffer.put((byte) (meta >>> 32));
+        buffer.put((byte) 0);
+        buffer.putInt((int) meta);
+    }
+
+    static long readMeta(ByteBuffer buffer) {
+        long move = Short.toUnsignedInt(buffer.getShort());
+        long result = buffer.get() & 0xFF;
+        buffer.get();
+        return move << 40 | result << 32 | (buffer.getInt() & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,323 @@
+package gamedb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Construtor do índice de posições, por ordenação externa.
+ * <p>
+ * As entradas são acumuladas em um bloco de memória de tamanho fixo; quando o bloco enche, ele é ordenado
+ * e gravado em um arquivo temporário (uma "run"). Ao final, as runs são intercaladas em um único arquivo
+ * ordenado por hash, seguido dos níveis de índice esparso usados por {@link PositionIndex} na busca binária.
+ * A memória usada depende apenas da capacidade do bloco, não da quantidade de posições.
+ */
+public class PositionIndexBuilder implements Closeable {
+
+    private static final int IO_BUFFER_SIZE = 1 << 20;
+
+    private final Path tempDirectory;
+    private final int runCapacity;
+    private final long[] run;
+    private int size;
+    private final List<Path> runs = new ArrayList<>();
+
+    /**
+     * Cria um construtor de índice.
+     *
+     * @param tempDirectory O diretório onde as runs temporárias são gravadas.
+     * @param runCapacity   A quantidade de entradas mantidas em memória antes de gravar uma run.
+     */
+    public PositionIndexBuilder(Path tempDirectory, int runCapacity) {
+        if (runCapacity < 1)
+            throw new IllegalArgumentException("Run capacity must be positive");
+
+        this.tempDirectory = tempDirectory;
+        this.runCapacity = runCapacity;
+        this.run = new long[runCapacity * 3];
+    }
+
+    /**
+     * Adiciona uma ocorrência de posição ao índice.
+     *
+     * @param positionHash O hash da posição.
+     * @param gameOffset   A posição, em bytes, da partida no arquivo de partidas.
+     * @param nextMove     O lance jogado na posição, ou -1 se for a posição final da partida.
+     * @param ply          O número do meio-lance em que a posição ocorreu.
+     * @param result       O resultado da partida ({@link PositionIndex#WHITE_WINS}, {@link PositionIndex#DRAW},
+     *                     {@link PositionIndex#BLACK_WINS} ou {@link PositionIndex#UNKNOWN}).
+     * @throws IOException Se a run não puder ser gravada.
+     */
+    public synchronized void add(long positionHash, long gameOffset, int nextMove, int ply, int result) throws IOException {
+        if (size == runCapacity)
+            spill();
+
+        int i = size * 3;
+        run[i] = positionHash;
+        run[i + 1] = PositionIndex.meta(nextMove, result, ply);
+        run[i + 2] = gameOffset;
+        size++;
+    }
+
+    /**
+     * Intercala as runs e grava o índice final. O índice é gravado em um arquivo temporário no mesmo diretório
+     * e só então movido atomicamente para o lugar de {@code output}: um índice anterior continua inteiro se a
+     * gravação falhar no meio, e quem o tiver aberto continua lendo o arquivo antigo.
+     *
+     * @param output O arquivo do índice.
+     * @return A quantidade de entradas gravadas.
+     * @throws IOException Se o índice não puder ser gravado.
+     */
+    public synchronized long build(Path output) throws IOException {
+        if (size > 0)
+            spill();
+
+        List<RunCursor> cursors = new ArrayList<>();
+        Path target = output.toAbsolutePath();
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(target.getParent(), target.getFileName() + "-", ".tmp");
+            long count = write(temporary, cursors);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temporary = null;
+            return count;
+        } finally {
+            try {
+                for (RunCursor cursor : cursors) {
+                    cursor.close();
+                }
+                if (temporary != null)
+                    Files.deleteIfExists(temporary);
+            } finally {
+                close();
+            }
+        }
+    }
+
+    private long write(Path temporary, List<RunCursor> cursors) throws IOException {
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            PriorityQueue<RunCursor> heap = new PriorityQueue<>(
+                    (a, b) -> compare(a.hash, a.meta, a.offset, b.hash, b.meta, b.offset));
+            for (Path file : runs) {
+                RunCursor cursor = new RunCursor(file);
+                cursors.add(cursor);
+                if (cursor.advance())
+                    heap.add(cursor);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+            buffer.position(PositionIndex.HEADER_SIZE);
+
+            long count = 0;
+            LongList fence = new LongList();
+            while (!heap.isEmpty()) {
+                RunCursor cursor = heap.poll();
+                if (count % PositionIndex.BLOCK_ENTRIES == 0)
+                    fence.add(cursor.hash);
+
+                if (buffer.remaining() < PositionIndex.ENTRY_SIZE)
+                    flush(out, buffer);
+                PositionIndex.writeEntry(buffer, cursor.hash, cursor.meta, cursor.offset);
+                count++;
+
+                if (cursor.advance())
+                    heap.add(cursor);
+            }
+
+            // Segundo nível: uma amostra do primeiro a cada FANOUT entradas, pequeno o bastante para poucas páginas
+            LongList topFence = new LongList();
+            for (int i = 0; i < fence.size; i += PositionIndex.FANOUT) {
+                topFence.add(fence.values[i]);
+            }
+
+            long fenceOffset = PositionIndex.HEADER_SIZE + count * PositionIndex.ENTRY_SIZE;
+            long topFenceOffset = fenceOffset + (long) fence.size * Long.BYTES;
+            for (LongList level : List.of(fence, topFence)) {
+                for (int i = 0; i < level.size; i++) {
+                    if (buffer.remaining() < Long.BYTES)
+                        flush(out, buffer);
+                    buffer.putLong(level.values[i]);
+                }
+            }
+            flush(out, buffer);
+
+            ByteBuffer header = ByteBuffer.allocate(PositionIndex.HEADER_SIZE);
+            header.putInt(PositionIndex.MAGIC).putInt(PositionIndex.VERSION)
+                    .putLong(count)
+                    .putLong(fence.size).putLong(fenceOffset)
+                    .putLong(topFence.size).putLong(topFenceOffset)
+                    .flip();
+            out.write(header, 0);
+            out.force(false);
+            return count;
+        }
+    }
+
+    /**
+     * Remove as runs temporárias que ainda existirem.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (Path file : runs) {
+            Files.deleteIfExists(file);
+        }
+        runs.clear();
+        size = 0;
+    }
+
+    /**
+     * Ordena as entradas em memória e as grava em uma nova run. Se a gravação falhar, a run pela metade é
+     * apagada e as entradas do bloco são descartadas, já que o índice não pode mais ser construído.
+     */
+    private void spill() throws IOException {
+        sort(0, size - 1);
+
+        Path file = Files.createTempFile(tempDirectory, "position-run-", ".tmp");
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+            for (int i = 0; i < size; i++) {
+                if (buffer.remaining() < PositionIndex.ENTRY_SIZE)
+                    flush(out, buffer);
+                PositionIndex.writeEntry(buffer, run[i * 3], run[i * 3 + 1], run[i * 3 + 2]);
+            }
+            flush(out, buffer);
+        } catch (IOException | RuntimeException e) {
+            size = 0;
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        runs.add(file);
+        size = 0;
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    static int compare(long hashA, long metaA, long offsetA, long hashB, long metaB, long offsetB) {
+        int c = Long.compare(hashA, hashB);
+        if (c != 0) return c;
+        c = Long.compare(metaA, metaB);
+        if (c != 0) return c;
+        return Long.compare(offsetA, offsetB);
+    }
+
+    /**
+     * Quicksort sobre as entradas de três longs do bloco em memória, sem criar objetos.
+     */
+    private void sort(int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            if (compareAt(mid, lo) < 0) swap(mid, lo);
+            if (compareAt(hi, lo) < 0) swap(hi, lo);
+            if (compareAt(hi, mid) < 0) swap(hi, mid);
+            swap(mid, hi - 1);
+            int pivot = hi - 1;
+
+            int i = lo;
+            int j = hi - 1;
+            while (true) {
+                while (compareAt(++i, pivot) < 0) ;
+                while (compareAt(--j, pivot) > 0) ;
+                if (i >= j) break;
+                swap(i, j);
+            }
+            swap(i, hi - 1);
+
+            // Recursão no lado menor para limitar a profundidade da pilha
+            if (i - lo < hi - i) {
+                sort(lo, i - 1);
+                lo = i + 1;
+            } else {
+                sort(i + 1, hi);
+                hi = i - 1;
+            }
+        }
+
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && compareAt(j, j - 1) < 0; j--) {
+                swap(j, j - 1);
+            }
+        }
+    }
+
+    private int compareAt(int a, int b) {
+        return compare(run[a * 3], run[a * 3 + 1], run[a * 3 + 2], run[b * 3], run[b * 3 + 1], run[b * 3 + 2]);
+    }
+
+    private void swap(int a, int b) {
+        for (int k = 0; k < 3; k++) {
+            long t = run[a * 3 + k];
+            run[a * 3 + k] = run[b * 3 + k];
+            run[b * 3 + k] = t;
+        }
+    }
+
+    /**
+     * Lista de longs que cresce sob demanda, para os níveis de índice esparso.
+     */
+    private static class LongList {
+        long[] values = new long[1024];
+        int size;
+
+        void add(long value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Leitor sequencial de uma run, com a entrada atual exposta nos campos.
+     */
+    private static class RunCursor implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+        long hash;
+        long meta;
+        long offset;
+
+        RunCursor(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer.flip();
+        }
+
+        boolean advance() throws IOException {
+            if (buffer.remaining() < PositionIndex.ENTRY_SIZE) {
+                buffer.compact();
+                while (buffer.position() < PositionIndex.ENTRY_SIZE && channel.read(buffer) >= 0) {
+                    // lê até ter ao menos uma entrada completa ou chegar ao fim da run
+                }
+                buffer.flip();
+                if (buffer.remaining() < PositionIndex.ENTRY_SIZE)
+                    return false;
+            }
+            hash = buffer.getLong();
+            offset = buffer.getLong();
+            meta = PositionIndex.readMeta(buffer);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com baldes log-lineares, no estilo do HdrHistogram.
+ * <p>
+ * Valores menores que {@value #SUB_BUCKETS} nanossegundos têm um balde cada; acima disso, cada potência de dois
+ * é dividida em {@value #HALF} baldes iguais, o que mantém o erro relativo abaixo de 1/{@value #HALF} (cerca de 3%)
+ * em toda a faixa de um {@code long}, com um vetor de tamanho fixo. Registrar um valor é um cálculo de índice
+ * e um incremento, sem travas.
+ * <p>
+ * Cada balde é um {@link LongAdder}, e não uma posição de um vetor atômico compartilhado: threads que medem o
+ * mesmo caminho ao mesmo tempo caem nos mesmos baldes, e um contador único por balde faria essas threads
+ * disputarem a mesma linha de cache justamente no código medido. O adder só ganha células por thread nos baldes
+ * em que há disputa de fato.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int HALF = SUB_BUCKETS / 2;
+    private static final int MAX_SHIFT = 62 - (SUB_BUCKET_BITS - 1);
+    private static final int BUCKETS = SUB_BUCKETS + MAX_SHIFT * HALF;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registra uma latência.
+     *
+     * @param nanos A latência em nanossegundos; valores negativos são registrados como zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[index(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Zera o histograma. Registros concorrentes com a limpeza podem ser parcialmente perdidos.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i].reset();
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * Obtém uma cópia dos valores atuais do histograma.
+     *
+     * @return Uma cópia que pode ser consultada sem interferir nos registros.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts[i].sum();
+        }
+        return new Snapshot(copy, sum.sum(), max.get());
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int sub = (int) (value >>> shift);
+        return SUB_BUCKETS + (shift - 1) * HALF + (sub - HALF);
+    }
+
+    /**
+     * Obtém o maior valor que cai no mesmo balde do índice.
+     */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long sub = HALF + (index - SUB_BUCKETS) % HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Cópia dos valores de um histograma.
+     */
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] counts, long sum, long max) {
+            this.counts = counts;
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            this.count = total;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Obtém o valor abaixo do qual está a fração pedida dos registros.
+         *
+         * @param percentile O percentil, entre 0 e 100.
+         * @return O maior valor do balde que contém o percentil, limitado ao máximo registrado.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0)
+                return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank)
+                    return Math.min(highestValue(i), max);
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores e histogramas de latência dos caminhos críticos de {@link chess.ChessMatch}.
+ * <p>
+ * A instrumentação é ligada pela propriedade de sistema {@code -Dxadrez.metrics=true}. Como {@link #ENABLED} é
+ * uma constante, o compilador JIT elimina as chamadas de {@link #start()} e {@link #stop(Probe, long)} quando
+ * ela está desligada, e a instrumentação pode ficar no código sem custo. Ligada, cada ponto medido custa duas
+ * leituras do relógio, um incremento em um {@link LongAdder} e um registro em um {@link LatencyHistogram}.
+ * <p>
+ * As métricas são expostas pelo MBean {@value #OBJECT_NAME} e, se a propriedade
+ * {@code -Dxadrez.metrics.dumpSeconds=N} for informada, impressas em {@code System.err} a cada N segundos.
+ */
+public final class MatchMetrics implements MatchMetricsMXBean {
+
+    public static final boolean ENABLED = Boolean.getBoolean("xadrez.metrics");
+    public static final String OBJECT_NAME = "xadrez:type=MatchMetrics";
+
+    private static final Probe[] PROBES = Probe.values();
+    private static final LongAdder[] COUNTS = new LongAdder[PROBES.length];
+    private static final LatencyHistogram[] LATENCIES = new LatencyHistogram[PROBES.length];
+    private static final MatchMetrics INSTANCE = new MatchMetrics();
+
+    static {
+        for (int i = 0; i < PROBES.length; i++) {
+            COUNTS[i] = new LongAdder();
+            LATENCIES[i] = new LatencyHistogram();
+        }
+
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                // Sem o MBean as métricas continuam disponíveis pelo relatório
+                System.err.println("Could not register " + OBJECT_NAME + ": " + e.getMessage());
+            }
+
+            long period = Long.getLong("xadrez.metrics.dumpSeconds", 0);
+            if (period > 0)
+                startDump(period, System.err);
+        }
+    }
+
+    private MatchMetrics() {
+    }
+
+    /**
+     * Marca o início de um trecho medido.
+     *
+     * @return O instante atual em nanossegundos, ou 0 se a instrumentação estiver desligada.
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Registra o fim de um trecho medido iniciado por {@link #start()}.
+     *
+     * @param probe O ponto medido.
+     * @param start O valor devolvido por {@link #start()}.
+     */
+    public static void stop(Probe probe, long start) {
+        if (ENABLED) {
+            long elapsed = System.nanoTime() - start;
+            COUNTS[probe.ordinal()].increment();
+            LATENCIES[probe.ordinal()].record(elapsed);
+        }
+    }
+
+    /**
+     * Obtém a instância exposta como MBean.
+     *
+     * @return A instância única das métricas.
+     */
+    public static MatchMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Imprime o relatório periodicamente em uma thread daemon.
+     *
+     * @param periodSeconds O intervalo entre os relatórios, em segundos.
+     * @param out           O destino do relatório.
+     * @return O executor do relatório, que pode ser desligado para interrompê-lo.
+     */
+    public static ScheduledExecutorService startDump(long periodSeconds, PrintStream out) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "match-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> out.print(INSTANCE.getReport()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        return executor;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public List<ProbeStats> getProbes() {
+        List<ProbeStats> list = new ArrayList<>(PROBES.length);
+        for (Probe probe : PROBES) {
+            LatencyHistogram.Snapshot snapshot = LATENCIES[probe.ordinal()].snapshot();
+            list.add(new ProbeStats(probe.name(), COUNTS[probe.ordinal()].sum(), snapshot.getMean(),
+                    snapshot.getValueAtPercentile(50), snapshot.getValueAtPercentile(99),
+                    snapshot.getValueAtPercentile(99.9), snapshot.getMax()));
+        }
+        return list;
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-20s %12s %10s %10s %10s %10s %12s%n",
+                "probe", "count", "mean(ns)", "p50", "p99", "p99.9", "max"));
+        for (ProbeStats stats : getProbes()) {
+            sb.append(String.format("%-20s %12d %10.0f %10d %10d %10d %12d%n", stats.probe(), stats.count(),
+                    stats.mean(), stats.p50(), stats.p99(), stats.p999(), stats.max()));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < PROBES.length; i++) {
+            COUNTS[i].reset();
+            LATENCIES[i].reset();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package metrics;
+
+import java.util.List;
+
+/**
+ * Interface de gerenciamento das métricas de {@link chess.ChessMatch}, registrada no servidor de MBeans da plataforma
+ * com o nome {@value MatchMetrics#OBJECT_NAME}.
+ */
+public interface MatchMetricsMXBean {
+
+    /**
+     * Estatísticas de um ponto medido, com latências em nanossegundos.
+     *
+     * @param probe O nome do ponto medido.
+     * @param count A quantidade de chamadas.
+     * @param mean  A latência média.
+     * @param p50   A mediana.
+     * @param p99   O percentil 99.
+     * @param p999  O percentil 99,9.
+     * @param max   A maior latência registrada.
+     */
+    record ProbeStats(String probe, long count, double mean, long p50, long p99, long p999, long max) {
+    }
+
+    boolean isEnabled();
+
+    List<ProbeStats> getProbes();
+
+    /**
+     * Obtém as estatísticas no mesmo formato do relatório periódico.
+     *
+     * @return Uma tabela em texto, uma linha por ponto medido.
+     */
+    String getReport();
+
+    /**
+     * Zera contadores e histogramas.
+     */
+    void reset();
+}
@@ -0,0 +1,13 @@
+package metrics;
+
+/**
+ * Pontos medidos dentro de {@link chess.ChessMatch}.
+ */
+public enum Probe {
+    PERFORM_CHESS_MOVE,
+    MAKE_MOVE,
+    UNDO_MOVE,
+    TEST_CHECK,
+    TEST_CHECK_MATE,
+    POSSIBLE_MOVES
+}
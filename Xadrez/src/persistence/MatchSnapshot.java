@@ -0,0 +1,162 @@
+package persistence;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Snapshot compacto de uma partida, gravado em um registro binário de {@value #SIZE} bytes seguido do histórico
+ * de repetições.
+ * <p>
+ * O registro guarda o estado da partida (turno, jogador da vez, xeque, xeque-mate e o contador de meio-lances da
+ * regra dos 50 lances), uma casa por byte com o símbolo da peça (maiúsculo para as brancas, minúsculo para as
+ * pretas, '.' para casa vazia) e a quantidade de registros do diário já incorporados ao snapshot. Em seguida vêm,
+ * com 8 bytes cada, os hashes das posições jogadas desde o último movimento irreversível, para que a recuperação
+ * não perca as repetições. Na recuperação, só os registros posteriores precisam ser reaplicados.
+ * <p>
+ * A quantidade de hashes e o contador ocupam bytes que eram reservados: um snapshot sem eles é lido como uma
+ * posição sem histórico.
+ */
+public final class MatchSnapshot {
+
+    public static final int SIZE = 84;
+
+    private static final int MAGIC = 0x58534E50; // "XSNP"
+    private static final byte FLAG_WHITE_TO_MOVE = 1;
+    private static final byte FLAG_CHECK = 2;
+    private static final byte FLAG_CHECKMATE = 4;
+    private static final byte EMPTY = '.';
+    private static final int MAX_SIZE = SIZE + 8 * ChessMatch.HISTORY_SIZE;
+
+    private final ByteBuffer data;
+
+    private MatchSnapshot(ByteBuffer data) {
+        this.data = data;
+    }
+
+    /**
+     * Captura o estado atual da partida.
+     *
+     * @param match   A partida a ser capturada.
+     * @param records A quantidade de registros do diário incorporados a este estado.
+     * @return O snapshot da partida.
+     */
+    public static MatchSnapshot capture(ChessMatch match, long records) {
+        long[] keys = match.getRepetitionHistory();
+        ByteBuffer data = ByteBuffer.allocate(SIZE + 8 * keys.length);
+        byte flags = 0;
+        if (match.getCurrentPlayer() == Color.WHITE) flags |= FLAG_WHITE_TO_MOVE;
+        if (match.getCheck()) flags |= FLAG_CHECK;
+        if (match.getCheckMate()) flags |= FLAG_CHECKMATE;
+
+        data.putInt(MAGIC).putLong(records).putInt(match.getTurn()).put(flags)
+                .put((byte) keys.length)
+                .putShort((short) Math.min(match.getHalfmoveClock(), 0xFFFF));
+
+        for (ChessPiece[] row : match.getPieces()) {
+            for (ChessPiece piece : row) {
+                data.put(piece == null ? EMPTY : symbolOf(piece));
+            }
+        }
+        for (long key : keys) {
+            data.putLong(key);
+        }
+        return new MatchSnapshot(data.flip());
+    }
+
+    /**
+     * Obtém a quantidade de registros do diário incorporados a este snapshot.
+     *
+     * @return O número de movimentos já aplicados na posição do snapshot.
+     */
+    public long getRecords() {
+        return data.getLong(4);
+    }
+
+    /**
+     * Recria a partida representada por este snapshot.
+     *
+     * @return Uma nova partida com as peças, o estado e o histórico de repetições do snapshot.
+     */
+    public ChessMatch restore() {
+        byte flags = data.get(16);
+        ChessMatch match = ChessMatch.withEmptyBoard(
+                data.getInt(12),
+                (flags & FLAG_WHITE_TO_MOVE) != 0 ? Color.WHITE : Color.BLACK,
+                (flags & FLAG_CHECK) != 0,
+                (flags & FLAG_CHECKMATE) != 0);
+
+        for (int square = 0; square < 64; square++) {
+            byte symbol = data.get(20 + square);
+            if (symbol != EMPTY) {
+                char c = (char) symbol;
+                match.setupPiece((char) ('a' + (square & 7)), 8 - (square >> 3), c,
+                        Character.isUpperCase(c) ? Color.WHITE : Color.BLACK);
+            }
+        }
+
+        long[] keys = new long[keyCount(data)];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = data.getLong(SIZE + 8 * i);
+        }
+        match.restoreHistory(Short.toUnsignedInt(data.getShort(18)), keys);
+        return match;
+    }
+
+    /**
+     * Grava o snapshot no arquivo especificado, substituindo o anterior de forma atômica.
+     *
+     * @param file O arquivo de destino.
+     * @throws IOException Se o arquivo não puder ser gravado.
+     */
+    public void write(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = data.duplicate();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lê um snapshot do arquivo especificado.
+     *
+     * @param file O arquivo do snapshot.
+     * @return O snapshot lido.
+     * @throws IOException Se o arquivo não puder ser lido ou não for um snapshot válido.
+     */
+    public static MatchSnapshot read(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(MAX_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (data.hasRemaining() && channel.read(data) >= 0) {
+                // lê até completar o maior registro possível ou chegar ao fim do arquivo
+            }
+        }
+        if (data.position() < SIZE || data.getInt(0) != MAGIC || keyCount(data) > ChessMatch.HISTORY_SIZE
+                || data.position() != SIZE + 8 * keyCount(data))
+            throw new IOException("Invalid match snapshot: " + file);
+
+        return new MatchSnapshot(data.flip());
+    }
+
+    private static int keyCount(ByteBuffer data) {
+        return Byte.toUnsignedInt(data.get(17));
+    }
+
+    private static byte symbolOf(ChessPiece piece) {
+        char symbol = piece.toString().charAt(0);
+        return (byte) (piece.getColor() == Color.WHITE ? symbol : Character.toLowerCase(symbol));
+    }
+}
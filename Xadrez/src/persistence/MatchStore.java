@@ -0,0 +1,254 @@
+package persistence;
+
+import chess.ChessMatch;
+import exception.JournalException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Armazena partidas em disco, com um diário de movimentos e um snapshot por partida.
+ * <p>
+ * Cada partida usa dois arquivos no diretório do armazenamento: {@code <id>.journal}, com um registro
+ * por movimento aceito, e {@code <id>.snapshot}, com a posição mais recente capturada. Os snapshots são
+ * capturados no próprio movimento a cada {@code snapshotInterval} registros, mas gravados em disco por uma
+ * thread separada, que antes força o diário para o disco: o movimento não espera o disco, e um snapshot gravado
+ * nunca cobre registros que uma queda do sistema tenha tirado do diário (se cobrir, a recuperação o descarta).
+ * <p>
+ * As falhas do diário e dos snapshots não desfazem movimentos já aplicados: a primeira delas é lançada por
+ * {@link #close()}.
+ */
+public class MatchStore implements Closeable {
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private final Path directory;
+    private final int snapshotInterval;
+    private final ExecutorService snapshotWriter;
+    private final Map<String, MoveJournal> journals = new ConcurrentHashMap<>();
+    private final AtomicReference<IOException> snapshotFailure = new AtomicReference<>();
+
+    /**
+     * Cria um armazenamento de partidas no diretório especificado.
+     *
+     * @param directory        O diretório onde ficam os arquivos das partidas.
+     * @param snapshotInterval O intervalo, em movimentos, entre snapshots de cada partida.
+     * @throws IOException Se o diretório não puder ser criado.
+     */
+    public MatchStore(Path directory, int snapshotInterval) throws IOException {
+        if (snapshotInterval < 1)
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+
+        this.directory = Files.createDirectories(directory);
+        this.snapshotInterval = snapshotInterval;
+        this.snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "snapshot-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Cria uma nova partida cujos movimentos aceitos são gravados no diário.
+     *
+     * @param matchId O identificador da partida, usado no nome dos arquivos.
+     * @return A nova partida, já com o diário associado.
+     * @throws IOException Se o diário não puder ser criado.
+     * @throws JournalException Se já existir uma partida com o mesmo identificador.
+     */
+    public ChessMatch create(String matchId) throws IOException {
+        if (Files.exists(journalFile(matchId)))
+            throw new JournalException("Match already exists: " + matchId);
+
+        ChessMatch match = new ChessMatch();
+        attach(matchId, match, MoveJournal.open(journalFile(matchId)));
+        return match;
+    }
+
+    /**
+     * Recupera todas as partidas do diretório, reaplicando os diários em paralelo.
+     * <p>
+     * Cada partida parte do seu snapshot, se houver, e reaplica apenas os registros posteriores a ele,
+     * sem passar pela validação de movimentos. As partidas recuperadas continuam gravando no mesmo diário.
+     *
+     * @return As partidas recuperadas, indexadas pelo identificador.
+     * @throws IOException Se algum diário ou snapshot não puder ser lido.
+     */
+    public Map<String, ChessMatch> recoverAll() throws IOException {
+        List<String> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + JOURNAL_SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                ids.add(name.substring(0, name.length() - JOURNAL_SUFFIX.length()));
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        Map<String, Future<ChessMatch>> futures = new TreeMap<>();
+        try {
+            for (String id : ids) {
+                futures.put(id, pool.submit(() -> recover(id)));
+            }
+
+            Map<String, ChessMatch> matches = new TreeMap<>();
+            for (Map.Entry<String, Future<ChessMatch>> entry : futures.entrySet()) {
+                matches.put(entry.getKey(), entry.getValue().get());
+            }
+            return matches;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IOException failure = new IOException("Recovery interrupted", e);
+            closeRecovered(futures, failure);
+            throw failure;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                closeRecovered(futures, io);
+                throw io;
+            }
+            JournalException failure = new JournalException("Error recovering matches: " + e.getCause().getMessage(),
+                    e.getCause());
+            closeRecovered(futures, failure);
+            throw failure;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Depois de uma falha na recuperação, espera as outras partidas e fecha os diários das que foram recuperadas,
+     * que não serão devolvidas. As partidas não são canceladas: uma tarefa cancelada já em andamento ainda
+     * deixaria o seu diário aberto.
+     *
+     * @param failure A falha que interrompeu a recuperação, que recebe as falhas ao fechar os diários.
+     */
+    private void closeRecovered(Map<String, Future<ChessMatch>> futures, Exception failure) {
+        boolean interrupted = false;
+        for (Map.Entry<String, Future<ChessMatch>> entry : futures.entrySet()) {
+            while (true) {
+                try {
+                    entry.getValue().get();
+                    MoveJournal journal = journals.remove(entry.getKey());
+                    if (journal != null)
+                        journal.close();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    continue;
+                } catch (ExecutionException e) {
+                    // A partida não foi recuperada e não deixou diário aberto
+                } catch (IOException e) {
+                    failure.addSuppressed(e);
+                }
+                break;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Recupera uma partida a partir do seu snapshot e do seu diário.
+     */
+    private ChessMatch recover(String matchId) throws IOException {
+        MoveJournal journal = MoveJournal.open(journalFile(matchId));
+        try {
+            ChessMatch match;
+            long fromRecord = 0;
+            Path snapshotFile = snapshotFile(matchId);
+
+            MatchSnapshot snapshot = Files.exists(snapshotFile) ? MatchSnapshot.read(snapshotFile) : null;
+            if (snapshot != null && snapshot.getRecords() <= journal.getRecords()) {
+                match = snapshot.restore();
+                fromRecord = snapshot.getRecords();
+            } else {
+                // Um snapshot à frente do diário é de registros que não chegaram ao disco: a partida é
+                // reconstruída só pelo diário, e o snapshot é substituído no próximo intervalo
+                match = new ChessMatch();
+            }
+
+            journal.replayInto(match, fromRecord);
+            attach(matchId, match, journal);
+            return match;
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Associa o diário à partida e agenda os snapshots periódicos.
+     */
+    private void attach(String matchId, ChessMatch match, MoveJournal journal) {
+        Path snapshotFile = snapshotFile(matchId);
+        journal.setSnapshotHandler((m, records) -> {
+            if (records % snapshotInterval == 0) {
+                MatchSnapshot snapshot = MatchSnapshot.capture(m, records);
+                snapshotWriter.execute(() -> {
+                    try {
+                        journal.sync();
+                        snapshot.write(snapshotFile);
+                    } catch (IOException e) {
+                        // Sem o snapshot a próxima recuperação apenas reaplica mais registros; a falha é lançada
+                        // por close
+                        if (!snapshotFailure.compareAndSet(null, e))
+                            snapshotFailure.get().addSuppressed(e);
+                    }
+                });
+            }
+        });
+        match.setMoveListener(journal);
+        journals.put(matchId, journal);
+    }
+
+    private Path journalFile(String matchId) {
+        return directory.resolve(matchId + JOURNAL_SUFFIX);
+    }
+
+    private Path snapshotFile(String matchId) {
+        return directory.resolve(matchId + SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * Aguarda a gravação dos snapshots pendentes e fecha todos os diários.
+     *
+     * @throws IOException Se algum diário não puder ser gravado ou fechado, ou se algum snapshot não pôde ser
+     *                     gravado.
+     */
+    @Override
+    public void close() throws IOException {
+        snapshotWriter.shutdown();
+        try {
+            snapshotWriter.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        IOException failure = snapshotFailure.getAndSet(null);
+        for (MoveJournal journal : journals.values()) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                if (failure == null)
+                    failure = e;
+                else
+                    failure.addSuppressed(e);
+            }
+        }
+        journals.clear();
+        if (failure != null)
+            throw failure;
+    }
+}
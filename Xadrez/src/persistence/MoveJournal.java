@@ -0,0 +1,256 @@
+package persistence;
+
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diário de movimentos de uma partida, gravado como registros binários de tamanho fixo
+ * em um arquivo mapeado em memória.
+ * <p>
+ * Cada movimento aceito pela partida vira um registro de {@value #RECORD_SIZE} bytes:
+ * número do lance, casa de origem, casa de destino, flags e um byte de confirmação gravado por último.
+ * Um registro só é considerado válido se o byte de confirmação estiver presente e o número do lance
+ * for o esperado, de modo que um registro pela metade, deixado por uma queda do processo, marca o fim do diário.
+ * <p>
+ * A gravação não faz chamadas de sistema: os bytes vão direto para a página mapeada e o sistema operacional
+ * os leva ao disco. O arquivo cresce em blocos de {@value #CHUNK_SIZE} bytes; as janelas trocadas só são forçadas
+ * para o disco em {@link #sync()}, que pode ser chamado por outra thread, fora do movimento.
+ * <p>
+ * O diário é avisado depois que a partida já aplicou o movimento, então uma falha ao gravar não desfaz o
+ * movimento: o diário para de gravar, e a falha é lançada pelo próximo {@link #sync()} ou {@link #close()}.
+ */
+public class MoveJournal implements MoveListener, Closeable {
+
+    public static final int RECORD_SIZE = 8;
+    public static final int HEADER_SIZE = 16;
+
+    private static final int MAGIC = 0x584A4E4C; // "XJNL"
+    private static final int VERSION = 1;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final byte FLAG_CAPTURE = 1;
+    private static final byte FLAG_CHECK = 2;
+    private static final byte FLAG_CHECKMATE = 4;
+    private static final byte COMMITTED = (byte) 0xA5;
+
+    private final FileChannel channel;
+    private volatile MappedByteBuffer window;
+    private long windowBase;
+    private long records;
+    private SnapshotHandler snapshotHandler;
+    private volatile IOException failure;
+
+    // Janelas já trocadas cujas páginas ainda não foram forçadas para o disco, protegidas pela própria lista
+    private final List<MappedByteBuffer> retired = new ArrayList<>();
+
+    /**
+     * Recebe a partida e a quantidade de registros gravados depois de cada movimento.
+     */
+    @FunctionalInterface
+    public interface SnapshotHandler {
+        void snapshot(ChessMatch match, long records);
+    }
+
+    private MoveJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Abre (ou cria) o diário no arquivo especificado, posicionando a gravação após o último registro válido.
+     *
+     * @param file O arquivo do diário.
+     * @return O diário aberto.
+     * @throws IOException Se o arquivo não puder ser aberto ou não for um diário de movimentos.
+     */
+    public static MoveJournal open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MoveJournal journal = new MoveJournal(channel);
+        try {
+            journal.mapWindow(0);
+            journal.readHeader();
+            journal.records = journal.scanRecords();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    /**
+     * Obtém a quantidade de registros válidos no diário.
+     *
+     * @return O número de movimentos gravados.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Define quem recebe a partida depois de cada movimento gravado, para decidir quando gravar snapshots.
+     *
+     * @param snapshotHandler O destino dos snapshots, ou null para desativá-los.
+     */
+    void setSnapshotHandler(SnapshotHandler snapshotHandler) {
+        this.snapshotHandler = snapshotHandler;
+    }
+
+    /**
+     * Grava o movimento que a partida acabou de aplicar. Se o diário já falhou, o movimento não é gravado: um
+     * registro depois da lacuna teria o número de outro lance.
+     */
+    @Override
+    public void onMoveAccepted(ChessMatch match, ChessPosition source, ChessPosition target, ChessPiece capturedPiece) {
+        if (failure != null)
+            return;
+
+        byte flags = 0;
+        if (capturedPiece != null) flags |= FLAG_CAPTURE;
+        if (match.getCheck()) flags |= FLAG_CHECK;
+        if (match.getCheckMate()) flags |= FLAG_CHECKMATE;
+
+        try {
+            append(source.toSquare(), target.toSquare(), flags);
+        } catch (IOException e) {
+            failure = e;
+            return;
+        }
+
+        if (snapshotHandler != null)
+            snapshotHandler.snapshot(match, records);
+    }
+
+    /**
+     * Grava um registro no fim do diário.
+     *
+     * @param source A casa de origem (0 a 63).
+     * @param target A casa de destino (0 a 63).
+     * @param flags  As flags de captura, xeque e xeque-mate.
+     * @throws IOException Se o arquivo não puder crescer.
+     */
+    private void append(int source, int target, byte flags) throws IOException {
+        long offset = HEADER_SIZE + records * RECORD_SIZE;
+        if (offset + RECORD_SIZE > windowBase + window.capacity())
+            mapWindow(offset);
+
+        int index = (int) (offset - windowBase);
+        window.putInt(index, (int) records);
+        window.put(index + 4, (byte) source);
+        window.put(index + 5, (byte) target);
+        window.put(index + 6, flags);
+        // O byte de confirmação é gravado por último: sem ele o registro é descartado na leitura
+        window.put(index + 7, COMMITTED);
+        records++;
+    }
+
+    /**
+     * Reaplica na partida os registros a partir do registro informado, sem validá-los novamente.
+     *
+     * @param match      A partida na qual os movimentos serão reaplicados.
+     * @param fromRecord O primeiro registro a ser reaplicado.
+     * @throws IOException Se o diário não puder ser lido.
+     */
+    public void replayInto(ChessMatch match, long fromRecord) throws IOException {
+        for (long i = fromRecord; i < records; i++) {
+            long offset = HEADER_SIZE + i * RECORD_SIZE;
+            if (offset + RECORD_SIZE > windowBase + window.capacity() || offset < windowBase)
+                mapWindow(offset);
+
+            int index = (int) (offset - windowBase);
+            byte flags = window.get(index + 6);
+            match.replayMove(
+                    ChessPosition.fromSquare(window.get(index + 4)),
+                    ChessPosition.fromSquare(window.get(index + 5)),
+                    (flags & FLAG_CHECK) != 0,
+                    (flags & FLAG_CHECKMATE) != 0);
+        }
+    }
+
+    /**
+     * Força a gravação das páginas alteradas no disco: as das janelas trocadas desde a última chamada e as da
+     * janela atual. No retorno, todos os registros gravados antes da chamada estão no disco.
+     *
+     * @throws IOException Se uma gravação anterior no diário falhou.
+     */
+    public void sync() throws IOException {
+        MappedByteBuffer[] pending;
+        synchronized (retired) {
+            pending = retired.toArray(new MappedByteBuffer[0]);
+            retired.clear();
+        }
+        for (MappedByteBuffer buffer : pending)
+            buffer.force();
+        window.force();
+        if (failure != null)
+            throw new IOException("Error writing move journal: " + failure.getMessage(), failure);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Mapeia uma janela do arquivo que começa no bloco que contém o deslocamento informado. A janela anterior
+     * fica para o próximo {@link #sync()}, para que a troca não espere o disco.
+     */
+    private void mapWindow(long offset) throws IOException {
+        if (window != null) {
+            synchronized (retired) {
+                retired.add(window);
+            }
+        }
+        long base = offset - offset % CHUNK_SIZE;
+        window = channel.map(FileChannel.MapMode.READ_WRITE, base, CHUNK_SIZE);
+        windowBase = base;
+    }
+
+    /**
+     * Valida o cabeçalho do arquivo, gravando um novo cabeçalho se o arquivo acabou de ser criado.
+     */
+    private void readHeader() throws IOException {
+        int magic = window.getInt(0);
+        if (magic == 0) {
+            window.putInt(0, MAGIC);
+            window.putInt(4, VERSION);
+            return;
+        }
+        if (magic != MAGIC || window.getInt(4) != VERSION)
+            throw new IOException("Not a move journal file");
+    }
+
+    /**
+     * Percorre os registros a partir do início e devolve a quantidade de registros válidos.
+     */
+    private long scanRecords() throws IOException {
+        long count = 0;
+        while (true) {
+            long offset = HEADER_SIZE + count * RECORD_SIZE;
+            if (offset + RECORD_SIZE > windowBase + window.capacity()) {
+                if (offset + RECORD_SIZE > channel.size())
+                    return count;
+                mapWindow(offset);
+            }
+
+            int index = (int) (offset - windowBase);
+            if (window.get(index + 7) != COMMITTED || window.getInt(index) != count)
+                return count;
+            count++;
+        }
+    }
+}
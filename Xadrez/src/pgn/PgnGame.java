@@ -0,0 +1,12 @@
+package pgn;
+
+/**
+ * Texto de uma partida lida de um arquivo PGN, ainda não interpretado.
+ *
+ * @param number O número da partida no arquivo, a partir de 1.
+ * @param offset A posição, em bytes, do início da partida no arquivo.
+ * @param text   As tags e os lances da partida, ou null se a partida foi descartada na leitura.
+ * @param error  O motivo do descarte, ou null se a partida foi lida normalmente.
+ */
+public record PgnGame(long number, long offset, String text, String error) {
+}
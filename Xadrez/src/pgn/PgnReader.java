@@ -0,0 +1,164 @@
+package pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Leitor de arquivos PGN em fluxo, que devolve uma partida por vez.
+ * <p>
+ * O arquivo é lido de um {@link FileChannel} por um buffer de tamanho fixo e a memória usada é limitada
+ * pelo tamanho do buffer e pelo tamanho máximo de uma partida: partidas maiores que o limite são descartadas
+ * sem interromper a leitura. As partidas são separadas pelo início de uma nova seção de tags ou pelo
+ * resultado no fim dos lances.
+ */
+public class PgnReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final int maxGameLength;
+
+    private final StringBuilder line = new StringBuilder(256);
+    private final StringBuilder game = new StringBuilder(4096);
+    private long position;
+    private long lineOffset;
+    private long gameOffset = -1;
+    private long gameNumber;
+    private boolean inMovetext;
+    private boolean oversized;
+    private boolean eof;
+    private PgnGame pending;
+
+    /**
+     * Abre o arquivo PGN especificado.
+     *
+     * @param file          O arquivo PGN.
+     * @param maxGameLength O tamanho máximo, em caracteres, de uma partida.
+     * @throws IOException Se o arquivo não puder ser aberto.
+     */
+    public PgnReader(Path file, int maxGameLength) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.maxGameLength = maxGameLength;
+        buffer.flip();
+    }
+
+    /**
+     * Lê a próxima partida do arquivo.
+     *
+     * @return A próxima partida, ou null se o arquivo terminou.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    public PgnGame next() throws IOException {
+        while (pending == null) {
+            if (!readLine()) {
+                // Fim do arquivo: a última partida pode não ter resultado
+                if (game.length() > 0 || oversized)
+                    finishGame();
+                break;
+            }
+            processLine();
+        }
+
+        PgnGame result = pending;
+        pending = null;
+        return result;
+    }
+
+    /**
+     * Lê a próxima linha do arquivo, sem o terminador, para {@link #line}.
+     *
+     * @return false se o arquivo terminou sem nenhum caractere lido.
+     */
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        lineOffset = position;
+
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (eof)
+                    return line.length() > 0;
+
+                buffer.clear();
+                if (channel.read(buffer) < 0)
+                    eof = true;
+                buffer.flip();
+                continue;
+            }
+
+            byte b = buffer.get();
+            position++;
+            if (b == '\n')
+                return true;
+            // Linhas muito longas só crescem até o limite da partida; o excesso já torna a partida inválida
+            if (b != '\r' && line.length() <= maxGameLength)
+                line.append((char) (b & 0xFF));
+        }
+    }
+
+    private void processLine() {
+        int start = 0;
+        int end = line.length();
+        while (start < end && Character.isWhitespace(line.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(line.charAt(end - 1))) end--;
+        if (start == end || line.charAt(start) == '%')
+            return;
+
+        if (line.charAt(start) == '[' && inMovetext)
+            finishGame();
+
+        if (gameOffset < 0)
+            gameOffset = lineOffset;
+
+        if (line.charAt(start) != '[') {
+            inMovetext = true;
+            // Comentários de fim de linha não atravessam a junção das linhas
+            int semicolon = line.indexOf(";", start);
+            if (semicolon >= 0 && semicolon < end && line.lastIndexOf("{", semicolon) < 0)
+                end = semicolon;
+        }
+
+        if (game.length() + (end - start) + 1 > maxGameLength) {
+            oversized = true;
+            game.setLength(0);
+        } else if (!oversized) {
+            game.append(line, start, end).append('\n');
+        }
+
+        if (inMovetext && endsWithResult(start, end))
+            finishGame();
+    }
+
+    private boolean endsWithResult(int start, int end) {
+        for (String result : RESULTS) {
+            int from = end - result.length();
+            if (from >= start && line.indexOf(result, from) == from
+                    && (from == start || Character.isWhitespace(line.charAt(from - 1)) || line.charAt(from - 1) == '}'))
+                return true;
+        }
+        return false;
+    }
+
+    private void finishGame() {
+        gameNumber++;
+        if (oversized)
+            pending = new PgnGame(gameNumber, gameOffset, null, "Game exceeds " + maxGameLength + " characters");
+        else
+            pending = new PgnGame(gameNumber, gameOffset, game.toString(), null);
+
+        game.setLength(0);
+        gameOffset = -1;
+        inMovetext = false;
+        oversized = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,384 @@
+package pgn;
+
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.Move;
+import codec.Fen;
+import exception.ChessException;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Pipeline de importação que lê partidas de um arquivo PGN e as reproduz pelas regras de {@link ChessMatch}.
+ * <p>
+ * Uma thread lê o arquivo com {@link PgnReader} e distribui as partidas por uma fila limitada para um conjunto
+ * de threads de trabalho. Cada thread reproduz os lances em SAN em uma partida própria e entrega o resultado ao
+ * consumidor informado. Partidas inválidas geram um resultado com erro e não interrompem o processamento;
+ * como a fila é limitada, a memória usada não depende do tamanho do arquivo. Já uma falha do observador de
+ * posições ou do consumidor dos resultados interrompe a importação, porque o que eles estavam construindo ficou
+ * incompleto.
+ */
+public class PgnReplay {
+
+    private static final PgnGame END = new PgnGame(-1, -1, null, null);
+
+    /**
+     * Resultado da reprodução de uma partida.
+     *
+     * @param number O número da partida no arquivo.
+     * @param offset A posição, em bytes, do início da partida no arquivo.
+     * @param plies  A quantidade de meio-lances reproduzidos.
+     * @param error  A mensagem de erro, ou null se todos os lances foram reproduzidos.
+     */
+    public record GameResult(long number, long offset, int plies, String error) {
+        public boolean isValid() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Resumo de uma execução do pipeline.
+     *
+     * @param games        A quantidade de partidas lidas.
+     * @param valid        A quantidade de partidas reproduzidas sem erro.
+     * @param plies        O total de meio-lances reproduzidos.
+     * @param elapsedNanos O tempo total da execução, em nanossegundos.
+     * @param threads      A quantidade de threads de trabalho.
+     */
+    public record Summary(long games, long valid, long plies, long elapsedNanos, int threads) {
+
+        public double gamesPerSecond() {
+            return games * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        /**
+         * A vazão total dividida pelas threads de trabalho. É uma média: não mede cada thread, e fica abaixo da
+         * vazão de uma thread sozinha quando a leitura do arquivo ou os núcleos disponíveis limitam o conjunto.
+         *
+         * @return A média de partidas por segundo por thread.
+         */
+        public double averageGamesPerSecondPerThread() {
+            return gamesPerSecond() / threads;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d games (%d valid, %d with errors), %d plies in %.2f s: %.0f games/s, "
+                            + "%.0f games/s per thread on average (%d threads)",
+                    games, valid, games - valid, plies, elapsedNanos / 1e9, gamesPerSecond(),
+                    averageGamesPerSecondPerThread(), threads);
+        }
+    }
+
+    /**
+     * Observador chamado a cada posição reproduzida, usado para extrair dados das partidas durante a importação.
+     * <p>
+     * Uma exceção lançada pelo observador não vira um erro da partida: a leitura para, as threads descartam as
+     * partidas restantes e {@link #run(Path, PositionVisitor, Consumer)} relança a primeira exceção.
+     */
+    @FunctionalInterface
+    public interface PositionVisitor {
+
+        /**
+         * Chamado depois de cada lance aceito, com a posição anterior ao lance, e, ao fim de uma partida válida,
+         * uma última vez para a posição final.
+         *
+         * @param game         A partida sendo reproduzida.
+         * @param positionHash O hash da posição antes do lance, dado por {@link ChessMatch#getPositionHash()}.
+         * @param ply          O número do meio-lance, a partir de 0.
+         * @param nextMove     O lance jogado na posição, no formato de {@link Move}, ou -1 na posição final.
+         */
+        void visit(PgnGame game, long positionHash, int ply, int nextMove);
+    }
+
+    private final int threads;
+    private final int maxGameLength;
+
+    /**
+     * Cria um pipeline de importação.
+     *
+     * @param threads       A quantidade de threads de trabalho.
+     * @param maxGameLength O tamanho máximo, em caracteres, de uma partida; partidas maiores são descartadas.
+     */
+    public PgnReplay(int threads, int maxGameLength) {
+        if (threads < 1)
+            throw new IllegalArgumentException("There must be at least 1 worker thread");
+
+        this.threads = threads;
+        this.maxGameLength = maxGameLength;
+    }
+
+    /**
+     * Reproduz todas as partidas do arquivo.
+     *
+     * @param file     O arquivo PGN.
+     * @param consumer O destino dos resultados; é chamado pelas threads de trabalho e precisa ser thread-safe.
+     * @return O resumo da execução.
+     * @throws IOException Se o arquivo não puder ser lido.
+     * @throws RuntimeException A primeira exceção lançada pelo consumidor, se houver.
+     */
+    public Summary run(Path file, Consumer<GameResult> consumer) throws IOException {
+        return run(file, null, consumer);
+    }
+
+    /**
+     * Reproduz todas as partidas do arquivo, informando cada posição ao observador.
+     *
+     * @param file     O arquivo PGN.
+     * @param visitor  O observador das posições, ou null; é chamado pelas threads de trabalho e precisa ser thread-safe.
+     * @param consumer O destino dos resultados; é chamado pelas threads de trabalho e precisa ser thread-safe.
+     * @return O resumo da execução.
+     * @throws IOException Se o arquivo não puder ser lido.
+     * @throws RuntimeException A primeira exceção lançada pelo observador ou pelo consumidor, se houver; a
+     *                          importação para na primeira delas.
+     */
+    public Summary run(Path file, PositionVisitor visitor, Consumer<GameResult> consumer) throws IOException {
+        BlockingQueue<PgnGame> queue = new ArrayBlockingQueue<>(threads * 64);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        LongAdder games = new LongAdder();
+        LongAdder valid = new LongAdder();
+        LongAdder plies = new LongAdder();
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                int[] legal = new int[Move.MAX_MOVES];
+                try {
+                    for (PgnGame game = queue.take(); game != END; game = queue.take()) {
+                        // Depois de uma falha do observador ou do consumidor, a fila só é esvaziada, para que a
+                        // leitura não trave
+                        if (failure.get() != null)
+                            continue;
+
+                        GameResult result;
+                        try {
+                            result = replay(game, legal, visitor);
+                        } catch (VisitorFailure e) {
+                            failure.compareAndSet(null, (RuntimeException) e.getCause());
+                            continue;
+                        }
+                        games.increment();
+                        plies.add(result.plies());
+                        if (result.isValid())
+                            valid.increment();
+                        try {
+                            consumer.accept(result);
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "pgn-worker-" + i);
+            workers[i].start();
+        }
+
+        long start = System.nanoTime();
+        try (PgnReader reader = new PgnReader(file, maxGameLength)) {
+            for (PgnGame game = reader.next(); game != null && failure.get() == null; game = reader.next()) {
+                queue.put(game);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("PGN replay interrupted", e);
+        } finally {
+            // As threads esvaziam a fila, então o put só espera enquanto ainda houver partidas pendentes
+            try {
+                for (int i = 0; i < threads; i++) {
+                    queue.put(END);
+                }
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+            } catch (InterruptedException e) {
+                for (Thread worker : workers) {
+                    worker.interrupt();
+                }
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (failure.get() != null)
+            throw failure.get();
+        return new Summary(games.sum(), valid.sum(), plies.sum(), System.nanoTime() - start, threads);
+    }
+
+    /**
+     * Leva uma exceção do observador através do tratamento de erros de {@link #replay}, que transformaria
+     * qualquer outra exceção em um erro da partida.
+     */
+    private static final class VisitorFailure extends RuntimeException {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        VisitorFailure(RuntimeException failure) {
+            super(failure);
+        }
+    }
+
+    private static void visit(PositionVisitor visitor, PgnGame game, long hash, int ply, int move) {
+        try {
+            visitor.visit(game, hash, ply, move);
+        } catch (RuntimeException e) {
+            throw new VisitorFailure(e);
+        }
+    }
+
+    /**
+     * Reproduz uma partida, interrompendo no primeiro lance inválido.
+     */
+    private static GameResult replay(PgnGame game, int[] legal, PositionVisitor visitor) {
+        if (game.text() == null)
+            return new GameResult(game.number(), game.offset(), 0, game.error());
+
+        int plies = 0;
+        String token = null;
+        try {
+            ChessMatch match = startingPosition(game.text());
+            MovetextTokenizer tokens = new MovetextTokenizer(game.text());
+
+            while ((token = tokens.next()) != null) {
+                if (match.getCheckMate())
+                    throw new ChessException("Move after checkmate");
+
+                int move = San.parse(match, token, legal);
+                long hash = match.getPositionHash();
+                match.performChessMove(ChessPosition.fromSquare(Move.source(move)), ChessPosition.fromSquare(Move.target(move)));
+                if (visitor != null)
+                    visit(visitor, game, hash, plies, move);
+                plies++;
+            }
+            if (visitor != null)
+                visit(visitor, game, match.getPositionHash(), plies, -1);
+            return new GameResult(game.number(), game.offset(), plies, null);
+        } catch (VisitorFailure e) {
+            throw e;
+        } catch (RuntimeException e) {
+            String where = token == null ? "" : " at ply " + (plies + 1) + " (" + token + ")";
+            return new GameResult(game.number(), game.offset(), plies, e.getMessage() + where);
+        }
+    }
+
+    /**
+     * Obtém a posição inicial da partida: a da tag FEN, se houver, ou a posição inicial padrão.
+     */
+    private static ChessMatch startingPosition(String text) {
+        ChessMatch match;
+        int tag = text.indexOf("[FEN \"");
+        if (tag < 0) {
+            match = new ChessMatch();
+        } else {
+            int start = tag + 6;
+            int end = text.indexOf('"', start);
+            if (end < 0)
+                throw new ChessException("Invalid FEN tag");
+            match = Fen.parse(text.substring(start, end));
+        }
+        // Os jogadores podem ter continuado depois de uma repetição ou dos 50 lances sem reclamar o empate
+        match.setDrawEndsMatch(false);
+        return match;
+    }
+
+    /**
+     * Separa os lances em SAN do texto da partida, ignorando tags, comentários, variantes,
+     * números de lance, anotações numéricas e o resultado.
+     */
+    private static class MovetextTokenizer {
+
+        private final String text;
+        private int index;
+
+        MovetextTokenizer(String text) {
+            this.text = text;
+        }
+
+        String next() {
+            int length = text.length();
+            while (index < length) {
+                char c = text.charAt(index);
+                if (Character.isWhitespace(c)) {
+                    index++;
+                } else if (c == '[') {
+                    index = skipTag();
+                } else if (c == '{') {
+                    index = skipUntil('}');
+                } else if (c == ';') {
+                    index = skipUntil('\n');
+                } else if (c == '(') {
+                    index = skipVariation();
+                } else {
+                    int start = index;
+                    while (index < length && !Character.isWhitespace(text.charAt(index))
+                            && "{(;".indexOf(text.charAt(index)) < 0) {
+                        index++;
+                    }
+                    String token = text.substring(start, index);
+                    if (isMoveToken(token))
+                        return stripMoveNumber(token);
+                }
+            }
+            return null;
+        }
+
+        private int skipTag() {
+            boolean quoted = false;
+            for (int i = index + 1; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') quoted = !quoted;
+                else if (c == ']' && !quoted) return i + 1;
+            }
+            return text.length();
+        }
+
+        private int skipUntil(char terminator) {
+            int end = text.indexOf(terminator, index + 1);
+            return end < 0 ? text.length() : end + 1;
+        }
+
+        private int skipVariation() {
+            int depth = 0;
+            for (int i = index; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '{') {
+                    int end = text.indexOf('}', i);
+                    if (end < 0) return text.length();
+                    i = end;
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    return i + 1;
+                }
+            }
+            return text.length();
+        }
+
+        private static boolean isMoveToken(String token) {
+            if (token.startsWith("$"))
+                return false;
+            if (token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*"))
+                return false;
+            return !stripMoveNumber(token).isEmpty();
+        }
+
+        /**
+         * Remove o número do lance colado ao movimento, como em "12.e4" ou "12...Nf6".
+         */
+        private static String stripMoveNumber(String token) {
+            int i = 0;
+            while (i < token.length() && Character.isDigit(token.charAt(i))) i++;
+            if (i == 0 || i == token.length() || token.charAt(i) != '.')
+                return i == token.length() ? "" : token;
+            while (i < token.length() && token.charAt(i) == '.') i++;
+            return token.substring(i);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package pgn;
+
+import boardgame.Position;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Move;
+import exception.ChessException;
+
+/**
+ * Interpretação de movimentos na notação algébrica padrão (SAN), como "e4", "Nbd7" ou "exd5+".
+ * <p>
+ * O movimento é resolvido contra a lista de movimentos legais da partida, de modo que só são aceitos
+ * movimentos permitidos pelas regras de {@link ChessMatch}. Roques e promoções não fazem parte dessas
+ * regras e são rejeitados com uma mensagem própria.
+ */
+public final class San {
+
+    private San() {
+    }
+
+    /**
+     * Converte um movimento em SAN para o formato de {@link Move}.
+     *
+     * @param match A partida na posição em que o movimento é jogado.
+     * @param san   O movimento em SAN.
+     * @param legal Um vetor de trabalho com pelo menos {@link Move#MAX_MOVES} posições.
+     * @return O movimento correspondente.
+     * @throws ChessException Se o movimento for inválido, ambíguo ou não for legal na posição.
+     */
+    public static int parse(ChessMatch match, String san, int[] legal) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end < 2)
+            throw new ChessException("Invalid SAN move: " + san);
+
+        if (san.startsWith("O-O") || san.startsWith("0-0"))
+            throw new ChessException("Castling is not supported: " + san);
+        if (san.indexOf('=') >= 0)
+            throw new ChessException("Promotion is not supported: " + san);
+
+        int begin = 0;
+        char pieceSymbol = 'P';
+        char first = san.charAt(0);
+        if ("KQRBN".indexOf(first) >= 0) {
+            pieceSymbol = first;
+            begin = 1;
+        }
+
+        int target = square(san, end - 2);
+        if (target < 0)
+            throw new ChessException("Invalid SAN target square: " + san);
+
+        // O que sobra entre a peça e o destino é a desambiguação (coluna, linha ou casa) e o 'x' da captura
+        int fromFile = -1;
+        int fromRank = -1;
+        boolean capture = false;
+        for (int i = begin; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') fromFile = c - 'a';
+            else if (c >= '1' && c <= '8') fromRank = c - '1';
+            else if (c == 'x') capture = true;
+            else throw new ChessException("Invalid SAN move: " + san);
+        }
+
+        // O 'x' tem de corresponder ao destino: sem en passant, é ele que separa o avanço do Peão ("e5") da captura
+        // ("dxe5") para a mesma casa, e uma SAN malformada não pode virar outro lance
+        if (capture != (match.pieceAt(target) != null))
+            throw new ChessException((capture ? "SAN capture onto an empty square: " : "SAN capture without 'x': ") + san);
+
+        // Normalmente só uma peça alcança o destino: o movimento é devolvido sem gerar a lista de movimentos legais,
+        // e a própria partida rejeita o movimento se ele deixar o Rei em xeque
+        Position destination = new Position(target >> 3, target & 7);
+        int candidate = -1;
+        int candidates = 0;
+        for (int source = 0; source < 64; source++) {
+            if (matches(match, source, pieceSymbol, fromFile, fromRank)
+                    && match.pieceAt(source).possibleMove(destination)) {
+                candidate = Move.of(source, target);
+                candidates++;
+            }
+        }
+
+        if (candidates == 0)
+            throw new ChessException("Illegal SAN move: " + san);
+        if (candidates == 1)
+            return candidate;
+
+        // Mais de uma peça alcança o destino: a SAN omite a desambiguação quando só uma delas é legal
+        int n = match.legalMoves(legal);
+        int found = -1;
+        for (int i = 0; i < n; i++) {
+            int move = legal[i];
+            if (Move.target(move) == target && matches(match, Move.source(move), pieceSymbol, fromFile, fromRank)) {
+                if (found >= 0)
+                    throw new ChessException("Ambiguous SAN move: " + san);
+                found = move;
+            }
+        }
+
+        if (found < 0)
+            throw new ChessException("Illegal SAN move: " + san);
+        return found;
+    }
+
+    /**
+     * Verifica se a casa de origem tem uma peça do jogador da vez compatível com o símbolo e a desambiguação.
+     */
+    private static boolean matches(ChessMatch match, int source, char pieceSymbol, int fromFile, int fromRank) {
+        if (fromFile >= 0 && (source & 7) != fromFile)
+            return false;
+        if (fromRank >= 0 && 7 - (source >> 3) != fromRank)
+            return false;
+
+        ChessPiece piece = match.pieceAt(source);
+        return piece != null && piece.getColor() == match.getCurrentPlayer() && piece.toString().charAt(0) == pieceSymbol;
+    }
+
+    /**
+     * Lê uma casa na notação algébrica ("a1" a "h8") a partir do índice informado.
+     *
+     * @return O índice da casa, ou -1 se o texto não for uma casa válida.
+     */
+    private static int square(String s, int index) {
+        if (index < 0 || index + 1 >= s.length())
+            return -1;
+
+        char file = s.charAt(index);
+        char rank = s.charAt(index + 1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8')
+            return -1;
+
+        return (8 - (rank - '0')) * 8 + (file - 'a');
+    }
+}
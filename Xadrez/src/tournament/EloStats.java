@@ -0,0 +1,89 @@
+package tournament;
+
+/**
+ * Placar de um torneio do ponto de vista do primeiro motor, com a diferença de Elo estimada.
+ *
+ * @param wins   As vitórias do primeiro motor.
+ * @param draws  Os empates.
+ * @param losses As derrotas do primeiro motor.
+ */
+public record EloStats(long wins, long draws, long losses) {
+
+    // Quantil da normal para um intervalo de confiança de 95%
+    private static final double Z_95 = 1.959964;
+
+    public long games() {
+        return wins + draws + losses;
+    }
+
+    /**
+     * Obtém a pontuação média por partida, entre 0 e 1, contando o empate como meio ponto.
+     */
+    public double score() {
+        long games = games();
+        return games == 0 ? 0.5 : (wins + draws / 2.0) / games;
+    }
+
+    /**
+     * Obtém a variância da pontuação de uma partida, estimada pela frequência de vitórias, empates e derrotas.
+     */
+    public double variance() {
+        long games = games();
+        if (games == 0)
+            return 0;
+        double w = (double) wins / games;
+        double d = (double) draws / games;
+        double s = score();
+        return w + d / 4 - s * s;
+    }
+
+    /**
+     * Obtém a diferença de Elo correspondente à pontuação.
+     *
+     * @return A diferença de Elo do primeiro motor para o segundo; infinita se um deles não pontuou.
+     */
+    public double elo() {
+        return toElo(score());
+    }
+
+    /**
+     * Obtém a metade do intervalo de confiança de 95% da diferença de Elo.
+     *
+     * @return A margem de erro em pontos de Elo, ou infinito com menos de duas partidas.
+     */
+    public double eloError() {
+        long games = games();
+        if (games < 2)
+            return Double.POSITIVE_INFINITY;
+        double margin = Z_95 * Math.sqrt(variance() / games);
+        double s = score();
+        return (toElo(Math.min(1, s + margin)) - toElo(Math.max(0, s - margin))) / 2;
+    }
+
+    public EloStats add(EloStats other) {
+        return new EloStats(wins + other.wins, draws + other.draws, losses + other.losses);
+    }
+
+    /**
+     * Converte uma pontuação esperada em diferença de Elo pela curva logística.
+     */
+    static double toElo(double score) {
+        if (score <= 0)
+            return Double.NEGATIVE_INFINITY;
+        if (score >= 1)
+            return Double.POSITIVE_INFINITY;
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Converte uma diferença de Elo em pontuação esperada pela curva logística.
+     */
+    static double toScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("+%d =%d -%d  %.1f%%  Elo %+.1f +/- %.1f", wins, draws, losses, score() * 100, elo(), eloError());
+    }
+}
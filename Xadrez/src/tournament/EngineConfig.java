@@ -0,0 +1,91 @@
+package tournament;
+
+import engine.Evaluator;
+import engine.MaterialEvaluator;
+import engine.NnueEvaluator;
+import engine.NnueNetwork;
+import engine.Search;
+import engine.SearchLimits;
+import engine.TranspositionTable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Configuração de um dos motores de um torneio.
+ *
+ * @param name        O nome do motor nos resultados.
+ * @param limits      Os limites de cada busca.
+ * @param hashMb      O tamanho da tabela de transposição em megabytes.
+ * @param tableWeight O peso das tabelas de peça por casa na avaliação, em porcentagem.
+ * @param network     A rede da avaliação NNUE, ou null para avaliar por material e tabelas.
+ */
+public record EngineConfig(String name, SearchLimits limits, int hashMb, int tableWeight, NnueNetwork network) {
+
+    /**
+     * Lê uma configuração no formato {@code nome:chave=valor,chave=valor}, com as chaves {@code depth}, {@code nodes},
+     * {@code movetime} (milissegundos), {@code hash} (megabytes), {@code pst} (peso das tabelas em porcentagem)
+     * e {@code nnue} (arquivo de pesos da rede). Sem limites, cada busca vai até a profundidade 3.
+     *
+     * @param spec A configuração, por exemplo {@code base:nodes=2000,hash=4}.
+     * @return A configuração lida.
+     * @throws IllegalArgumentException Se a configuração tiver uma chave desconhecida ou um valor inválido.
+     * @throws UncheckedIOException     Se o arquivo da rede não puder ser lido.
+     */
+    public static EngineConfig parse(String spec) {
+        int colon = spec.indexOf(':');
+        String name = colon < 0 ? spec : spec.substring(0, colon);
+        int depth = 0;
+        long nodes = 0;
+        long moveTime = 0;
+        int hash = 4;
+        int weight = 100;
+        NnueNetwork network = null;
+
+        if (colon >= 0 && colon + 1 < spec.length()) {
+            for (String option : spec.substring(colon + 1).split(",")) {
+                String[] pair = option.split("=", 2);
+                if (pair.length != 2)
+                    throw new IllegalArgumentException("Invalid engine option: " + option);
+                switch (pair[0]) {
+                    case "depth" -> depth = Integer.parseInt(pair[1]);
+                    case "nodes" -> nodes = Long.parseLong(pair[1]);
+                    case "movetime" -> moveTime = Long.parseLong(pair[1]);
+                    case "hash" -> hash = Integer.parseInt(pair[1]);
+                    case "pst" -> weight = Integer.parseInt(pair[1]);
+                    case "nnue" -> network = loadNetwork(pair[1]);
+                    default -> throw new IllegalArgumentException("Unknown engine option: " + pair[0]);
+                }
+            }
+        }
+        if (depth == 0 && nodes == 0 && moveTime == 0)
+            depth = 3;
+
+        SearchLimits limits = new SearchLimits(depth, nodes, moveTime, 0, 0, 0, 0, 0, false, false);
+        return new EngineConfig(name, limits, hash, weight, network);
+    }
+
+    private static NnueNetwork loadNetwork(String file) {
+        try {
+            return NnueNetwork.load(Path.of(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Cria uma busca com esta configuração, a ser usada por uma única thread.
+     *
+     * @return Uma busca nova, com tabela de transposição própria.
+     */
+    public Search createSearch() {
+        Evaluator evaluator = network != null ? new NnueEvaluator(network) : new MaterialEvaluator(tableWeight);
+        return new Search(evaluator, new TranspositionTable(hashMb));
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
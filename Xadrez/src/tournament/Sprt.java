@@ -0,0 +1,61 @@
+package tournament;
+
+/**
+ * Teste sequencial da razão de probabilidades (SPRT) entre duas hipóteses sobre a diferença de Elo.
+ * <p>
+ * Usa a aproximação normal do SPRT generalizado para resultados de vitória, empate e derrota: o logaritmo da razão
+ * de probabilidades (LLR) entre H1 (diferença {@code elo1}) e H0 (diferença {@code elo0}) é calculado a partir da
+ * pontuação e da variância observadas. O teste aceita uma das hipóteses quando o LLR cruza os limites dados pelos
+ * erros {@code alpha} e {@code beta}, em geral bem antes de um número fixo de partidas dar a mesma confiança.
+ *
+ * @param elo0  A diferença de Elo da hipótese nula.
+ * @param elo1  A diferença de Elo da hipótese alternativa, maior que {@code elo0}.
+ * @param alpha A probabilidade de aceitar H1 quando H0 é verdadeira.
+ * @param beta  A probabilidade de aceitar H0 quando H1 é verdadeira.
+ */
+public record Sprt(double elo0, double elo1, double alpha, double beta) {
+
+    public enum Decision {
+        CONTINUE, ACCEPT_H0, ACCEPT_H1
+    }
+
+    public Sprt {
+        if (elo1 <= elo0)
+            throw new IllegalArgumentException("elo1 must be greater than elo0");
+        if (alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1)
+            throw new IllegalArgumentException("alpha and beta must be between 0 and 1");
+    }
+
+    public double lowerBound() {
+        return Math.log(beta / (1 - alpha));
+    }
+
+    public double upperBound() {
+        return Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * Calcula o logaritmo da razão de probabilidades do placar.
+     *
+     * @param stats O placar do primeiro motor.
+     * @return O LLR; 0 enquanto não houver variância para estimar.
+     */
+    public double llr(EloStats stats) {
+        double variance = stats.variance();
+        if (variance <= 0)
+            return 0;
+
+        double s0 = EloStats.toScore(elo0);
+        double s1 = EloStats.toScore(elo1);
+        return stats.games() * (s1 - s0) * (2 * stats.score() - s0 - s1) / (2 * variance);
+    }
+
+    public Decision decide(EloStats stats) {
+        double llr = llr(stats);
+        if (llr >= upperBound())
+            return Decision.ACCEPT_H1;
+        if (llr <= lowerBound())
+            return Decision.ACCEPT_H0;
+        return Decision.CONTINUE;
+    }
+}
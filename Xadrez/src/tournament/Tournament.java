@@ -0,0 +1,308 @@
+package tournament;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.DrawReason;
+import chess.Move;
+import codec.Fen;
+import engine.Search;
+import engine.SearchInfo;
+import engine.SearchLimits;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Torneio entre dois motores, jogado sem interface por várias threads ao mesmo tempo.
+ * <p>
+ * As partidas são jogadas em pares: as duas partidas de um par começam da mesma abertura sorteada, com as cores
+ * trocadas, o que cancela boa parte da vantagem de uma abertura desequilibrada. Cada thread de trabalho pega o
+ * próximo número de partida de um contador compartilhado e joga com buscas próprias, de modo que as threads não
+ * compartilham estado durante a partida. Os resultados são gravados no arquivo assim que cada partida termina.
+ * <p>
+ * Com um {@link Sprt}, o torneio para assim que o teste decide; as partidas já em andamento são concluídas
+ * e também gravadas. Partidas longas são encerradas por desistência, quando as avaliações do perdedor ficam abaixo
+ * de {@code -resignScore} por {@code resignMoves} lances seguidos, ou como empate ao atingir {@code maxPlies}
+ * ou por uma das regras de {@link ChessMatch#detectDraw()}.
+ */
+public class Tournament {
+
+    public static final String CSV_HEADER = "game,white,black,result,reason,plies,millis,opening";
+
+    /**
+     * Parâmetros do torneio.
+     *
+     * @param games        A quantidade máxima de partidas; arredondada para cima até um número par.
+     * @param threads      A quantidade de threads de trabalho.
+     * @param openings     As posições iniciais em FEN, usadas em rodízio; vazia para usar a posição inicial.
+     * @param openingPlies A quantidade de meio-lances sorteados a partir da posição inicial de cada par.
+     * @param seed         A semente do sorteio das aberturas.
+     * @param maxPlies     A quantidade de meio-lances a partir da qual a partida é declarada empate.
+     * @param resignScore  A avaliação, em centésimos de Peão, abaixo da qual um motor é considerado perdido.
+     * @param resignMoves  A quantidade de lances seguidos abaixo de {@code -resignScore} para a desistência,
+     *                     ou 0 para nunca desistir.
+     * @param sprt         O teste de parada antecipada, ou null para jogar todas as partidas.
+     */
+    public record Settings(int games, int threads, List<String> openings, int openingPlies, long seed, int maxPlies,
+                           int resignScore, int resignMoves, Sprt sprt) {
+    }
+
+    /**
+     * Resultado de uma partida.
+     *
+     * @param number  O número da partida.
+     * @param white   O nome do motor das brancas.
+     * @param black   O nome do motor das pretas.
+     * @param result  O resultado em notação PGN: {@code 1-0}, {@code 0-1} ou {@code 1/2-1/2}.
+     * @param reason  O motivo do fim da partida.
+     * @param plies   A quantidade de meio-lances jogados depois da abertura.
+     * @param millis  A duração da partida em milissegundos.
+     * @param opening A posição inicial da partida em FEN.
+     */
+    public record GameResult(int number, String white, String black, String result, String reason, int plies,
+                             long millis, String opening) {
+
+        public String toCsv() {
+            return number + "," + white + "," + black + "," + result + "," + reason + "," + plies + "," + millis + "," + opening;
+        }
+    }
+
+    /**
+     * Situação do torneio.
+     *
+     * @param stats        O placar do primeiro motor.
+     * @param llr          O logaritmo da razão de probabilidades do SPRT, ou 0 sem SPRT.
+     * @param decision     A decisão do SPRT.
+     * @param elapsedNanos O tempo desde o início do torneio.
+     */
+    public record Summary(EloStats stats, double llr, Sprt.Decision decision, long elapsedNanos) {
+
+        public double gamesPerMinute() {
+            return stats.games() * 60e9 / Math.max(1, elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d games: %s  LLR %.2f  %s  (%.0f games/min)",
+                    stats.games(), stats, llr, decision, gamesPerMinute());
+        }
+    }
+
+    private final EngineConfig first;
+    private final EngineConfig second;
+    private final Settings settings;
+
+    // Placar do primeiro motor, protegido pelo lock do torneio
+    private long wins;
+    private long draws;
+    private long losses;
+    // Com o SPRT decidido, as threads param de pegar partidas novas
+    private boolean stopped;
+
+    public Tournament(EngineConfig first, EngineConfig second, Settings settings) {
+        if (settings.threads() < 1)
+            throw new IllegalArgumentException("threads must be at least 1");
+        this.first = first;
+        this.second = second;
+        this.settings = settings;
+    }
+
+    /**
+     * Joga o torneio.
+     *
+     * @param output   O arquivo CSV onde os resultados são gravados, um por partida.
+     * @param progress Recebe a situação do torneio depois de cada partida, na thread que a jogou.
+     * @return A situação ao final do torneio.
+     * @throws IOException Se o arquivo não puder ser gravado.
+     */
+    public Summary run(Path output, Consumer<Summary> progress) throws IOException {
+        long start = System.nanoTime();
+        int games = (settings.games() + 1) & ~1;
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        synchronized (this) {
+            wins = draws = losses = 0;
+            stopped = false;
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+
+            Thread[] workers = new Thread[settings.threads()];
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = new Thread(() -> {
+                    Search firstSearch = first.createSearch();
+                    Search secondSearch = second.createSearch();
+                    try {
+                        for (int number = next.getAndIncrement(); number < games; number = next.getAndIncrement()) {
+                            synchronized (this) {
+                                if (stopped || failure.get() != null)
+                                    break;
+                            }
+
+                            GameResult result = play(number, firstSearch, secondSearch);
+                            Summary summary;
+                            synchronized (this) {
+                                writer.write(result.toCsv());
+                                writer.newLine();
+                                writer.flush();
+                                record(result);
+                                summary = summarize(start);
+                                if (summary.decision() != Sprt.Decision.CONTINUE)
+                                    stopped = true;
+                            }
+                            if (progress != null)
+                                progress.accept(summary);
+                        }
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, new UncheckedIOException(e));
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }, "tournament-" + i);
+                workers[i].start();
+            }
+
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the games", e);
+                }
+            }
+        }
+
+        RuntimeException error = failure.get();
+        if (error instanceof UncheckedIOException e)
+            throw e.getCause();
+        if (error != null)
+            throw error;
+
+        synchronized (this) {
+            return summarize(start);
+        }
+    }
+
+    /**
+     * Joga uma partida. As partidas de números pares têm o primeiro motor com as brancas.
+     */
+    private GameResult play(int number, Search firstSearch, Search secondSearch) {
+        long start = System.nanoTime();
+        boolean firstIsWhite = (number & 1) == 0;
+        String white = firstIsWhite ? first.name() : second.name();
+        String black = firstIsWhite ? second.name() : first.name();
+        String opening = opening(number / 2);
+        ChessMatch match = Fen.parse(opening);
+        firstSearch.getTable().clear();
+        secondSearch.getTable().clear();
+
+        int[] losingMoves = new int[2];
+        String result = "1/2-1/2";
+        String reason = "max plies";
+
+        int ply = 0;
+        while (ply < settings.maxPlies()) {
+            Color side = match.getCurrentPlayer();
+            boolean firstToMove = (side == Color.WHITE) == firstIsWhite;
+            Search search = firstToMove ? firstSearch : secondSearch;
+            SearchLimits limits = firstToMove ? first.limits() : second.limits();
+
+            SearchInfo info = search.search(match, limits, null);
+            if (info.pv().length == 0) {
+                if (info.score() < 0) {
+                    result = loss(side);
+                    reason = "checkmate";
+                } else {
+                    reason = "stalemate";
+                }
+                break;
+            }
+
+            int index = side.ordinal();
+            losingMoves[index] = info.score() <= -settings.resignScore() ? losingMoves[index] + 1 : 0;
+            if (settings.resignMoves() > 0 && losingMoves[index] >= settings.resignMoves()) {
+                result = loss(side);
+                reason = "resign";
+                break;
+            }
+
+            match.makeMove(info.pv()[0]);
+            ply++;
+            DrawReason draw = match.detectDraw();
+            if (draw != null) {
+                reason = switch (draw) {
+                    case FIFTY_MOVES -> "fifty moves";
+                    case THREEFOLD_REPETITION -> "repetition";
+                    case INSUFFICIENT_MATERIAL -> "insufficient material";
+                };
+                break;
+            }
+        }
+
+        return new GameResult(number, white, black, result, reason, ply, (System.nanoTime() - start) / 1_000_000, opening);
+    }
+
+    private static String loss(Color side) {
+        return side == Color.WHITE ? "0-1" : "1-0";
+    }
+
+    /**
+     * Monta a abertura de um par de partidas: a posição da lista de aberturas seguida de meio-lances sorteados.
+     * O sorteio depende só da semente e do par, de modo que o torneio pode ser repetido.
+     */
+    private String opening(int pair) {
+        List<String> openings = settings.openings();
+        String base = openings.isEmpty() ? Fen.START_POSITION : openings.get(pair % openings.size());
+        SplittableRandom random = new SplittableRandom(settings.seed() * 0x9E3779B97F4A7C15L + pair);
+        int[] moves = new int[Move.MAX_MOVES];
+
+        // Um sorteio que termina sem lances legais é refeito
+        for (int attempt = 0; attempt < 100; attempt++) {
+            ChessMatch match = Fen.parse(base);
+            boolean playable = true;
+            for (int i = 0; i < settings.openingPlies() && playable; i++) {
+                int count = match.legalMoves(moves);
+                playable = count > 0;
+                if (playable)
+                    match.makeMove(moves[random.nextInt(count)]);
+            }
+            if (playable && match.legalMoves(moves) > 0)
+                return Fen.format(match);
+        }
+        return base;
+    }
+
+    private void record(GameResult result) {
+        boolean firstIsWhite = (result.number() & 1) == 0;
+        switch (result.result()) {
+            case "1-0" -> {
+                if (firstIsWhite) wins++;
+                else losses++;
+            }
+            case "0-1" -> {
+                if (firstIsWhite) losses++;
+                else wins++;
+            }
+            default -> draws++;
+        }
+    }
+
+    private Summary summarize(long start) {
+        EloStats stats = new EloStats(wins, draws, losses);
+        Sprt sprt = settings.sprt();
+        double llr = sprt == null ? 0 : sprt.llr(stats);
+        Sprt.Decision decision = sprt == null ? Sprt.Decision.CONTINUE : sprt.decide(stats);
+        return new Summary(stats, llr, decision, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,310 @@
+package uci;
+
+import chess.ChessMatch;
+import chess.ChessPosition;
+import chess.Move;
+import codec.Fen;
+import engine.MaterialEvaluator;
+import engine.Search;
+import engine.SearchInfo;
+import engine.SearchLimits;
+import engine.TranspositionTable;
+import exception.ChessException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+/**
+ * Adaptador do protocolo UCI (Universal Chess Interface) sobre a entrada e a saída padrão.
+ * <p>
+ * Os comandos são lidos e tratados por uma thread dedicada, e a busca roda em outra. Assim um {@code stop}
+ * ou {@code ponderhit} é tratado assim que chega, mesmo durante a busca, que verifica o pedido a cada nó.
+ * A busca envia uma linha {@code info} ao fim de cada profundidade e, ao terminar, o {@code bestmove};
+ * em buscas {@code infinite} ou {@code ponder}, o {@code bestmove} só é enviado depois do {@code stop}
+ * ou do {@code ponderhit}, como pede o protocolo.
+ * <p>
+ * As regras de {@link ChessMatch} não têm roque, en passant nem promoção; lances assim são rejeitados
+ * no comando {@code position}.
+ */
+public class UciProtocol {
+
+    private static final int DEFAULT_HASH_MB = 16;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+
+    private final TranspositionTable table = new TranspositionTable(DEFAULT_HASH_MB);
+    private final Search search = new Search(new MaterialEvaluator(), table);
+    private ChessMatch position = Fen.parse(Fen.START_POSITION);
+
+    // Estado da busca em andamento, protegido por lock
+    private final Object lock = new Object();
+    private Thread searchThread;
+    private boolean infinite;
+    private boolean pondering;
+
+    public UciProtocol(InputStream in, PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.out = out;
+    }
+
+    /**
+     * Trata os comandos até receber {@code quit} ou até a entrada terminar.
+     *
+     * @throws InterruptedException Se a thread for interrompida enquanto espera a thread de entrada.
+     */
+    public void run() throws InterruptedException {
+        Thread input = new Thread(this::readCommands, "uci-input");
+        input.start();
+        input.join();
+    }
+
+    private void readCommands() {
+        try {
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                if (!handle(line.trim()))
+                    break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            finishSearch();
+        }
+    }
+
+    /**
+     * Trata um comando.
+     *
+     * @param line A linha recebida.
+     * @return false se o comando foi {@code quit}.
+     */
+    boolean handle(String line) {
+        String[] tokens = line.split("\\s+");
+        try {
+            switch (tokens[0]) {
+                case "uci" -> {
+                    send("id name Xadrez");
+                    send("id author viniciusdsandrade");
+                    send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max 1024");
+                    send("option name Ponder type check default false");
+                    send("uciok");
+                }
+                case "isready" -> send("readyok");
+                case "ucinewgame" -> {
+                    finishSearch();
+                    table.clear();
+                    position = Fen.parse(Fen.START_POSITION);
+                }
+                case "setoption" -> setOption(tokens);
+                case "position" -> {
+                    finishSearch();
+                    position = parsePosition(tokens);
+                }
+                case "go" -> go(tokens);
+                case "stop" -> stopSearch();
+                case "ponderhit" -> {
+                    synchronized (lock) {
+                        pondering = false;
+                        lock.notifyAll();
+                    }
+                    search.ponderHit();
+                }
+                case "quit" -> {
+                    return false;
+                }
+                case "", "debug", "register" -> {
+                }
+                default -> send("info string Unknown command: " + line);
+            }
+        } catch (ChessException | IllegalArgumentException e) {
+            send("info string " + e.getMessage());
+        }
+        return true;
+    }
+
+    private void setOption(String[] tokens) {
+        // setoption name <nome> value <valor>
+        String name = null;
+        String value = null;
+        for (int i = 1; i < tokens.length - 1; i++) {
+            if (tokens[i].equals("name")) name = tokens[i + 1];
+            else if (tokens[i].equals("value")) value = tokens[i + 1];
+        }
+        if ("Hash".equalsIgnoreCase(name) && value != null) {
+            finishSearch();
+            table.resize(Integer.parseInt(value));
+        }
+    }
+
+    /**
+     * Monta a posição de {@code position [startpos | fen <fen>] [moves <lances>]}.
+     */
+    private static ChessMatch parsePosition(String[] tokens) {
+        int i = 1;
+        ChessMatch match;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            match = Fen.parse(Fen.START_POSITION);
+            i = 2;
+        } else if (tokens.length > 1 && tokens[1].equals("fen")) {
+            StringJoiner fen = new StringJoiner(" ");
+            for (i = 2; i < tokens.length && !tokens[i].equals("moves"); i++) {
+                fen.add(tokens[i]);
+            }
+            match = Fen.parse(fen.toString());
+        } else {
+            throw new ChessException("Invalid position command");
+        }
+        // A interface decide quando a partida termina: os lances depois de um empate não reclamado são aceitos
+        match.setDrawEndsMatch(false);
+
+        if (i < tokens.length && tokens[i].equals("moves")) {
+            int[] legal = new int[Move.MAX_MOVES];
+            for (i++; i < tokens.length; i++) {
+                int move = Move.parse(tokens[i]);
+                int count = match.legalMoves(legal);
+                boolean found = false;
+                for (int j = 0; j < count && !found; j++) {
+                    found = legal[j] == move;
+                }
+                if (!found)
+                    throw new ChessException("Illegal move in position command: " + tokens[i]);
+                match.performChessMove(ChessPosition.fromSquare(Move.source(move)), ChessPosition.fromSquare(Move.target(move)));
+            }
+        }
+        return match;
+    }
+
+    private void go(String[] tokens) {
+        SearchLimits limits = parseLimits(tokens);
+        finishSearch();
+
+        ChessMatch match = position;
+        synchronized (lock) {
+            infinite = limits.infinite();
+            pondering = limits.ponder();
+            // Preparada aqui, e não na thread da busca, para que um stop logo em seguida não se perca
+            search.prepare(limits, match.getCurrentPlayer());
+            searchThread = new Thread(() -> runSearch(match, limits), "uci-search");
+            searchThread.start();
+        }
+    }
+
+    private void runSearch(ChessMatch match, SearchLimits limits) {
+        SearchInfo result;
+        try {
+            result = search.search(match, limits, this::sendInfo);
+        } catch (RuntimeException e) {
+            // A interface espera um bestmove para toda busca, mesmo com erro
+            send("info string Search failed: " + e);
+            result = new SearchInfo(0, 0, 0, 0, new int[0]);
+        }
+
+        synchronized (lock) {
+            // Em buscas infinitas ou no tempo do adversário, o bestmove espera o stop ou o ponderhit
+            while (infinite || pondering) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        int[] pv = result.pv();
+        if (pv.length == 0)
+            send("bestmove 0000");
+        else if (pv.length == 1)
+            send("bestmove " + Move.toString(pv[0]));
+        else
+            send("bestmove " + Move.toString(pv[0]) + " ponder " + Move.toString(pv[1]));
+    }
+
+    private void sendInfo(SearchInfo info) {
+        StringBuilder sb = new StringBuilder("info depth ").append(info.depth());
+        if (info.isMate())
+            sb.append(" score mate ").append(info.mateIn());
+        else
+            sb.append(" score cp ").append(info.score());
+        sb.append(" nodes ").append(info.nodes())
+                .append(" nps ").append(info.nodesPerSecond())
+                .append(" time ").append(info.elapsedNanos() / 1_000_000)
+                .append(" pv");
+        for (int move : info.pv()) {
+            sb.append(' ').append(Move.toString(move));
+        }
+        send(sb.toString());
+    }
+
+    private static SearchLimits parseLimits(String[] tokens) {
+        int depth = 0;
+        int movesToGo = 0;
+        long nodes = 0, moveTime = 0, whiteTime = 0, blackTime = 0, whiteInc = 0, blackInc = 0;
+        boolean infinite = false;
+        boolean ponder = false;
+
+        for (int i = 1; i < tokens.length; i++) {
+            String value = i + 1 < tokens.length ? tokens[i + 1] : "0";
+            switch (tokens[i]) {
+                case "depth" -> { depth = Integer.parseInt(value); i++; }
+                case "nodes" -> { nodes = Long.parseLong(value); i++; }
+                case "movetime" -> { moveTime = Long.parseLong(value); i++; }
+                case "wtime" -> { whiteTime = Long.parseLong(value); i++; }
+                case "btime" -> { blackTime = Long.parseLong(value); i++; }
+                case "winc" -> { whiteInc = Long.parseLong(value); i++; }
+                case "binc" -> { blackInc = Long.parseLong(value); i++; }
+                case "movestogo" -> { movesToGo = Integer.parseInt(value); i++; }
+                case "infinite" -> infinite = true;
+                case "ponder" -> ponder = true;
+                default -> { }
+            }
+        }
+        return new SearchLimits(depth, nodes, moveTime, whiteTime, blackTime, whiteInc, blackInc, movesToGo, infinite, ponder);
+    }
+
+    private void stopSearch() {
+        synchronized (lock) {
+            infinite = false;
+            pondering = false;
+            lock.notifyAll();
+        }
+        search.stop();
+    }
+
+    /**
+     * Encerra a busca em andamento, se houver, e espera o envio do bestmove. O protocolo pede que a interface
+     * envie {@code stop} antes de mudar a posição; parar aqui evita esperar para sempre por uma busca infinita.
+     */
+    private void finishSearch() {
+        stopSearch();
+        waitForSearch();
+    }
+
+    private void waitForSearch() {
+        Thread thread;
+        synchronized (lock) {
+            thread = searchThread;
+        }
+        if (thread == null)
+            return;
+
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(String line) {
+        synchronized (out) {
+            out.println(line);
+            out.flush();
+        }
+    }
+}